@@ -22,6 +22,16 @@ import java.util.List;
 
 import infra.http.HttpMethod;
 import infra.lang.Nullable;
+import infra.web.annotation.DELETE;
+import infra.web.annotation.DeleteMapping;
+import infra.web.annotation.GET;
+import infra.web.annotation.GetMapping;
+import infra.web.annotation.PATCH;
+import infra.web.annotation.POST;
+import infra.web.annotation.PUT;
+import infra.web.annotation.PatchMapping;
+import infra.web.annotation.PostMapping;
+import infra.web.annotation.PutMapping;
 
 /**
  * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
@@ -35,6 +45,8 @@ import infra.lang.Nullable;
  */
 public class MappingAnnotation {
 
+  public static final String REQUEST_MAPPING = "infra.web.annotation.RequestMapping";
+
   public final String annotationName;
 
   public final List<String> pathAttr;
@@ -85,4 +97,28 @@ public class MappingAnnotation {
     return new MappingAnnotation(annotationName, pathAttr, producesAttr, consumesAttr, methodAttr, method, paramsAttr);
   }
 
+  /**
+   * Mapping annotations of today-web, {@code RequestMapping} first
+   */
+  public static List<MappingAnnotation> defaults() {
+    MappingAnnotation prototype = new MappingAnnotation(REQUEST_MAPPING, List.of("value", "path"),
+            "produces", "consumes", "method", null, "params");
+
+    return List.of(prototype,
+            prototype.withAnnotation(GET.class).withMethod(HttpMethod.GET),
+            prototype.withAnnotation(GetMapping.class).withMethod(HttpMethod.GET),
+
+            prototype.withAnnotation(POST.class).withMethod(HttpMethod.POST),
+            prototype.withAnnotation(PostMapping.class).withMethod(HttpMethod.POST),
+
+            prototype.withAnnotation(PUT.class).withMethod(HttpMethod.PUT),
+            prototype.withAnnotation(PutMapping.class).withMethod(HttpMethod.PUT),
+
+            prototype.withAnnotation(PATCH.class).withMethod(HttpMethod.PATCH),
+            prototype.withAnnotation(PatchMapping.class).withMethod(HttpMethod.PATCH),
+
+            prototype.withAnnotation(DELETE.class).withMethod(HttpMethod.DELETE),
+            prototype.withAnnotation(DeleteMapping.class).withMethod(HttpMethod.DELETE));
+  }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.artifact;
+
+import infra.lang.Nullable;
+
+/**
+ * A single byte range of a {@code Range} request header
+ *
+ * @param start first byte, inclusive
+ * @param end last byte, inclusive
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record ByteRange(long start, long end) {
+
+  /**
+   * A range that does not overlap the representation, answered with {@code 416}
+   */
+  public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+  private static final String BYTES_UNIT = "bytes=";
+
+  public boolean isSatisfiable() {
+    return start >= 0;
+  }
+
+  public long length() {
+    return end - start + 1;
+  }
+
+  /**
+   * {@code Content-Range} of a partial response
+   */
+  public String contentRange(long totalLength) {
+    return isSatisfiable()
+            ? "bytes " + start + "-" + end + "/" + totalLength
+            : "bytes */" + totalLength;
+  }
+
+  /**
+   * Parse a {@code Range} header against a representation length.
+   * <p>
+   * Only a single range is served as a partial response, a header that
+   * is malformed or has several ranges is ignored and the full
+   * representation is sent, as the specification allows.
+   *
+   * @return the range, {@link #UNSATISFIABLE} or {@code null} to send the full representation
+   */
+  @Nullable
+  public static ByteRange parse(@Nullable String header, long length) {
+    if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+      return null;
+    }
+    String spec = header.substring(BYTES_UNIT.length()).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0 || spec.indexOf(',') >= 0) {
+      return null;
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        // suffix range, the last n bytes
+        long suffix = Long.parseLong(last);
+        if (suffix < 0) {
+          return null;
+        }
+        if (suffix == 0 || length == 0) {
+          return UNSATISFIABLE;
+        }
+        return new ByteRange(Math.max(0, length - suffix), length - 1);
+      }
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+      if (start < 0 || end < start) {
+        return null;
+      }
+      if (start >= length) {
+        return UNSATISFIABLE;
+      }
+      return new ByteRange(start, Math.min(end, length - 1));
+    }
+    catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.artifact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.Set;
+
+import infra.http.HttpHeaders;
+import infra.http.HttpMethod;
+import infra.lang.Assert;
+import infra.lang.Nullable;
+import infra.util.StringUtils;
+import infra.web.HttpRequestHandler;
+import infra.web.RequestContext;
+
+/**
+ * Serves a document written by {@link SpecArtifacts} as it was built:
+ * the gzip variant to clients accepting it, a strong ETag derived from
+ * the content hash, {@code 304} for a matching {@code If-None-Match}
+ * and single byte ranges.
+ * <p>
+ * The body is read from a {@link FileChannel} into a heap buffer and
+ * written to the response output stream, the request context has no
+ * file transfer, so the body is copied once through the heap. Artifacts
+ * inside a jar are extracted to a temporary file on first request.
+ * Nothing is resolved before that.
+ * <pre>{@code
+ * SpecArtifactHandler handler = new SpecArtifactHandler("openapi.json");
+ * }</pre>
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SpecArtifactHandler implements HttpRequestHandler {
+
+  private static final String CACHE_CONTROL = "no-cache";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final String name;
+
+  private final ClassLoader classLoader;
+
+  @Nullable
+  private volatile Artifact artifact;
+
+  /**
+   * @param name document name in the index, such as {@code openapi.json}
+   */
+  public SpecArtifactHandler(String name) {
+    this(name, SpecArtifactHandler.class.getClassLoader());
+  }
+
+  public SpecArtifactHandler(String name, ClassLoader classLoader) {
+    Assert.hasText(name, "Document name is required");
+    Assert.notNull(classLoader, "ClassLoader is required");
+    this.name = name;
+    this.classLoader = classLoader;
+  }
+
+  @Override
+  public Object handleRequest(RequestContext request) throws Throwable {
+    HttpMethod method = request.getMethod();
+    if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+      request.setStatus(405);
+      request.responseHeaders().setAllow(Set.of(HttpMethod.GET, HttpMethod.HEAD));
+      return NONE_RETURN_VALUE;
+    }
+
+    Artifact artifact = getArtifact();
+    HttpHeaders requestHeaders = request.requestHeaders();
+    Variant variant = acceptsGzip(requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING))
+            ? artifact.gzip() : artifact.identity();
+
+    HttpHeaders headers = request.responseHeaders();
+    headers.set(HttpHeaders.ETAG, variant.etag());
+    headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    headers.set(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (matches(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), variant.etag())) {
+      request.setStatus(304);
+      return NONE_RETURN_VALUE;
+    }
+    headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+    if (variant == artifact.gzip()) {
+      headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    long length = variant.length();
+    ByteRange range = null;
+    String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+    if (ifRange == null || ifRange.trim().equals(variant.etag())) {
+      range = ByteRange.parse(requestHeaders.getFirst(HttpHeaders.RANGE), length);
+    }
+    if (range == null) {
+      range = new ByteRange(0, length - 1);
+      request.setStatus(200);
+    }
+    else if (range.isSatisfiable()) {
+      request.setStatus(206);
+      headers.set(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+    }
+    else {
+      request.setStatus(416);
+      headers.set(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+      return NONE_RETURN_VALUE;
+    }
+    headers.setContentLength(Math.max(0, range.length()));
+
+    if (method == HttpMethod.GET && range.length() > 0) {
+      transfer(variant.file(), range, request.getOutputStream());
+    }
+    return NONE_RETURN_VALUE;
+  }
+
+  private static void transfer(Path file, ByteRange range, OutputStream target) throws IOException {
+    try (FileChannel channel = FileChannel.open(file)) {
+      long position = range.start();
+      long end = range.end() + 1;
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, end - position));
+      while (position < end) {
+        buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+        int read = channel.read(buffer, position);
+        if (read < 0) {
+          throw new IOException("Unexpected end of " + file);
+        }
+        target.write(buffer.array(), 0, read);
+        position += read;
+      }
+    }
+  }
+
+  private Artifact getArtifact() throws IOException {
+    Artifact artifact = this.artifact;
+    if (artifact == null) {
+      synchronized(this) {
+        artifact = this.artifact;
+        if (artifact == null) {
+          artifact = resolveArtifact();
+          this.artifact = artifact;
+        }
+      }
+    }
+    return artifact;
+  }
+
+  private Artifact resolveArtifact() throws IOException {
+    Properties index = new Properties();
+    try (InputStream in = classLoader.getResourceAsStream(SpecArtifacts.INDEX)) {
+      Assert.state(in != null, () -> "Resource '" + SpecArtifacts.INDEX + "' not found");
+      index.load(in);
+    }
+    String hash = index.getProperty(name);
+    Assert.state(hash != null, () -> "Document '" + name + "' not found in " + SpecArtifacts.INDEX);
+
+    String resource = SpecArtifacts.LOCATION + SpecArtifacts.fileName(name, hash);
+    return new Artifact(variant(resource, '"' + hash + '"'),
+            variant(resource + SpecArtifacts.GZIP_SUFFIX, "\"" + hash + "-gzip\""));
+  }
+
+  private Variant variant(String resource, String etag) throws IOException {
+    Path file = toFile(resource);
+    return new Variant(file, etag, Files.size(file));
+  }
+
+  /**
+   * File of a resource, extracted if it is not on the file system
+   */
+  private Path toFile(String resource) throws IOException {
+    URL url = classLoader.getResource(resource);
+    Assert.state(url != null, () -> "Resource '" + resource + "' not found");
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return Path.of(url.toURI());
+      }
+      catch (URISyntaxException e) {
+        throw new IllegalStateException("Invalid resource URL: " + url, e);
+      }
+    }
+    Path file = Files.createTempFile("web-doc", "-" + StringUtils.getFilename(resource));
+    file.toFile().deleteOnExit();
+    try (InputStream in = url.openStream()) {
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return file;
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header accepts gzip, an explicit
+   * {@code gzip} takes precedence over {@code *}
+   */
+  static boolean acceptsGzip(@Nullable String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (String element : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+      int semicolon = element.indexOf(';');
+      String coding = (semicolon < 0 ? element : element.substring(0, semicolon)).trim();
+      boolean accepted = semicolon < 0 || !isZeroQuality(element.substring(semicolon + 1));
+      if (coding.equalsIgnoreCase("gzip")) {
+        return accepted;
+      }
+      if (coding.equals("*")) {
+        wildcard = accepted;
+      }
+    }
+    return wildcard;
+  }
+
+  private static boolean isZeroQuality(String parameters) {
+    for (String parameter : StringUtils.tokenizeToStringArray(parameters, ";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.startsWith("q=")) {
+        try {
+          return Double.parseDouble(trimmed.substring(2)) == 0;
+        }
+        catch (NumberFormatException e) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether an {@code If-None-Match} header matches the ETag, with the
+   * weak comparison the header requires
+   */
+  static boolean matches(@Nullable String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : StringUtils.tokenizeToStringArray(ifNoneMatch, ",")) {
+      if (candidate.equals("*") || candidate.equals(etag)
+              || (candidate.startsWith("W/") && candidate.substring(2).equals(etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private record Variant(Path file, String etag, long length) {
+
+  }
+
+  private record Artifact(Variant identity, Variant gzip) {
+
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.artifact;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import infra.lang.Assert;
+
+/**
+ * Writes documents as content-addressed classpath resources, each with a
+ * gzip variant, so they can be served without serializing or
+ * compressing them on request:
+ * <pre>
+ * META-INF/web-doc/index.properties
+ * META-INF/web-doc/openapi.1f3a9c0d2b7e4a65.json
+ * META-INF/web-doc/openapi.1f3a9c0d2b7e4a65.json.gz
+ * META-INF/web-doc/groups/orders.8c2d51e0f3b6a794.json
+ * META-INF/web-doc/groups/orders.8c2d51e0f3b6a794.json.gz
+ * </pre>
+ * The index maps a document name to the content hash of its file.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see SpecArtifactHandler
+ * @since 1.0
+ */
+public class SpecArtifacts {
+
+  /**
+   * Resource location of the artifacts
+   */
+  public static final String LOCATION = "META-INF/web-doc/";
+
+  private static final String INDEX_FILE = "index.properties";
+
+  /**
+   * Resource of the index, {@code <name>=<hash>}
+   */
+  public static final String INDEX = LOCATION + INDEX_FILE;
+
+  public static final String GZIP_SUFFIX = ".gz";
+
+  private static final int HASH_LENGTH = 16;
+
+  private final Path location;
+
+  private final TreeMap<String, String> index = new TreeMap<>();
+
+  /**
+   * @param resourceDir resource root, the artifacts are written to {@code resourceDir/META-INF/web-doc}
+   */
+  public SpecArtifacts(Path resourceDir) {
+    Assert.notNull(resourceDir, "resourceDir is required");
+    this.location = resourceDir.resolve(LOCATION);
+  }
+
+  /**
+   * Write a document and its gzip variant
+   *
+   * @param name document name, such as {@code openapi.json} or {@code groups/orders.json}
+   * @param document document file
+   * @return content hash
+   */
+  public String add(String name, Path document) throws IOException {
+    Assert.isTrue(!index.containsKey(name), () -> "Duplicate document '" + name + "'");
+    Path target = location.resolve(name);
+    Files.createDirectories(target.getParent());
+
+    Path temp = Files.createTempFile(target.getParent(), "web-doc", ".tmp");
+    MessageDigest digest = sha256();
+    try (InputStream in = Files.newInputStream(document);
+            OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+      in.transferTo(out);
+    }
+    String hash = HexFormat.of().formatHex(digest.digest()).substring(0, HASH_LENGTH);
+
+    Path file = location.resolve(fileName(name, hash));
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    // the gzip header has no timestamp, so the variant is reproducible
+    try (InputStream in = Files.newInputStream(file);
+            OutputStream out = new BestGzipOutputStream(Files.newOutputStream(file.resolveSibling(file.getFileName() + GZIP_SUFFIX)))) {
+      in.transferTo(out);
+    }
+    index.put(name, hash);
+    return hash;
+  }
+
+  public Map<String, String> getIndex() {
+    return index;
+  }
+
+  /**
+   * Write the index, sorted by name
+   */
+  public void writeIndex() throws IOException {
+    Files.createDirectories(location);
+    try (BufferedWriter writer = Files.newBufferedWriter(location.resolve(INDEX_FILE), StandardCharsets.ISO_8859_1)) {
+      writer.write("# web-doc artifacts, <name>=<content hash>");
+      writer.newLine();
+      for (Map.Entry<String, String> entry : index.entrySet()) {
+        writer.write(entry.getKey() + "=" + entry.getValue());
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Content-addressed file name, the hash goes before the extension
+   */
+  public static String fileName(String name, String hash) {
+    int slash = name.lastIndexOf('/');
+    int dot = name.lastIndexOf('.');
+    if (dot <= slash + 1) {
+      return name + "." + hash;
+    }
+    return name.substring(0, dot) + "." + hash + name.substring(dot);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Compressed once at build time, so the best compression is worth it
+   */
+  private static final class BestGzipOutputStream extends GZIPOutputStream {
+
+    BestGzipOutputStream(OutputStream out) throws IOException {
+      super(out, 8192);
+      def.setLevel(Deflater.BEST_COMPRESSION);
+    }
+  }
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.comment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import infra.lang.Nullable;
+
+/**
+ * Compact on-disk Javadoc comment index keyed by {@link MemberSignature}.
+ * <p>
+ * File layout:
+ * <pre>
+ * int     magic
+ * short   version
+ * int     count
+ * count * (UTF key, int offset, int length)   sorted by key
+ * data    UTF-8 comment bytes
+ * </pre>
+ * The key table is only read on the first query, and comment text is
+ * read from disk on demand, so an index of a large artifact costs
+ * nothing until one of its members appears in the spec. Indexes are
+ * written by the {@code CommentIndexBuilder} of the plugin.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class CommentIndex implements CommentSource, Closeable {
+
+  static final int MAGIC = 0x57444349;
+
+  static final short VERSION = 1;
+
+  private final Path file;
+
+  @Nullable
+  private FileChannel channel;
+
+  @Nullable
+  private String[] keys;
+
+  private int[] offsets;
+
+  private int[] lengths;
+
+  private long dataStart;
+
+  private CommentIndex(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Open an index file, the file will not be read until the first query
+   *
+   * @param file index file
+   * @return lazily loaded index
+   */
+  public static CommentIndex open(Path file) {
+    return new CommentIndex(file);
+  }
+
+  @Nullable
+  @Override
+  public synchronized String getComment(String signature) {
+    try {
+      String[] keys = keys();
+      int idx = Arrays.binarySearch(keys, signature);
+      if (idx < 0) {
+        return null;
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(lengths[idx]);
+      long position = dataStart + offsets[idx];
+      FileChannel channel = this.channel;
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of comment index: " + file);
+        }
+      }
+      return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Unable to read comment index " + file, e);
+    }
+  }
+
+  /**
+   * Returns the number of members in this index
+   */
+  public synchronized int size() {
+    try {
+      return keys().length;
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Unable to read comment index " + file, e);
+    }
+  }
+
+  private String[] keys() throws IOException {
+    String[] keys = this.keys;
+    if (keys == null) {
+      long position = 10;
+      int[] offsets;
+      int[] lengths;
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (input.readInt() != MAGIC || input.readShort() != VERSION) {
+          throw new IOException("Not a comment index: " + file);
+        }
+        int count = input.readInt();
+        keys = new String[count];
+        offsets = new int[count];
+        lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+          keys[i] = input.readUTF();
+          offsets[i] = input.readInt();
+          lengths[i] = input.readInt();
+          position += 2 + utfLength(keys[i]) + 8;
+        }
+      }
+      // comments are read on demand, the channel stays open until closed
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+      this.dataStart = position;
+      this.offsets = offsets;
+      this.lengths = lengths;
+      this.keys = keys;
+    }
+    return keys;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+      channel = null;
+      keys = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CommentIndex: " + file;
+  }
+
+  /**
+   * Write comments to an index file. The file is written to a temporary
+   * file first and then moved, so concurrent builds never observe a
+   * partially written index.
+   *
+   * @param comments comments keyed by member signature
+   * @param file target file
+   */
+  public static void write(Map<String, String> comments, Path file) throws IOException {
+    SortedMap<String, String> sorted = comments instanceof SortedMap<String, String> map
+            && map.comparator() == null ? map : new TreeMap<>(comments);
+
+    ByteArrayOutputStream data = new ByteArrayOutputStream(sorted.size() * 32);
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp);
+              DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out))) {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeInt(sorted.size());
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+          byte[] bytes = entry.getValue().getBytes(StandardCharsets.UTF_8);
+          output.writeUTF(entry.getKey());
+          output.writeInt(data.size());
+          output.writeInt(bytes.length);
+          data.write(bytes);
+        }
+        data.writeTo(output);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static int utfLength(String str) {
+    int length = 0;
+    for (int i = 0; i < str.length(); i++) {
+      char c = str.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        length++;
+      }
+      else if (c > 0x07FF) {
+        length += 3;
+      }
+      else {
+        length += 2;
+      }
+    }
+    return length;
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.comment;
+
+import java.util.List;
+
+import infra.lang.Nullable;
+
+/**
+ * Source of Javadoc comments keyed by member signature.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see MemberSignature
+ * @see CommentIndex
+ * @since 1.0
+ */
+public interface CommentSource {
+
+  /**
+   * Comment source which never returns a comment
+   */
+  CommentSource NONE = signature -> null;
+
+  /**
+   * Get the comment of the given member
+   *
+   * @param signature member signature
+   * @return comment text, or {@code null} if the member has no comment
+   */
+  @Nullable
+  String getComment(String signature);
+
+  /**
+   * Create a comment source that queries the given sources in order
+   *
+   * @param sources comment sources
+   * @return composite comment source
+   */
+  static CommentSource composite(List<? extends CommentSource> sources) {
+    if (sources.isEmpty()) {
+      return NONE;
+    }
+    if (sources.size() == 1) {
+      return sources.get(0);
+    }
+    List<CommentSource> copy = List.copyOf(sources);
+    return signature -> {
+      for (CommentSource source : copy) {
+        String comment = source.getComment(signature);
+        if (comment != null) {
+          return comment;
+        }
+      }
+      return null;
+    };
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.comment;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaExecutable;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaParameter;
+import com.thoughtworks.qdox.model.JavaType;
+import com.thoughtworks.qdox.model.JavaTypeVariable;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Member signatures used as {@link CommentIndex} keys.
+ * <p>
+ * Signatures only use erased, fully qualified type names, so a
+ * member parsed from sources and the same member loaded from bytecode
+ * produce the same key:
+ * <pre>
+ * com.example.User
+ * com.example.User.name
+ * com.example.UserHttpHandler#update(long,com.example.User)
+ * com.example.UserHttpHandler#update(long,com.example.User)[1]
+ * </pre>
+ * Parameters are keyed by index rather than name, because parameter
+ * names are usually not available in bytecode. Only the source model
+ * overloads need QDox on the classpath, an application only uses the
+ * ones of {@link Method}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public abstract class MemberSignature {
+
+  public static String of(JavaClass javaClass) {
+    return javaClass.getFullyQualifiedName();
+  }
+
+  public static String of(JavaField field) {
+    return field.getDeclaringClass().getFullyQualifiedName() + '.' + field.getName();
+  }
+
+  public static String of(JavaExecutable executable) {
+    StringBuilder signature = new StringBuilder(64)
+            .append(executable.getDeclaringClass().getFullyQualifiedName())
+            .append('#')
+            .append(executable.getName())
+            .append('(');
+
+    List<JavaParameter> parameters = executable.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        signature.append(',');
+      }
+      signature.append(erasure(parameters.get(i).getType()));
+    }
+    return signature.append(')').toString();
+  }
+
+  public static String ofParameter(JavaExecutable executable, int index) {
+    return of(executable) + '[' + index + ']';
+  }
+
+  /**
+   * Signature of a method loaded at runtime, same as the one of its source
+   */
+  public static String of(Method method) {
+    StringBuilder signature = new StringBuilder(64)
+            .append(qualifiedName(method.getDeclaringClass()))
+            .append('#')
+            .append(method.getName())
+            .append('(');
+
+    Class<?>[] parameterTypes = method.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      if (i > 0) {
+        signature.append(',');
+      }
+      signature.append(qualifiedName(parameterTypes[i]));
+    }
+    return signature.append(')').toString();
+  }
+
+  public static String ofParameter(Method method, int index) {
+    return of(method) + '[' + index + ']';
+  }
+
+  private static String qualifiedName(Class<?> type) {
+    String name = type.getCanonicalName();
+    return name != null ? name : type.getName();
+  }
+
+  private static String erasure(JavaType type) {
+    if (type instanceof JavaTypeVariable<?> variable) {
+      List<JavaType> bounds = variable.getBounds();
+      if (bounds == null || bounds.isEmpty()) {
+        return "java.lang.Object";
+      }
+      return erasure(bounds.get(0));
+    }
+    return type.getFullyQualifiedName();
+  }
+
+}
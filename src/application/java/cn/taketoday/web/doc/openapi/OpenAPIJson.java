@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * Jackson mapping of the swagger models.
+ * <p>
+ * swagger-models carries no serialization metadata, the mix-ins below
+ * hide model internals and write extensions as {@code x-} fields.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public abstract class OpenAPIJson {
+
+  private static final ObjectMapper MAPPER = createObjectMapper();
+
+  public static ObjectMapper getObjectMapper() {
+    return MAPPER;
+  }
+
+  public static void write(OpenAPI openAPI, File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory: " + parent);
+    }
+    MAPPER.writeValue(file, openAPI);
+  }
+
+  public static ObjectMapper createObjectMapper() {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+    mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    mapper.addMixIn(Object.class, ModelMixin.class);
+    for (Class<?> type : new Class<?>[] { OpenAPI.class, Info.class, PathItem.class, Operation.class,
+            Parameter.class, RequestBody.class, ApiResponse.class, MediaType.class, Schema.class }) {
+      mapper.addMixIn(type, ExtensionsMixin.class);
+    }
+    return mapper;
+  }
+
+  @JsonIgnoreProperties({ "specVersion", "exampleSetFlag", "jsonSchemaImpl", "types" })
+  static abstract class ModelMixin {
+
+  }
+
+  @JsonIgnoreProperties({ "specVersion", "exampleSetFlag", "jsonSchemaImpl", "types" })
+  static abstract class ExtensionsMixin {
+
+    @JsonAnyGetter
+    abstract Map<String, Object> getExtensions();
+
+    @JsonAnySetter
+    abstract void addExtension(String name, Object value);
+
+  }
+
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import cn.taketoday.web.doc.openapi.SpillFile.Segment;
+import infra.http.HttpMethod;
+import infra.lang.Nullable;
+import infra.util.StringUtils;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+
+/**
+ * Trie of path templates, one node per path segment.
+ * <p>
+ * Operations of all HTTP methods and all path aliases that resolve to
+ * the same template share one node, so nothing is overwritten when
+ * several handler methods are mapped to the same path. Variable segments
+ * are normalized, {@code /users/{id}} and {@code /users/{userId}} are the
+ * same template in OpenAPI and are reported as ambiguous.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class PathTrie {
+
+  /**
+   * normalized key of a variable segment
+   */
+  static final String VARIABLE = "{}";
+
+  private final Node root = new Node();
+
+  private final ArrayList<PathConflict> conflicts = new ArrayList<>();
+
+  /**
+   * nodes with in-memory operations added since the last spill
+   */
+  private final ArrayList<Node> dirty = new ArrayList<>();
+
+  private int size;
+
+  /**
+   * Add an operation
+   *
+   * @param path path template
+   * @param httpMethod HTTP method
+   * @param operation operation
+   * @param handler handler description, used in conflict reports
+   * @return {@code true} if added, {@code false} if the template and
+   * method are already mapped
+   */
+  public boolean add(String path, HttpMethod httpMethod, Operation operation, String handler) {
+    Node node = root;
+    int length = path.length();
+    int start = 0;
+    while (start < length) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      if (end > start) {
+        node = node.child(normalize(path, start, end));
+      }
+      start = end + 1;
+    }
+
+    if (node.template == null) {
+      node.template = path;
+    }
+    else if (!node.template.equals(path)) {
+      conflicts.add(new PathConflict(PathConflict.Type.AMBIGUOUS, node.template, path,
+              httpMethod, node.handler(httpMethod), handler));
+    }
+
+    if (node.operations == null) {
+      node.operations = new EnumMap<>(HttpMethod.class);
+      node.handlers = new EnumMap<>(HttpMethod.class);
+    }
+    if (node.operations.containsKey(httpMethod)
+            || (node.spilled != null && node.spilled.containsKey(httpMethod))) {
+      conflicts.add(new PathConflict(PathConflict.Type.DUPLICATE, node.template, path,
+              httpMethod, node.handler(httpMethod), handler));
+      return false;
+    }
+    if (node.operations.isEmpty()) {
+      dirty.add(node);
+    }
+    node.operations.put(httpMethod, operation);
+    node.handlers.put(httpMethod, handler);
+    size++;
+    return true;
+  }
+
+  /**
+   * Returns the number of operations
+   */
+  public int size() {
+    return size;
+  }
+
+  public List<PathConflict> getConflicts() {
+    return Collections.unmodifiableList(conflicts);
+  }
+
+  /**
+   * Visit all templates in order, literal segments sort before variable
+   * segments on the same level. Spilled operations are read back from disk.
+   *
+   * @param visitor template and its operations
+   */
+  public void traverse(BiConsumer<String, Map<HttpMethod, Operation>> visitor) {
+    try {
+      traverse((template, operations, spilled) -> {
+        if (spilled.isEmpty()) {
+          visitor.accept(template, operations);
+        }
+        else {
+          EnumMap<HttpMethod, Operation> merged = new EnumMap<>(HttpMethod.class);
+          merged.putAll(operations);
+          for (Map.Entry<HttpMethod, Segment> entry : spilled.entrySet()) {
+            merged.put(entry.getKey(), OpenAPIJson.getObjectMapper().readValue(entry.getValue().read(), Operation.class));
+          }
+          visitor.accept(template, merged);
+        }
+      });
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException("Unable to read spilled operations", e);
+    }
+  }
+
+  /**
+   * Visit all templates in order, without reading spilled operations
+   *
+   * @param visitor template visitor
+   */
+  public void traverse(TemplateVisitor visitor) throws IOException {
+    traverse(root, visitor);
+  }
+
+  private static void traverse(Node node, TemplateVisitor visitor) throws IOException {
+    if (node.operations != null) {
+      visitor.visit(node.template, Collections.unmodifiableMap(node.operations),
+              node.spilled == null ? Collections.emptyMap() : Collections.unmodifiableMap(node.spilled));
+    }
+    if (node.children != null) {
+      for (Node child : node.children.values()) {
+        traverse(child, visitor);
+      }
+    }
+  }
+
+  /**
+   * Move the in-memory operations to the spill file, operations shared by
+   * several templates are written once. Only the nodes that received
+   * operations since the last spill are visited.
+   *
+   * @param spillFile spill file
+   * @return number of operations spilled
+   */
+  public int spill(SpillFile spillFile) throws IOException {
+    if (dirty.isEmpty()) {
+      return 0;
+    }
+    ObjectWriter writer = OpenAPIJson.getObjectMapper().writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+    IdentityHashMap<Operation, Segment> written = new IdentityHashMap<>();
+    int count = 0;
+    for (Node node : dirty) {
+      if (node.spilled == null) {
+        node.spilled = new EnumMap<>(HttpMethod.class);
+      }
+      for (Map.Entry<HttpMethod, Operation> entry : node.operations.entrySet()) {
+        Segment segment = written.get(entry.getValue());
+        if (segment == null) {
+          segment = spillFile.write(writer.writeValueAsBytes(entry.getValue()));
+          written.put(entry.getValue(), segment);
+          count++;
+        }
+        node.spilled.put(entry.getKey(), segment);
+      }
+      node.operations.clear();
+    }
+    dirty.clear();
+    return count;
+  }
+
+  /**
+   * Create {@link Paths} in a single traversal
+   */
+  public Paths toPaths() {
+    Paths paths = new Paths();
+    traverse((template, operations) -> paths.addPathItem(template, createPathItem(operations)));
+    return paths;
+  }
+
+  static PathItem createPathItem(Map<HttpMethod, Operation> operations) {
+    PathItem pathItem = new PathItem();
+    operations.forEach((httpMethod, operation) -> {
+      switch (httpMethod) {
+        case GET -> pathItem.setGet(operation);
+        case PUT -> pathItem.setPut(operation);
+        case POST -> pathItem.setPost(operation);
+        case PATCH -> pathItem.setPatch(operation);
+        case DELETE -> pathItem.setDelete(operation);
+        case HEAD -> pathItem.setHead(operation);
+        case TRACE -> pathItem.setTrace(operation);
+        case OPTIONS -> pathItem.setOptions(operation);
+      }
+    });
+    return pathItem;
+  }
+
+  /**
+   * Concat type-level prefix and method-level path
+   */
+  public static String concatPath(@Nullable String prefix, @Nullable String path) {
+    StringBuilder result = new StringBuilder();
+    appendPath(result, prefix);
+    appendPath(result, path);
+    return result.isEmpty() ? "/" : result.toString();
+  }
+
+  private static void appendPath(StringBuilder result, @Nullable String path) {
+    if (StringUtils.hasText(path)) {
+      path = path.trim();
+      if (path.charAt(0) != '/') {
+        result.append('/');
+      }
+      int length = path.length();
+      if (length > 1 && path.charAt(length - 1) == '/') {
+        length--;
+      }
+      if (length == 1 && path.charAt(0) == '/') {
+        return;
+      }
+      if (!result.isEmpty() && result.charAt(result.length() - 1) == '/' && path.charAt(0) == '/') {
+        result.setLength(result.length() - 1);
+      }
+      result.append(path, 0, length);
+    }
+  }
+
+  /**
+   * Replace variables in a segment with {@link #VARIABLE}
+   */
+  static String normalize(String path, int start, int end) {
+    int open = path.indexOf('{', start);
+    if (open < 0 || open >= end) {
+      return path.substring(start, end);
+    }
+    StringBuilder segment = new StringBuilder(end - start);
+    int depth = 0;
+    for (int i = start; i < end; i++) {
+      char c = path.charAt(i);
+      if (c == '{') {
+        if (depth++ == 0) {
+          segment.append(VARIABLE);
+        }
+      }
+      else if (c == '}') {
+        depth--;
+      }
+      else if (depth == 0) {
+        segment.append(c);
+      }
+    }
+    return segment.toString();
+  }
+
+  /**
+   * literal segments first, then variable segments
+   */
+  private static int compareSegments(String s1, String s2) {
+    boolean variable1 = s1.contains(VARIABLE);
+    boolean variable2 = s2.contains(VARIABLE);
+    if (variable1 != variable2) {
+      return variable1 ? 1 : -1;
+    }
+    return s1.compareTo(s2);
+  }
+
+  private static final class Node {
+
+    @Nullable
+    String template;
+
+    @Nullable
+    TreeMap<String, Node> children;
+
+    @Nullable
+    EnumMap<HttpMethod, Operation> operations;
+
+    @Nullable
+    EnumMap<HttpMethod, Segment> spilled;
+
+    @Nullable
+    EnumMap<HttpMethod, String> handlers;
+
+    Node child(String segment) {
+      if (children == null) {
+        children = new TreeMap<>(PathTrie::compareSegments);
+      }
+      return children.computeIfAbsent(segment, key -> new Node());
+    }
+
+    @Nullable
+    String handler(HttpMethod httpMethod) {
+      return handlers == null ? null : handlers.get(httpMethod);
+    }
+  }
+
+  /**
+   * Template visitor
+   */
+  @FunctionalInterface
+  public interface TemplateVisitor {
+
+    /**
+     * @param template path template
+     * @param operations in-memory operations
+     * @param spilled operations moved to a spill file
+     */
+    void visit(String template, Map<HttpMethod, Operation> operations, Map<HttpMethod, Segment> spilled) throws IOException;
+  }
+
+  /**
+   * A conflict between two mappings
+   *
+   * @param type conflict type
+   * @param template registered template
+   * @param path conflicting path
+   * @param httpMethod HTTP method of the conflicting mapping
+   * @param existing handler of the registered mapping
+   * @param handler handler of the conflicting mapping
+   */
+  public record PathConflict(Type type, String template, String path, HttpMethod httpMethod,
+          @Nullable String existing, String handler) {
+
+    public enum Type {
+
+      /**
+       * same template and HTTP method mapped more than once
+       */
+      DUPLICATE,
+
+      /**
+       * templates only differ in variable names
+       */
+      AMBIGUOUS
+    }
+
+    @Override
+    public String toString() {
+      if (type == Type.DUPLICATE) {
+        return "Duplicate mapping '%s %s': %s and %s".formatted(httpMethod, template, existing, handler);
+      }
+      return "Ambiguous templates '%s' and '%s': %s".formatted(template, path, handler);
+    }
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only temporary file holding serialized model fragments
+ * that were moved out of the heap. The file is deleted on close.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SpillFile implements Closeable {
+
+  private final Path file;
+
+  private final FileChannel channel;
+
+  private long size;
+
+  public SpillFile() throws IOException {
+    this.file = Files.createTempFile("web-doc", ".spill");
+    this.channel = FileChannel.open(file, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+  }
+
+  /**
+   * Append a fragment
+   *
+   * @param bytes serialized fragment
+   * @return location of the fragment
+   */
+  public synchronized Segment write(byte[] bytes) throws IOException {
+    long offset = size;
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, offset + buffer.position());
+    }
+    size += bytes.length;
+    return new Segment(this, offset, bytes.length);
+  }
+
+  /**
+   * Read a fragment
+   */
+  public byte[] read(Segment segment) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(segment.length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, segment.offset + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of spill file: " + file);
+      }
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Returns total bytes spilled
+   */
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+    Files.deleteIfExists(file);
+  }
+
+  @Override
+  public String toString() {
+    return "SpillFile: " + file;
+  }
+
+  /**
+   * Location of a fragment in a spill file
+   */
+  public record Segment(SpillFile file, long offset, int length) {
+
+    public byte[] read() throws IOException {
+      return file.read(this);
+    }
+  }
+
+}
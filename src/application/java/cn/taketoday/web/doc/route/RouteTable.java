@@ -0,0 +1,397 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.route;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only route table, queried in place from a memory-mapped file.
+ * Only depends on the JDK so gateways can load the routes extracted by the
+ * generator without parsing the OpenAPI document: routes are addressed by
+ * index and strings are only decoded when asked for.
+ * <pre>{@code
+ * RouteTable routes = RouteTable.open(Path.of("routes.bin"));
+ * int route = routes.match("GET", "/users/42");
+ * if (route >= 0) {
+ *   String handler = routes.getHandler(route);
+ * }
+ * }</pre>
+ * Format, big-endian, version {@value #VERSION}:
+ * <pre>
+ * header   magic 'WDRT', version u16, reserved u16, route count, string count,
+ *          position of the string offsets, of the string data, of the segments,
+ *          of the routes, of the match index
+ * strings  string count + 1 offsets into the UTF-8 data, sorted by bytes
+ * segments string index of each path segment, the high bit set for variables
+ * routes   method, path, handler (string indexes), first segment, segment count;
+ *          sorted by method then path
+ * index    route indexes sorted by method, segment count and first segment,
+ *          literal first segments by string index before variables
+ * </pre>
+ * A request path is only matched against the routes of its method with
+ * the same number of segments, whose first segment is a variable or the
+ * first segment of the path; both ranges are found by binary search.
+ * A table is safe to share between threads.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see RouteTableWriter
+ * @since 1.0
+ */
+public final class RouteTable {
+
+  static final int MAGIC = 0x57445254;
+
+  static final short VERSION = 2;
+
+  static final int HEADER_SIZE = 36;
+
+  static final int ROUTE_SIZE = 20;
+
+  static final int VARIABLE = 0x80000000;
+
+  /**
+   * match index key of a variable first segment, after every string index
+   */
+  static final int VARIABLE_KEY = Integer.MAX_VALUE;
+
+  /**
+   * match index key of the routes without segments
+   */
+  static final int ROOT_KEY = -1;
+
+  private final ByteBuffer buffer;
+
+  private final int size;
+
+  private final int stringCount;
+
+  private final int offsetsPosition;
+
+  private final int dataPosition;
+
+  private final int segmentsPosition;
+
+  private final int routesPosition;
+
+  private final int indexPosition;
+
+  private RouteTable(ByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a route table");
+    }
+    short version = buffer.getShort(4);
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported route table version " + version + ", expected " + VERSION);
+    }
+    this.buffer = buffer;
+    this.size = buffer.getInt(8);
+    this.stringCount = buffer.getInt(12);
+    this.offsetsPosition = buffer.getInt(16);
+    this.dataPosition = buffer.getInt(20);
+    this.segmentsPosition = buffer.getInt(24);
+    this.routesPosition = buffer.getInt(28);
+    this.indexPosition = buffer.getInt(32);
+    if (routesPosition + (long) size * ROUTE_SIZE > buffer.capacity()
+            || indexPosition + (long) size * 4 > buffer.capacity()) {
+      throw new IllegalArgumentException("Truncated route table");
+    }
+  }
+
+  /**
+   * Map a route table file
+   */
+  public static RouteTable open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new RouteTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Route table in a buffer, only absolute reads are used
+   */
+  public static RouteTable wrap(ByteBuffer buffer) {
+    return new RouteTable(buffer.slice());
+  }
+
+  /**
+   * Returns the number of routes
+   */
+  public int size() {
+    return size;
+  }
+
+  public String getMethod(int route) {
+    return getString(field(route, 0));
+  }
+
+  public String getPath(int route) {
+    return getString(field(route, 1));
+  }
+
+  public String getHandler(int route) {
+    return getString(field(route, 2));
+  }
+
+  public int getSegmentCount(int route) {
+    return field(route, 4);
+  }
+
+  public String getSegment(int route, int segment) {
+    return getString(segment(route, segment) & ~VARIABLE);
+  }
+
+  public boolean isVariableSegment(int route, int segment) {
+    return (segment(route, segment) & VARIABLE) != 0;
+  }
+
+  /**
+   * Find the route of a path template
+   *
+   * @param method HTTP method
+   * @param path path template, like {@code /users/{id}}
+   * @return index of the route, {@code -1} if not found
+   */
+  public int find(String method, String path) {
+    byte[] methodBytes = method.getBytes(StandardCharsets.UTF_8);
+    byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int comparison = compare(field(mid, 0), methodBytes);
+      if (comparison == 0) {
+        comparison = compare(field(mid, 1), pathBytes);
+      }
+      if (comparison < 0) {
+        low = mid + 1;
+      }
+      else if (comparison > 0) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Match a request path against the templates of a method. Variable
+   * segments match any segment; among several matches, literal segments
+   * win over variables from left to right.
+   *
+   * @param method HTTP method
+   * @param requestPath request path, like {@code /users/42}
+   * @return index of the route, {@code -1} if none matches
+   */
+  public int match(String method, String requestPath) {
+    int methodIndex = indexOf(method.getBytes(StandardCharsets.UTF_8));
+    if (methodIndex < 0) {
+      return -1;
+    }
+    List<String> segments = split(requestPath);
+    byte[][] encoded = new byte[segments.size()][];
+    for (int i = 0; i < encoded.length; i++) {
+      encoded[i] = segments.get(i).getBytes(StandardCharsets.UTF_8);
+    }
+    if (encoded.length == 0) {
+      return match(methodIndex, 0, ROOT_KEY, encoded, -1);
+    }
+    int best = -1;
+    int first = indexOf(encoded[0]);
+    if (first >= 0) {
+      best = match(methodIndex, encoded.length, first, encoded, best);
+    }
+    return match(methodIndex, encoded.length, VARIABLE_KEY, encoded, best);
+  }
+
+  /**
+   * Match the routes of a range of the match index
+   *
+   * @param best best route so far, {@code -1} if none
+   * @return the best route
+   */
+  private int match(int method, int count, int first, byte[][] segments, int best) {
+    int end = bound(method, count, first, true);
+    for (int i = bound(method, count, first, false); i < end; i++) {
+      int route = buffer.getInt(indexPosition + i * 4);
+      if (matches(route, segments) && (best < 0 || isMoreSpecific(route, best))) {
+        best = route;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * First position of the match index whose key is not less than the
+   * given one, or greater than it with {@code upper}
+   */
+  private int bound(int method, int count, int first, boolean upper) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int route = buffer.getInt(indexPosition + mid * 4);
+      int comparison = Integer.compare(field(route, 0), method);
+      if (comparison == 0) {
+        comparison = Integer.compare(field(route, 4), count);
+        if (comparison == 0) {
+          comparison = Integer.compare(firstKey(route), first);
+        }
+      }
+      if (comparison < 0 || (upper && comparison == 0)) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Key of the first segment of a route in the match index
+   */
+  private int firstKey(int route) {
+    if (field(route, 4) == 0) {
+      return ROOT_KEY;
+    }
+    int segment = segment(route, 0);
+    return (segment & VARIABLE) != 0 ? VARIABLE_KEY : segment;
+  }
+
+  /**
+   * Index of a string in the string table
+   *
+   * @return the index, {@code -1} if the table has no such string
+   */
+  private int indexOf(byte[] bytes) {
+    int low = 0;
+    int high = stringCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int comparison = compare(mid, bytes);
+      if (comparison < 0) {
+        low = mid + 1;
+      }
+      else if (comparison > 0) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private boolean matches(int route, byte[][] segments) {
+    for (int i = 0; i < segments.length; i++) {
+      int segment = segment(route, i);
+      if ((segment & VARIABLE) == 0 && compare(segment, segments[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isMoreSpecific(int route, int other) {
+    int count = field(route, 4);
+    for (int i = 0; i < count; i++) {
+      boolean variable = (segment(route, i) & VARIABLE) != 0;
+      if (variable != ((segment(other, i) & VARIABLE) != 0)) {
+        return !variable;
+      }
+    }
+    return false;
+  }
+
+  private int field(int route, int field) {
+    if (route < 0 || route >= size) {
+      throw new IndexOutOfBoundsException("Route " + route + " out of " + size);
+    }
+    return buffer.getInt(routesPosition + route * ROUTE_SIZE + field * 4);
+  }
+
+  private int segment(int route, int segment) {
+    if (segment < 0 || segment >= field(route, 4)) {
+      throw new IndexOutOfBoundsException("Segment " + segment + " out of " + field(route, 4));
+    }
+    return buffer.getInt(segmentsPosition + (field(route, 3) + segment) * 4);
+  }
+
+  private String getString(int index) {
+    int start = dataPosition + buffer.getInt(offsetsPosition + index * 4);
+    int end = dataPosition + buffer.getInt(offsetsPosition + (index + 1) * 4);
+    byte[] bytes = new byte[end - start];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compare a string of the table with UTF-8 bytes, without decoding it
+   */
+  private int compare(int index, byte[] bytes) {
+    int position = dataPosition + buffer.getInt(offsetsPosition + index * 4);
+    int length = dataPosition + buffer.getInt(offsetsPosition + (index + 1) * 4) - position;
+    int common = Math.min(length, bytes.length);
+    for (int i = 0; i < common; i++) {
+      int comparison = Byte.compareUnsigned(buffer.get(position + i), bytes[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return length - bytes.length;
+  }
+
+  /**
+   * Non-empty segments of a path
+   */
+  static List<String> split(String path) {
+    ArrayList<String> segments = new ArrayList<>();
+    int start = 0;
+    int length = path.length();
+    while (start < length) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = length;
+      }
+      if (end > start) {
+        segments.add(path.substring(start, end));
+      }
+      start = end + 1;
+    }
+    return segments;
+  }
+
+  static boolean isVariable(String segment) {
+    return segment.length() > 1 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+  }
+
+  @Override
+  public String toString() {
+    return "RouteTable{" + size + " routes, " + stringCount + " strings}";
+  }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.route;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static cn.taketoday.web.doc.route.RouteTable.HEADER_SIZE;
+import static cn.taketoday.web.doc.route.RouteTable.MAGIC;
+import static cn.taketoday.web.doc.route.RouteTable.ROOT_KEY;
+import static cn.taketoday.web.doc.route.RouteTable.ROUTE_SIZE;
+import static cn.taketoday.web.doc.route.RouteTable.VARIABLE;
+import static cn.taketoday.web.doc.route.RouteTable.VARIABLE_KEY;
+import static cn.taketoday.web.doc.route.RouteTable.VERSION;
+
+/**
+ * Write a {@link RouteTable}. Routes are sorted by method and path, the
+ * strings are interned and sorted, a path is stored with its segments,
+ * and the routes are indexed for matching by method, segment count and
+ * first segment.
+ * <pre>{@code
+ * RouteTableWriter writer = new RouteTableWriter();
+ * writer.add("GET", "/users/{id}", "com.example.UserController#get");
+ * writer.write(file);
+ * }</pre>
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see RouteTable
+ * @since 1.0
+ */
+public class RouteTableWriter {
+
+  /**
+   * routes by method and path, in the order of the table
+   */
+  private final TreeMap<byte[], String> handlers = new TreeMap<>(Arrays::compareUnsigned);
+
+  private final HashSet<String> strings = new HashSet<>();
+
+  /**
+   * Add a route, a method and path that is already added is ignored
+   *
+   * @param method HTTP method
+   * @param path path template
+   * @param handler handler description
+   * @return {@code true} if added
+   */
+  public boolean add(String method, String path, String handler) {
+    byte[] key = key(method, path);
+    if (handlers.containsKey(key)) {
+      return false;
+    }
+    handlers.put(key, handler);
+    strings.add(method);
+    strings.add(path);
+    strings.add(handler);
+    for (String segment : RouteTable.split(path)) {
+      strings.add(segment);
+    }
+    return true;
+  }
+
+  public int size() {
+    return handlers.size();
+  }
+
+  public void write(Path file) throws IOException {
+    Path parent = file.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (OutputStream out = Files.newOutputStream(file)) {
+      out.write(toByteArray());
+    }
+  }
+
+  public byte[] toByteArray() {
+    // string table, sorted by UTF-8 bytes like the reader compares them
+    byte[][] encoded = new byte[strings.size()][];
+    int index = 0;
+    for (String string : strings) {
+      encoded[index++] = string.getBytes(StandardCharsets.UTF_8);
+    }
+    Arrays.sort(encoded, Arrays::compareUnsigned);
+    HashMap<String, Integer> ids = new HashMap<>(encoded.length * 2);
+    int dataSize = 0;
+    for (int i = 0; i < encoded.length; i++) {
+      ids.put(new String(encoded[i], StandardCharsets.UTF_8), i);
+      dataSize += encoded[i].length;
+    }
+
+    ArrayList<int[]> routes = new ArrayList<>(handlers.size());
+    ArrayList<Integer> segments = new ArrayList<>();
+    ArrayList<int[]> keys = new ArrayList<>(handlers.size());
+    for (Map.Entry<byte[], String> entry : handlers.entrySet()) {
+      String key = new String(entry.getKey(), StandardCharsets.UTF_8);
+      int space = key.indexOf(' ');
+      String path = key.substring(space + 1);
+      List<String> pathSegments = RouteTable.split(path);
+      routes.add(new int[] { ids.get(key.substring(0, space)), ids.get(path),
+              ids.get(entry.getValue()), segments.size(), pathSegments.size() });
+      int first = ROOT_KEY;
+      for (String segment : pathSegments) {
+        int id = ids.get(segment);
+        boolean variable = RouteTable.isVariable(segment);
+        if (first == ROOT_KEY) {
+          first = variable ? VARIABLE_KEY : id;
+        }
+        segments.add(variable ? id | VARIABLE : id);
+      }
+      keys.add(new int[] { ids.get(key.substring(0, space)), pathSegments.size(), first, keys.size() });
+    }
+    // match index, routes by method, segment count and first segment
+    keys.sort(Comparator.<int[]>comparingInt(key -> key[0])
+            .thenComparingInt(key -> key[1])
+            .thenComparingInt(key -> key[2])
+            .thenComparingInt(key -> key[3]));
+
+    int offsetsPosition = HEADER_SIZE;
+    int dataPosition = offsetsPosition + (encoded.length + 1) * 4;
+    int segmentsPosition = align(dataPosition + dataSize);
+    int routesPosition = segmentsPosition + segments.size() * 4;
+    int indexPosition = routesPosition + routes.size() * ROUTE_SIZE;
+    ByteBuffer buffer = ByteBuffer.allocate(indexPosition + keys.size() * 4);
+    buffer.putInt(MAGIC)
+            .putShort(VERSION)
+            .putShort((short) 0)
+            .putInt(routes.size())
+            .putInt(encoded.length)
+            .putInt(offsetsPosition)
+            .putInt(dataPosition)
+            .putInt(segmentsPosition)
+            .putInt(routesPosition)
+            .putInt(indexPosition);
+
+    int offset = 0;
+    for (byte[] string : encoded) {
+      buffer.putInt(offset);
+      offset += string.length;
+    }
+    buffer.putInt(offset);
+    for (byte[] string : encoded) {
+      buffer.put(string);
+    }
+    buffer.position(segmentsPosition);
+    for (int segment : segments) {
+      buffer.putInt(segment);
+    }
+    for (int[] route : routes) {
+      for (int value : route) {
+        buffer.putInt(value);
+      }
+    }
+    for (int[] key : keys) {
+      buffer.putInt(key[3]);
+    }
+    return buffer.array();
+  }
+
+  private static byte[] key(String method, String path) {
+    return (method + " " + path).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int align(int position) {
+    return (position + 3) & ~3;
+  }
+
+}
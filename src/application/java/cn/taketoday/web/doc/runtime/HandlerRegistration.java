@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import infra.http.HttpMethod;
+
+/**
+ * A handler method registered in the running application
+ *
+ * @param handlerType type of the handler bean
+ * @param method handler method
+ * @param paths registered path patterns, the mapping annotations of the
+ * method are used if empty
+ * @param httpMethods registered HTTP methods, the mapping annotations of the
+ * method are used if empty
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record HandlerRegistration(Class<?> handlerType, Method method, List<String> paths, List<HttpMethod> httpMethods) {
+
+  public HandlerRegistration {
+    paths = List.copyOf(paths);
+    httpMethods = List.copyOf(httpMethods);
+  }
+
+  /**
+   * A handler method mapped by its annotations only
+   */
+  public static HandlerRegistration of(Class<?> handlerType, Method method) {
+    return new HandlerRegistration(handlerType, method, List.of(), List.of());
+  }
+
+  /**
+   * Handler description, used in conflict reports
+   */
+  public String handler() {
+    return handlerType.getName() + "#" + method.getName();
+  }
+
+}
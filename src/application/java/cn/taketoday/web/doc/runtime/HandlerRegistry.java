@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import java.util.List;
+
+import infra.web.handler.method.RequestMappingInfoHandlerMapping;
+
+/**
+ * Source of the handler methods registered in the running application
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface HandlerRegistry {
+
+  /**
+   * Current registrations, called on every document request, so it
+   * should not do more than copying the registrations.
+   */
+  List<HandlerRegistration> getRegistrations();
+
+  /**
+   * Registrations of a today-web request mapping, including the
+   * handlers registered programmatically
+   */
+  static HandlerRegistry of(RequestMappingInfoHandlerMapping handlerMapping) {
+    return new RequestMappingHandlerRegistry(handlerMapping);
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import infra.lang.Assert;
+import infra.web.handler.method.HandlerMethod;
+import infra.web.handler.method.RequestMappingInfo;
+import infra.web.handler.method.RequestMappingInfoHandlerMapping;
+
+/**
+ * Registrations of a {@link RequestMappingInfoHandlerMapping}, with the
+ * paths and HTTP methods of the registered {@link RequestMappingInfo}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+final class RequestMappingHandlerRegistry implements HandlerRegistry {
+
+  private final RequestMappingInfoHandlerMapping handlerMapping;
+
+  RequestMappingHandlerRegistry(RequestMappingInfoHandlerMapping handlerMapping) {
+    Assert.notNull(handlerMapping, "RequestMappingInfoHandlerMapping is required");
+    this.handlerMapping = handlerMapping;
+  }
+
+  @Override
+  public List<HandlerRegistration> getRegistrations() {
+    Map<RequestMappingInfo, HandlerMethod> handlerMethods = handlerMapping.getHandlerMethods();
+    ArrayList<HandlerRegistration> registrations = new ArrayList<>(handlerMethods.size());
+    for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMethods.entrySet()) {
+      RequestMappingInfo info = entry.getKey();
+      HandlerMethod handlerMethod = entry.getValue();
+      registrations.add(new HandlerRegistration(handlerMethod.getBeanType(), handlerMethod.getMethod(),
+              List.copyOf(info.getPatternValues()), List.copyOf(info.getMethodsCondition().getMethods())));
+    }
+    return registrations;
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import infra.lang.Assert;
+import infra.lang.Nullable;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * The document of the running application, created on first request and
+ * cached until the handler registrations change.
+ * <pre>{@code
+ * RuntimeOpenAPI runtimeOpenAPI = new RuntimeOpenAPI(HandlerRegistry.of(handlerMapping));
+ *
+ * @GET("/v3/api-docs")
+ * public OpenAPI apiDocs() {
+ *   return runtimeOpenAPI.getOpenAPI();
+ * }
+ * }</pre>
+ * Nothing is done until the document is requested, every request
+ * compares the current registrations with the ones of the cached
+ * document. The document is shared, it must not be modified.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class RuntimeOpenAPI {
+
+  private static final Logger log = LoggerFactory.getLogger(RuntimeOpenAPI.class);
+
+  private final HandlerRegistry registry;
+
+  private final RuntimeOpenAPIFactory factory;
+
+  @Nullable
+  private volatile Snapshot snapshot;
+
+  public RuntimeOpenAPI(HandlerRegistry registry) {
+    this(registry, new RuntimeOpenAPIFactory());
+  }
+
+  public RuntimeOpenAPI(HandlerRegistry registry, RuntimeOpenAPIFactory factory) {
+    Assert.notNull(registry, "HandlerRegistry is required");
+    Assert.notNull(factory, "RuntimeOpenAPIFactory is required");
+    this.registry = registry;
+    this.factory = factory;
+  }
+
+  public OpenAPI getOpenAPI() {
+    return getSnapshot().openAPI();
+  }
+
+  /**
+   * Get the current document, rebuilt if the registrations changed
+   * since it was created
+   */
+  public Snapshot getSnapshot() {
+    List<HandlerRegistration> registrations = registry.getRegistrations();
+    Snapshot snapshot = this.snapshot;
+    if (snapshot == null || !snapshot.registrations().equals(registrations)) {
+      synchronized(this) {
+        snapshot = this.snapshot;
+        if (snapshot == null || !snapshot.registrations().equals(registrations)) {
+          long start = System.nanoTime();
+          long version = snapshot == null ? 1 : snapshot.version() + 1;
+          snapshot = new Snapshot(version, List.copyOf(registrations), factory.createOpenAPI(registrations));
+          this.snapshot = snapshot;
+          log.debug("Document of {} handlers created in {} ms", registrations.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * A document and the registrations it was created from
+   *
+   * @param version incremented on every rebuild
+   * @param registrations handler registrations
+   * @param openAPI document
+   */
+  public record Snapshot(long version, List<HandlerRegistration> registrations, OpenAPI openAPI) {
+
+  }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import cn.taketoday.web.doc.MappingAnnotation;
+import cn.taketoday.web.doc.comment.CommentSource;
+import cn.taketoday.web.doc.comment.MemberSignature;
+import cn.taketoday.web.doc.openapi.PathTrie;
+import cn.taketoday.web.doc.openapi.PathTrie.PathConflict;
+import infra.http.HttpMethod;
+import infra.lang.Assert;
+import infra.lang.Nullable;
+import infra.util.StringUtils;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+/**
+ * Creates the {@link OpenAPI} model of the handler methods registered in
+ * the running application, with the {@link MappingAnnotation} rules of
+ * the source model read through reflection.
+ * <p>
+ * Paths and HTTP methods registered with the handler take precedence,
+ * so handlers registered programmatically are documented as they are
+ * served. Comments are not available at runtime, they are looked up in
+ * the {@link CommentSource}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class RuntimeOpenAPIFactory {
+
+  private static final Logger log = LoggerFactory.getLogger(RuntimeOpenAPIFactory.class);
+
+  private final List<MappingAnnotation> mappings = MappingAnnotation.defaults();
+
+  private final CommentSource commentSource;
+
+  public RuntimeOpenAPIFactory() {
+    this(CommentSource.NONE);
+  }
+
+  /**
+   * @param commentSource comments of the handler methods, such as the
+   * comment index of the application sources
+   */
+  public RuntimeOpenAPIFactory(CommentSource commentSource) {
+    Assert.notNull(commentSource, "CommentSource is required");
+    this.commentSource = commentSource;
+  }
+
+  public OpenAPI createOpenAPI(Collection<HandlerRegistration> registrations) {
+    PathTrie pathTrie = new PathTrie();
+    HashMap<Class<?>, List<String>> prefixes = new HashMap<>();
+    for (HandlerRegistration registration : registrations) {
+      addOperations(registration, pathTrie, prefixes);
+    }
+    for (PathConflict conflict : pathTrie.getConflicts()) {
+      log.warn(conflict.toString());
+    }
+    OpenAPI openAPI = new OpenAPI();
+    openAPI.setPaths(pathTrie.toPaths());
+    return openAPI;
+  }
+
+  private void addOperations(HandlerRegistration registration, PathTrie pathTrie, HashMap<Class<?>, List<String>> prefixes) {
+    Method method = registration.method();
+    HandlerMapping handlerMapping = findMapping(method);
+
+    List<String> paths = registration.paths();
+    if (paths.isEmpty()) {
+      if (handlerMapping == null) {
+        return;
+      }
+      List<String> methodPaths = getPaths(handlerMapping.mapping(), handlerMapping.annotation());
+      List<String> typePrefixes = prefixes.computeIfAbsent(registration.handlerType(), this::getPrefixes);
+      if (methodPaths.isEmpty() && typePrefixes.isEmpty()) {
+        return;
+      }
+      paths = new ArrayList<>();
+      for (String prefix : typePrefixes.isEmpty() ? Collections.<String>singletonList(null) : typePrefixes) {
+        if (methodPaths.isEmpty()) {
+          paths.add(PathTrie.concatPath(prefix, null));
+        }
+        else {
+          for (String path : methodPaths) {
+            paths.add(PathTrie.concatPath(prefix, path));
+          }
+        }
+      }
+    }
+
+    List<HttpMethod> httpMethods = registration.httpMethods();
+    if (httpMethods.isEmpty()) {
+      httpMethods = handlerMapping != null ? getHttpMethods(handlerMapping) : List.of(HttpMethod.GET);
+    }
+
+    Operation operation = createOperation(registration, handlerMapping);
+    String handler = registration.handler();
+    for (HttpMethod httpMethod : httpMethods) {
+      for (String path : paths) {
+        pathTrie.add(path, httpMethod, operation, handler);
+      }
+    }
+  }
+
+  private Operation createOperation(HandlerRegistration registration, @Nullable HandlerMapping handlerMapping) {
+    Method method = registration.method();
+    Operation operation = new Operation();
+    String comment = commentSource.getComment(MemberSignature.of(method));
+    if (comment == null && handlerMapping != null && handlerMapping.mappedMethod() != method) {
+      comment = commentSource.getComment(MemberSignature.of(handlerMapping.mappedMethod()));
+    }
+    operation.setDescription(comment);
+    operation.addTagsItem(registration.handlerType().getSimpleName());
+
+    java.lang.reflect.Parameter[] arguments = method.getParameters();
+    for (int i = 0; i < arguments.length; i++) {
+      java.lang.reflect.Parameter argument = arguments[i];
+      Parameter parameter = new Parameter();
+      parameter.setName(argument.getName());
+      parameter.setDescription(commentSource.getComment(MemberSignature.ofParameter(method, i)));
+      parameter.setDeprecated(argument.isAnnotationPresent(Deprecated.class));
+      parameter.setRequired(!argument.isAnnotationPresent(Nullable.class));
+      operation.addParametersItem(parameter);
+    }
+    return operation;
+  }
+
+  /**
+   * Find the mapping annotation of a method, declared or inherited from
+   * the method it overrides
+   */
+  @Nullable
+  private HandlerMapping findMapping(Method method) {
+    for (MappingAnnotation mapping : mappings) {
+      Annotation annotation = getAnnotation(method.getDeclaredAnnotations(), mapping.annotationName);
+      if (annotation != null) {
+        return new HandlerMapping(method, mapping, annotation);
+      }
+    }
+    return findInherited(method.getDeclaringClass(), method);
+  }
+
+  @Nullable
+  private HandlerMapping findInherited(Class<?> type, Method method) {
+    for (Class<?> superType : getSuperTypes(type)) {
+      try {
+        HandlerMapping inherited = findMapping(superType.getDeclaredMethod(method.getName(), method.getParameterTypes()));
+        if (inherited != null) {
+          return inherited;
+        }
+      }
+      catch (NoSuchMethodException e) {
+        // not declared in this type, look further up
+        HandlerMapping inherited = findInherited(superType, method);
+        if (inherited != null) {
+          return inherited;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Type-level path prefixes, taken from the nearest type-level mapping
+   * in the hierarchy
+   */
+  private List<String> getPrefixes(Class<?> type) {
+    Annotation annotation = getAnnotation(type.getDeclaredAnnotations(), MappingAnnotation.REQUEST_MAPPING);
+    if (annotation != null) {
+      for (MappingAnnotation mapping : mappings) {
+        if (mapping.annotationName.equals(MappingAnnotation.REQUEST_MAPPING)) {
+          return getPaths(mapping, annotation);
+        }
+      }
+    }
+    for (Class<?> superType : getSuperTypes(type)) {
+      List<String> prefixes = getPrefixes(superType);
+      if (!prefixes.isEmpty()) {
+        return prefixes;
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  private static List<String> getPaths(MappingAnnotation mapping, Annotation annotation) {
+    LinkedHashSet<String> paths = new LinkedHashSet<>();
+    for (String pathAttr : mapping.pathAttr) {
+      for (String path : getValues(annotation, pathAttr)) {
+        if (StringUtils.hasText(path)) {
+          paths.add(path);
+        }
+      }
+    }
+    return List.copyOf(paths);
+  }
+
+  /**
+   * HTTP methods of a mapping, {@code GET} if the mapping does not restrict the method
+   */
+  private static List<HttpMethod> getHttpMethods(HandlerMapping handlerMapping) {
+    MappingAnnotation mapping = handlerMapping.mapping();
+    if (mapping.method != null) {
+      return List.of(mapping.method);
+    }
+    List<String> values = getValues(handlerMapping.annotation(), mapping.methodAttr);
+    if (values.isEmpty()) {
+      return List.of(HttpMethod.GET);
+    }
+    ArrayList<HttpMethod> httpMethods = new ArrayList<>(values.size());
+    for (String value : values) {
+      HttpMethod httpMethod = HttpMethod.resolve(value);
+      Assert.state(httpMethod != null, () -> "HttpMethod '" + value + "' not supported");
+      httpMethods.add(httpMethod);
+    }
+    return httpMethods;
+  }
+
+  /**
+   * Values of an annotation attribute, enum constants by name
+   */
+  private static List<String> getValues(Annotation annotation, String attributeName) {
+    Object value;
+    try {
+      value = annotation.annotationType().getMethod(attributeName).invoke(annotation);
+    }
+    catch (NoSuchMethodException e) {
+      return Collections.emptyList();
+    }
+    catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException("Cannot read attribute '" + attributeName + "' of " + annotation, e);
+    }
+    if (value instanceof Object[] array) {
+      ArrayList<String> values = new ArrayList<>(array.length);
+      for (Object element : array) {
+        values.add(toString(element));
+      }
+      return values;
+    }
+    return value == null ? Collections.emptyList() : List.of(toString(value));
+  }
+
+  private static String toString(Object value) {
+    return value instanceof Enum<?> constant ? constant.name() : value.toString();
+  }
+
+  @Nullable
+  private static Annotation getAnnotation(Annotation[] annotations, String annotationName) {
+    for (Annotation annotation : annotations) {
+      if (annotation.annotationType().getName().equals(annotationName)) {
+        return annotation;
+      }
+    }
+    return null;
+  }
+
+  private static List<Class<?>> getSuperTypes(Class<?> type) {
+    ArrayList<Class<?>> superTypes = new ArrayList<>();
+    Class<?> superClass = type.getSuperclass();
+    if (superClass != null && superClass != Object.class) {
+      superTypes.add(superClass);
+    }
+    Collections.addAll(superTypes, type.getInterfaces());
+    return superTypes;
+  }
+
+  /**
+   * A handler method and its mapping annotation
+   *
+   * @param mappedMethod method declaring the mapping annotation
+   * @param mapping mapping rule
+   * @param annotation mapping annotation
+   */
+  private record HandlerMapping(Method mappedMethod, MappingAnnotation mapping, Annotation annotation) {
+
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Measurements of a performance run, compared against the values stored in
+ * a properties file. A metric fails when it exceeds its baseline by more
+ * than the tolerance, or when it has no baseline.
+ *
+ * <p>Run with {@code -Pwebdoc.perf.updateBaseline=true} to store the
+ * current measurements as the new baseline.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+final class PerformanceBaseline {
+
+  private final Path file;
+
+  private final double tolerance;
+
+  private final Properties baseline = new Properties();
+
+  private final TreeMap<String, Long> measurements = new TreeMap<>();
+
+  PerformanceBaseline(Path file, double tolerance) throws IOException {
+    this.file = file;
+    this.tolerance = tolerance;
+    if (Files.exists(file)) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+        baseline.load(reader);
+      }
+    }
+  }
+
+  /**
+   * Create from the {@code webdoc.perf.baseline} and
+   * {@code webdoc.perf.tolerance} system properties
+   */
+  static PerformanceBaseline fromSystemProperties() throws IOException {
+    Path file = Path.of(System.getProperty("webdoc.perf.baseline", "perf-baseline.properties"));
+    double tolerance = Double.parseDouble(System.getProperty("webdoc.perf.tolerance", "0.25"));
+    return new PerformanceBaseline(file, tolerance);
+  }
+
+  void record(String metric, long value) {
+    measurements.put(metric, value);
+  }
+
+  Map<String, Long> getMeasurements() {
+    return measurements;
+  }
+
+  /**
+   * Returns a description of every metric exceeding its baseline
+   */
+  List<String> getRegressions() {
+    ArrayList<String> regressions = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : measurements.entrySet()) {
+      String stored = baseline.getProperty(entry.getKey());
+      if (stored != null) {
+        long expected = Long.parseLong(stored.trim());
+        long limit = (long) (expected * (1 + tolerance));
+        if (entry.getValue() > limit) {
+          regressions.add("%s: %d exceeds baseline %d (limit %d, tolerance %.0f%%)"
+                  .formatted(entry.getKey(), entry.getValue(), expected, limit, tolerance * 100));
+        }
+      }
+    }
+    return regressions;
+  }
+
+  /**
+   * Returns the measured metrics without a baseline
+   */
+  List<String> getMissing() {
+    ArrayList<String> missing = new ArrayList<>();
+    for (String metric : measurements.keySet()) {
+      if (baseline.getProperty(metric) == null) {
+        missing.add(metric);
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Store the current measurements, keeping the comments of the file
+   * and the baselines of other metrics
+   */
+  void update() throws IOException {
+    TreeMap<String, String> values = new TreeMap<>();
+    for (String name : baseline.stringPropertyNames()) {
+      values.put(name, baseline.getProperty(name));
+    }
+    for (Map.Entry<String, Long> entry : measurements.entrySet()) {
+      values.put(entry.getKey(), Long.toString(entry.getValue()));
+    }
+
+    ArrayList<String> lines = new ArrayList<>();
+    if (Files.exists(file)) {
+      for (String line : Files.readAllLines(file, StandardCharsets.ISO_8859_1)) {
+        if (line.isBlank() || line.startsWith("#")) {
+          lines.add(line);
+        }
+      }
+    }
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      lines.add(entry.getKey() + "=" + entry.getValue());
+    }
+    Files.write(file, lines, StandardCharsets.ISO_8859_1);
+  }
+
+  static boolean isUpdate() {
+    return Boolean.getBoolean("webdoc.perf.updateBaseline");
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import cn.taketoday.web.doc.fixture.SyntheticCodebase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the plugin to a generated multi-module project and compares wall
+ * time, incremental behavior and daemon heap against {@link PerformanceBaseline}.
+ *
+ * <p>Fixture size is controlled by {@code webdoc.perf.modules} and
+ * {@code webdoc.perf.endpoints} (per module). The measurements are
+ * published as report entries of the test.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class WebDocPluginPerformanceTests {
+
+  private static final Pattern HEAP = Pattern.compile("web-doc\\.heap=(\\d+)");
+
+  @TempDir
+  Path projectDir;
+
+  @Test
+  void multiModuleProject(TestReporter reporter) throws Exception {
+    int modules = Integer.getInteger("webdoc.perf.modules", 3);
+    int endpoints = Integer.getInteger("webdoc.perf.endpoints", 1000);
+    List<String> tasks = generateProject(modules, endpoints);
+
+    PerformanceBaseline baseline = PerformanceBaseline.fromSystemProperties();
+    String scenario = "multiModule." + modules + "x" + endpoints;
+
+    // warm the daemon, so the cold run measures the plugin rather than daemon startup
+    run("help");
+
+    long start = System.nanoTime();
+    BuildResult cold = run(concat(tasks, "reportHeap"));
+    baseline.record(scenario + ".cold.millis", millis(start));
+    baseline.record(scenario + ".heap.bytes", heapUsed(cold));
+    assertOutcome(cold, tasks, TaskOutcome.SUCCESS);
+    for (int i = 0; i < modules; i++) {
+      assertThat(projectDir.resolve("module-" + i + "/build/web-doc/openapi.json")).isNotEmptyFile();
+    }
+
+    start = System.nanoTime();
+    BuildResult upToDate = run(tasks);
+    baseline.record(scenario + ".upToDate.millis", millis(start));
+    assertOutcome(upToDate, tasks, TaskOutcome.UP_TO_DATE);
+
+    start = System.nanoTime();
+    BuildResult fromCache = run(concat(List.of("clean"), tasks.toArray(String[]::new)));
+    baseline.record(scenario + ".fromCache.millis", millis(start));
+    assertOutcome(fromCache, tasks, TaskOutcome.FROM_CACHE);
+
+    for (Map.Entry<String, Long> entry : baseline.getMeasurements().entrySet()) {
+      reporter.publishEntry(entry.getKey(), entry.getValue().toString());
+    }
+    if (PerformanceBaseline.isUpdate()) {
+      baseline.update();
+    }
+    else {
+      assertThat(baseline.getMissing())
+              .as("metrics without baseline, record them with -Pwebdoc.perf.updateBaseline=true")
+              .isEmpty();
+      assertThat(baseline.getRegressions()).isEmpty();
+    }
+  }
+
+  private List<String> generateProject(int modules, int endpoints) throws IOException {
+    StringBuilder settings = new StringBuilder("""
+            rootProject.name = "web-doc-perf"
+
+            buildCache {
+              local {
+                directory = new File(rootDir, "build-cache")
+              }
+            }
+            """);
+
+    ArrayList<String> tasks = new ArrayList<>();
+    for (int i = 0; i < modules; i++) {
+      String module = "module-" + i;
+      settings.append("include \"").append(module).append("\"\n");
+      tasks.add(":" + module + ":" + WebDocPlugin.OPEN_API_TASK);
+
+      Path moduleDir = Files.createDirectories(projectDir.resolve(module));
+      SyntheticCodebase.ofEndpoints(endpoints)
+              .setAnnotationStubs(true)
+              .setInheritanceDepth(1)
+              .setSeed(i)
+              .generate(moduleDir);
+      Files.writeString(moduleDir.resolve("build.gradle"), """
+              plugins {
+                id "cn.taketoday.web-docs"
+              }
+
+              group = "com.example"
+              """);
+    }
+
+    Files.writeString(projectDir.resolve("settings.gradle"), settings);
+    Files.writeString(projectDir.resolve("build.gradle"), """
+            tasks.register("reportHeap") {
+              mustRunAfter subprojects.collect { it.path + ":%s" }
+              doLast {
+                System.gc()
+                def runtime = Runtime.runtime
+                println "web-doc.heap=" + (runtime.totalMemory() - runtime.freeMemory())
+              }
+            }
+            """.formatted(WebDocPlugin.OPEN_API_TASK));
+    return tasks;
+  }
+
+  private BuildResult run(List<String> arguments) {
+    ArrayList<String> args = new ArrayList<>(arguments);
+    args.add("--build-cache");
+    args.add("--stacktrace");
+    return GradleRunner.create()
+            .withProjectDir(projectDir.toFile())
+            .withPluginClasspath()
+            .withArguments(args)
+            .forwardOutput()
+            .build();
+  }
+
+  private BuildResult run(String task) {
+    return run(List.of(task));
+  }
+
+  private static void assertOutcome(BuildResult result, List<String> tasks, TaskOutcome outcome) {
+    for (String task : tasks) {
+      assertThat(result.task(task)).as(task).isNotNull();
+      assertThat(result.task(task).getOutcome()).as(task).isEqualTo(outcome);
+    }
+  }
+
+  private static long heapUsed(BuildResult result) {
+    Matcher matcher = HEAP.matcher(result.getOutput());
+    assertThat(matcher.find()).as("heap report").isTrue();
+    return Long.parseLong(matcher.group(1));
+  }
+
+  private static long millis(long start) {
+    return (System.nanoTime() - start) / 1_000_000;
+  }
+
+  private static List<String> concat(List<String> first, String... rest) {
+    ArrayList<String> result = new ArrayList<>(first);
+    result.addAll(List.of(rest));
+    return result;
+  }
+
+}
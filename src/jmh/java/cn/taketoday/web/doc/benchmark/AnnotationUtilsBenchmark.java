@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
+import cn.taketoday.web.doc.gradle.util.ConstantValueResolver;
+
+/**
+ * Annotation lookup and constant resolution
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnnotationUtilsBenchmark {
+
+  static final String RequestMapping = "infra.web.annotation.RequestMapping";
+
+  @Param({ "10", "1000", "50000" })
+  public int endpoints;
+
+  private GeneratedCodebase codebase;
+
+  private final List<JavaClass> handlers = new ArrayList<>();
+
+  private final List<JavaMethod> methods = new ArrayList<>();
+
+  @Setup
+  public void setup() throws Exception {
+    codebase = BenchmarkSupport.generate(endpoints);
+    JavaProjectBuilder projectBuilder = BenchmarkSupport.parse(codebase.sourceRoot());
+    for (JavaClass javaClass : projectBuilder.getClasses()) {
+      if (!javaClass.isAbstract() && javaClass.getName().endsWith("HttpHandler")) {
+        handlers.add(javaClass);
+        methods.addAll(javaClass.getMethods());
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkSupport.delete(codebase);
+  }
+
+  @Benchmark
+  public void getAnnotation(Blackhole blackhole) {
+    for (JavaMethod method : methods) {
+      blackhole.consume(AnnotationUtils.getAnnotation(method, RequestMapping));
+    }
+  }
+
+  @Benchmark
+  public void getValue(Blackhole blackhole) {
+    for (JavaClass handler : handlers) {
+      JavaAnnotation annotation = AnnotationUtils.getAnnotation(handler, RequestMapping);
+      // a resolver per call, like before the resolver was shared
+      blackhole.consume(AnnotationUtils.getValue(annotation.getProperty("value"), new ConstantValueResolver()));
+    }
+  }
+
+  @Benchmark
+  public void getValueMemoized(Blackhole blackhole) {
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    for (JavaClass handler : handlers) {
+      JavaAnnotation annotation = AnnotationUtils.getAnnotation(handler, RequestMapping);
+      blackhole.consume(AnnotationUtils.getValue(annotation.getProperty("value"), resolver));
+    }
+  }
+
+}
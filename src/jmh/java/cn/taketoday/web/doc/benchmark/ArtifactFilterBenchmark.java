@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.gradle.util.ArtifactFilterUtils;
+import cn.taketoday.web.doc.gradle.util.CustomArtifact;
+
+/**
+ * Dependency filtering
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArtifactFilterBenchmark {
+
+  static final String[] KNOWN = {
+          "org.slf4j:slf4j-api:2.0.7",
+          "com.fasterxml.jackson.core:jackson-databind:2.16.0",
+          "cn.taketoday:today-web:5.0.0",
+          "io.netty:netty-buffer:4.1.100.Final",
+          "com.google.guava:guava:32.1.3-jre"
+  };
+
+  @Param({ "100", "1000" })
+  public int dependencies;
+
+  private final List<CustomArtifact> artifacts = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < dependencies; i++) {
+      // 1 in 5 are project artifacts that are never ignored
+      String displayName = i % 5 == 0 ? "com.example:service-" + i + ":1.0" : KNOWN[i % KNOWN.length];
+      artifacts.add(CustomArtifact.builder(displayName));
+    }
+  }
+
+  @Benchmark
+  public void ignoreArtifact(Blackhole blackhole) {
+    for (CustomArtifact artifact : artifacts) {
+      blackhole.consume(ArtifactFilterUtils.ignoreArtifact(artifact));
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import cn.taketoday.web.doc.fixture.SyntheticCodebase;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+import infra.lang.Constant;
+
+/**
+ * Benchmark support, codebases come from {@link SyntheticCodebase}
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+final class BenchmarkSupport {
+
+  /**
+   * Generate a codebase with the given number of endpoints
+   */
+  static GeneratedCodebase generate(int endpoints) throws IOException {
+    Path dir = Files.createTempDirectory("web-doc-bench");
+    return SyntheticCodebase.ofEndpoints(endpoints)
+            .setInheritanceDepth(1)
+            .setGenericDepth(2)
+            .generate(dir);
+  }
+
+  static JavaProjectBuilder parse(Path root) {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    projectBuilder.addSourceTree(root.toFile());
+    return projectBuilder;
+  }
+
+  /**
+   * Package a source root as a sources jar
+   */
+  static Path jar(Path root) throws IOException {
+    Path jar = Files.createTempFile("web-doc-bench", "-sources.jar");
+    try (OutputStream out = Files.newOutputStream(jar);
+            JarOutputStream jarOut = new JarOutputStream(out);
+            Stream<Path> files = Files.walk(root)) {
+      for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+        jarOut.putNextEntry(new JarEntry(root.relativize(file).toString().replace('\\', '/')));
+        jarOut.write(Files.readString(file).getBytes(StandardCharsets.UTF_8));
+        jarOut.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  /**
+   * Delete the project directory of a generated codebase
+   */
+  static void delete(GeneratedCodebase codebase) {
+    SyntheticCodebase.delete(codebase.sourceRoot().getParent().getParent());
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import cn.taketoday.web.doc.fixture.CdsTraining;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase;
+
+/**
+ * Wall time of a forked CLI run on a small project, with the class data
+ * sharing archive of {@code ./gradlew cdsArchive} and with a default JVM,
+ * which still maps the default CDS archive of the JDK.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CliStartupBenchmark {
+
+  @Param({ "default", "app" })
+  public String cds;
+
+  private List<String> command;
+
+  private Path dir;
+
+  @Setup
+  public void setup() throws IOException {
+    String home = System.getProperty("webdoc.cli.home");
+    if (home == null) {
+      throw new IllegalStateException("webdoc.cli.home is not set, run through './gradlew jmh'");
+    }
+    Path cliHome = Path.of(home);
+    Path archive = cliHome.resolve("web-doc.jsa");
+    if (Files.notExists(archive)) {
+      throw new IllegalStateException("No class data sharing archive at " + archive + ", run './gradlew cdsArchive'");
+    }
+    String classpath = Files.readAllLines(cliHome.resolve("classpath.txt")).stream()
+            .filter(line -> !line.isBlank())
+            .map(line -> cliHome.resolve(line).toString())
+            .collect(Collectors.joining(File.pathSeparator));
+
+    dir = Files.createTempDirectory("web-doc-bench");
+    Path manifest = CdsTraining.generate(dir);
+
+    command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    if (cds.equals("app")) {
+      command.add("-XX:SharedArchiveFile=" + archive);
+      command.add("-Xshare:auto");
+    }
+    command.addAll(List.of("-cp", classpath, "cn.taketoday.web.doc.cli.WebDocCli",
+            "--manifest", manifest.toString(), "--cache", dir.resolve("cache").toString()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    SyntheticCodebase.delete(dir);
+  }
+
+  @Benchmark
+  public int run() throws Exception {
+    Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("CLI exited with " + exitCode + ": " + command);
+    }
+    return exitCode;
+  }
+
+}
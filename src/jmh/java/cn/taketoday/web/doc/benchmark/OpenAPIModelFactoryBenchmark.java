@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * Endpoint extraction from a parsed source model
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OpenAPIModelFactoryBenchmark {
+
+  @Param({ "10", "1000", "50000" })
+  public int endpoints;
+
+  private GeneratedCodebase codebase;
+
+  private JavaProjectBuilder projectBuilder;
+
+  @Setup
+  public void setup() throws Exception {
+    codebase = BenchmarkSupport.generate(endpoints);
+    projectBuilder = BenchmarkSupport.parse(codebase.sourceRoot());
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkSupport.delete(codebase);
+  }
+
+  /**
+   * A new factory per invocation, the type and schema caches of a
+   * factory would otherwise be warm after the first invocation
+   */
+  @Benchmark
+  public OpenAPI createOpenAPI() {
+    return new OpenAPIModelFactory().createOpenAPI(new DocConfig(), projectBuilder);
+  }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.benchmark;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import cn.taketoday.web.doc.source.SourcePlan;
+import cn.taketoday.web.doc.source.SourcePlanner;
+import cn.taketoday.web.doc.source.SourcesJars;
+import infra.lang.Constant;
+
+/**
+ * Source tree parsing and sources jar loading
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SourceLoadingBenchmark {
+
+  @Param({ "10", "1000", "50000" })
+  public int endpoints;
+
+  private GeneratedCodebase codebase;
+
+  private Path jar;
+
+  @Setup
+  public void setup() throws Exception {
+    codebase = BenchmarkSupport.generate(endpoints);
+    jar = BenchmarkSupport.jar(codebase.sourceRoot());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    BenchmarkSupport.delete(codebase);
+    Files.deleteIfExists(jar);
+  }
+
+  @Benchmark
+  public JavaProjectBuilder parseSourceTree() {
+    return BenchmarkSupport.parse(codebase.sourceRoot());
+  }
+
+  @Benchmark
+  public JavaProjectBuilder loadSourcesJar() throws Exception {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    SourcesJars.addSources(projectBuilder, jar.toFile());
+    return projectBuilder;
+  }
+
+  @Benchmark
+  public JavaProjectBuilder loadPlanned() throws Exception {
+    SourcePlan plan = new SourcePlanner()
+            .addRoot(codebase.sourceRoot().toFile())
+            .addJar(jar.toFile())
+            .plan();
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    new ParallelSourceLoader(parallelism, StandardCharsets.UTF_8, new GenerationMetrics()).load(plan, projectBuilder);
+    return projectBuilder;
+  }
+
+}
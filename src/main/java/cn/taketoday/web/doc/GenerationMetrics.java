@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import infra.lang.Nullable;
+
+/**
+ * Per-phase wall time, CPU time, allocated bytes and heap usage of a
+ * generation run, and counters of the processed files, classes and endpoints.
+ * <p>
+ * CPU time and allocations are measured on the thread that runs the phase,
+ * work done by other threads can be added with {@link #addWorkerUsage}.
+ * Heap usage comes from the {@link MemoryBudget}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class GenerationMetrics {
+
+  /** source files found in source roots */
+  public static final String FILES = "files";
+
+  /** sources jars read */
+  public static final String SOURCES_JARS = "sourcesJars";
+
+  /** source files read from sources jars */
+  public static final String JAR_FILES = "jarFiles";
+
+  /** classes scanned for endpoints */
+  public static final String CLASSES = "classes";
+
+  /** classes declaring endpoints */
+  public static final String CONTROLLERS = "controllers";
+
+  /** operations in the document */
+  public static final String ENDPOINTS = "endpoints";
+
+  /** schemas in the document */
+  public static final String SCHEMAS = "schemas";
+
+  /** operations moved to the spill file over the memory budget */
+  public static final String SPILLED = "spilled";
+
+  private final MemoryBudget memoryBudget;
+
+  private final ArrayList<Phase> phases = new ArrayList<>();
+
+  private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  @Nullable
+  private final com.sun.management.ThreadMXBean allocationBean;
+
+  private final ThreadMXBean threadBean;
+
+  @Nullable
+  private String currentPhase;
+
+  private long phaseStartWall;
+
+  private long phaseStartCpu;
+
+  private long phaseStartAllocated;
+
+  private final AtomicLong workerCpu = new AtomicLong();
+
+  private final AtomicLong workerAllocated = new AtomicLong();
+
+  public GenerationMetrics() {
+    this(MemoryBudget.unlimited());
+  }
+
+  public GenerationMetrics(MemoryBudget memoryBudget) {
+    this.memoryBudget = memoryBudget;
+    this.threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+      this.allocationBean = bean;
+    }
+    else {
+      this.allocationBean = null;
+    }
+    if (threadBean.isCurrentThreadCpuTimeSupported() && !threadBean.isThreadCpuTimeEnabled()) {
+      threadBean.setThreadCpuTimeEnabled(true);
+    }
+    for (String counter : List.of(FILES, SOURCES_JARS, JAR_FILES, CLASSES, CONTROLLERS, ENDPOINTS, SCHEMAS)) {
+      counters.put(counter, new LongAdder());
+    }
+  }
+
+  public MemoryBudget getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Start a phase, the current phase will be ended
+   *
+   * @param name phase name
+   */
+  public void startPhase(String name) {
+    endPhase();
+    memoryBudget.startPhase(name);
+    workerCpu.set(0);
+    workerAllocated.set(0);
+    phaseStartAllocated = allocatedBytes();
+    phaseStartCpu = cpuTime();
+    phaseStartWall = System.nanoTime();
+    currentPhase = name;
+  }
+
+  /**
+   * End the current phase
+   */
+  public void endPhase() {
+    if (currentPhase != null) {
+      long wall = System.nanoTime() - phaseStartWall;
+      long cpu = cpuTime() - phaseStartCpu + workerCpu.get();
+      long allocated = allocatedBytes() - phaseStartAllocated + workerAllocated.get();
+      memoryBudget.endPhase();
+      List<MemoryBudget.PhaseUsage> heap = memoryBudget.getPhases();
+      MemoryBudget.PhaseUsage usage = heap.get(heap.size() - 1);
+      phases.add(new Phase(currentPhase, wall, cpu, allocated, usage.peakBytes(), usage.retainedBytes()));
+      currentPhase = null;
+    }
+  }
+
+  /**
+   * Add CPU time and allocations of work done by another thread to the current phase
+   *
+   * @param cpuNanos CPU time of the work
+   * @param allocatedBytes bytes allocated by the work
+   */
+  public void addWorkerUsage(long cpuNanos, long allocatedBytes) {
+    workerCpu.addAndGet(cpuNanos);
+    workerAllocated.addAndGet(allocatedBytes);
+  }
+
+  /**
+   * CPU time of the current thread, {@code 0} if not supported
+   */
+  public long cpuTime() {
+    return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0;
+  }
+
+  /**
+   * Bytes allocated by the current thread, {@code 0} if not supported
+   */
+  public long allocatedBytes() {
+    return allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  public void increment(String counter) {
+    add(counter, 1);
+  }
+
+  public void add(String counter, long value) {
+    counters.computeIfAbsent(counter, k -> new LongAdder()).add(value);
+  }
+
+  public long getCount(String counter) {
+    LongAdder adder = counters.get(counter);
+    return adder == null ? 0 : adder.sum();
+  }
+
+  public Map<String, Long> getCounters() {
+    TreeMap<String, Long> result = new TreeMap<>();
+    counters.forEach((name, adder) -> result.put(name, adder.sum()));
+    return result;
+  }
+
+  public List<Phase> getPhases() {
+    return Collections.unmodifiableList(phases);
+  }
+
+  /**
+   * Write the phases and counters as JSON
+   *
+   * @param file report file
+   */
+  public void writeReport(File file) throws IOException {
+    long wall = 0;
+    long cpu = 0;
+    long allocated = 0;
+    for (Phase phase : phases) {
+      wall += phase.wallNanos;
+      cpu += phase.cpuNanos;
+      allocated += phase.allocatedBytes;
+    }
+    LinkedHashMap<String, Object> total = new LinkedHashMap<>();
+    total.put("wallMillis", wall / 1_000_000);
+    total.put("cpuMillis", cpu / 1_000_000);
+    total.put("allocatedBytes", allocated);
+
+    LinkedHashMap<String, Object> report = new LinkedHashMap<>();
+    report.put("total", total);
+    report.put("phases", phases.stream().map(Phase::toMap).toList());
+    report.put("counters", getCounters());
+
+    Files.createDirectories(file.toPath().toAbsolutePath().getParent());
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+  }
+
+  /**
+   * Human-readable summary, one line per phase
+   */
+  public String getSummary() {
+    StringBuilder summary = new StringBuilder("Web-docs metrics ").append(getCounters());
+    for (Phase phase : phases) {
+      summary.append(System.lineSeparator()).append("  ").append(phase);
+    }
+    return summary.toString();
+  }
+
+  /**
+   * Measurements of a phase
+   *
+   * @param name phase name
+   * @param wallNanos elapsed time
+   * @param cpuNanos CPU time
+   * @param allocatedBytes allocated bytes
+   * @param peakHeapBytes peak heap usage
+   * @param retainedHeapBytes heap usage after the most recent collection
+   */
+  public record Phase(String name, long wallNanos, long cpuNanos,
+          long allocatedBytes, long peakHeapBytes, long retainedHeapBytes) {
+
+    Map<String, Object> toMap() {
+      LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+      map.put("name", name);
+      map.put("wallMillis", wallNanos / 1_000_000);
+      map.put("cpuMillis", cpuNanos / 1_000_000);
+      map.put("allocatedBytes", allocatedBytes);
+      map.put("peakHeapBytes", peakHeapBytes);
+      map.put("retainedHeapBytes", retainedHeapBytes);
+      return map;
+    }
+
+    @Override
+    public String toString() {
+      return "%-12s wall %6d ms, cpu %6d ms, allocated %6d MB, peak heap %5d MB, retained %5d MB".formatted(name,
+              wallNanos / 1_000_000, cpuNanos / 1_000_000, allocatedBytes >> 20, peakHeapBytes >> 20, retainedHeapBytes >> 20);
+    }
+  }
+
+}
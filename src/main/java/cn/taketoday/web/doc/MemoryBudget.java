@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc;
+
+import com.sun.management.GcInfo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import infra.lang.Nullable;
+
+/**
+ * Heap budget of a generation run, and heap usage of its phases.
+ * <p>
+ * The peak of a phase is the sum of the peak usages of the heap pools
+ * during the phase, the retained heap is the usage of the heap pools
+ * after the most recent collection when the phase ended.
+ * <p>
+ * The budget is checked against the retained heap, garbage is not
+ * counted. The retained heap is only measured again after a collection,
+ * so checking the budget is cheap between collections.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class MemoryBudget {
+
+  /**
+   * Percentage of the budget the retained heap has to drop below before
+   * an exceeded budget is no longer exceeded
+   */
+  static final int LOW_WATERMARK = 90;
+
+  private final long maxBytes;
+
+  private final List<MemoryPoolMXBean> heapPools;
+
+  private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+  private long collectionCount = -1;
+
+  private boolean exceeded;
+
+  private final ArrayList<PhaseUsage> phases = new ArrayList<>();
+
+  @Nullable
+  private String currentPhase;
+
+  /**
+   * @param maxBytes max heap bytes, {@code 0} for unlimited
+   */
+  public MemoryBudget(long maxBytes) {
+    this.maxBytes = maxBytes;
+    ArrayList<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        heapPools.add(pool);
+      }
+    }
+    this.heapPools = heapPools;
+  }
+
+  public static MemoryBudget unlimited() {
+    return new MemoryBudget(0);
+  }
+
+  public boolean isLimited() {
+    return maxBytes > 0;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Whether the heap retained after the most recent collection exceeds
+   * the budget. Once exceeded, the budget stays exceeded until the
+   * retained heap drops below {@link #LOW_WATERMARK} percent of the budget.
+   */
+  public boolean isExceeded() {
+    if (maxBytes <= 0) {
+      return false;
+    }
+    long count = 0;
+    for (GarbageCollectorMXBean collector : collectors) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    if (count != collectionCount) {
+      collectionCount = count;
+      long retained = getRetainedBytes();
+      exceeded = exceeded ? retained > maxBytes / 100 * LOW_WATERMARK : retained > maxBytes;
+    }
+    return exceeded;
+  }
+
+  /**
+   * Heap usage after the most recent collection of any collector, or the
+   * collection usage of the heap pools when the collectors do not report it
+   */
+  private long getRetainedBytes() {
+    GcInfo last = null;
+    for (GarbageCollectorMXBean collector : collectors) {
+      if (collector instanceof com.sun.management.GarbageCollectorMXBean gc) {
+        GcInfo info = gc.getLastGcInfo();
+        if (info != null && (last == null || info.getEndTime() > last.getEndTime())) {
+          last = info;
+        }
+      }
+    }
+    long retained = 0;
+    if (last != null) {
+      Map<String, MemoryUsage> usage = last.getMemoryUsageAfterGc();
+      for (MemoryPoolMXBean pool : heapPools) {
+        MemoryUsage poolUsage = usage.get(pool.getName());
+        if (poolUsage != null) {
+          retained += poolUsage.getUsed();
+        }
+      }
+    }
+    else {
+      for (MemoryPoolMXBean pool : heapPools) {
+        MemoryUsage collectionUsage = pool.getCollectionUsage();
+        if (collectionUsage != null) {
+          retained += collectionUsage.getUsed();
+        }
+      }
+    }
+    return retained;
+  }
+
+  /**
+   * Start a phase, the current phase will be ended
+   *
+   * @param name phase name
+   */
+  public void startPhase(String name) {
+    endPhase();
+    for (MemoryPoolMXBean pool : heapPools) {
+      pool.resetPeakUsage();
+    }
+    currentPhase = name;
+  }
+
+  /**
+   * End the current phase
+   */
+  public void endPhase() {
+    if (currentPhase != null) {
+      long peak = 0;
+      long retained = 0;
+      for (MemoryPoolMXBean pool : heapPools) {
+        MemoryUsage peakUsage = pool.getPeakUsage();
+        if (peakUsage != null) {
+          peak += peakUsage.getUsed();
+        }
+        MemoryUsage collectionUsage = pool.getCollectionUsage();
+        if (collectionUsage != null) {
+          retained += collectionUsage.getUsed();
+        }
+      }
+      phases.add(new PhaseUsage(currentPhase, peak, retained));
+      currentPhase = null;
+    }
+  }
+
+  public List<PhaseUsage> getPhases() {
+    return Collections.unmodifiableList(phases);
+  }
+
+  /**
+   * Parse sizes like {@code 512m}, {@code 2g}, {@code 65536k} or plain bytes
+   *
+   * @param size size text
+   * @return bytes
+   * @throws IllegalArgumentException size is not valid
+   */
+  public static long parseSize(String size) {
+    String text = size.trim().toLowerCase();
+    if (text.endsWith("b")) {
+      text = text.substring(0, text.length() - 1);
+    }
+    long unit = 1;
+    if (!text.isEmpty()) {
+      switch (text.charAt(text.length() - 1)) {
+        case 'k' -> unit = 1024L;
+        case 'm' -> unit = 1024L * 1024;
+        case 'g' -> unit = 1024L * 1024 * 1024;
+      }
+      if (unit > 1) {
+        text = text.substring(0, text.length() - 1).trim();
+      }
+    }
+    try {
+      return Long.parseLong(text) * unit;
+    }
+    catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid size: '" + size + "'", e);
+    }
+  }
+
+  /**
+   * Heap usage of a phase
+   *
+   * @param name phase name
+   * @param peakBytes peak heap usage
+   * @param retainedBytes heap usage after the most recent collection
+   */
+  public record PhaseUsage(String name, long peakBytes, long retainedBytes) {
+
+    @Override
+    public String toString() {
+      return "%s: peak heap %d MB, retained %d MB".formatted(name, peakBytes >> 20, retainedBytes >> 20);
+    }
+  }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.cli.BatchManifest.ProjectManifest;
+import cn.taketoday.web.doc.comment.CommentSource;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import cn.taketoday.web.doc.source.SourceFilter;
+import cn.taketoday.web.doc.source.SourcePlan;
+import cn.taketoday.web.doc.source.SourcePlanner;
+import infra.lang.Constant;
+import infra.lang.Nullable;
+
+/**
+ * Generates the documents of many projects in one JVM. Projects run
+ * concurrently, sources jars are shared through a {@link SourcesJarCache}.
+ * A project is written to {@code <output>/<name>/openapi.json}, together
+ * with its {@code metrics.json}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class BatchGenerator {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchGenerator.class);
+
+  public static final String OUTPUT_FILE = "openapi.json";
+
+  public static final String METRICS_FILE = "metrics.json";
+
+  public static final String REPORT_FILE = "report.json";
+
+  private final Path outputDir;
+
+  private final int parallelism;
+
+  private final SourcesJarCache sourcesJarCache;
+
+  private final Charset charset = Charset.forName(Constant.DEFAULT_ENCODING);
+
+  /**
+   * @param outputDir output directory
+   * @param parallelism number of projects generated concurrently
+   * @param sourcesJarCache shared sources jar cache
+   */
+  public BatchGenerator(Path outputDir, int parallelism, SourcesJarCache sourcesJarCache) {
+    this.outputDir = outputDir;
+    this.parallelism = Math.max(1, parallelism);
+    this.sourcesJarCache = sourcesJarCache;
+  }
+
+  /**
+   * Generate all projects and write the aggregate report
+   *
+   * @param projects projects
+   * @param baseDir directory relative paths are resolved against
+   * @return results, in the order of the projects
+   */
+  public List<ProjectResult> generate(List<ProjectManifest> projects, Path baseDir) throws IOException {
+    long start = System.nanoTime();
+    AtomicInteger threadId = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+      Thread thread = new Thread(r, "web-doc-batch-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    ArrayList<ProjectResult> results = new ArrayList<>(projects.size());
+    try {
+      ArrayList<Future<ProjectResult>> futures = new ArrayList<>(projects.size());
+      for (ProjectManifest project : projects) {
+        futures.add(executor.submit(() -> generate(project, baseDir)));
+      }
+      for (Future<ProjectResult> future : futures) {
+        results.add(future.get());
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Unexpected failure", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    writeReport(results, System.nanoTime() - start);
+    return results;
+  }
+
+  /**
+   * Generate a project, failures are reported in the result
+   */
+  public ProjectResult generate(ProjectManifest project, Path baseDir) {
+    long start = System.nanoTime();
+    Path projectDir = outputDir.resolve(project.name());
+    GenerationMetrics metrics = new GenerationMetrics();
+    try {
+      generate(project, baseDir, projectDir, metrics);
+      metrics.writeReport(projectDir.resolve(METRICS_FILE).toFile());
+      return ProjectResult.success(project.name(), System.nanoTime() - start, metrics);
+    }
+    catch (Exception e) {
+      log.error("Unable to generate {}", project.name(), e);
+      return ProjectResult.failure(project.name(), System.nanoTime() - start, metrics, e);
+    }
+  }
+
+  private void generate(ProjectManifest project, Path baseDir, Path projectDir, GenerationMetrics metrics) throws IOException {
+    metrics.startPhase("discovery");
+    SourcePlanner planner = new SourcePlanner().setFilter(new SourceFilter(project.includePackages(),
+            project.excludePackages(), project.includePaths(), project.excludePaths()));
+    for (String sourceRoot : project.sourceRoots()) {
+      planner.addRoot(baseDir.resolve(sourceRoot).toFile());
+    }
+    if (!project.isCommentIndex()) {
+      for (String sourcesJar : project.sourcesJars()) {
+        planner.addJar(baseDir.resolve(sourcesJar).toFile());
+      }
+    }
+    SourcePlan plan = planner.plan();
+    for (Path missing : plan.getMissing()) {
+      log.warn("{}: source {} does not exist", project.name(), missing);
+    }
+
+    ArrayList<CommentSource> commentSources = new ArrayList<>();
+    if (project.isCommentIndex()) {
+      metrics.startPhase("sources-jars");
+      for (String sourcesJar : project.sourcesJars()) {
+        metrics.increment(GenerationMetrics.SOURCES_JARS);
+        commentSources.add(sourcesJarCache.getCommentSource(baseDir.resolve(sourcesJar)));
+      }
+    }
+
+    metrics.startPhase("parse");
+    SortedClassLibraryBuilder classLibraryBuilder = new SortedClassLibraryBuilder();
+    try (URLClassLoader classLoader = project.isCommentIndex() ? createClassLoader(project, baseDir) : null) {
+      if (classLoader != null) {
+        // dependency types come from bytecode, comments from the index
+        classLibraryBuilder.appendClassLoader(classLoader);
+      }
+      JavaProjectBuilder projectBuilder = new JavaProjectBuilder(classLibraryBuilder);
+      projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+      projectBuilder.setErrorHandler(e -> log.warn("{}: {}", project.name(), e.getMessage()));
+      // projects already run concurrently
+      int readers = Math.max(1, Runtime.getRuntime().availableProcessors() / parallelism);
+      new ParallelSourceLoader(readers, charset, metrics).load(plan, projectBuilder);
+
+      File output = projectDir.resolve(OUTPUT_FILE).toFile();
+      new OpenAPIModelFactory(CommentSource.composite(commentSources))
+              .writeOpenAPI(new DocConfig(), projectBuilder, output, metrics);
+    }
+  }
+
+  /**
+   * Class loader of the classpath of a project
+   *
+   * @return the class loader, {@code null} if the project has no classpath
+   */
+  @Nullable
+  private static URLClassLoader createClassLoader(ProjectManifest project, Path baseDir) throws IOException {
+    if (project.classpath().isEmpty()) {
+      if (!project.sourcesJars().isEmpty()) {
+        log.warn("{}: comment index without a classpath, the types of the sources jars are not resolved", project.name());
+      }
+      return null;
+    }
+    URL[] urls = new URL[project.classpath().size()];
+    for (int i = 0; i < urls.length; i++) {
+      urls[i] = baseDir.resolve(project.classpath().get(i)).toUri().toURL();
+    }
+    return new URLClassLoader(urls, ClassLoader.getPlatformClassLoader());
+  }
+
+  private void writeReport(List<ProjectResult> results, long wallNanos) throws IOException {
+    int failures = 0;
+    long endpoints = 0;
+    long projectMillis = 0;
+    ArrayList<Map<String, Object>> projects = new ArrayList<>(results.size());
+    for (ProjectResult result : results) {
+      if (!result.success()) {
+        failures++;
+      }
+      endpoints += result.counters().getOrDefault(GenerationMetrics.ENDPOINTS, 0L);
+      projectMillis += result.wallMillis();
+      projects.add(result.toMap());
+    }
+    LinkedHashMap<String, Object> total = new LinkedHashMap<>();
+    total.put("projects", results.size());
+    total.put("failures", failures);
+    total.put("endpoints", endpoints);
+    total.put("wallMillis", wallNanos / 1_000_000);
+    total.put("projectMillis", projectMillis);
+    total.put("parallelism", parallelism);
+    total.put("sourcesJarCacheHits", sourcesJarCache.getHits());
+    total.put("sourcesJarCacheMisses", sourcesJarCache.getMisses());
+
+    LinkedHashMap<String, Object> report = new LinkedHashMap<>();
+    report.put("total", total);
+    report.put("projects", projects);
+    Files.createDirectories(outputDir);
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(outputDir.resolve(REPORT_FILE).toFile(), report);
+  }
+
+  /**
+   * Result of a project
+   *
+   * @param name project name
+   * @param success whether the document was written
+   * @param error failure message
+   * @param wallMillis elapsed time
+   * @param phases phases of the generation
+   * @param counters counters of the generation
+   */
+  public record ProjectResult(String name, boolean success, @Nullable String error,
+          long wallMillis, List<GenerationMetrics.Phase> phases, Map<String, Long> counters) {
+
+    static ProjectResult success(String name, long wallNanos, GenerationMetrics metrics) {
+      return new ProjectResult(name, true, null, wallNanos / 1_000_000, metrics.getPhases(), metrics.getCounters());
+    }
+
+    static ProjectResult failure(String name, long wallNanos, GenerationMetrics metrics, Exception e) {
+      metrics.endPhase();
+      return new ProjectResult(name, false, String.valueOf(e), wallNanos / 1_000_000, metrics.getPhases(), metrics.getCounters());
+    }
+
+    Map<String, Object> toMap() {
+      LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+      map.put("name", name);
+      map.put("success", success);
+      if (error != null) {
+        map.put("error", error);
+      }
+      map.put("wallMillis", wallMillis);
+      LinkedHashMap<String, Long> phaseMillis = new LinkedHashMap<>();
+      for (GenerationMetrics.Phase phase : phases) {
+        phaseMillis.put(phase.name(), phase.wallNanos() / 1_000_000);
+      }
+      map.put("phases", phaseMillis);
+      map.put("counters", counters);
+      return map;
+    }
+  }
+
+}
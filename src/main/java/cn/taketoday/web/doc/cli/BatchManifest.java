@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.cli;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import infra.lang.Assert;
+import infra.lang.Nullable;
+
+/**
+ * Projects of a batch run, read from JSON:
+ * <pre>{@code
+ * {
+ *   "output": "build/api-docs",
+ *   "parallelism": 8,
+ *   "projects": [
+ *     {
+ *       "name": "order-service",
+ *       "sourceRoots": ["order-service/src/main/java"],
+ *       "sourcesJars": ["libs/order-api-1.0-sources.jar"],
+ *       "classpath": ["libs/order-api-1.0.jar"],
+ *       "commentIndex": true,
+ *       "excludePackages": ["com.example.order.internal.**"]
+ *     }
+ *   ]
+ * }
+ * }</pre>
+ * Relative paths are resolved against the directory of the manifest.
+ * A project name is the name of its output directory, so it is limited
+ * to letters, digits, {@code .}, {@code _} and {@code -}, and unique in
+ * the batch.
+ *
+ * @param output output directory, a project is written to {@code <output>/<name>}
+ * @param parallelism number of projects generated concurrently
+ * @param cacheDir cache of the sources jar comment indexes
+ * @param projects projects
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record BatchManifest(@Nullable String output, @Nullable Integer parallelism,
+        @Nullable String cacheDir, List<ProjectManifest> projects) {
+
+  public BatchManifest {
+    projects = projects == null ? List.of() : projects;
+    HashSet<String> names = new HashSet<>();
+    for (ProjectManifest project : projects) {
+      Assert.isTrue(names.add(project.name()), "duplicate project name '" + project.name() + "'");
+    }
+  }
+
+  public static BatchManifest read(Path file) throws IOException {
+    return new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readValue(file.toFile(), BatchManifest.class);
+  }
+
+  /**
+   * A project of the batch
+   *
+   * @param name project name, unique in the batch
+   * @param sourceRoots source roots
+   * @param sourcesJars sources jars of the dependencies
+   * @param classpath compiled dependencies, jars or class directories, the
+   * types of the sources jars come from it with a comment index
+   * @param includePackages package globs to parse
+   * @param excludePackages package globs to skip
+   * @param includePaths path globs to parse
+   * @param excludePaths path globs to skip
+   * @param commentIndex whether sources jars are used through the shared
+   * comment index cache instead of being parsed, {@code false} by default.
+   * Only the comments come from the sources jars then, their types are
+   * loaded from the classpath.
+   */
+  public record ProjectManifest(String name, List<String> sourceRoots, List<String> sourcesJars,
+          List<String> classpath, List<String> includePackages, List<String> excludePackages,
+          List<String> includePaths, List<String> excludePaths, @Nullable Boolean commentIndex) {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    public ProjectManifest {
+      Assert.isTrue(name != null && NAME.matcher(name).matches() && !name.equals(".") && !name.equals(".."),
+              "invalid project name '" + name + "', expected letters, digits, '.', '_' or '-'");
+      sourceRoots = sourceRoots == null ? List.of() : sourceRoots;
+      sourcesJars = sourcesJars == null ? List.of() : sourcesJars;
+      classpath = classpath == null ? List.of() : classpath;
+      includePackages = includePackages == null ? List.of() : includePackages;
+      excludePackages = excludePackages == null ? List.of() : excludePackages;
+      includePaths = includePaths == null ? List.of() : includePaths;
+      excludePaths = excludePaths == null ? List.of() : excludePaths;
+    }
+
+    public boolean isCommentIndex() {
+      return commentIndex != null && commentIndex;
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import cn.taketoday.web.doc.comment.CommentIndex;
+import cn.taketoday.web.doc.comment.CommentIndexBuilder;
+import cn.taketoday.web.doc.comment.CommentSource;
+
+/**
+ * Comment indexes of sources jars shared by the projects of a batch.
+ * An index is built once per jar and kept on disk for later runs, a jar
+ * used by several projects is opened once.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SourcesJarCache implements Closeable {
+
+  private final Path cacheDir;
+
+  private final ConcurrentHashMap<Path, CompletableFuture<CommentIndex>> indexes = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  public SourcesJarCache(Path cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * Get the comment index of a sources jar, concurrent
+   * requests of the same jar wait for a single build
+   *
+   * @param jar sources jar
+   */
+  public CommentSource getCommentSource(Path jar) throws IOException {
+    Path key = jar.toAbsolutePath().normalize();
+    CompletableFuture<CommentIndex> future = new CompletableFuture<>();
+    CompletableFuture<CommentIndex> existing = indexes.putIfAbsent(key, future);
+    if (existing != null) {
+      hits.increment();
+      try {
+        return existing.join();
+      }
+      catch (CompletionException e) {
+        throw new IOException("Unable to index " + jar, e.getCause());
+      }
+    }
+
+    misses.increment();
+    try {
+      CommentIndex index = CommentIndexBuilder.forSourcesJar(key.toFile(), indexFile(key));
+      future.complete(index);
+      return index;
+    }
+    catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private Path indexFile(Path jar) {
+    String name = jar.getFileName().toString();
+    return cacheDir.resolve("comment-index")
+            .resolve(name + "-" + Integer.toHexString(jar.toString().hashCode()) + ".idx");
+  }
+
+  /**
+   * Requests served by an index opened for another project
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Requests that opened or built an index
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (CompletableFuture<CommentIndex> future : indexes.values()) {
+      if (future.isDone() && !future.isCompletedExceptionally()) {
+        future.join().close();
+      }
+    }
+    indexes.clear();
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.cli.BatchGenerator.ProjectResult;
+
+/**
+ * Command line entry point of batch generation, without Gradle:
+ * <pre>
+ * java -cp "lib/*" cn.taketoday.web.doc.cli.WebDocCli --manifest projects.json \
+ *     [--output dir] [--parallelism n] [--cache dir]
+ * </pre>
+ * Options override the values of the manifest. Paths of the options are
+ * relative to the working directory, paths of the manifest to the
+ * directory of the manifest. Exits with {@code 1} when a project failed,
+ * {@code 2} on invalid arguments.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see BatchManifest
+ * @since 1.0
+ */
+public class WebDocCli {
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out, System.err));
+  }
+
+  static int run(String[] args, PrintStream out, PrintStream err) {
+    String manifestFile = null;
+    String output = null;
+    String cache = null;
+    Integer parallelism = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--manifest" -> manifestFile = args[++i];
+          case "--output" -> output = args[++i];
+          case "--cache" -> cache = args[++i];
+          case "--parallelism" -> parallelism = Integer.parseInt(args[++i]);
+          default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+        }
+      }
+      if (manifestFile == null) {
+        throw new IllegalArgumentException("--manifest is required");
+      }
+    }
+    catch (RuntimeException e) {
+      err.println(e.getMessage() == null ? e.toString() : e.getMessage());
+      err.println("Usage: WebDocCli --manifest <file> [--output <dir>] [--parallelism <n>] [--cache <dir>]");
+      return 2;
+    }
+
+    try {
+      Path manifestPath = Path.of(manifestFile).toAbsolutePath();
+      Path baseDir = manifestPath.getParent();
+      BatchManifest manifest = BatchManifest.read(manifestPath);
+
+      Path outputDir = output != null ? Path.of(output).toAbsolutePath()
+              : baseDir.resolve(manifest.output() != null ? manifest.output() : "web-doc");
+      Path cacheDir = cache != null ? Path.of(cache).toAbsolutePath() : manifest.cacheDir() != null
+              ? baseDir.resolve(manifest.cacheDir()) : Path.of(System.getProperty("user.home"), ".web-doc", "cache");
+      int threads = parallelism != null ? parallelism : manifest.parallelism() != null
+              ? manifest.parallelism() : Runtime.getRuntime().availableProcessors();
+
+      List<ProjectResult> results;
+      try (SourcesJarCache sourcesJarCache = new SourcesJarCache(cacheDir)) {
+        results = new BatchGenerator(outputDir, threads, sourcesJarCache).generate(manifest.projects(), baseDir);
+      }
+
+      int failures = 0;
+      for (ProjectResult result : results) {
+        if (result.success()) {
+          out.printf("%-40s %8d ms %6d endpoints%n", result.name(), result.wallMillis(),
+                  result.counters().getOrDefault(GenerationMetrics.ENDPOINTS, 0L));
+        }
+        else {
+          failures++;
+          out.printf("%-40s FAILED %s%n", result.name(), result.error());
+        }
+      }
+      out.printf("%d projects, %d failed, report: %s%n", results.size(), failures,
+              outputDir.resolve(BatchGenerator.REPORT_FILE));
+      return failures == 0 ? 0 : 1;
+    }
+    catch (IOException e) {
+      err.println("Batch generation failed: " + e.getMessage());
+      return 1;
+    }
+  }
+
+}
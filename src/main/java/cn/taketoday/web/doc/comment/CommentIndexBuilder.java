@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.comment;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.DocletTag;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaExecutable;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+import cn.taketoday.web.doc.source.SourcesJars;
+import infra.lang.Constant;
+import infra.lang.Nullable;
+import infra.util.StringUtils;
+
+/**
+ * Collect Javadoc comments from a source model into a {@link CommentIndex}
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class CommentIndexBuilder {
+
+  private final TreeMap<String, String> comments = new TreeMap<>();
+
+  public CommentIndexBuilder add(Collection<JavaClass> classes) {
+    for (JavaClass javaClass : classes) {
+      add(javaClass);
+    }
+    return this;
+  }
+
+  public CommentIndexBuilder add(JavaClass javaClass) {
+    put(MemberSignature.of(javaClass), javaClass.getComment());
+    for (JavaField field : javaClass.getFields()) {
+      put(MemberSignature.of(field), field.getComment());
+    }
+    for (JavaExecutable constructor : javaClass.getConstructors()) {
+      addExecutable(constructor);
+    }
+    for (JavaExecutable method : javaClass.getMethods()) {
+      addExecutable(method);
+    }
+    for (JavaClass nestedClass : javaClass.getNestedClasses()) {
+      add(nestedClass);
+    }
+    return this;
+  }
+
+  private void addExecutable(JavaExecutable executable) {
+    put(MemberSignature.of(executable), executable.getComment());
+    List<JavaParameter> parameters = executable.getParameters();
+    if (!parameters.isEmpty()) {
+      List<DocletTag> tags = executable.getTagsByName("param");
+      for (int i = 0; i < parameters.size(); i++) {
+        String comment = getParamComment(tags, parameters.get(i).getName());
+        put(MemberSignature.ofParameter(executable, i), comment);
+      }
+    }
+  }
+
+  private void put(String signature, @Nullable String comment) {
+    if (StringUtils.hasText(comment)) {
+      comments.put(signature, comment.trim());
+    }
+  }
+
+  public int size() {
+    return comments.size();
+  }
+
+  public void writeTo(Path file) throws IOException {
+    CommentIndex.write(comments, file);
+  }
+
+  /**
+   * Get the comment of a parameter from the {@code @param} tags of its method
+   *
+   * @param paramTags {@code @param} tags
+   * @param name parameter name
+   * @return comment of the parameter
+   */
+  @Nullable
+  public static String getParamComment(List<DocletTag> paramTags, String name) {
+    for (DocletTag tag : paramTags) {
+      String value = tag.getValue();
+      if (value != null && value.startsWith(name)) {
+        if (value.length() == name.length()) {
+          return null;
+        }
+        if (Character.isWhitespace(value.charAt(name.length()))) {
+          return value.substring(name.length()).trim();
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the comment index of a sources jar, building it only when the
+   * index file does not exist or is older than the jar.
+   *
+   * @param sourcesJar sources jar
+   * @param indexFile index file of this artifact version
+   * @return lazily loaded comment index
+   */
+  public static CommentIndex forSourcesJar(File sourcesJar, Path indexFile) throws IOException {
+    if (!Files.isRegularFile(indexFile)
+            || Files.getLastModifiedTime(indexFile).toMillis() < sourcesJar.lastModified()) {
+      JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+      projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+      projectBuilder.setErrorHandler(e -> { });
+
+      SourcesJars.addSources(projectBuilder, sourcesJar);
+      new CommentIndexBuilder()
+              .add(projectBuilder.getClasses())
+              .writeTo(indexFile);
+    }
+    return CommentIndex.open(indexFile);
+  }
+
+}
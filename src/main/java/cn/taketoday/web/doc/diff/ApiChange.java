@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+/**
+ * A change of the API between two versions of a document
+ *
+ * @param type type of the change
+ * @param pointer JSON Pointer of the changed element, in the new document
+ * or in the previous one for a removed element
+ * @param message description of the change
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record ApiChange(Type type, String pointer, String message) {
+
+  public boolean isBreaking() {
+    return type.breaking;
+  }
+
+  @Override
+  public String toString() {
+    return (isBreaking() ? "[breaking] " : "") + message;
+  }
+
+  public enum Type {
+
+    PATH_ADDED(false),
+    PATH_REMOVED(true),
+    OPERATION_ADDED(false),
+    OPERATION_REMOVED(true),
+    PARAMETER_ADDED(false),
+    REQUIRED_PARAMETER_ADDED(true),
+    PARAMETER_REMOVED(true),
+    PARAMETER_REQUIRED(true),
+    PARAMETER_TYPE_CHANGED(true),
+    REQUEST_BODY_REQUIRED(true),
+    RESPONSE_ADDED(false),
+    RESPONSE_REMOVED(true),
+    SCHEMA_ADDED(false),
+    SCHEMA_REMOVED(true),
+    PROPERTY_ADDED(false),
+    PROPERTY_REMOVED(true),
+    PROPERTY_TYPE_CHANGED(true),
+    ENUM_VALUE_REMOVED(true);
+
+    private final boolean breaking;
+
+    Type(boolean breaking) {
+      this.breaking = breaking;
+    }
+
+    public boolean isBreaking() {
+      return breaking;
+    }
+  }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import cn.taketoday.web.doc.diff.ApiChange.Type;
+import infra.lang.Nullable;
+
+import static cn.taketoday.web.doc.diff.JsonPatch.escape;
+
+/**
+ * Find the API changes between two versions of an OpenAPI document:
+ * paths, operations, parameters, request bodies, responses and the
+ * schemas of the components. Each element is visited once, with lookups
+ * by name, so the detection is linear in the size of the documents.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see ApiChange
+ * @since 1.0
+ */
+public abstract class ApiChanges {
+
+  private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+
+  /**
+   * @param previous previous version of the document
+   * @param current new version of the document
+   * @return changes, in the order of the documents
+   */
+  public static List<ApiChange> detect(JsonNode previous, JsonNode current) {
+    ArrayList<ApiChange> changes = new ArrayList<>();
+    detectPaths(changes, previous.path("paths"), current.path("paths"));
+    detectSchemas(changes, previous.path("components").path("schemas"), current.path("components").path("schemas"));
+    return changes;
+  }
+
+  private static void detectPaths(List<ApiChange> changes, JsonNode previous, JsonNode current) {
+    for (Iterator<Map.Entry<String, JsonNode>> it = previous.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      String path = entry.getKey();
+      String pointer = "/paths/" + escape(path);
+      JsonNode item = current.get(path);
+      if (item == null) {
+        changes.add(new ApiChange(Type.PATH_REMOVED, pointer, "Path '" + path + "' removed"));
+        continue;
+      }
+      for (Iterator<Map.Entry<String, JsonNode>> ops = entry.getValue().fields(); ops.hasNext(); ) {
+        Map.Entry<String, JsonNode> op = ops.next();
+        if (HTTP_METHODS.contains(op.getKey())) {
+          String operation = op.getKey().toUpperCase(Locale.ROOT) + " " + path;
+          JsonNode target = item.get(op.getKey());
+          if (target == null) {
+            changes.add(new ApiChange(Type.OPERATION_REMOVED, pointer + "/" + op.getKey(), operation + " removed"));
+          }
+          else {
+            detectOperation(changes, pointer + "/" + op.getKey(), operation, op.getValue(), target);
+          }
+        }
+      }
+      for (Iterator<String> ops = item.fieldNames(); ops.hasNext(); ) {
+        String method = ops.next();
+        if (HTTP_METHODS.contains(method) && !entry.getValue().has(method)) {
+          changes.add(new ApiChange(Type.OPERATION_ADDED, pointer + "/" + method, method.toUpperCase(Locale.ROOT) + " " + path + " added"));
+        }
+      }
+    }
+    for (Iterator<String> it = current.fieldNames(); it.hasNext(); ) {
+      String path = it.next();
+      if (!previous.has(path)) {
+        changes.add(new ApiChange(Type.PATH_ADDED, "/paths/" + escape(path), "Path '" + path + "' added"));
+      }
+    }
+  }
+
+  private static void detectOperation(List<ApiChange> changes, String pointer, String operation, JsonNode previous, JsonNode current) {
+    Map<String, JsonNode> parameters = parameters(previous.path("parameters"));
+    Map<String, JsonNode> currentParameters = parameters(current.path("parameters"));
+    for (Map.Entry<String, JsonNode> entry : parameters.entrySet()) {
+      JsonNode parameter = currentParameters.get(entry.getKey());
+      String name = operation + " parameter " + entry.getKey();
+      if (parameter == null) {
+        changes.add(new ApiChange(Type.PARAMETER_REMOVED, pointer + "/parameters", name + " removed"));
+        continue;
+      }
+      if (parameter.path("required").asBoolean() && !entry.getValue().path("required").asBoolean()) {
+        changes.add(new ApiChange(Type.PARAMETER_REQUIRED, pointer + "/parameters", name + " is now required"));
+      }
+      String type = typeOf(entry.getValue().path("schema"));
+      String currentType = typeOf(parameter.path("schema"));
+      if (!Objects.equals(type, currentType)) {
+        changes.add(new ApiChange(Type.PARAMETER_TYPE_CHANGED, pointer + "/parameters",
+                name + " changed from " + type + " to " + currentType));
+      }
+    }
+    for (Map.Entry<String, JsonNode> entry : currentParameters.entrySet()) {
+      if (!parameters.containsKey(entry.getKey())) {
+        boolean required = entry.getValue().path("required").asBoolean();
+        changes.add(new ApiChange(required ? Type.REQUIRED_PARAMETER_ADDED : Type.PARAMETER_ADDED, pointer + "/parameters",
+                operation + (required ? " required" : "") + " parameter " + entry.getKey() + " added"));
+      }
+    }
+
+    if (current.path("requestBody").path("required").asBoolean()
+            && !previous.path("requestBody").path("required").asBoolean()) {
+      changes.add(new ApiChange(Type.REQUEST_BODY_REQUIRED, pointer + "/requestBody", operation + " request body is now required"));
+    }
+
+    JsonNode responses = previous.path("responses");
+    JsonNode currentResponses = current.path("responses");
+    for (Iterator<String> it = responses.fieldNames(); it.hasNext(); ) {
+      String status = it.next();
+      if (!currentResponses.has(status)) {
+        changes.add(new ApiChange(Type.RESPONSE_REMOVED, pointer + "/responses/" + escape(status),
+                operation + " response " + status + " removed"));
+      }
+    }
+    for (Iterator<String> it = currentResponses.fieldNames(); it.hasNext(); ) {
+      String status = it.next();
+      if (!responses.has(status)) {
+        changes.add(new ApiChange(Type.RESPONSE_ADDED, pointer + "/responses/" + escape(status),
+                operation + " response " + status + " added"));
+      }
+    }
+  }
+
+  private static void detectSchemas(List<ApiChange> changes, JsonNode previous, JsonNode current) {
+    for (Iterator<Map.Entry<String, JsonNode>> it = previous.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      String pointer = "/components/schemas/" + escape(entry.getKey());
+      JsonNode schema = current.get(entry.getKey());
+      if (schema == null) {
+        changes.add(new ApiChange(Type.SCHEMA_REMOVED, pointer, "Schema '" + entry.getKey() + "' removed"));
+      }
+      else {
+        detectSchema(changes, pointer, "Schema '" + entry.getKey() + "'", entry.getValue(), schema);
+      }
+    }
+    for (Iterator<String> it = current.fieldNames(); it.hasNext(); ) {
+      String name = it.next();
+      if (!previous.has(name)) {
+        changes.add(new ApiChange(Type.SCHEMA_ADDED, "/components/schemas/" + escape(name), "Schema '" + name + "' added"));
+      }
+    }
+  }
+
+  private static void detectSchema(List<ApiChange> changes, String pointer, String name, JsonNode previous, JsonNode current) {
+    JsonNode properties = previous.path("properties");
+    JsonNode currentProperties = current.path("properties");
+    for (Iterator<Map.Entry<String, JsonNode>> it = properties.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      String property = pointer + "/properties/" + escape(entry.getKey());
+      JsonNode target = currentProperties.get(entry.getKey());
+      if (target == null) {
+        changes.add(new ApiChange(Type.PROPERTY_REMOVED, property, name + " property '" + entry.getKey() + "' removed"));
+        continue;
+      }
+      String type = typeOf(entry.getValue());
+      String currentType = typeOf(target);
+      if (!Objects.equals(type, currentType)) {
+        changes.add(new ApiChange(Type.PROPERTY_TYPE_CHANGED, property,
+                name + " property '" + entry.getKey() + "' changed from " + type + " to " + currentType));
+      }
+      detectEnum(changes, property, name + " property '" + entry.getKey() + "'", entry.getValue(), target);
+    }
+    for (Iterator<String> it = currentProperties.fieldNames(); it.hasNext(); ) {
+      String property = it.next();
+      if (!properties.has(property)) {
+        changes.add(new ApiChange(Type.PROPERTY_ADDED, pointer + "/properties/" + escape(property),
+                name + " property '" + property + "' added"));
+      }
+    }
+    detectEnum(changes, pointer, name, previous, current);
+  }
+
+  private static void detectEnum(List<ApiChange> changes, String pointer, String name, JsonNode previous, JsonNode current) {
+    JsonNode values = previous.get("enum");
+    if (values == null) {
+      return;
+    }
+    HashSet<JsonNode> currentValues = new HashSet<>();
+    current.path("enum").forEach(currentValues::add);
+    for (JsonNode value : values) {
+      if (!currentValues.contains(value)) {
+        changes.add(new ApiChange(Type.ENUM_VALUE_REMOVED, pointer + "/enum", name + " enum value " + value + " removed"));
+      }
+    }
+  }
+
+  /**
+   * Parameters by {@code <in>:<name>}
+   */
+  private static Map<String, JsonNode> parameters(JsonNode parameters) {
+    LinkedHashMap<String, JsonNode> map = new LinkedHashMap<>();
+    for (JsonNode parameter : parameters) {
+      map.put(parameter.path("in").asText() + ":" + parameter.path("name").asText(), parameter);
+    }
+    return map;
+  }
+
+  @Nullable
+  private static String typeOf(JsonNode schema) {
+    if (schema.has("$ref")) {
+      return schema.get("$ref").asText();
+    }
+    JsonNode type = schema.get("type");
+    if (type == null) {
+      return null;
+    }
+    JsonNode items = schema.get("items");
+    if (items != null) {
+      return type.asText() + "<" + typeOf(items) + ">";
+    }
+    JsonNode format = schema.get("format");
+    return format == null ? type.asText() : type.asText() + "(" + format.asText() + ")";
+  }
+
+}
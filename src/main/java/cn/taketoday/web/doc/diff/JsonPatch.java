@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import infra.lang.Assert;
+import infra.lang.Nullable;
+
+/**
+ * <a href="https://www.rfc-editor.org/rfc/rfc6902">JSON Patch</a> between
+ * two documents.
+ * <p>
+ * Objects are compared member by member, so a changed operation results
+ * in operations on that operation only. Arrays of the same length are
+ * compared element by element, other arrays are replaced as a whole,
+ * which keeps the patch of a document like OpenAPI, whose arrays are
+ * short, small without computing an edit script.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public abstract class JsonPatch {
+
+  public static final String ADD = "add";
+
+  public static final String REMOVE = "remove";
+
+  public static final String REPLACE = "replace";
+
+  /**
+   * Operations turning the source document into the target
+   */
+  public static ArrayNode diff(JsonNode source, JsonNode target) {
+    ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+    diff(patch, new StringBuilder(), source, target);
+    return patch;
+  }
+
+  /**
+   * Containers are descended into rather than compared as a whole, and
+   * only values are compared, so every node is visited once
+   *
+   * @param pointer pointer of the nodes, restored before returning
+   */
+  private static void diff(ArrayNode patch, StringBuilder pointer, JsonNode source, JsonNode target) {
+    if (source == target) {
+      return;
+    }
+    int length = pointer.length();
+    if (source.isObject() && target.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = source.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        pointer.append('/').append(escape(field.getKey()));
+        JsonNode targetValue = target.get(field.getKey());
+        if (targetValue == null) {
+          patch.add(operation(REMOVE, pointer.toString(), null));
+        }
+        else {
+          diff(patch, pointer, field.getValue(), targetValue);
+        }
+        pointer.setLength(length);
+      }
+      for (Iterator<Map.Entry<String, JsonNode>> it = target.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        if (!source.has(field.getKey())) {
+          pointer.append('/').append(escape(field.getKey()));
+          patch.add(operation(ADD, pointer.toString(), field.getValue()));
+          pointer.setLength(length);
+        }
+      }
+    }
+    else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+      for (int i = 0; i < source.size(); i++) {
+        pointer.append('/').append(i);
+        diff(patch, pointer, source.get(i), target.get(i));
+        pointer.setLength(length);
+      }
+    }
+    else if (source.isContainerNode() || target.isContainerNode() || !source.equals(target)) {
+      patch.add(operation(REPLACE, pointer.toString(), target));
+    }
+  }
+
+  /**
+   * Apply a patch produced by {@link #diff}, the source is not modified
+   *
+   * @return the patched document
+   */
+  public static JsonNode apply(JsonNode source, ArrayNode patch) {
+    JsonNode document = source.deepCopy();
+    for (JsonNode operation : patch) {
+      String op = operation.path("op").asText();
+      String path = operation.path("path").asText();
+      JsonNode value = operation.get("value");
+      if (path.isEmpty()) {
+        Assert.state(REPLACE.equals(op) && value != null, () -> "Unsupported operation on the root: " + operation);
+        document = value.deepCopy();
+        continue;
+      }
+      int slash = path.lastIndexOf('/');
+      JsonNode parent = document.at(path.substring(0, slash));
+      String name = unescape(path.substring(slash + 1));
+      if (parent instanceof ObjectNode object) {
+        switch (op) {
+          case ADD, REPLACE -> object.set(name, value.deepCopy());
+          case REMOVE -> object.remove(name);
+          default -> throw new IllegalStateException("Unsupported operation: " + operation);
+        }
+      }
+      else if (parent instanceof ArrayNode array) {
+        int index = name.equals("-") ? array.size() : Integer.parseInt(name);
+        switch (op) {
+          case ADD -> array.insert(index, value.deepCopy());
+          case REPLACE -> array.set(index, value.deepCopy());
+          case REMOVE -> array.remove(index);
+          default -> throw new IllegalStateException("Unsupported operation: " + operation);
+        }
+      }
+      else {
+        throw new IllegalStateException("No container at " + path);
+      }
+    }
+    return document;
+  }
+
+  private static ObjectNode operation(String op, String path, @Nullable JsonNode value) {
+    ObjectNode operation = JsonNodeFactory.instance.objectNode();
+    operation.put("op", op);
+    operation.put("path", path);
+    if (value != null) {
+      operation.set("value", value);
+    }
+    return operation;
+  }
+
+  /**
+   * Escape a member name as a JSON Pointer token
+   */
+  public static String escape(String name) {
+    if (name.indexOf('~') < 0 && name.indexOf('/') < 0) {
+      return name;
+    }
+    return name.replace("~", "~0").replace("/", "~1");
+  }
+
+  public static String unescape(String token) {
+    if (token.indexOf('~') < 0) {
+      return token;
+    }
+    return token.replace("~1", "/").replace("~0", "~");
+  }
+
+}
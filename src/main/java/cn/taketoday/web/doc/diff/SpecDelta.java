@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Delta between two versions of an OpenAPI document: the JSON Patch from
+ * the previous version to the new one, and the API changes it contains.
+ *
+ * @param patch RFC 6902 operations, applied to the previous version gives the new one
+ * @param changes API changes
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record SpecDelta(ArrayNode patch, List<ApiChange> changes) {
+
+  public static SpecDelta of(JsonNode previous, JsonNode current) {
+    return new SpecDelta(JsonPatch.diff(previous, current), ApiChanges.detect(previous, current));
+  }
+
+  public boolean isEmpty() {
+    return patch.isEmpty();
+  }
+
+  public long getBreakingCount() {
+    return changes.stream().filter(ApiChange::isBreaking).count();
+  }
+
+  /**
+   * Write the patch, and the summary of the changes:
+   * <pre>{@code
+   * {
+   *   "operations": 12,
+   *   "breaking": 1,
+   *   "changes": [
+   *     { "type": "OPERATION_REMOVED", "breaking": true, "pointer": "/paths/~1users/delete", "message": "DELETE /users removed" }
+   *   ]
+   * }
+   * }</pre>
+   *
+   * @param objectMapper mapper to write with
+   * @param patchFile output of the patch
+   * @param changesFile output of the summary
+   */
+  public void write(ObjectMapper objectMapper, File patchFile, File changesFile) throws IOException {
+    objectMapper.writeValue(patchFile, patch);
+
+    ObjectNode summary = objectMapper.createObjectNode();
+    summary.put("operations", patch.size());
+    summary.put("breaking", getBreakingCount());
+    ArrayNode array = summary.putArray("changes");
+    for (ApiChange change : changes) {
+      array.addObject()
+              .put("type", change.type().name())
+              .put("breaking", change.isBreaking())
+              .put("pointer", change.pointer())
+              .put("message", change.message());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(changesFile, summary);
+  }
+
+  @Override
+  public String toString() {
+    return patch.size() + " patch operations, " + changes.size() + " API changes, " + getBreakingCount() + " breaking";
+  }
+
+}
@@ -20,10 +20,24 @@ package cn.taketoday.web.doc.gradle;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.file.Directory;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginExtension;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.ClasspathNormalizer;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.language.jvm.tasks.ProcessResources;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
 import cn.taketoday.web.doc.gradle.extension.WebDocPluginExtension;
+import cn.taketoday.web.doc.gradle.task.LoadTestTask;
 import cn.taketoday.web.doc.gradle.task.OpenAPITask;
+import cn.taketoday.web.doc.gradle.task.WebDocTask;
+import cn.taketoday.web.doc.gradle.task.WebDocWatchTask;
 
 /**
  * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
@@ -45,17 +59,106 @@ public class WebDocPlugin implements Plugin<Project> {
    */
   public static final String OPEN_API_TASK = "webDocOpenApi";
 
+  /**
+   * Keep the OpenAPI documents up to date while the sources change
+   */
+  public static final String WATCH_TASK = "webDocWatch";
+
+  /**
+   * Baseline the documented endpoints with a generated load test
+   */
+  public static final String LOAD_TEST_TASK = "webDocLoadTest";
+
   @Override
   public void apply(Project project) {
     project.getPluginManager().apply(JavaPlugin.class);
     Task javaCompileTask = project.getTasks().getByName(JavaPlugin.COMPILE_JAVA_TASK_NAME);
 
+    // extend project-model to get our settings/configuration via nice configuration
+    WebDocPluginExtension extension = project.getExtensions().create(EXTENSION_NAME, WebDocPluginExtension.class);
+
     OpenAPITask task = project.getTasks().create(OPEN_API_TASK, OpenAPITask.class);
     task.setGroup(GROUP);
     task.dependsOn(javaCompileTask);
+    configureInputsAndOutputs(project, task, extension);
 
-    // extend project-model to get our settings/configuration via nice configuration
-    project.getExtensions().create(EXTENSION_NAME, WebDocPluginExtension.class);
+    WebDocWatchTask watchTask = project.getTasks().create(WATCH_TASK, WebDocWatchTask.class);
+    watchTask.setGroup(GROUP);
+    watchTask.setDescription("Generates the OpenAPI documents and updates them while the sources change.");
+    watchTask.dependsOn(javaCompileTask);
+    watchTask.getOutputs().upToDateWhen(t -> false);
+
+    LoadTestTask loadTestTask = project.getTasks().create(LOAD_TEST_TASK, LoadTestTask.class);
+    loadTestTask.setGroup(GROUP);
+    loadTestTask.setDescription("Runs a load test generated from the OpenAPI document against every endpoint.");
+    loadTestTask.dependsOn(task);
+    loadTestTask.getOutputs().upToDateWhen(t -> false);
+  }
+
+  /**
+   * Declare what the document depends on, so an unchanged project is
+   * up-to-date and a clean build can reuse the build cache
+   */
+  private static void configureInputsAndOutputs(Project project, WebDocTask task, WebDocPluginExtension extension) {
+    SourceSet main = project.getExtensions().getByType(JavaPluginExtension.class)
+            .getSourceSets().getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+
+    // precompressed documents are packaged as classpath resources on demand, so
+    // compiling and testing the project does not generate the documents
+    Provider<Directory> artifactsDir = project.getLayout().getBuildDirectory().dir(OpenAPITask.ARTIFACTS_DIR);
+    project.getTasks().named(JavaPlugin.PROCESS_RESOURCES_TASK_NAME, ProcessResources.class).configure(processResources -> {
+      processResources.from((Callable<Object>) () -> extension.isPackageArtifacts() ? artifactsDir : List.of());
+      processResources.dependsOn((Callable<Object>) () -> extension.isPackageArtifacts() ? task : List.of());
+    });
+
+    task.getInputs().files(main.getJava().getSourceDirectories())
+            .withPropertyName("sources")
+            .withPathSensitivity(PathSensitivity.RELATIVE);
+    task.getInputs().files(main.getCompileClasspath())
+            .withPropertyName("classpath")
+            .withNormalizer(ClasspathNormalizer.class);
+    // sources of sibling modules and sources jars are parsed as well
+    task.getInputs().files(project.provider(() -> task.resolveDependencySources().sourceRoots()))
+            .withPropertyName("dependencySources")
+            .withPathSensitivity(PathSensitivity.RELATIVE);
+    task.getInputs().files(project.provider(() -> task.resolveDependencySources().sourcesJarFiles()))
+            .withPropertyName("sourcesJars")
+            .withPathSensitivity(PathSensitivity.NAME_ONLY);
+    task.getInputs().files(project.provider(() -> extension.getConfigFile() == null
+                    ? List.of() : List.of(extension.getConfigFile())))
+            .withPropertyName("configFile")
+            .withPathSensitivity(PathSensitivity.NONE);
+    task.getInputs().property("exclude", project.provider(() -> new TreeSet<>(extension.getExclude())));
+    task.getInputs().property("include", project.provider(() -> new TreeSet<>(extension.getInclude())));
+    task.getInputs().property("includePackages", project.provider(() -> new TreeSet<>(extension.getIncludePackages())));
+    task.getInputs().property("excludePackages", project.provider(() -> new TreeSet<>(extension.getExcludePackages())));
+    task.getInputs().property("includePaths", project.provider(() -> new TreeSet<>(extension.getIncludePaths())));
+    task.getInputs().property("excludePaths", project.provider(() -> new TreeSet<>(extension.getExcludePaths())));
+    task.getInputs().property("commentIndex", project.provider(extension::isCommentIndex));
+    task.getInputs().property("groups", project.provider(() -> extension.getGroups().toString()));
+    task.getInputs().property("memoryBudget", project.provider(() -> String.valueOf(extension.getMemoryBudget())));
+    task.getInputs().property("specDelta", project.provider(extension::isSpecDelta));
+    task.getInputs().property("shardBy", project.provider(() -> String.valueOf(extension.getShardBy())));
+    task.getInputs().property("routeTable", project.provider(extension::isRouteTable));
+
+    task.getOutputs().file(project.getLayout().getBuildDirectory().file(OpenAPITask.OUTPUT_FILE))
+            .withPropertyName("openApi");
+    task.getOutputs().dir(project.getLayout().getBuildDirectory().dir(OpenAPITask.GROUPS_DIR))
+            .withPropertyName("groups");
+    task.getOutputs().dir(artifactsDir)
+            .withPropertyName("artifacts");
+    task.getOutputs().file(project.getLayout().getBuildDirectory().file(WebDocTask.METRICS_REPORT))
+            .withPropertyName("metrics");
+    task.getOutputs().dir(project.getLayout().getBuildDirectory().dir(OpenAPITask.SHARDS_DIR))
+            .withPropertyName("shards");
+    task.getOutputs().file(project.getLayout().getBuildDirectory().file(OpenAPITask.ROUTE_TABLE_FILE))
+            .withPropertyName("routeTable");
+    task.getOutputs().file(project.getLayout().getBuildDirectory().file(OpenAPITask.PATCH_FILE))
+            .withPropertyName("patch");
+    task.getOutputs().file(project.getLayout().getBuildDirectory().file(OpenAPITask.CHANGES_FILE))
+            .withPropertyName("changes");
+    // the delta also depends on the previous output
+    task.getOutputs().cacheIf("web-doc output only depends on declared inputs", t -> !extension.isSpecDelta());
   }
 
 }
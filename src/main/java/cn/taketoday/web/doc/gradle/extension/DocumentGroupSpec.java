@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.extension;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import cn.taketoday.web.doc.openapi.DocumentGroup;
+import infra.lang.Assert;
+
+/**
+ * Endpoints of a document group, see {@link WebDocPluginExtension#group}.
+ * The name is the file name of the group, so it is limited to letters,
+ * digits, {@code .}, {@code _} and {@code -}, and is not {@code .} or {@code ..}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class DocumentGroupSpec {
+
+  private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+  private final String name;
+
+  private final Set<String> packages = new LinkedHashSet<>();
+
+  private final Set<String> tags = new LinkedHashSet<>();
+
+  private final Set<String> annotations = new LinkedHashSet<>();
+
+  private final Set<String> pathPrefixes = new LinkedHashSet<>();
+
+  public DocumentGroupSpec(String name) {
+    Assert.isTrue(name != null && NAME.matcher(name).matches() && !name.equals(".") && !name.equals(".."),
+            "invalid document group name '" + name + "', expected letters, digits, '.', '_' or '-'");
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Controllers in packages matching the globs, like {@code com.example.api.**}
+   */
+  public DocumentGroupSpec packages(String... packages) {
+    this.packages.addAll(Arrays.asList(packages));
+    return this;
+  }
+
+  /**
+   * Operations with any of the tags, controllers tag their operations with the class name
+   */
+  public DocumentGroupSpec tags(String... tags) {
+    this.tags.addAll(Arrays.asList(tags));
+    return this;
+  }
+
+  /**
+   * Controllers or handler methods annotated with any of the annotations, fully qualified
+   */
+  public DocumentGroupSpec annotations(String... annotations) {
+    this.annotations.addAll(Arrays.asList(annotations));
+    return this;
+  }
+
+  /**
+   * Paths under any of the prefixes, like {@code /api/public}
+   */
+  public DocumentGroupSpec pathPrefixes(String... pathPrefixes) {
+    this.pathPrefixes.addAll(Arrays.asList(pathPrefixes));
+    return this;
+  }
+
+  public Set<String> getPackages() {
+    return packages;
+  }
+
+  public Set<String> getTags() {
+    return tags;
+  }
+
+  public Set<String> getAnnotations() {
+    return annotations;
+  }
+
+  public Set<String> getPathPrefixes() {
+    return pathPrefixes;
+  }
+
+  public DocumentGroup toDocumentGroup() {
+    return new DocumentGroup(name, packages, tags, annotations, pathPrefixes);
+  }
+
+  @Override
+  public String toString() {
+    return name + "{packages=" + packages + ", tags=" + tags
+            + ", annotations=" + annotations + ", pathPrefixes=" + pathPrefixes + "}";
+  }
+
+}
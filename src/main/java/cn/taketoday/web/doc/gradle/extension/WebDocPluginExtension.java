@@ -17,9 +17,15 @@
 
 package cn.taketoday.web.doc.gradle.extension;
 
+import org.gradle.api.Action;
+
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import infra.lang.Nullable;
@@ -45,6 +51,95 @@ public class WebDocPluginExtension {
    */
   private final Set<String> include = new HashSet<>();
 
+  /**
+   * Package globs of source roots to parse
+   */
+  private final Set<String> includePackages = new LinkedHashSet<>();
+
+  /**
+   * Package globs of source roots to skip
+   */
+  private final Set<String> excludePackages = new LinkedHashSet<>();
+
+  /**
+   * Path globs of source roots to parse
+   */
+  private final Set<String> includePaths = new LinkedHashSet<>();
+
+  /**
+   * Path globs of source roots to skip
+   */
+  private final Set<String> excludePaths = new LinkedHashSet<>();
+
+  /**
+   * Document groups, by name
+   */
+  private final Map<String, DocumentGroupSpec> groups = new LinkedHashMap<>();
+
+  /**
+   * Use comment indexes of sources jars instead of parsing them
+   */
+  private boolean commentIndex;
+
+  /**
+   * Heap budget of the generation, like 512m
+   */
+  @Nullable
+  private String memoryBudget;
+
+  /**
+   * Log the metrics summary
+   */
+  private boolean metricsSummary;
+
+  /**
+   * Write the delta from the previous document
+   */
+  private boolean specDelta;
+
+  /**
+   * Split the document into shards by tag or package
+   */
+  @Nullable
+  private String shardBy;
+
+  /**
+   * Write the binary route table
+   */
+  private boolean routeTable;
+
+  /**
+   * Package the precompressed documents as resources
+   */
+  private boolean packageArtifacts;
+
+  /**
+   * Base URI of the load test
+   */
+  @Nullable
+  private String loadTestTarget;
+
+  /**
+   * Duration of the load test of each endpoint, in milliseconds
+   */
+  private long loadTestDuration = 5000;
+
+  /**
+   * Concurrent clients of each endpoint
+   */
+  private int loadTestConcurrency = 16;
+
+  /**
+   * Quiet period of the watch mode, in milliseconds
+   */
+  private long watchDebounce = 150;
+
+  /**
+   * Port of the preview server of the watch mode
+   */
+  @Nullable
+  private Integer previewPort;
+
   /**
    * Smart doc config file, like web-doc.json
    *
@@ -94,4 +189,270 @@ public class WebDocPluginExtension {
     return include;
   }
 
+  /**
+   * Only parse sources of packages matching the globs, like {@code com.example.api.**}.
+   * {@code *} matches a package segment, {@code **} any number of segments.
+   * Applies to source roots, sources jars are not filtered.
+   *
+   * @param packages package globs
+   * @return WebDocPluginExtension
+   */
+  public WebDocPluginExtension includePackages(String... packages) {
+    this.includePackages.addAll(Arrays.asList(packages));
+    return this;
+  }
+
+  public Set<String> getIncludePackages() {
+    return includePackages;
+  }
+
+  /**
+   * Skip sources of packages matching the globs, packages excluded
+   * with a trailing {@code .**} are not walked at all
+   *
+   * @param packages package globs
+   * @return WebDocPluginExtension
+   */
+  public WebDocPluginExtension excludePackages(String... packages) {
+    this.excludePackages.addAll(Arrays.asList(packages));
+    return this;
+  }
+
+  public Set<String> getExcludePackages() {
+    return excludePackages;
+  }
+
+  /**
+   * Only parse sources whose path relative to the source root matches the globs
+   *
+   * @param paths path globs, like {@code **}{@code /api/**}
+   * @return WebDocPluginExtension
+   */
+  public WebDocPluginExtension includePaths(String... paths) {
+    this.includePaths.addAll(Arrays.asList(paths));
+    return this;
+  }
+
+  public Set<String> getIncludePaths() {
+    return includePaths;
+  }
+
+  /**
+   * Skip sources whose path relative to the source root matches the globs,
+   * matching directories are not walked at all
+   *
+   * @param paths path globs, like {@code **}{@code /generated/**}
+   * @return WebDocPluginExtension
+   */
+  public WebDocPluginExtension excludePaths(String... paths) {
+    this.excludePaths.addAll(Arrays.asList(paths));
+    return this;
+  }
+
+  public Set<String> getExcludePaths() {
+    return excludePaths;
+  }
+
+  /**
+   * When enabled, types of dependencies are loaded from the compile classpath
+   * and Javadoc comments are taken from a comment index built once per
+   * sources jar version, instead of parsing every dependency source file.
+   *
+   * @return whether comment indexes are used
+   */
+  public boolean isCommentIndex() {
+    return commentIndex;
+  }
+
+  public void setCommentIndex(boolean commentIndex) {
+    this.commentIndex = commentIndex;
+  }
+
+  /**
+   * Heap budget of the generation, like {@code 512m} or {@code 2g}. When the
+   * heap usage exceeds the budget, completed operations are spilled to
+   * temporary files and the output is streamed from disk. Only the single
+   * document output is budgeted; component schemas are kept in memory, and
+   * groups, shards and the route table keep every endpoint in memory.
+   *
+   * @return memory budget, {@code null} for unlimited
+   */
+  @Nullable
+  public String getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  public void setMemoryBudget(@Nullable String memoryBudget) {
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Per-phase metrics are always written to {@code build/reports/web-doc/metrics.json},
+   * when enabled a summary is also logged.
+   *
+   * @return whether the metrics summary is logged
+   */
+  public boolean isMetricsSummary() {
+    return metricsSummary;
+  }
+
+  public void setMetricsSummary(boolean metricsSummary) {
+    this.metricsSummary = metricsSummary;
+  }
+
+  /**
+   * When enabled, the new document is compared with the previous output, the
+   * JSON Patch between them is written to {@code build/web-doc/openapi.patch.json}
+   * and the API changes to {@code build/web-doc/openapi.changes.json}.
+   *
+   * @return whether the delta from the previous document is written
+   */
+  public boolean isSpecDelta() {
+    return specDelta;
+  }
+
+  public void setSpecDelta(boolean specDelta) {
+    this.specDelta = specDelta;
+  }
+
+  /**
+   * Also write the document split into shards to {@code build/web-doc/shards}:
+   * a root document referencing one shard file per {@code tag} or per
+   * {@code package} of the controllers.
+   *
+   * @return {@code tag}, {@code package} or {@code null} for no shards
+   * @see cn.taketoday.web.doc.openapi.ShardStrategy
+   */
+  @Nullable
+  public String getShardBy() {
+    return shardBy;
+  }
+
+  public void setShardBy(@Nullable String shardBy) {
+    this.shardBy = shardBy;
+  }
+
+  /**
+   * When enabled, the method, path and handler of every endpoint are also
+   * written to the binary route table {@code build/web-doc/routes.bin}, to
+   * be memory-mapped by gateways.
+   *
+   * @return whether the route table is written
+   * @see cn.taketoday.web.doc.route.RouteTable
+   */
+  public boolean isRouteTable() {
+    return routeTable;
+  }
+
+  public void setRouteTable(boolean routeTable) {
+    this.routeTable = routeTable;
+  }
+
+  /**
+   * When enabled, the precompressed documents of {@code build/web-doc/resources}
+   * are packaged as classpath resources of the {@code main} source set, and
+   * {@code processResources} depends on the document task.
+   *
+   * @return whether the documents are packaged with the application
+   * @see cn.taketoday.web.doc.artifact.SpecArtifacts
+   */
+  public boolean isPackageArtifacts() {
+    return packageArtifacts;
+  }
+
+  public void setPackageArtifacts(boolean packageArtifacts) {
+    this.packageArtifacts = packageArtifacts;
+  }
+
+  /**
+   * Base URI the load test sends the requests to, like {@code http://localhost:8080}.
+   * Without a target, the load test starts a local stand-in server of the document.
+   *
+   * @return load test target
+   */
+  @Nullable
+  public String getLoadTestTarget() {
+    return loadTestTarget;
+  }
+
+  public void setLoadTestTarget(@Nullable String loadTestTarget) {
+    this.loadTestTarget = loadTestTarget;
+  }
+
+  /**
+   * @return duration of the load test of each endpoint in milliseconds, 5000 by default
+   */
+  public long getLoadTestDuration() {
+    return loadTestDuration;
+  }
+
+  public void setLoadTestDuration(long loadTestDuration) {
+    this.loadTestDuration = loadTestDuration;
+  }
+
+  /**
+   * @return concurrent clients of each endpoint, 16 by default
+   */
+  public int getLoadTestConcurrency() {
+    return loadTestConcurrency;
+  }
+
+  public void setLoadTestConcurrency(int loadTestConcurrency) {
+    this.loadTestConcurrency = loadTestConcurrency;
+  }
+
+  /**
+   * Changes of the watch mode are applied once no file changed for this
+   * period, so a burst of saves is applied at once.
+   *
+   * @return debounce period in milliseconds, 150 by default
+   */
+  public long getWatchDebounce() {
+    return watchDebounce;
+  }
+
+  public void setWatchDebounce(long watchDebounce) {
+    this.watchDebounce = watchDebounce;
+  }
+
+  /**
+   * The watch mode serves a live preview of the document on this port of
+   * localhost, {@code 0} for any free port.
+   *
+   * @return preview port, {@code null} without preview
+   */
+  @Nullable
+  public Integer getPreviewPort() {
+    return previewPort;
+  }
+
+  public void setPreviewPort(@Nullable Integer previewPort) {
+    this.previewPort = previewPort;
+  }
+
+  /**
+   * Configure a document group. Groups are generated together with the full
+   * document from the same parsed sources, to {@code build/web-doc/groups/<name>.json}.
+   *
+   * <pre>{@code
+   * webdoc {
+   *   group("public") {
+   *     pathPrefixes "/api/public"
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param name group name
+   * @param action group configuration
+   * @return WebDocPluginExtension
+   */
+  public WebDocPluginExtension group(String name, Action<? super DocumentGroupSpec> action) {
+    action.execute(groups.computeIfAbsent(name, DocumentGroupSpec::new));
+    return this;
+  }
+
+  public Collection<DocumentGroupSpec> getGroups() {
+    return groups.values();
+  }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import cn.taketoday.web.doc.gradle.extension.WebDocPluginExtension;
+import cn.taketoday.web.doc.loadtest.LoadScenarios;
+import cn.taketoday.web.doc.loadtest.LoadTestReport;
+import cn.taketoday.web.doc.loadtest.LoadTestRunner;
+import cn.taketoday.web.doc.loadtest.RequestTemplate;
+import cn.taketoday.web.doc.loadtest.StandInServer;
+import infra.util.StringUtils;
+
+/**
+ * Generate the load scenario of the OpenAPI document and run it, against
+ * the {@link WebDocPluginExtension#getLoadTestTarget() target} or a local
+ * stand-in server, to get a throughput and latency baseline of every
+ * endpoint.
+ * <pre>
+ * ./gradlew webDocLoadTest
+ * </pre>
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see LoadTestRunner
+ * @since 1.0
+ */
+public class LoadTestTask extends DefaultTask {
+
+  /**
+   * request templates, relative to the build directory
+   */
+  public static final String SCENARIOS_FILE = "web-doc/load-test/scenarios.json";
+
+  /**
+   * results, relative to the build directory
+   */
+  public static final String REPORT_FILE = "reports/web-doc/load-test.json";
+
+  @TaskAction
+  public void action() throws IOException, InterruptedException {
+    ProjectLayout layout = getProject().getLayout();
+    WebDocPluginExtension extension = getProject().getExtensions().getByType(WebDocPluginExtension.class);
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    JsonNode document = objectMapper.readTree(layout.getBuildDirectory().file(OpenAPITask.OUTPUT_FILE).get().getAsFile());
+    List<RequestTemplate> templates = LoadScenarios.create(document);
+    File scenarios = layout.getBuildDirectory().file(SCENARIOS_FILE).get().getAsFile();
+    LoadScenarios.write(objectMapper, templates, scenarios);
+    getLogger().quiet("Web-docs load scenario of {} operations: {}", templates.size(), scenarios);
+
+    Duration duration = Duration.ofMillis(extension.getLoadTestDuration());
+    LoadTestReport report;
+    if (StringUtils.hasText(extension.getLoadTestTarget())) {
+      URI target = URI.create(extension.getLoadTestTarget());
+      getLogger().quiet("Web-docs load test of {}", target);
+      report = new LoadTestRunner(target, duration, extension.getLoadTestConcurrency()).run(templates);
+    }
+    else {
+      try (StandInServer server = new StandInServer(new InetSocketAddress("localhost", 0), document)) {
+        server.start();
+        getLogger().quiet("Web-docs load test of the stand-in server {}", server.getUri());
+        report = new LoadTestRunner(server.getUri(), duration, extension.getLoadTestConcurrency()).run(templates);
+      }
+    }
+
+    File reportFile = layout.getBuildDirectory().file(REPORT_FILE).get().getAsFile();
+    report.write(objectMapper, reportFile);
+    getLogger().quiet("{}", report);
+    getLogger().quiet("Web-docs load test report: {}", reportFile);
+  }
+
+}
@@ -17,11 +17,32 @@
 
 package cn.taketoday.web.doc.gradle.task;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 
+import org.gradle.api.file.ProjectLayout;
 import org.gradle.api.logging.Logger;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.artifact.SpecArtifacts;
+import cn.taketoday.web.doc.diff.ApiChange;
+import cn.taketoday.web.doc.diff.SpecDelta;
+import cn.taketoday.web.doc.gradle.extension.WebDocPluginExtension;
+import cn.taketoday.web.doc.openapi.DocumentGroup;
+import cn.taketoday.web.doc.openapi.Endpoint;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import cn.taketoday.web.doc.openapi.ShardStrategy;
+import cn.taketoday.web.doc.route.RouteTable;
+import cn.taketoday.web.doc.route.RouteTableWriter;
+import infra.lang.Nullable;
+import infra.util.FileSystemUtils;
 
 /**
  * Generate OpenAPI document
@@ -30,8 +51,150 @@ import cn.taketoday.web.doc.DocConfig;
  */
 public class OpenAPITask extends WebDocTask {
 
+  /**
+   * output file, relative to the build directory
+   */
+  public static final String OUTPUT_FILE = "web-doc/openapi.json";
+
+  /**
+   * output dir of document groups, relative to the build directory
+   */
+  public static final String GROUPS_DIR = "web-doc/groups";
+
+  /**
+   * resource dir of the precompressed, content-addressed documents,
+   * relative to the build directory
+   *
+   * @see SpecArtifacts
+   */
+  public static final String ARTIFACTS_DIR = "web-doc/resources";
+
+  /**
+   * output dir of the sharded document, relative to the build directory
+   *
+   * @see WebDocPluginExtension#getShardBy()
+   */
+  public static final String SHARDS_DIR = "web-doc/shards";
+
+  /**
+   * binary route table, relative to the build directory
+   *
+   * @see RouteTable
+   */
+  public static final String ROUTE_TABLE_FILE = "web-doc/routes.bin";
+
+  /**
+   * JSON Patch from the previous document, relative to the build directory
+   *
+   * @see WebDocPluginExtension#isSpecDelta()
+   */
+  public static final String PATCH_FILE = "web-doc/openapi.patch.json";
+
+  /**
+   * API changes from the previous document, relative to the build directory
+   *
+   * @see WebDocPluginExtension#isSpecDelta()
+   */
+  public static final String CHANGES_FILE = "web-doc/openapi.changes.json";
+
   @Override
-  public void executeAction(DocConfig docConfig, JavaProjectBuilder javaProjectBuilder, Logger logger) {
+  public void executeAction(DocConfig docConfig, JavaProjectBuilder javaProjectBuilder, Logger logger) throws IOException {
+    OpenAPIModelFactory factory = new OpenAPIModelFactory(getCommentSource());
+    ProjectLayout layout = getProject().getLayout();
+    File output = layout.getBuildDirectory().file(OUTPUT_FILE).get().getAsFile();
+    File groupDir = layout.getBuildDirectory().dir(GROUPS_DIR).get().getAsFile();
+
+    WebDocPluginExtension extension = getProject().getExtensions().getByType(WebDocPluginExtension.class);
+    File patchFile = layout.getBuildDirectory().file(PATCH_FILE).get().getAsFile();
+    File changesFile = layout.getBuildDirectory().file(CHANGES_FILE).get().getAsFile();
+    Files.deleteIfExists(patchFile.toPath());
+    Files.deleteIfExists(changesFile.toPath());
+    ObjectMapper objectMapper = new ObjectMapper();
+    JsonNode previous = extension.isSpecDelta() ? readPrevious(objectMapper, output, logger) : null;
+
+    List<DocumentGroup> groups = getDocumentGroups();
+    Path shardsDir = layout.getBuildDirectory().dir(SHARDS_DIR).get().getAsFile().toPath();
+    FileSystemUtils.deleteRecursively(shardsDir);
+    Path routeTable = layout.getBuildDirectory().file(ROUTE_TABLE_FILE).get().getAsFile().toPath();
+    Files.deleteIfExists(routeTable);
+    // groups that are no longer configured
+    FileSystemUtils.deleteRecursively(groupDir.toPath());
+    if (getMetrics().getMemoryBudget().isLimited()
+            && (!groups.isEmpty() || extension.getShardBy() != null || extension.isRouteTable())) {
+      logger.warn("Web-docs memory budget is not applied: groups, shards and the route table keep all endpoints in memory");
+    }
+    if (extension.getShardBy() == null && !extension.isRouteTable()) {
+      factory.writeOpenAPI(docConfig, javaProjectBuilder, output, groups, groupDir, getMetrics());
+    }
+    else {
+      // the extracted endpoints are shared by the additional outputs
+      getMetrics().startPhase("extract");
+      List<Endpoint> endpoints = factory.extractEndpoints(javaProjectBuilder, getMetrics());
+      getMetrics().startPhase("write");
+      factory.writeDocuments(endpoints, output, groups, groupDir);
+      if (extension.getShardBy() != null) {
+        ShardStrategy strategy = ShardStrategy.forName(extension.getShardBy());
+        getMetrics().startPhase("shards");
+        int shards = factory.writeShards(endpoints, strategy, shardsDir.toFile()).size();
+        logger.quiet("Web-docs {} shards by {}: {}", shards, extension.getShardBy(), shardsDir);
+      }
+      if (extension.isRouteTable()) {
+        getMetrics().startPhase("routes");
+        RouteTableWriter writer = new RouteTableWriter();
+        for (Endpoint endpoint : endpoints) {
+          writer.add(endpoint.httpMethod().name(), endpoint.path(), endpoint.handler());
+        }
+        writer.write(routeTable);
+        logger.quiet("Web-docs route table of {} routes: {}", writer.size(), routeTable);
+      }
+      getMetrics().endPhase();
+    }
+    logger.quiet("Web-docs OpenAPI document: " + output);
+    if (!groups.isEmpty()) {
+      logger.quiet("Web-docs " + groups.size() + " document groups: " + groupDir);
+    }
+
+    if (previous != null) {
+      getMetrics().startPhase("delta");
+      SpecDelta delta = SpecDelta.of(previous, objectMapper.readTree(output));
+      delta.write(objectMapper, patchFile, changesFile);
+      getMetrics().endPhase();
+      logger.quiet("Web-docs delta from the previous document: {}, {}", delta, patchFile);
+      for (ApiChange change : delta.changes()) {
+        if (change.isBreaking()) {
+          logger.warn("Web-docs breaking change: {}", change.message());
+        }
+      }
+    }
+
+    getMetrics().startPhase("artifacts");
+    Path artifactsDir = layout.getBuildDirectory().dir(ARTIFACTS_DIR).get().getAsFile().toPath();
+    FileSystemUtils.deleteRecursively(artifactsDir);
+    SpecArtifacts artifacts = new SpecArtifacts(artifactsDir);
+    artifacts.add("openapi.json", output.toPath());
+    for (DocumentGroup group : groups) {
+      artifacts.add("groups/" + group.getName() + ".json", new File(groupDir, group.getName() + ".json").toPath());
+    }
+    artifacts.writeIndex();
+    getMetrics().endPhase();
+    logger.info("Web-docs artifacts: {}", artifacts.getIndex());
+  }
 
+  /**
+   * Read the previous document before it is overwritten
+   */
+  @Nullable
+  private static JsonNode readPrevious(ObjectMapper objectMapper, File output, Logger logger) {
+    if (!output.isFile()) {
+      logger.info("Web-docs no previous document, delta skipped");
+      return null;
+    }
+    try {
+      return objectMapper.readTree(output);
+    }
+    catch (IOException e) {
+      logger.warn("Web-docs previous document {} not readable, delta skipped: {}", output, e.getMessage());
+      return null;
+    }
   }
 }
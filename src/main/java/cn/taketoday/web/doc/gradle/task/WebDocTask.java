@@ -27,6 +27,7 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.artifacts.ResolvedModuleVersion;
 import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.artifacts.result.ArtifactResult;
 import org.gradle.api.artifacts.result.ComponentArtifactsResult;
 import org.gradle.api.artifacts.result.ResolvedArtifactResult;
@@ -36,27 +37,42 @@ import org.gradle.api.tasks.TaskAction;
 import org.gradle.jvm.JvmLibrary;
 import org.gradle.language.base.artifact.SourcesArtifact;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 
 import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.MemoryBudget;
+import cn.taketoday.web.doc.comment.CommentIndexBuilder;
+import cn.taketoday.web.doc.comment.CommentSource;
+import cn.taketoday.web.doc.gradle.extension.DocumentGroupSpec;
 import cn.taketoday.web.doc.gradle.extension.WebDocPluginExtension;
 import cn.taketoday.web.doc.gradle.util.ArtifactFilterUtils;
 import cn.taketoday.web.doc.gradle.util.CustomArtifact;
+import cn.taketoday.web.doc.gradle.util.GradleUtils;
 import cn.taketoday.web.doc.gradle.util.SourceSetUtils;
+import cn.taketoday.web.doc.jfr.SourcesJarLoadEvent;
+import cn.taketoday.web.doc.openapi.DocumentGroup;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import cn.taketoday.web.doc.source.SourceFilter;
+import cn.taketoday.web.doc.source.SourcePlan;
+import cn.taketoday.web.doc.source.SourcePlanner;
+import cn.taketoday.web.doc.source.SourceUnit;
 import infra.core.io.ClassPathResource;
 import infra.lang.Constant;
+import infra.lang.Nullable;
 import infra.util.CollectionUtils;
 
 /**
@@ -76,6 +92,29 @@ public abstract class WebDocTask extends DefaultTask {
    */
   public static final String SRC_MAIN_JAVA_PATH = "src/main/java";
 
+  /**
+   * comment index cache dir, relative to the gradle user home
+   */
+  public static final String COMMENT_INDEX_CACHE = "caches/web-doc/comment-index";
+
+  /**
+   * metrics report, relative to the build directory
+   */
+  public static final String METRICS_REPORT = "reports/web-doc/metrics.json";
+
+  private final List<CommentSource> commentSources = new ArrayList<>();
+
+  private GenerationMetrics metrics = new GenerationMetrics();
+
+  /**
+   * class loader of the dependency types with a comment index, open during the action
+   */
+  @Nullable
+  private URLClassLoader runtimeClassLoader;
+
+  @Nullable
+  private DependencySources dependencySources;
+
   /**
    * Task action
    */
@@ -85,11 +124,41 @@ public abstract class WebDocTask extends DefaultTask {
     Project project = getProject();
     logger.quiet("Web-docs start creating API Documentation.");
     WebDocPluginExtension pluginExtension = project.getExtensions().getByType(WebDocPluginExtension.class);
-    Set<String> excludes = pluginExtension.getExclude();
-    Set<String> includes = pluginExtension.getInclude();
-    JavaProjectBuilder javaProjectBuilder = createJavaProjectBuilder(project, excludes, includes);
-    DocConfig docConfig = readConfig(pluginExtension);
-    executeAction(docConfig, javaProjectBuilder, logger);
+    String budget = pluginExtension.getMemoryBudget();
+    MemoryBudget memoryBudget = budget == null ? MemoryBudget.unlimited() : new MemoryBudget(MemoryBudget.parseSize(budget));
+    metrics = new GenerationMetrics(memoryBudget);
+    try {
+      JavaProjectBuilder javaProjectBuilder = createJavaProjectBuilder(project, pluginExtension);
+      DocConfig docConfig = readConfig(pluginExtension);
+      executeAction(docConfig, javaProjectBuilder, logger);
+      metrics.endPhase();
+
+      File report = project.getLayout().getBuildDirectory().file(METRICS_REPORT).get().getAsFile();
+      metrics.writeReport(report);
+      if (pluginExtension.isMetricsSummary() || memoryBudget.isLimited()) {
+        logger.quiet(metrics.getSummary());
+      }
+      else {
+        logger.info(metrics.getSummary());
+      }
+    }
+    finally {
+      try {
+        for (CommentSource commentSource : commentSources) {
+          if (commentSource instanceof Closeable closeable) {
+            closeable.close();
+          }
+        }
+      }
+      finally {
+        commentSources.clear();
+        URLClassLoader classLoader = runtimeClassLoader;
+        runtimeClassLoader = null;
+        if (classLoader != null) {
+          classLoader.close();
+        }
+      }
+    }
   }
 
   private static DocConfig readConfig(WebDocPluginExtension pluginExtension) throws IOException {
@@ -109,32 +178,121 @@ public abstract class WebDocTask extends DefaultTask {
    *
    * @return JavaProjectBuilder
    */
-  private JavaProjectBuilder createJavaProjectBuilder(Project project, Set<String> excludes, Set<String> includes) {
+  private JavaProjectBuilder createJavaProjectBuilder(Project project,
+          WebDocPluginExtension pluginExtension) throws IOException {
     SortedClassLibraryBuilder classLibraryBuilder = new SortedClassLibraryBuilder();
     classLibraryBuilder.setErrorHander(e -> getLogger().error("Parse error", e));
+    boolean commentIndex = pluginExtension.isCommentIndex();
+    if (commentIndex) {
+      // dependency types come from bytecode, comments from the index
+      runtimeClassLoader = GradleUtils.getRuntimeClassLoader(project);
+      classLibraryBuilder.appendClassLoader(runtimeClassLoader);
+    }
     JavaProjectBuilder projectBuilder = new JavaProjectBuilder(classLibraryBuilder);
     projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
     projectBuilder.setErrorHandler(e -> getLogger().warn(e.getMessage()));
 
+    metrics.startPhase("discovery");
+    ArrayList<File> sourceRoots = new ArrayList<>();
     Set<File> set = SourceSetUtils.getMainJava(project);
     if (CollectionUtils.isNotEmpty(set)) {
-      for (File file : set) {
-        projectBuilder.addSourceTree(file);
-      }
+      sourceRoots.addAll(set);
     }
     File src = SourceSetUtils.getDefaultMainJava(project);
     if (src != null) {
       getLogger().quiet("Code path: " + src);
-      projectBuilder.addSourceTree(src);
+      sourceRoots.add(src);
+    }
+    DependencySources dependencySources = resolveDependencySources();
+    sourceRoots.addAll(dependencySources.sourceRoots());
+    List<ResolvedArtifactResult> sourcesJars = dependencySources.sourcesJars();
+
+    SourcePlanner planner = new SourcePlanner().setFilter(createSourceFilter(pluginExtension));
+    sourceRoots.forEach(planner::addRoot);
+    if (!commentIndex) {
+      for (ResolvedArtifactResult sourcesJar : sourcesJars) {
+        planner.addJar(sourcesJar.getFile());
+      }
+    }
+    SourcePlan plan = planner.plan();
+    getLogger().quiet(plan.getSummary());
+    for (SourcePlan.Overlap overlap : plan.getOverlaps()) {
+      getLogger().info("Web-docs skipped source: " + overlap);
     }
-    loadSourcesDependencies(projectBuilder, project, excludes, includes);
+    for (SourceUnit unit : plan.getUnits()) {
+      getLogger().info("Web-docs source: " + unit);
+    }
+
+    if (commentIndex) {
+      metrics.startPhase("sources-jars");
+      for (ResolvedArtifactResult sourcesJar : sourcesJars) {
+        metrics.increment(GenerationMetrics.SOURCES_JARS);
+        loadCommentIndex(project, sourcesJar);
+      }
+    }
+
+    metrics.startPhase("parse");
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    new ParallelSourceLoader(parallelism, Charset.forName(Constant.DEFAULT_ENCODING), metrics)
+            .setListener(createSourceListener(plan, projectBuilder))
+            .load(plan, projectBuilder);
+    metrics.endPhase();
     return projectBuilder;
   }
 
+  static SourceFilter createSourceFilter(WebDocPluginExtension pluginExtension) {
+    return new SourceFilter(pluginExtension.getIncludePackages(), pluginExtension.getExcludePackages(),
+            pluginExtension.getIncludePaths(), pluginExtension.getExcludePaths());
+  }
+
+  /**
+   * Listener of the parsed sources, before the sources are loaded
+   *
+   * @param plan planned sources
+   * @param projectBuilder builder the sources are loaded into
+   * @return listener, {@code null} by default
+   */
+  @Nullable
+  protected ParallelSourceLoader.SourceListener createSourceListener(SourcePlan plan, JavaProjectBuilder projectBuilder) {
+    return null;
+  }
+
+  /**
+   * Document groups of the plugin extension
+   */
+  protected List<DocumentGroup> getDocumentGroups() {
+    ArrayList<DocumentGroup> groups = new ArrayList<>();
+    for (DocumentGroupSpec spec : getProject().getExtensions().getByType(WebDocPluginExtension.class).getGroups()) {
+      groups.add(spec.toDocumentGroup());
+    }
+    return groups;
+  }
+
+  /**
+   * Resolve the source dirs of the project dependencies and the sources
+   * jars of the binary dependencies. They are resolved once per build and
+   * shared by the task inputs and the task action.
+   */
+  public DependencySources resolveDependencySources() {
+    DependencySources result = dependencySources;
+    if (result == null) {
+      Project project = getProject();
+      WebDocPluginExtension pluginExtension = project.getExtensions().getByType(WebDocPluginExtension.class);
+      ArrayList<File> sourceRoots = new ArrayList<>();
+      List<ResolvedArtifactResult> sourcesJars = resolveSourcesDependencies(project,
+              pluginExtension.getExclude(), pluginExtension.getInclude(), sourceRoots);
+      result = new DependencySources(List.copyOf(sourceRoots), List.copyOf(sourcesJars));
+      dependencySources = result;
+    }
+    return result;
+  }
+
   /**
-   * load sources
+   * Resolve sources jars of the dependencies, source dirs
+   * of project dependencies are added to the source roots
    */
-  private void loadSourcesDependencies(JavaProjectBuilder javaDocBuilder, Project project, Set<String> excludes, Set<String> includes) {
+  private List<ResolvedArtifactResult> resolveSourcesDependencies(Project project,
+          Set<String> excludes, Set<String> includes, List<File> sourceRoots) {
     Configuration compileConfiguration = project.getConfigurations().getByName(JavaPlugin.COMPILE_CLASSPATH_CONFIGURATION_NAME);
     ArrayList<ComponentIdentifier> binaryDependencies = new ArrayList<>();
 
@@ -152,7 +310,7 @@ public abstract class WebDocTask extends DefaultTask {
         moduleArtifact.setVersion(version.getId().getVersion());
         // add local source
         String artifactName = moduleArtifact.getGroupId() + ":" + moduleArtifact.getArtifactId();
-        addModuleSourceTree(javaDocBuilder, allModules, artifactName);
+        addModuleSourceTree(sourceRoots, allModules, artifactName);
 
       }
       CustomArtifact artifact = selfModule ? moduleArtifact : CustomArtifact.builder(displayName);
@@ -165,7 +323,7 @@ public abstract class WebDocTask extends DefaultTask {
       }
       if (matches(includes, artifactName)) {
         if (selfModule) {
-          addModuleSourceTree(javaDocBuilder, allModules, displayName);
+          addModuleSourceTree(sourceRoots, allModules, displayName);
           continue;
         }
         binaryDependencies.add(resolvedArtifact.getId().getComponentIdentifier());
@@ -181,40 +339,67 @@ public abstract class WebDocTask extends DefaultTask {
             .execute()
             .getResolvedComponents();
 
+    ArrayList<ResolvedArtifactResult> sourcesJars = new ArrayList<>();
     for (ComponentArtifactsResult artifactResult : artifactsResults) {
       for (ArtifactResult sourcesResult : artifactResult.getArtifacts(SourcesArtifact.class)) {
-        if (sourcesResult instanceof ResolvedArtifactResult) {
-          this.loadSourcesDependency(javaDocBuilder, (ResolvedArtifactResult) sourcesResult);
+        if (sourcesResult instanceof ResolvedArtifactResult resolved) {
+          sourcesJars.add(resolved);
         }
       }
     }
+    return sourcesJars;
   }
 
   /**
-   * @param javaDocBuilder JavaProjectBuilder
-   * @param artifact Artifact
+   * Build or reuse the comment index of a sources jar
+   *
+   * @param project Project
+   * @param artifact sources artifact
    */
-  private void loadSourcesDependency(JavaProjectBuilder javaDocBuilder, ResolvedArtifactResult artifact) {
-    try (JarFile jarFile = new JarFile(artifact.getFile())) {
-      for (Enumeration<?> entries = jarFile.entries(); entries.hasMoreElements(); ) {
-        JarEntry entry = (JarEntry) entries.nextElement();
-        String name = entry.getName();
-        if (name.endsWith(".java") && !name.endsWith("/package-info.java")) {
-          javaDocBuilder.addSource(
-                  new URL("jar:" + artifact.getFile().toURI().toURL() + "!/" + name));
-        }
-      }
+  private void loadCommentIndex(Project project, ResolvedArtifactResult artifact) {
+    File jar = artifact.getFile();
+    Path cacheDir = project.getGradle().getGradleUserHomeDir().toPath().resolve(COMMENT_INDEX_CACHE);
+    Path indexFile;
+    if (artifact.getId().getComponentIdentifier() instanceof ModuleComponentIdentifier id) {
+      indexFile = cacheDir.resolve(id.getGroup()).resolve(id.getModule()).resolve(id.getVersion() + ".idx");
+    }
+    else {
+      indexFile = cacheDir.resolve("files").resolve(jar.getName() + ".idx");
+    }
+    SourcesJarLoadEvent event = new SourcesJarLoadEvent();
+    event.begin();
+    try {
+      commentSources.add(CommentIndexBuilder.forSourcesJar(jar, indexFile));
     }
     catch (Throwable e) {
-      getLogger().warn("Unable to load jar source " + artifact + " : " + e.getMessage());
+      getLogger().warn("Unable to index jar source " + artifact + " : " + e.getMessage());
+    }
+    if (event.shouldCommit()) {
+      event.artifact = artifact.getId().getComponentIdentifier().getDisplayName();
+      event.commentIndex = true;
+      event.commit();
     }
   }
 
-  private void addModuleSourceTree(JavaProjectBuilder javaDocBuilder, TreeMap<String, Project> allModules, String artifactName) {
+  /**
+   * Metrics of the current run
+   */
+  protected GenerationMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Comments of members that are not parsed from sources
+   */
+  protected CommentSource getCommentSource() {
+    return CommentSource.composite(commentSources);
+  }
+
+  private void addModuleSourceTree(List<File> sourceRoots, TreeMap<String, Project> allModules, String artifactName) {
     Project module = allModules.getOrDefault(artifactName, null);
     if (module != null) {
       String modelSrc = String.join(File.separator, module.getProjectDir().getAbsolutePath(), SRC_MAIN_JAVA_PATH);
-      javaDocBuilder.addSourceTree(new File(modelSrc));
+      sourceRoots.add(new File(modelSrc));
     }
   }
 
@@ -242,6 +427,23 @@ public abstract class WebDocTask extends DefaultTask {
    */
   public abstract void executeAction(DocConfig apiConfig, JavaProjectBuilder javaProjectBuilder, Logger logger) throws IOException;
 
+  /**
+   * Sources of the dependencies
+   *
+   * @param sourceRoots source dirs of the project dependencies
+   * @param sourcesJars sources jars of the binary dependencies
+   */
+  public record DependencySources(List<File> sourceRoots, List<ResolvedArtifactResult> sourcesJars) {
+
+    public List<File> sourcesJarFiles() {
+      ArrayList<File> files = new ArrayList<>(sourcesJars.size());
+      for (ResolvedArtifactResult sourcesJar : sourcesJars) {
+        files.add(sourcesJar.getFile());
+      }
+      return files;
+    }
+  }
+
   static boolean matches(Collection<String> patterns, String str) {
     if (patterns == null) {
       return false;
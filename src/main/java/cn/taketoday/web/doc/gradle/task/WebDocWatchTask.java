@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.gradle.extension.WebDocPluginExtension;
+import cn.taketoday.web.doc.openapi.OpenAPIJson;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import cn.taketoday.web.doc.preview.PreviewServer;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import cn.taketoday.web.doc.source.SourcePlan;
+import cn.taketoday.web.doc.source.SourceUnit;
+import cn.taketoday.web.doc.watch.IncrementalGenerator;
+import cn.taketoday.web.doc.watch.IncrementalGenerator.Update;
+import cn.taketoday.web.doc.watch.SourceWatcher;
+import infra.lang.Assert;
+import infra.lang.Constant;
+import infra.lang.Nullable;
+
+/**
+ * Generate the OpenAPI documents, then keep them up to date while the
+ * sources change until the build is cancelled.
+ * <pre>
+ * ./gradlew webDocWatch
+ * </pre>
+ * With a {@link WebDocPluginExtension#getPreviewPort() preview port}, each
+ * update is also pushed to the browsers of the preview.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see IncrementalGenerator
+ * @since 1.0
+ */
+public class WebDocWatchTask extends WebDocTask {
+
+  private IncrementalGenerator generator;
+
+  private final ArrayList<Path> roots = new ArrayList<>();
+
+  @Override
+  protected ParallelSourceLoader.SourceListener createSourceListener(SourcePlan plan, JavaProjectBuilder projectBuilder) {
+    ProjectLayout layout = getProject().getLayout();
+    generator = new IncrementalGenerator(projectBuilder, new OpenAPIModelFactory(getCommentSource()),
+            Charset.forName(Constant.DEFAULT_ENCODING),
+            layout.getBuildDirectory().file(OpenAPITask.OUTPUT_FILE).get().getAsFile(),
+            getDocumentGroups(),
+            layout.getBuildDirectory().dir(OpenAPITask.GROUPS_DIR).get().getAsFile());
+
+    roots.clear();
+    for (SourceUnit unit : plan.getUnits()) {
+      if (!unit.isJar()) {
+        roots.add(unit.path());
+      }
+    }
+    return generator.getSourceListener();
+  }
+
+  @Override
+  public void executeAction(DocConfig docConfig, JavaProjectBuilder javaProjectBuilder, Logger logger) throws IOException {
+    Assert.state(generator != null, "Sources not loaded");
+    generator.initialize();
+    File output = getProject().getLayout().getBuildDirectory().file(OpenAPITask.OUTPUT_FILE).get().getAsFile();
+    logger.quiet("Web-docs OpenAPI document: {}", output);
+
+    WebDocPluginExtension extension = getProject().getExtensions().getByType(WebDocPluginExtension.class);
+    PreviewServer preview = createPreviewServer(extension.getPreviewPort());
+    try (SourceWatcher watcher = new SourceWatcher(roots, createSourceFilter(extension),
+            Duration.ofMillis(extension.getWatchDebounce()))) {
+      if (preview != null) {
+        preview.publish(createDocument());
+        preview.start();
+        logger.quiet("Web-docs preview: {}", preview.getUri());
+      }
+      logger.quiet("Web-docs watching {} sources in {} directories, cancel the build to stop",
+              generator.getSourceCount(), watcher.getWatchedDirectories());
+      watcher.run(files -> {
+        try {
+          Update update = generator.update(files);
+          logger.quiet("Web-docs updated: {}", update);
+          if (preview != null) {
+            preview.publish(createDocument());
+          }
+        }
+        catch (IOException | RuntimeException e) {
+          // keep watching, the next save may fix it
+          logger.warn("Web-docs update of {} failed", files, e);
+        }
+      });
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.quiet("Web-docs watch stopped");
+    }
+    finally {
+      generator = null;
+      if (preview != null) {
+        preview.close();
+      }
+    }
+  }
+
+  /**
+   * Document of the preview, from the kept endpoints rather than the written file
+   */
+  private JsonNode createDocument() {
+    Assert.state(generator != null, "Sources not loaded");
+    return OpenAPIJson.getObjectMapper().valueToTree(generator.createOpenAPI());
+  }
+
+  @Nullable
+  private static PreviewServer createPreviewServer(@Nullable Integer port) throws IOException {
+    if (port == null) {
+      return null;
+    }
+    return new PreviewServer(new InetSocketAddress("localhost", port));
+  }
+
+}
@@ -19,16 +19,17 @@ package cn.taketoday.web.doc.gradle.util;
 
 import com.thoughtworks.qdox.model.JavaAnnotatedElement;
 import com.thoughtworks.qdox.model.JavaAnnotation;
-import com.thoughtworks.qdox.model.JavaField;
 import com.thoughtworks.qdox.model.expression.Add;
 import com.thoughtworks.qdox.model.expression.AnnotationValue;
-import com.thoughtworks.qdox.model.expression.Expression;
+import com.thoughtworks.qdox.model.expression.AnnotationValueList;
 import com.thoughtworks.qdox.model.expression.FieldRef;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 import infra.lang.Constant;
 import infra.lang.Nullable;
@@ -43,7 +44,7 @@ public abstract class AnnotationUtils {
   @Nullable
   public static JavaAnnotation getAnnotation(Collection<JavaAnnotation> annotations, String type) {
     for (JavaAnnotation annotation : annotations) {
-      if (Objects.equals(annotation.getType().getName(), type)) {
+      if (Objects.equals(annotation.getType().getFullyQualifiedName(), type)) {
         return annotation;
       }
     }
@@ -86,54 +87,114 @@ public abstract class AnnotationUtils {
    *
    * @param annotationValue annotationValue
    * @return annotation value
+   * @deprecated every call folds with a new resolver and memoizes nothing,
+   * use {@link #getValue(AnnotationValue, ConstantValueResolver)} with the
+   * resolver of the generation run
    */
-  public static String getValue(AnnotationValue annotationValue) {
-    if (annotationValue instanceof Add add) {
-      String leftValue = getValue(add.getLeft());
-      String rightValue = getValue(add.getRight());
-      return removeQuotes(leftValue + rightValue);
+  @Deprecated
+  public static String getValue(@Nullable AnnotationValue annotationValue) {
+    if (annotationValue instanceof Add || annotationValue instanceof FieldRef) {
+      return new ConstantValueResolver().resolve(annotationValue);
     }
-    else {
-      if (annotationValue instanceof FieldRef fieldRef) {
-        JavaField javaField = fieldRef.getField();
-        if (javaField != null) {
-          return removeQuotes(javaField.getInitializationExpression());
-        }
+    if (annotationValue != null) {
+      Object parameterValue = annotationValue.getParameterValue();
+      if (parameterValue != null) {
+        return removeQuotes(parameterValue.toString());
       }
-      return Optional.ofNullable(annotationValue)
-              .map(Expression::getParameterValue)
-              .map(Object::toString)
-              .orElse(Constant.BLANK);
     }
+    return Constant.BLANK;
   }
 
   /**
-   * Remove single or double quotes in query keywords to avoid sql errors
+   * resolve the string of annotation value with a memoizing resolver,
+   * use one resolver for all annotations of a generation run.
    *
-   * @param str String
-   * @return String
+   * @param annotationValue annotationValue
+   * @param resolver constant expression resolver
+   * @return annotation value
+   */
+  public static String getValue(@Nullable AnnotationValue annotationValue, ConstantValueResolver resolver) {
+    return resolver.resolve(annotationValue);
+  }
+
+  /**
+   * resolve the strings of an annotation value, array values like
+   * {@code {"/a", "/b"}} are flattened, blank values are skipped.
+   *
+   * @param annotationValue annotationValue
+   * @param resolver constant expression resolver
+   * @return annotation values
    */
-  public static String removeQuotes(String str) {
-    if (StringUtils.hasText(str)) {
-      return str.replaceAll("'", Constant.BLANK).replaceAll("\"", Constant.BLANK);
+  public static List<String> getValues(@Nullable AnnotationValue annotationValue, ConstantValueResolver resolver) {
+    if (annotationValue == null) {
+      return Collections.emptyList();
+    }
+    ArrayList<String> values = new ArrayList<>();
+    addValues(annotationValue, resolver, values);
+    return values;
+  }
+
+  private static void addValues(AnnotationValue annotationValue, ConstantValueResolver resolver, List<String> values) {
+    if (annotationValue instanceof AnnotationValueList list) {
+      for (AnnotationValue value : list.getValueList()) {
+        addValues(value, resolver, values);
+      }
     }
     else {
-      return Constant.BLANK;
+      String value = resolver.resolve(annotationValue);
+      if (StringUtils.hasText(value)) {
+        values.add(value);
+      }
     }
   }
 
+  /**
+   * Remove single and double quotes
+   *
+   * @param str String
+   * @return String
+   */
+  public static String removeQuotes(@Nullable String str) {
+    return remove(str, '\'', '"');
+  }
+
   /**
    * Remove double quotes
    *
    * @param str String
    * @return String
    */
-  public static String removeDoubleQuotes(String str) {
-    if (StringUtils.hasText(str)) {
-      return str.replaceAll("\"", Constant.BLANK);
-    }
-    else {
+  public static String removeDoubleQuotes(@Nullable String str) {
+    return remove(str, '"', '"');
+  }
+
+  /**
+   * single pass removal, returns the given string when there is nothing to remove
+   */
+  private static String remove(@Nullable String str, char c1, char c2) {
+    if (!StringUtils.hasText(str)) {
       return Constant.BLANK;
     }
+    int length = str.length();
+    int i = 0;
+    while (i < length) {
+      char c = str.charAt(i);
+      if (c == c1 || c == c2) {
+        break;
+      }
+      i++;
+    }
+    if (i == length) {
+      return str;
+    }
+    StringBuilder builder = new StringBuilder(length - 1);
+    builder.append(str, 0, i);
+    for (i++; i < length; i++) {
+      char c = str.charAt(i);
+      if (c != c1 && c != c2) {
+        builder.append(c);
+      }
+    }
+    return builder.toString();
   }
 }
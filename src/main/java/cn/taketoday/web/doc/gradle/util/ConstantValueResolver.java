@@ -0,0 +1,532 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.util;
+
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.expression.Add;
+import com.thoughtworks.qdox.model.expression.AnnotationValue;
+import com.thoughtworks.qdox.model.expression.FieldRef;
+import com.thoughtworks.qdox.model.expression.ParenExpression;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import infra.lang.Constant;
+import infra.lang.Nullable;
+
+/**
+ * Resolve constant expressions of annotation values.
+ * <p>
+ * {@link Add} expressions and {@link FieldRef} lookups are folded,
+ * including the initializers of referenced fields, which QDox only keeps
+ * as source text. Initializers may refer to constants of the same class,
+ * its outer and super types, imported classes, fully qualified classes,
+ * and statically imported fields.
+ * <p>
+ * Operands keep their type like in Java: string, char and numeric
+ * literals and fields. A {@code +} adds numbers and chars, from left to
+ * right, until an operand is a string, so {@code 1 + 2 + "a"} is
+ * {@code "3a"} and {@code "a" + 1 + 2} is {@code "a12"}.
+ * <p>
+ * Results are memoized by identity of the expression or field, so a
+ * path constant shared by hundreds of mappings is folded only once.
+ * Instances are not thread-safe, use one resolver per generation run.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class ConstantValueResolver {
+
+  /**
+   * marks fields that are being resolved, to stop on cyclic references
+   */
+  private static final String RESOLVING = new String("<resolving>");
+
+  /**
+   * values by expression or field: a string, a boxed number or a character
+   */
+  private final IdentityHashMap<Object, Object> cache = new IdentityHashMap<>();
+
+  /**
+   * Resolve the string value of an annotation value
+   *
+   * @param annotationValue annotation value
+   * @return resolved value, never {@code null}
+   */
+  public String resolve(@Nullable AnnotationValue annotationValue) {
+    if (annotationValue == null) {
+      return Constant.BLANK;
+    }
+    return String.valueOf(getValue(annotationValue));
+  }
+
+  /**
+   * Resolve the constant value of a field from its initializer
+   *
+   * @param field java field
+   * @return resolved value, never {@code null}
+   */
+  public String resolve(JavaField field) {
+    return String.valueOf(getValue(field));
+  }
+
+  private Object getValue(AnnotationValue annotationValue) {
+    Object value = cache.get(annotationValue);
+    if (value == null) {
+      value = doResolve(annotationValue);
+      cache.put(annotationValue, value);
+    }
+    return value;
+  }
+
+  private Object doResolve(AnnotationValue annotationValue) {
+    if (annotationValue instanceof Add add) {
+      return add(getValue(add.getLeft()), getValue(add.getRight()));
+    }
+    if (annotationValue instanceof ParenExpression paren) {
+      return getValue(paren.getValue());
+    }
+    if (annotationValue instanceof com.thoughtworks.qdox.model.expression.Constant literal
+            && isNumeric(literal.getValue())) {
+      // numeric and char literals, strings keep the quote-stripped source text
+      return literal.getValue();
+    }
+    if (annotationValue instanceof FieldRef fieldRef) {
+      JavaField javaField = fieldRef.getField();
+      if (javaField == null && fieldRef.getDeclaringClass() != null) {
+        // constants of nested classes and static imports of other packages,
+        // which QDox leaves unresolved
+        javaField = findField(fieldRef.getName(), fieldRef.getDeclaringClass());
+      }
+      if (javaField != null) {
+        return getValue(javaField);
+      }
+    }
+    Object parameterValue = annotationValue.getParameterValue();
+    return parameterValue == null ? Constant.BLANK : AnnotationUtils.removeQuotes(parameterValue.toString());
+  }
+
+  private Object getValue(JavaField field) {
+    Object value = cache.get(field);
+    if (value == RESOLVING) {
+      return Constant.BLANK;
+    }
+    if (value == null && field.isEnumConstant()) {
+      value = field.getName();
+      cache.put(field, value);
+    }
+    if (value == null) {
+      cache.put(field, RESOLVING);
+      value = evaluate(field.getInitializationExpression(), field.getDeclaringClass());
+      if (field.getType() != null) {
+        value = convert(value, field.getType().getFullyQualifiedName());
+      }
+      cache.put(field, value);
+    }
+    return value;
+  }
+
+  /**
+   * Evaluate a constant expression,
+   * falls back to the quote-stripped source text when it is not a constant expression
+   */
+  private Object evaluate(@Nullable String expression, JavaClass context) {
+    if (expression == null || expression.isBlank()) {
+      return Constant.BLANK;
+    }
+    Object value = new Evaluator(expression, context).evaluate();
+    return value != null ? value : AnnotationUtils.removeQuotes(expression);
+  }
+
+  /**
+   * Java {@code +}: concatenation if an operand is a string,
+   * otherwise the sum after binary numeric promotion
+   */
+  private static Object add(Object left, Object right) {
+    if (!isNumeric(left) || !isNumeric(right)) {
+      return String.valueOf(left) + right;
+    }
+    if (left instanceof Double || right instanceof Double) {
+      return toNumber(left).doubleValue() + toNumber(right).doubleValue();
+    }
+    if (left instanceof Float || right instanceof Float) {
+      return toNumber(left).floatValue() + toNumber(right).floatValue();
+    }
+    if (left instanceof Long || right instanceof Long) {
+      return toNumber(left).longValue() + toNumber(right).longValue();
+    }
+    return toNumber(left).intValue() + toNumber(right).intValue();
+  }
+
+  /**
+   * Assignment conversion of a numeric value to the primitive type of a field
+   */
+  private static Object convert(Object value, String type) {
+    if (!isNumeric(value)) {
+      return value;
+    }
+    Number number = toNumber(value);
+    return switch (type) {
+      case "byte" -> number.byteValue();
+      case "short" -> number.shortValue();
+      case "char" -> (char) number.intValue();
+      case "int" -> number.intValue();
+      case "long" -> number.longValue();
+      case "float" -> number.floatValue();
+      case "double" -> number.doubleValue();
+      default -> value;
+    };
+  }
+
+  private static boolean isNumeric(Object value) {
+    return value instanceof Number || value instanceof Character;
+  }
+
+  private static Number toNumber(Object value) {
+    return value instanceof Character c ? (int) c : (Number) value;
+  }
+
+  @Nullable
+  private JavaField findField(String name, JavaClass context) {
+    int lastDot = name.lastIndexOf('.');
+    if (lastDot < 0) {
+      // fields of this class and its outer classes
+      for (JavaClass type = context; type != null; type = type.getDeclaringClass()) {
+        JavaField field = findField(type, name);
+        if (field != null) {
+          return field;
+        }
+      }
+      return findStaticImport(name, context);
+    }
+    JavaClass type = findType(name.substring(0, lastDot), context);
+    return type != null ? findField(type, name.substring(lastDot + 1)) : null;
+  }
+
+  /**
+   * find field in the given type and its super types
+   */
+  @Nullable
+  private static JavaField findField(JavaClass type, String name) {
+    JavaField field = type.getFieldByName(name);
+    if (field != null) {
+      return field;
+    }
+    JavaClass superClass = type.getSuperJavaClass();
+    if (superClass != null && superClass != type) {
+      field = findField(superClass, name);
+      if (field != null) {
+        return field;
+      }
+    }
+    for (JavaClass anInterface : type.getInterfaces()) {
+      field = findField(anInterface, name);
+      if (field != null) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private JavaField findStaticImport(String name, JavaClass context) {
+    JavaSource source = context.getSource();
+    if (source == null) {
+      return null;
+    }
+    for (String imported : source.getImports()) {
+      if (imported.startsWith("static ")) {
+        imported = imported.substring(7).trim();
+      }
+      int lastDot = imported.lastIndexOf('.');
+      if (lastDot < 0) {
+        continue;
+      }
+      String member = imported.substring(lastDot + 1);
+      if (member.equals(name) || member.equals("*")) {
+        JavaClass type = getClass(context, imported.substring(0, lastDot));
+        if (type != null) {
+          JavaField field = findField(type, name);
+          if (field != null) {
+            return field;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Resolve a type name as written in the source of the context class
+   */
+  @Nullable
+  private JavaClass findType(String typeName, JavaClass context) {
+    int firstDot = typeName.indexOf('.');
+    String first = firstDot < 0 ? typeName : typeName.substring(0, firstDot);
+
+    JavaClass type = null;
+    for (JavaClass outer = context; outer != null && type == null; outer = outer.getDeclaringClass()) {
+      if (outer.getName().equals(first)) {
+        type = outer;
+      }
+      else {
+        type = outer.getNestedClassByName(first);
+      }
+    }
+
+    JavaSource source = context.getSource();
+    if (type == null && source != null) {
+      for (String imported : source.getImports()) {
+        if (!imported.startsWith("static ") && imported.endsWith('.' + first)) {
+          type = getClass(context, imported);
+          break;
+        }
+      }
+      if (type == null) {
+        String packageName = source.getPackageName();
+        String candidate = packageName == null || packageName.isEmpty() ? first : packageName + '.' + first;
+        type = getClass(context, candidate);
+      }
+      if (type == null) {
+        for (String imported : source.getImports()) {
+          if (imported.endsWith(".*") && !imported.startsWith("static ")) {
+            type = getClass(context, imported.substring(0, imported.length() - 1) + first);
+            if (type != null) {
+              break;
+            }
+          }
+        }
+      }
+    }
+
+    if (type == null) {
+      // fully qualified name
+      return firstDot < 0 ? null : getClass(context, typeName);
+    }
+    if (firstDot > 0) {
+      for (String nested : typeName.substring(firstDot + 1).split("\\.")) {
+        type = type.getNestedClassByName(nested);
+        if (type == null) {
+          return null;
+        }
+      }
+    }
+    return type;
+  }
+
+  @Nullable
+  private static JavaClass getClass(JavaClass context, String name) {
+    ClassLibrary library = context.getJavaClassLibrary();
+    if (library != null && library.hasJavaClass(name)) {
+      return library.getJavaClass(name);
+    }
+    return null;
+  }
+
+  /**
+   * Evaluator of {@code "literal" + NAME + (Type.NAME + 'c' + 1)} expressions
+   */
+  private final class Evaluator {
+
+    private final String expression;
+
+    private final JavaClass context;
+
+    private int pos;
+
+    Evaluator(String expression, JavaClass context) {
+      this.expression = expression;
+      this.context = context;
+    }
+
+    @Nullable
+    Object evaluate() {
+      Object value = sum();
+      skipWhitespace();
+      return pos == expression.length() ? value : null;
+    }
+
+    @Nullable
+    private Object sum() {
+      Object value = term();
+      if (value == null) {
+        return null;
+      }
+      skipWhitespace();
+      if (pos < expression.length() && expression.charAt(pos) == '+') {
+        // once an operand is a string, the rest is concatenated
+        StringBuilder builder = null;
+        while (pos < expression.length() && expression.charAt(pos) == '+') {
+          pos++;
+          Object next = term();
+          if (next == null) {
+            return null;
+          }
+          if (builder != null) {
+            builder.append(next);
+          }
+          else if (value instanceof String || next instanceof String) {
+            builder = new StringBuilder().append(value).append(next);
+          }
+          else {
+            value = add(value, next);
+          }
+          skipWhitespace();
+        }
+        return builder != null ? builder.toString() : value;
+      }
+      return value;
+    }
+
+    @Nullable
+    private Object term() {
+      skipWhitespace();
+      if (pos >= expression.length()) {
+        return null;
+      }
+      char c = expression.charAt(pos);
+      if (c == '"') {
+        return stringLiteral();
+      }
+      if (c == '\'') {
+        return charLiteral();
+      }
+      if (c == '(') {
+        pos++;
+        Object value = sum();
+        skipWhitespace();
+        if (value == null || pos >= expression.length() || expression.charAt(pos) != ')') {
+          return null;
+        }
+        pos++;
+        return value;
+      }
+      if (Character.isJavaIdentifierStart(c)) {
+        int start = pos;
+        while (pos < expression.length()
+                && (Character.isJavaIdentifierPart(expression.charAt(pos)) || expression.charAt(pos) == '.')) {
+          pos++;
+        }
+        JavaField field = findField(expression.substring(start, pos), context);
+        return field != null ? getValue(field) : null;
+      }
+      if (Character.isDigit(c)) {
+        int start = pos;
+        while (pos < expression.length()
+                && (Character.isLetterOrDigit(expression.charAt(pos)) || expression.charAt(pos) == '.'
+                || expression.charAt(pos) == '_')) {
+          pos++;
+        }
+        return numberLiteral(expression.substring(start, pos).replace("_", ""));
+      }
+      return null;
+    }
+
+    @Nullable
+    private static Number numberLiteral(String literal) {
+      try {
+        char suffix = Character.toLowerCase(literal.charAt(literal.length() - 1));
+        boolean hex = literal.startsWith("0x") || literal.startsWith("0X");
+        if (suffix == 'l') {
+          return parseInteger(literal.substring(0, literal.length() - 1), hex);
+        }
+        if (!hex && (suffix == 'f')) {
+          return Float.parseFloat(literal);
+        }
+        if (!hex && (suffix == 'd' || literal.indexOf('.') >= 0 || literal.indexOf('e') >= 0 || literal.indexOf('E') >= 0)) {
+          return Double.parseDouble(literal);
+        }
+        // int literals may use all 32 bits, like 0xFFFFFFFF
+        return (int) parseInteger(literal, hex);
+      }
+      catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    private static long parseInteger(String literal, boolean hex) {
+      if (hex) {
+        return Long.parseUnsignedLong(literal.substring(2), 16);
+      }
+      if (literal.startsWith("0b") || literal.startsWith("0B")) {
+        return Long.parseUnsignedLong(literal.substring(2), 2);
+      }
+      if (literal.length() > 1 && literal.charAt(0) == '0') {
+        return Long.parseUnsignedLong(literal.substring(1), 8);
+      }
+      return Long.parseLong(literal);
+    }
+
+    @Nullable
+    private Character charLiteral() {
+      pos++;
+      if (pos >= expression.length()) {
+        return null;
+      }
+      char c = expression.charAt(pos++);
+      if (c == '\\' && pos < expression.length()) {
+        c = unescape(expression.charAt(pos++));
+      }
+      if (pos < expression.length() && expression.charAt(pos) == '\'') {
+        pos++;
+        return c;
+      }
+      return null;
+    }
+
+    @Nullable
+    private String stringLiteral() {
+      StringBuilder builder = new StringBuilder();
+      pos++;
+      while (pos < expression.length()) {
+        char c = expression.charAt(pos++);
+        if (c == '"') {
+          return builder.toString();
+        }
+        if (c == '\\' && pos < expression.length()) {
+          builder.append(unescape(expression.charAt(pos++)));
+        }
+        else {
+          builder.append(c);
+        }
+      }
+      return null;
+    }
+
+    private static char unescape(char escaped) {
+      return switch (escaped) {
+        case 'n' -> '\n';
+        case 't' -> '\t';
+        case 'r' -> '\r';
+        case 'b' -> '\b';
+        case 'f' -> '\f';
+        default -> escaped;
+      };
+    }
+
+    private void skipWhitespace() {
+      while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+        pos++;
+      }
+    }
+  }
+
+}
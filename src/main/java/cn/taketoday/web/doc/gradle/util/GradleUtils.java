@@ -100,9 +100,9 @@ public abstract class GradleUtils {
    * Get classloader
    *
    * @param project MavenProject
-   * @return ClassLoader
+   * @return ClassLoader, closed by the caller
    */
-  public static ClassLoader getRuntimeClassLoader(Project project) {
+  public static URLClassLoader getRuntimeClassLoader(Project project) {
     try {
       Configuration compileConfiguration = project.getConfigurations().getByName(JavaPlugin.COMPILE_CLASSPATH_CONFIGURATION_NAME);
       Set<File> fileSet = compileConfiguration.getFiles();
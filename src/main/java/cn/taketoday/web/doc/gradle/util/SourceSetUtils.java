@@ -56,7 +56,7 @@ public abstract class SourceSetUtils {
    */
   public static File getDefaultMainJava(Project project) {
     String projectDir = project.getProjectDir().getPath();
-    String projectCodePath = String.join(File.pathSeparator, projectDir, "src/main/java");
+    String projectCodePath = String.join(File.separator, projectDir, "src", "main", "java");
     File src = new File(projectCodePath);
 
     return src.exists() && src.listFiles() != null
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading the sources jar of a dependency
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+@Name("cn.taketoday.web.doc.SourcesJarLoad")
+@Label("Sources Jar Load")
+@Category({ "Web Docs" })
+@StackTrace(false)
+public class SourcesJarLoadEvent extends Event {
+
+  @Label("Artifact")
+  public String artifact;
+
+  @Label("Files")
+  @Description("Source files read from the jar")
+  public int files;
+
+  @Label("Comment Index")
+  @Description("Whether the comment index is used instead of the sources")
+  public boolean commentIndex;
+
+}
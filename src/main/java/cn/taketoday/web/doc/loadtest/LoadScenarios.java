@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import infra.lang.Nullable;
+
+/**
+ * Load scenario of a document: a {@link RequestTemplate} per operation,
+ * with synthetic parameters and bodies built from the schemas.
+ * <p>
+ * Parameters without a location are path variables when the template has
+ * a variable of the same name, query parameters otherwise.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public abstract class LoadScenarios {
+
+  static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+
+  private static final String JSON = "application/json";
+
+  /**
+   * @param document OpenAPI document
+   * @return templates, in the order of the document
+   */
+  public static List<RequestTemplate> create(JsonNode document) {
+    SampleValues samples = new SampleValues(document);
+    ArrayList<RequestTemplate> templates = new ArrayList<>();
+    for (Iterator<Map.Entry<String, JsonNode>> it = document.path("paths").fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      JsonNode pathItem = entry.getValue();
+      for (Iterator<Map.Entry<String, JsonNode>> ops = pathItem.fields(); ops.hasNext(); ) {
+        Map.Entry<String, JsonNode> operation = ops.next();
+        if (HTTP_METHODS.contains(operation.getKey())) {
+          templates.add(create(entry.getKey(), operation.getKey().toUpperCase(Locale.ROOT),
+                  pathItem.path("parameters"), operation.getValue(), samples));
+        }
+      }
+    }
+    return templates;
+  }
+
+  private static RequestTemplate create(String path, String method,
+          JsonNode commonParameters, JsonNode operation, SampleValues samples) {
+    Set<String> variables = variables(path);
+    LinkedHashMap<String, String> pathVariables = new LinkedHashMap<>();
+    LinkedHashMap<String, String> query = new LinkedHashMap<>();
+    LinkedHashMap<String, String> headers = new LinkedHashMap<>();
+    for (JsonNode parameters : new JsonNode[] { commonParameters, operation.path("parameters") }) {
+      for (JsonNode parameter : parameters) {
+        String name = parameter.path("name").asText();
+        String value = parameterValue(parameter, samples);
+        switch (parameter.path("in").asText(variables.contains(name) ? "path" : "query")) {
+          case "path" -> pathVariables.put(name, value);
+          case "header" -> headers.put(name, value);
+          case "query" -> query.put(name, value);
+          default -> { }
+        }
+      }
+    }
+    for (String variable : variables) {
+      pathVariables.putIfAbsent(variable, "1");
+    }
+
+    String contentType = null;
+    String body = null;
+    JsonNode content = operation.path("requestBody").path("content");
+    if (content.size() > 0) {
+      contentType = content.has(JSON) ? JSON : content.fieldNames().next();
+      JsonNode schema = content.path(contentType).get("schema");
+      body = schema == null ? "{}" : samples.sample(schema).toString();
+    }
+    return new RequestTemplate(method, path, pathVariables, query, headers, contentType, body);
+  }
+
+  private static String parameterValue(JsonNode parameter, SampleValues samples) {
+    JsonNode example = parameter.get("example");
+    if (example != null) {
+      return example.asText();
+    }
+    JsonNode schema = parameter.get("schema");
+    if (schema == null) {
+      return "1";
+    }
+    JsonNode sample = samples.sample(schema);
+    if (sample.isArray()) {
+      sample = sample.path(0);
+    }
+    return sample.isValueNode() ? sample.asText() : "1";
+  }
+
+  /**
+   * Names of the variables of a path template
+   */
+  static Set<String> variables(String path) {
+    LinkedHashSet<String> variables = new LinkedHashSet<>();
+    int start = path.indexOf('{');
+    while (start >= 0) {
+      int end = path.indexOf('}', start);
+      if (end < 0) {
+        break;
+      }
+      variables.add(RequestTemplate.variableName(path.substring(start + 1, end)));
+      start = path.indexOf('{', end);
+    }
+    return variables;
+  }
+
+  public static void write(ObjectMapper objectMapper, List<RequestTemplate> templates, File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory: " + parent);
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, templates);
+  }
+
+  public static List<RequestTemplate> read(ObjectMapper objectMapper, File file) throws IOException {
+    return objectMapper.readValue(file, new TypeReference<>() { });
+  }
+
+  /**
+   * The first 2xx response of an operation, {@code 200} without one
+   */
+  static int successStatus(JsonNode operation) {
+    for (Iterator<String> it = operation.path("responses").fieldNames(); it.hasNext(); ) {
+      String status = it.next();
+      if (status.length() == 3 && status.charAt(0) == '2' && Character.isDigit(status.charAt(1))) {
+        return Integer.parseInt(status);
+      }
+    }
+    return 200;
+  }
+
+  /**
+   * Sample of the JSON body of a success response
+   */
+  @Nullable
+  static JsonNode successBody(JsonNode operation, SampleValues samples) {
+    JsonNode responses = operation.path("responses");
+    JsonNode response = responses.path(String.valueOf(successStatus(operation)));
+    if (response.isMissingNode()) {
+      response = responses.path("default");
+    }
+    JsonNode schema = response.path("content").path(JSON).get("schema");
+    return schema == null ? null : samples.sample(schema);
+  }
+
+}
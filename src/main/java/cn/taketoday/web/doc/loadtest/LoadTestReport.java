@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throughput and latency baseline of the endpoints
+ *
+ * @param target target of the requests
+ * @param durationMillis duration of the run of each endpoint
+ * @param concurrency concurrent requests of each endpoint
+ * @param endpoints results, in the order of the scenario
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record LoadTestReport(URI target, long durationMillis, int concurrency, List<EndpointResult> endpoints) {
+
+  public void write(ObjectMapper objectMapper, File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory: " + parent);
+    }
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, this);
+  }
+
+  /**
+   * Results as a table
+   */
+  @Override
+  public String toString() {
+    StringBuilder table = new StringBuilder();
+    table.append(String.format(Locale.ROOT, "%-48s %9s %7s %10s %8s %8s %8s %8s%n",
+            "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+    for (EndpointResult result : endpoints) {
+      table.append(String.format(Locale.ROOT, "%-48s %9d %7d %10.1f %8.2f %8.2f %8.2f %8.2f%n",
+              result.operation(), result.requests(), result.errors(), result.throughput(),
+              result.p50(), result.p90(), result.p99(), result.max()));
+    }
+    return table.toString();
+  }
+
+  /**
+   * Result of an endpoint, latencies in milliseconds
+   *
+   * @param operation operation, like {@code GET /users/{id}}
+   * @param requests completed requests
+   * @param errors failed requests and responses with a 4xx or 5xx status
+   * @param throughput requests per second
+   */
+  public record EndpointResult(String operation, long requests, long errors, double throughput,
+          double p50, double p90, double p99, double max) {
+
+    static EndpointResult of(String operation, LatencyHistogram histogram, long errors, long elapsedNanos) {
+      long requests = histogram.getCount();
+      return new EndpointResult(operation, requests, errors,
+              elapsedNanos == 0 ? 0 : requests * 1_000_000_000.0 / elapsedNanos,
+              histogram.getValueAt(50) / 1000.0, histogram.getValueAt(90) / 1000.0,
+              histogram.getValueAt(99) / 1000.0, histogram.getMax() / 1000.0);
+    }
+  }
+
+}
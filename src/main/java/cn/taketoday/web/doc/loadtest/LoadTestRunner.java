@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import cn.taketoday.web.doc.loadtest.LoadTestReport.EndpointResult;
+import infra.lang.Assert;
+
+/**
+ * Closed-loop load generator: each endpoint in turn is called by a number
+ * of concurrent clients for a duration, a client sends its next request
+ * when the previous one completes. The first fifth of the duration warms
+ * up the connections and the server and is not recorded.
+ * <p>
+ * Clients run on virtual threads when the runtime has them (Java 21+),
+ * on a cached thread pool otherwise.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class LoadTestRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+  private final URI target;
+
+  private final Duration duration;
+
+  private final int concurrency;
+
+  /**
+   * @param target base URI of the requests
+   * @param duration duration of the run of each endpoint
+   * @param concurrency concurrent clients of each endpoint
+   */
+  public LoadTestRunner(URI target, Duration duration, int concurrency) {
+    Assert.notNull(target, "target is required");
+    Assert.isTrue(concurrency > 0, "concurrency must be positive");
+    this.target = target;
+    this.duration = duration;
+    this.concurrency = concurrency;
+  }
+
+  public LoadTestReport run(List<RequestTemplate> templates) throws InterruptedException {
+    ExecutorService executor = newThreadPerTaskExecutor();
+    try {
+      HttpClient client = HttpClient.newBuilder()
+              .version(HttpClient.Version.HTTP_1_1)
+              .connectTimeout(REQUEST_TIMEOUT)
+              .executor(executor)
+              .build();
+      ArrayList<EndpointResult> results = new ArrayList<>(templates.size());
+      for (RequestTemplate template : templates) {
+        EndpointResult result = run(client, executor, template);
+        log.debug("{}", result);
+        results.add(result);
+      }
+      return new LoadTestReport(target, duration.toMillis(), concurrency, results);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private EndpointResult run(HttpClient client, ExecutorService executor, RequestTemplate template) throws InterruptedException {
+    HttpRequest request = template.toRequest(target, REQUEST_TIMEOUT);
+    LatencyHistogram histogram = new LatencyHistogram();
+    LongAdder errors = new LongAdder();
+    CountDownLatch done = new CountDownLatch(concurrency);
+    long start = System.nanoTime() + duration.toNanos() / 5;
+    long deadline = start + duration.toNanos() * 4 / 5;
+    for (int i = 0; i < concurrency; i++) {
+      executor.execute(() -> {
+        try {
+          while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            long requestStart = System.nanoTime();
+            boolean failed;
+            try {
+              failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            }
+            catch (IOException e) {
+              failed = true;
+            }
+            if (requestStart >= start) {
+              histogram.record((System.nanoTime() - requestStart) / 1000);
+              if (failed) {
+                errors.increment();
+              }
+            }
+          }
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    return EndpointResult.of(template.operation(), histogram, errors.sum(), System.nanoTime() - start);
+  }
+
+  /**
+   * Virtual threads need Java 21, the plugin runs on 17
+   */
+  static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+    catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "web-doc-load-test");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import infra.lang.Nullable;
+
+/**
+ * A request of a documented operation, with synthetic values
+ *
+ * @param method HTTP method
+ * @param path path template
+ * @param pathVariables values of the path variables
+ * @param query query parameters
+ * @param headers header parameters
+ * @param contentType content type of the body
+ * @param body request body
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see LoadScenarios
+ * @since 1.0
+ */
+public record RequestTemplate(String method, String path, Map<String, String> pathVariables,
+        Map<String, String> query, Map<String, String> headers, @Nullable String contentType, @Nullable String body) {
+
+  /**
+   * Operation of the request, like {@code GET /users/{id}}
+   */
+  public String operation() {
+    return method + " " + path;
+  }
+
+  /**
+   * Path with the variables replaced, and the query
+   */
+  public String resolvePath() {
+    StringBuilder result = new StringBuilder(path.length() + 16);
+    int position = 0;
+    while (position < path.length()) {
+      int start = path.indexOf('{', position);
+      int end = start < 0 ? -1 : path.indexOf('}', start);
+      if (end < 0) {
+        result.append(path, position, path.length());
+        break;
+      }
+      result.append(path, position, start);
+      String value = pathVariables.get(variableName(path.substring(start + 1, end)));
+      result.append(encode(value == null ? "1" : value).replace("+", "%20"));
+      position = end + 1;
+    }
+    char separator = '?';
+    for (Map.Entry<String, String> entry : query.entrySet()) {
+      result.append(separator).append(encode(entry.getKey())).append('=').append(encode(entry.getValue()));
+      separator = '&';
+    }
+    return result.toString();
+  }
+
+  /**
+   * Build the request against a base URI
+   *
+   * @param target base URI, like {@code http://localhost:8080}
+   * @param timeout request timeout
+   */
+  public HttpRequest toRequest(URI target, Duration timeout) {
+    String base = target.toString();
+    if (base.endsWith("/")) {
+      base = base.substring(0, base.length() - 1);
+    }
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + resolvePath()))
+            .timeout(timeout)
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+    headers.forEach(builder::header);
+    if (contentType != null) {
+      builder.header("Content-Type", contentType);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Name of a path variable, without a pattern like {@code id:\d+}
+   */
+  static String variableName(String variable) {
+    int colon = variable.indexOf(':');
+    return (colon < 0 ? variable : variable.substring(0, colon)).trim();
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+}
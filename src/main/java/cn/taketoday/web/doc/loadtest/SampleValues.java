@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Synthetic values of the schemas of a document: the example or first
+ * enum value when there is one, otherwise a value of the type and format.
+ * Recursive references and deep schemas end with {@code null}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SampleValues {
+
+  private static final int MAX_DEPTH = 8;
+
+  private final JsonNode document;
+
+  private final JsonNodeFactory factory = JsonNodeFactory.instance;
+
+  /**
+   * @param document OpenAPI document, to resolve references
+   */
+  public SampleValues(JsonNode document) {
+    this.document = document;
+  }
+
+  public JsonNode sample(JsonNode schema) {
+    return sample(schema, 0, new HashSet<>());
+  }
+
+  private JsonNode sample(JsonNode schema, int depth, HashSet<String> refs) {
+    if (depth > MAX_DEPTH) {
+      return NullNode.instance;
+    }
+    JsonNode example = schema.get("example");
+    if (example != null) {
+      return example;
+    }
+    JsonNode values = schema.get("enum");
+    if (values != null && !values.isEmpty()) {
+      return values.get(0);
+    }
+    JsonNode ref = schema.get("$ref");
+    if (ref != null) {
+      String pointer = ref.asText();
+      JsonNode target = pointer.startsWith("#/") ? document.at(pointer.substring(1)) : null;
+      if (target == null || target.isMissingNode() || !refs.add(pointer)) {
+        return NullNode.instance;
+      }
+      JsonNode sample = sample(target, depth + 1, refs);
+      refs.remove(pointer);
+      return sample;
+    }
+    JsonNode allOf = schema.get("allOf");
+    if (allOf != null) {
+      ObjectNode object = factory.objectNode();
+      for (JsonNode part : allOf) {
+        if (sample(part, depth + 1, refs) instanceof ObjectNode properties) {
+          object.setAll(properties);
+        }
+      }
+      return object;
+    }
+    for (String alternatives : new String[] { "oneOf", "anyOf" }) {
+      JsonNode first = schema.path(alternatives).path(0);
+      if (!first.isMissingNode()) {
+        return sample(first, depth + 1, refs);
+      }
+    }
+
+    String type = schema.path("type").asText(schema.has("properties") ? "object" : "string");
+    return switch (type) {
+      case "integer" -> factory.numberNode(schema.path("minimum").asLong(1));
+      case "number" -> factory.numberNode(schema.path("minimum").asDouble(1.0));
+      case "boolean" -> factory.booleanNode(true);
+      case "array" -> {
+        ArrayNode array = factory.arrayNode();
+        JsonNode items = schema.get("items");
+        if (items != null) {
+          array.add(sample(items, depth + 1, refs));
+        }
+        yield array;
+      }
+      case "object" -> {
+        ObjectNode object = factory.objectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> it = schema.path("properties").fields(); it.hasNext(); ) {
+          Map.Entry<String, JsonNode> property = it.next();
+          object.set(property.getKey(), sample(property.getValue(), depth + 1, refs));
+        }
+        yield object;
+      }
+      default -> factory.textNode(sampleString(schema.path("format").asText("")));
+    };
+  }
+
+  private static String sampleString(String format) {
+    return switch (format) {
+      case "date-time" -> "2024-01-01T00:00:00Z";
+      case "date" -> "2024-01-01";
+      case "uuid" -> "00000000-0000-0000-0000-000000000001";
+      case "email" -> "user@example.com";
+      case "uri", "url" -> "https://example.com";
+      case "byte" -> "AA==";
+      default -> "string";
+    };
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import cn.taketoday.web.doc.route.RouteTable;
+import cn.taketoday.web.doc.route.RouteTableWriter;
+
+/**
+ * Local stand-in of the documented API, to get a baseline of the load
+ * generator and of the endpoints without the real service. Requests are
+ * routed with a {@link RouteTable} of the document, and answered with the
+ * success status and a synthetic body of the operation.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class StandInServer implements Closeable {
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  private final RouteTable routes;
+
+  /**
+   * responses by route
+   */
+  private final Response[] responses;
+
+  /**
+   * @param address address to listen to, port {@code 0} for any free port
+   * @param document OpenAPI document
+   */
+  public StandInServer(InetSocketAddress address, JsonNode document) throws IOException {
+    SampleValues samples = new SampleValues(document);
+    ArrayList<Response> operations = new ArrayList<>();
+    RouteTableWriter writer = new RouteTableWriter();
+    for (Iterator<Map.Entry<String, JsonNode>> it = document.path("paths").fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> entry = it.next();
+      for (Iterator<Map.Entry<String, JsonNode>> ops = entry.getValue().fields(); ops.hasNext(); ) {
+        Map.Entry<String, JsonNode> operation = ops.next();
+        if (LoadScenarios.HTTP_METHODS.contains(operation.getKey())
+                && writer.add(operation.getKey().toUpperCase(Locale.ROOT), entry.getKey(), String.valueOf(operations.size()))) {
+          JsonNode body = LoadScenarios.successBody(operation.getValue(), samples);
+          operations.add(new Response(LoadScenarios.successStatus(operation.getValue()),
+                  body == null ? new byte[0] : body.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+      }
+    }
+    this.routes = RouteTable.wrap(ByteBuffer.wrap(writer.toByteArray()));
+    this.responses = new Response[routes.size()];
+    for (int route = 0; route < responses.length; route++) {
+      responses[route] = operations.get(Integer.parseInt(routes.getHandler(route)));
+    }
+    this.executor = LoadTestRunner.newThreadPerTaskExecutor();
+    this.server = HttpServer.create(address, 1024);
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+  }
+
+  public void start() {
+    server.start();
+  }
+
+  public URI getUri() {
+    InetSocketAddress address = server.getAddress();
+    return URI.create("http://" + address.getHostString() + ":" + address.getPort());
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    int route = routes.match(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+    Response response = route < 0 ? Response.NOT_FOUND : responses[route];
+    if (response.body().length > 0) {
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+    }
+    boolean empty = response.body().length == 0 || response.status() == 204 || "HEAD".equals(exchange.getRequestMethod());
+    exchange.sendResponseHeaders(response.status(), empty ? -1 : response.body().length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      if (!empty) {
+        out.write(response.body());
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private record Response(int status, byte[] body) {
+
+    static final Response NOT_FOUND = new Response(404, new byte[0]);
+  }
+
+}
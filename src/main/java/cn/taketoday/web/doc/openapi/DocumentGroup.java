@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.thoughtworks.qdox.model.JavaMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
+import cn.taketoday.web.doc.source.SourceFilter;
+import infra.lang.Assert;
+
+/**
+ * A document generated from a subset of the endpoints. Endpoints are selected
+ * by controller package globs, operation tags, annotations of the controller
+ * or handler method, and path prefixes. An endpoint must match every kind of
+ * selector that is configured, and any value of that kind.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class DocumentGroup {
+
+  private final String name;
+
+  private final List<Pattern> packages;
+
+  private final Set<String> tags;
+
+  private final Set<String> annotations;
+
+  private final List<String> pathPrefixes;
+
+  /**
+   * @param name group name, used as the file name
+   * @param packages package globs of controllers, like {@code com.example.api.**}
+   * @param tags operation tags
+   * @param annotations fully qualified annotation names
+   * @param pathPrefixes path prefixes, like {@code /api/public}
+   */
+  public DocumentGroup(String name, Collection<String> packages, Collection<String> tags,
+          Collection<String> annotations, Collection<String> pathPrefixes) {
+    Assert.hasText(name, "group name is required");
+    this.name = name;
+    this.packages = new ArrayList<>(packages.size());
+    for (String glob : packages) {
+      this.packages.add(SourceFilter.toPattern(glob.trim(), '.'));
+    }
+    this.tags = Set.copyOf(tags);
+    this.annotations = Set.copyOf(annotations);
+    this.pathPrefixes = new ArrayList<>(pathPrefixes.size());
+    for (String prefix : pathPrefixes) {
+      this.pathPrefixes.add(OpenAPIModelFactory.concatPath(prefix, null));
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean matches(Endpoint endpoint) {
+    return matchesPackage(endpoint) && matchesTag(endpoint)
+            && matchesAnnotation(endpoint) && matchesPath(endpoint);
+  }
+
+  private boolean matchesPackage(Endpoint endpoint) {
+    if (packages.isEmpty()) {
+      return true;
+    }
+    String packageName = endpoint.controller().getPackageName();
+    for (Pattern pattern : packages) {
+      if (pattern.matcher(packageName).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesTag(Endpoint endpoint) {
+    if (tags.isEmpty()) {
+      return true;
+    }
+    List<String> operationTags = endpoint.operation().getTags();
+    if (operationTags != null) {
+      for (String tag : operationTags) {
+        if (tags.contains(tag)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean matchesAnnotation(Endpoint endpoint) {
+    if (annotations.isEmpty()) {
+      return true;
+    }
+    for (String annotation : annotations) {
+      if (AnnotationUtils.isAnnotationPresent(endpoint.controller(), annotation)
+              || isAnnotationPresent(endpoint.method(), endpoint.mappedMethod(), annotation)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isAnnotationPresent(JavaMethod method, JavaMethod mappedMethod, String annotation) {
+    return AnnotationUtils.isAnnotationPresent(method, annotation)
+            || (mappedMethod != method && AnnotationUtils.isAnnotationPresent(mappedMethod, annotation));
+  }
+
+  private boolean matchesPath(Endpoint endpoint) {
+    if (pathPrefixes.isEmpty()) {
+      return true;
+    }
+    String path = endpoint.path();
+    for (String prefix : pathPrefixes) {
+      if (prefix.equals("/") || path.equals(prefix)
+              || (path.startsWith(prefix) && path.charAt(prefix.length()) == '/')) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "DocumentGroup '" + name + "'";
+  }
+
+}
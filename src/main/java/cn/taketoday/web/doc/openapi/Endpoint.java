@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+import infra.http.HttpMethod;
+import io.swagger.v3.oas.models.Operation;
+
+/**
+ * An operation extracted from a handler method, for one
+ * combination of path and HTTP method
+ *
+ * @param path path template
+ * @param httpMethod HTTP method
+ * @param operation operation, shared by the endpoints of a handler method
+ * @param controller controller class
+ * @param method handler method
+ * @param mappedMethod method that declares the mapping, may be inherited
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record Endpoint(String path, HttpMethod httpMethod, Operation operation,
+        JavaClass controller, JavaMethod method, JavaMethod mappedMethod) {
+
+  /**
+   * Handler description, used in conflict reports
+   */
+  public String handler() {
+    return controller.getFullyQualifiedName() + "#" + method.getName();
+  }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cn.taketoday.web.doc.MappingAnnotation;
+import cn.taketoday.web.doc.comment.MemberSignature;
+import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
+import cn.taketoday.web.doc.gradle.util.ConstantValueResolver;
+import cn.taketoday.web.doc.schema.TypeResolver;
+import cn.taketoday.web.doc.schema.TypeSignature;
+import infra.lang.Nullable;
+
+/**
+ * Resolves the handler methods of a type, including the mappings
+ * inherited from superclasses and interfaces.
+ * <p>
+ * The table of each type is resolved once and reused by all of its
+ * subtypes, so a hierarchy is walked in linear time no matter how many
+ * controllers extend the same base types. Methods of generic supertypes
+ * are matched with their overrides after substituting the type arguments,
+ * so {@code create(User)} of {@code UserController extends CrudController<User>}
+ * overrides {@code create(T)}.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+final class HandlerMappingTable {
+
+  static final String JAVA_LANG_OBJECT = "java.lang.Object";
+
+  private final List<MappingAnnotation> mappings;
+
+  private final String typeMapping;
+
+  private final ConstantValueResolver resolver;
+
+  private final TypeResolver typeResolver;
+
+  private final HashMap<String, List<HandlerMapping>> handlerMappings = new HashMap<>();
+
+  private final HashMap<String, List<String>> prefixes = new HashMap<>();
+
+  HandlerMappingTable(List<MappingAnnotation> mappings, String typeMapping,
+          ConstantValueResolver resolver, TypeResolver typeResolver) {
+    this.mappings = mappings;
+    this.typeMapping = typeMapping;
+    this.resolver = resolver;
+    this.typeResolver = typeResolver;
+  }
+
+  /**
+   * Get the handler methods of the given type, declared or inherited.
+   * A method that overrides a mapped method without declaring its own
+   * mapping inherits the mapping of the overridden method.
+   */
+  public List<HandlerMapping> getHandlerMappings(JavaClass type) {
+    String name = type.getFullyQualifiedName();
+    List<HandlerMapping> ret = handlerMappings.get(name);
+    if (ret == null) {
+      ret = resolveHandlerMappings(type);
+      handlerMappings.put(name, ret);
+    }
+    return ret;
+  }
+
+  private List<HandlerMapping> resolveHandlerMappings(JavaClass type) {
+    LinkedHashMap<String, HandlerMapping> result = new LinkedHashMap<>();
+    HashMap<String, JavaMethod> declared = new HashMap<>();
+    for (JavaMethod method : type.getMethods()) {
+      String key = methodKey(method);
+      declared.put(key, method);
+      HandlerMapping mapping = findMapping(method);
+      if (mapping != null) {
+        result.put(key, mapping);
+      }
+    }
+
+    for (JavaClass superType : getSuperTypes(type)) {
+      for (HandlerMapping inherited : getHandlerMappings(superType)) {
+        String key = methodKey(type, inherited.method);
+        if (!result.containsKey(key)) {
+          JavaMethod overriding = declared.get(key);
+          result.put(key, overriding != null ? inherited.withMethod(overriding) : inherited);
+        }
+      }
+    }
+    if (result.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return List.copyOf(result.values());
+  }
+
+  @Nullable
+  private HandlerMapping findMapping(JavaMethod method) {
+    for (MappingAnnotation mapping : mappings) {
+      JavaAnnotation annotation = AnnotationUtils.getAnnotation(method, mapping.annotationName);
+      if (annotation != null) {
+        return new HandlerMapping(method, method, mapping, annotation);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get the type-level path prefixes of the given type, taken from the
+   * nearest type-level mapping in the hierarchy.
+   *
+   * @return prefixes, empty if there is no type-level mapping
+   */
+  public List<String> getPrefixes(JavaClass type) {
+    String name = type.getFullyQualifiedName();
+    List<String> ret = prefixes.get(name);
+    if (ret == null) {
+      ret = resolvePrefixes(type);
+      prefixes.put(name, ret);
+    }
+    return ret;
+  }
+
+  private List<String> resolvePrefixes(JavaClass type) {
+    JavaAnnotation annotation = AnnotationUtils.getAnnotation(type, typeMapping);
+    if (annotation != null) {
+      ArrayList<String> result = new ArrayList<>();
+      for (MappingAnnotation mapping : mappings) {
+        if (mapping.annotationName.equals(typeMapping)) {
+          for (String pathAttr : mapping.pathAttr) {
+            result.addAll(AnnotationUtils.getValues(annotation.getProperty(pathAttr), resolver));
+          }
+        }
+      }
+      return result;
+    }
+
+    for (JavaClass superType : getSuperTypes(type)) {
+      List<String> prefixes = getPrefixes(superType);
+      if (!prefixes.isEmpty()) {
+        return prefixes;
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  private static List<JavaClass> getSuperTypes(JavaClass type) {
+    ArrayList<JavaClass> superTypes = new ArrayList<>();
+    JavaClass superClass = type.getSuperJavaClass();
+    if (superClass != null && superClass != type
+            && !JAVA_LANG_OBJECT.equals(superClass.getFullyQualifiedName())) {
+      superTypes.add(superClass);
+    }
+    superTypes.addAll(type.getInterfaces());
+    return superTypes;
+  }
+
+  private static String methodKey(JavaMethod method) {
+    String signature = MemberSignature.of(method);
+    return signature.substring(signature.indexOf('#') + 1);
+  }
+
+  /**
+   * Key of an inherited method as seen from the given type, the type
+   * variables of a generic declaring class are substituted by the type
+   * arguments the type binds them to
+   */
+  private String methodKey(JavaClass type, JavaMethod method) {
+    JavaClass declaringClass = method.getDeclaringClass();
+    if (declaringClass == null || declaringClass.getTypeParameters().isEmpty()) {
+      return methodKey(method);
+    }
+    Map<String, TypeSignature> bindings = typeResolver.getBindings(type, method);
+    StringBuilder key = new StringBuilder(method.getName()).append('(');
+    List<JavaParameter> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        key.append(',');
+      }
+      TypeSignature signature = typeResolver.resolve(parameters.get(i).getType(), bindings);
+      key.append(signature.getName());
+      for (int d = 0; d < signature.getDimensions(); d++) {
+        key.append("[]");
+      }
+    }
+    return key.append(')').toString();
+  }
+
+  /**
+   * A handler method and its mapping annotation
+   *
+   * @param method handler method
+   * @param mappedMethod method declaring the mapping annotation, may be overridden by the handler method
+   * @param mapping mapping rule
+   * @param annotation mapping annotation
+   */
+  record HandlerMapping(JavaMethod method, JavaMethod mappedMethod, MappingAnnotation mapping, JavaAnnotation annotation) {
+
+    HandlerMapping withMethod(JavaMethod method) {
+      return new HandlerMapping(method, mappedMethod, mapping, annotation);
+    }
+  }
+
+}
@@ -18,43 +18,57 @@
 package cn.taketoday.web.doc.openapi;
 
 import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.DocletTag;
 import com.thoughtworks.qdox.model.JavaAnnotation;
 import com.thoughtworks.qdox.model.JavaClass;
 import com.thoughtworks.qdox.model.JavaMethod;
 import com.thoughtworks.qdox.model.JavaParameter;
-import com.thoughtworks.qdox.model.expression.AnnotationValue;
 
-import org.gradle.internal.impldep.org.apache.commons.lang3.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.GenerationMetrics;
 import cn.taketoday.web.doc.MappingAnnotation;
+import cn.taketoday.web.doc.MemoryBudget;
+import cn.taketoday.web.doc.comment.CommentIndexBuilder;
+import cn.taketoday.web.doc.comment.CommentSource;
+import cn.taketoday.web.doc.comment.MemberSignature;
 import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
-import infra.core.Pair;
+import cn.taketoday.web.doc.gradle.util.ConstantValueResolver;
+import cn.taketoday.web.doc.jfr.EndpointExtractionEvent;
+import cn.taketoday.web.doc.openapi.HandlerMappingTable.HandlerMapping;
+import cn.taketoday.web.doc.openapi.PathTrie.PathConflict;
+import cn.taketoday.web.doc.schema.SchemaResolver;
+import cn.taketoday.web.doc.schema.TypeSignature;
 import infra.http.HttpMethod;
 import infra.lang.Assert;
 import infra.lang.Nullable;
 import infra.util.StringUtils;
-import infra.web.annotation.DELETE;
-import infra.web.annotation.DeleteMapping;
-import infra.web.annotation.GET;
-import infra.web.annotation.GetMapping;
-import infra.web.annotation.PATCH;
-import infra.web.annotation.POST;
-import infra.web.annotation.PUT;
-import infra.web.annotation.PatchMapping;
-import infra.web.annotation.PostMapping;
-import infra.web.annotation.PutMapping;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.PathItem;
-import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
 
 /**
  * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
@@ -62,87 +76,375 @@ import io.swagger.v3.oas.models.parameters.Parameter;
  */
 public class OpenAPIModelFactory {
 
-  static final String RestController = "cn.taketoday.web.annotation.RestController";
+  private static final Logger log = LoggerFactory.getLogger(OpenAPIModelFactory.class);
 
-  static final String RequestMapping = "cn.taketoday.web.annotation.RequestMapping";
+  static final String RestController = "infra.web.annotation.RestController";
+
+  static final String RequestMapping = MappingAnnotation.REQUEST_MAPPING;
+
+  static final String RequestBody = "infra.web.annotation.RequestBody";
+
+  static final String APPLICATION_JSON = "application/json";
+
+  private final CommentSource commentSource;
+
+  private final SchemaResolver schemaResolver = new SchemaResolver();
+
+  public OpenAPIModelFactory() {
+    this(CommentSource.NONE);
+  }
+
+  /**
+   * @param commentSource comments of members that are not available in the source model,
+   * such as types loaded from bytecode
+   */
+  public OpenAPIModelFactory(CommentSource commentSource) {
+    Assert.notNull(commentSource, "CommentSource is required");
+    this.commentSource = commentSource;
+  }
+
+  /**
+   * Schemas resolved by this factory, shared by all its documents
+   */
+  public SchemaResolver getSchemaResolver() {
+    return schemaResolver;
+  }
 
   public OpenAPI createOpenAPI(DocConfig docConfig, JavaProjectBuilder projectBuilder) {
     OpenAPI openAPI = new OpenAPI();
-    Collection<JavaClass> classes = projectBuilder.getClasses();
-    Paths paths = new Paths();
+    HashSet<String> references = new HashSet<>();
+    try {
+      openAPI.setPaths(createPathTrie(projectBuilder, new GenerationMetrics(), null, references).toPaths());
+    }
+    catch (IOException e) {
+      // no spill file
+      throw new UncheckedIOException(e);
+    }
+    openAPI.setComponents(createComponents(references));
+    return openAPI;
+  }
+
+  /**
+   * Create the document of extracted endpoints in memory
+   *
+   * @param endpoints extracted endpoints
+   */
+  public OpenAPI createOpenAPI(Collection<Endpoint> endpoints) {
+    PathTrie pathTrie = new PathTrie();
+    HashSet<String> references = new HashSet<>();
+    for (Endpoint endpoint : endpoints) {
+      pathTrie.add(endpoint.path(), endpoint.httpMethod(), endpoint.operation(), endpoint.handler());
+      SchemaResolver.collectReferences(endpoint.operation(), references);
+    }
+    OpenAPI openAPI = new OpenAPI();
+    openAPI.setPaths(pathTrie.toPaths());
+    openAPI.setComponents(createComponents(references));
+    return openAPI;
+  }
+
+  /**
+   * Create the document and write it to the output file.
+   * <p>
+   * With a limited budget, completed operations are moved to a spill
+   * file whenever the heap usage exceeds the budget during extraction,
+   * and the output is merged from memory and disk while streaming. The
+   * component schemas stay in memory, in the {@link SchemaResolver}.
+   * This is the only output that the budget applies to.
+   *
+   * @param docConfig doc config
+   * @param projectBuilder source model
+   * @param output output file
+   * @param metrics metrics of the run, with the memory budget
+   */
+  public void writeOpenAPI(DocConfig docConfig, JavaProjectBuilder projectBuilder,
+          File output, GenerationMetrics metrics) throws IOException {
+    OpenAPI openAPI = new OpenAPI();
+    try (SpillFile spillFile = metrics.getMemoryBudget().isLimited() ? new SpillFile() : null) {
+      metrics.startPhase("extract");
+      HashSet<String> references = new HashSet<>();
+      PathTrie pathTrie = createPathTrie(projectBuilder, metrics, spillFile, references);
+
+      metrics.startPhase("write");
+      openAPI.setComponents(createComponents(references));
+      new OpenAPIWriter().write(openAPI, pathTrie, output);
+      if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+        metrics.add(GenerationMetrics.SCHEMAS, openAPI.getComponents().getSchemas().size());
+      }
+      metrics.endPhase();
+    }
+  }
+
+  /**
+   * Create the full document and one document per group from a single
+   * extraction. The documents are written concurrently and share the
+   * extracted operations. Without groups the document is written like
+   * {@link #writeOpenAPI(DocConfig, JavaProjectBuilder, File, GenerationMetrics)};
+   * with groups every operation is kept in memory, the memory budget
+   * does not apply.
+   *
+   * @param docConfig doc config
+   * @param projectBuilder source model
+   * @param output output file of the full document
+   * @param groups document groups
+   * @param groupDir output directory of the groups, a group is written to {@code <name>.json}
+   * @param metrics metrics of the run
+   */
+  public void writeOpenAPI(DocConfig docConfig, JavaProjectBuilder projectBuilder, File output,
+          List<DocumentGroup> groups, File groupDir, GenerationMetrics metrics) throws IOException {
+    if (groups.isEmpty()) {
+      writeOpenAPI(docConfig, projectBuilder, output, metrics);
+      return;
+    }
+    metrics.startPhase("extract");
+    List<Endpoint> endpoints = extractEndpoints(projectBuilder, metrics);
+
+    metrics.startPhase("write");
+    writeDocuments(endpoints, output, groups, groupDir);
+    metrics.endPhase();
+  }
+
+  /**
+   * Write the full document and the given groups of extracted endpoints
+   * concurrently, the endpoints are in memory and never spilled
+   *
+   * @param endpoints extracted endpoints
+   * @param output output file of the full document
+   * @param groups document groups to write
+   * @param groupDir output directory of the groups, a group is written to {@code <name>.json}
+   */
+  public void writeDocuments(List<Endpoint> endpoints, File output,
+          Collection<DocumentGroup> groups, File groupDir) throws IOException {
+    ArrayList<CompletableFuture<Void>> futures = new ArrayList<>(groups.size() + 1);
+    futures.add(writeAsync(endpoints, null, output, true));
+    for (DocumentGroup group : groups) {
+      futures.add(writeAsync(endpoints, group, new File(groupDir, group.getName() + ".json"), false));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Write the document of extracted endpoints split into shards
+   *
+   * @param endpoints extracted endpoints
+   * @param strategy how the paths are split
+   * @param dir output directory of the root document and the shards
+   * @return number of operations by shard file name
+   * @see ShardedOpenAPIWriter
+   */
+  public Map<String, Integer> writeShards(List<Endpoint> endpoints, ShardStrategy strategy, File dir) throws IOException {
+    HashSet<String> references = new HashSet<>();
+    for (Endpoint endpoint : endpoints) {
+      SchemaResolver.collectReferences(endpoint.operation(), references);
+    }
+    OpenAPI openAPI = new OpenAPI();
+    openAPI.setComponents(createComponents(references));
+    return new ShardedOpenAPIWriter(strategy).write(openAPI, endpoints, dir);
+  }
+
+  private CompletableFuture<Void> writeAsync(List<Endpoint> endpoints,
+          @Nullable DocumentGroup group, File output, boolean logConflicts) {
+    return CompletableFuture.runAsync(() -> {
+      PathTrie pathTrie = new PathTrie();
+      HashSet<String> references = new HashSet<>();
+      for (Endpoint endpoint : endpoints) {
+        if (group == null || group.matches(endpoint)) {
+          pathTrie.add(endpoint.path(), endpoint.httpMethod(), endpoint.operation(), endpoint.handler());
+          SchemaResolver.collectReferences(endpoint.operation(), references);
+        }
+      }
+      if (logConflicts) {
+        for (PathConflict conflict : pathTrie.getConflicts()) {
+          log.warn(conflict.toString());
+        }
+      }
+      OpenAPI openAPI = new OpenAPI();
+      openAPI.setComponents(createComponents(references));
+      try {
+        new OpenAPIWriter().write(openAPI, pathTrie, output);
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (group != null) {
+        log.info("{}: {} operations written to {}", group, pathTrie.size(), output);
+      }
+    });
+  }
 
+  /**
+   * Extract the endpoints of all controllers
+   *
+   * @param projectBuilder source model
+   * @param metrics metrics of the run
+   * @return endpoints, in the order of the source model
+   */
+  public List<Endpoint> extractEndpoints(JavaProjectBuilder projectBuilder, GenerationMetrics metrics) {
+    return extractEndpoints(projectBuilder.getClasses(), metrics);
+  }
+
+  /**
+   * Extract the endpoints of the controllers among the given classes
+   *
+   * @param classes classes of the source model
+   * @param metrics metrics of the run
+   * @return endpoints, in the order of the classes
+   */
+  public List<Endpoint> extractEndpoints(Collection<JavaClass> classes, GenerationMetrics metrics) {
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    HandlerMappingTable mappingTable = new HandlerMappingTable(MappingAnnotation.defaults(),
+            RequestMapping, resolver, schemaResolver.getTypeResolver());
+    ArrayList<Endpoint> endpoints = new ArrayList<>();
     for (JavaClass javaClass : classes) {
-      Paths current = processClass(javaClass);
-      if (current != null) {
-        paths.putAll(current);
+      metrics.increment(GenerationMetrics.CLASSES);
+      if (processClass(javaClass, mappingTable, resolver, endpoints::add)) {
+        metrics.increment(GenerationMetrics.CONTROLLERS);
       }
     }
-    openAPI.setPaths(paths);
-    return openAPI;
+    metrics.add(GenerationMetrics.ENDPOINTS, endpoints.size());
+    return endpoints;
   }
 
-  @Nullable
-  private Paths processClass(JavaClass javaClass) {
+  /**
+   * @param references collects the names of the components referenced by the operations
+   */
+  private PathTrie createPathTrie(JavaProjectBuilder projectBuilder, GenerationMetrics metrics,
+          @Nullable SpillFile spillFile, Collection<String> references) throws IOException {
+    MemoryBudget budget = metrics.getMemoryBudget();
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    HandlerMappingTable mappingTable = new HandlerMappingTable(MappingAnnotation.defaults(),
+            RequestMapping, resolver, schemaResolver.getTypeResolver());
+    PathTrie pathTrie = new PathTrie();
+    Consumer<Endpoint> consumer = endpoint -> {
+      pathTrie.add(endpoint.path(), endpoint.httpMethod(), endpoint.operation(), endpoint.handler());
+      SchemaResolver.collectReferences(endpoint.operation(), references);
+    };
+
+    int spilled = 0;
+    for (JavaClass javaClass : projectBuilder.getClasses()) {
+      metrics.increment(GenerationMetrics.CLASSES);
+      if (processClass(javaClass, mappingTable, resolver, consumer)) {
+        metrics.increment(GenerationMetrics.CONTROLLERS);
+      }
+      if (spillFile != null && budget.isExceeded()) {
+        spilled += pathTrie.spill(spillFile);
+      }
+    }
+
+    metrics.add(GenerationMetrics.SPILLED, spilled);
+    if (spilled > 0) {
+      log.info("Memory budget exceeded, {} operations ({} KB) spilled to disk", spilled, spillFile.size() >> 10);
+    }
+    for (PathConflict conflict : pathTrie.getConflicts()) {
+      log.warn(conflict.toString());
+    }
+    metrics.add(GenerationMetrics.ENDPOINTS, pathTrie.size());
+    return pathTrie;
+  }
+
+  /**
+   * @return whether the class is an endpoint
+   */
+  private boolean processClass(JavaClass javaClass, HandlerMappingTable mappingTable,
+          ConstantValueResolver resolver, Consumer<Endpoint> consumer) {
     if (isEndpoint(javaClass)) {
-      Paths paths = new Paths();
-      List<MappingAnnotation> mappings = getMappingAnnotations();
-
-      List<JavaMethod> methods = javaClass.getMethods();
-      for (JavaMethod method : methods) {
-        Pair<String, PathItem> pair = processMethod(mappings, javaClass, method);
-        if (pair != null) {
-          paths.addPathItem(pair.first, pair.second);
-        }
+      EndpointExtractionEvent event = new EndpointExtractionEvent();
+      event.begin();
+      int operations = 0;
+      List<String> prefixes = mappingTable.getPrefixes(javaClass);
+      for (HandlerMapping handlerMapping : mappingTable.getHandlerMappings(javaClass)) {
+        operations += processMethod(javaClass, handlerMapping, prefixes, resolver, consumer);
+      }
+      if (event.shouldCommit()) {
+        event.className = javaClass.getFullyQualifiedName();
+        event.operations = operations;
+        event.commit();
       }
-      return paths;
+      return true;
     }
-    return null;
+    return false;
   }
 
-  private Pair<String, PathItem> processMethod(List<MappingAnnotation> mappings, JavaClass declaringClass, JavaMethod method) {
-    PathItem pathItem = new PathItem();
+  /**
+   * Add the operation of a handler method to every combination of
+   * type-level prefix, method-level path and HTTP method
+   *
+   * @return number of endpoints
+   */
+  private int processMethod(JavaClass javaClass, HandlerMapping handlerMapping,
+          List<String> prefixes, ConstantValueResolver resolver, Consumer<Endpoint> consumer) {
+    JavaMethod method = handlerMapping.method();
+    MappingAnnotation mapping = handlerMapping.mapping();
+    JavaAnnotation annotation = handlerMapping.annotation();
+
+    Operation operation = new Operation();
+    operation.setDescription(getComment(method, handlerMapping.mappedMethod()));
+    operation.addTagsItem(javaClass.getName());
+
+    List<String> paths = new ArrayList<>();
+    for (String pathAttr : mapping.pathAttr) {
+      paths.addAll(AnnotationUtils.getValues(annotation.getProperty(pathAttr), resolver));
+    }
+    if (paths.isEmpty() && prefixes.isEmpty()) {
+      return 0;
+    }
 
-    for (MappingAnnotation mapping : mappings) {
-      JavaAnnotation annotation = AnnotationUtils.getAnnotation(method, mapping.annotationName);
-      if (annotation != null) {
-        Operation operation = new Operation();
-        for (JavaParameter param : method.getParameters()) {
-          Parameter parameter = getParameter(method, param);
-          if (parameter != null) {
-            operation.addParametersItem(parameter);
-          }
+    // type variables of a generic handler, as seen from the handler class
+    Map<String, TypeSignature> bindings = schemaResolver.getTypeResolver().getBindings(javaClass, method);
+    String className = javaClass.getFullyQualifiedName();
+    List<JavaParameter> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      JavaParameter argument = parameters.get(i);
+      if (AnnotationUtils.isAnnotationPresent(argument, RequestBody)) {
+        operation.setRequestBody(createRequestBody(method, argument, i,
+                schemaResolver.resolve(argument.getType(), bindings, className)));
+      }
+      else {
+        Parameter parameter = getParameter(method, argument, i);
+        if (parameter != null) {
+          parameter.setSchema(schemaResolver.resolve(argument.getType(), bindings, className));
+          operation.addParametersItem(parameter);
         }
-
-        HttpMethod httpMethod = getHttpMethod(mapping, annotation);
-        switch (httpMethod) {
-          case GET -> pathItem.setGet(operation);
-          case PUT -> pathItem.setPut(operation);
-          case POST -> pathItem.setPost(operation);
-          case PATCH -> pathItem.setPatch(operation);
-          case DELETE -> pathItem.setDelete(operation);
-          case HEAD -> pathItem.setHead(operation);
-          case TRACE -> pathItem.setTrace(operation);
-          case OPTIONS -> pathItem.setOptions(operation);
+      }
+    }
+    operation.setResponses(createResponses(method, schemaResolver.resolve(method.getReturnType(), bindings, className)));
+
+    JavaMethod mappedMethod = handlerMapping.mappedMethod();
+    List<HttpMethod> httpMethods = getHttpMethods(mapping, annotation, resolver);
+    new OperationExtensions(resolver).apply(operation, javaClass, method, mappedMethod, httpMethods);
+
+    int count = 0;
+    for (HttpMethod httpMethod : httpMethods) {
+      for (String prefix : prefixes.isEmpty() ? Collections.<String>singletonList(null) : prefixes) {
+        if (paths.isEmpty()) {
+          consumer.accept(new Endpoint(concatPath(prefix, null), httpMethod, operation, javaClass, method, mappedMethod));
+          count++;
         }
-
-        List<String> paths = new ArrayList<>();
-        for (String pathAttr : mapping.pathAttr) {
-          AnnotationValue annotationValue = annotation.getProperty(pathAttr);
-          if (annotationValue != null) {
-            String path = AnnotationUtils.getValue(annotationValue);
-            if (StringUtils.hasText(path)) {
-              paths.add(path);
-            }
+        else {
+          for (String path : paths) {
+            consumer.accept(new Endpoint(concatPath(prefix, path), httpMethod, operation, javaClass, method, mappedMethod));
+            count++;
           }
         }
-
-        if (!paths.isEmpty()) {
-          return Pair.of(paths.get(0), pathItem);
-        }
       }
     }
+    return count;
+  }
 
-    return null;
+  /**
+   * Concat type-level prefix and method-level path
+   *
+   * @see PathTrie#concatPath(String, String)
+   */
+  public static String concatPath(@Nullable String prefix, @Nullable String path) {
+    return PathTrie.concatPath(prefix, path);
   }
 
   private final BiPredicate<JavaMethod, JavaParameter> argumentFilter = new BiPredicate<JavaMethod, JavaParameter>() {
@@ -154,17 +456,17 @@ public class OpenAPIModelFactory {
   };
 
   @Nullable
-  private Parameter getParameter(JavaMethod method, JavaParameter argument) {
+  private Parameter getParameter(JavaMethod method, JavaParameter argument, int index) {
     if (argumentFilter.test(method, argument)) {
       Parameter parameter = new Parameter();
       parameter.setName(argument.getName());
-      parameter.setDescription(argument.getComment());
+      parameter.setDescription(getComment(method, argument, index));
       parameter.setDeprecated(AnnotationUtils.isAnnotationPresent(argument, Deprecated.class));
 
-      parameter.setRequired(AnnotationUtils.isAnnotationPresent(argument, Nullable.class));
+      parameter.setRequired(!AnnotationUtils.isAnnotationPresent(argument, Nullable.class));
 
       for (JavaAnnotation annotation : argument.getAnnotations()) {
-        String simpleName = ClassUtils.getSimpleName(annotation.getType().getName());
+        String simpleName = annotation.getType().getSimpleName();
         if (Objects.equals(simpleName, Nullable.class.getSimpleName())) {
 
         }
@@ -175,44 +477,102 @@ public class OpenAPIModelFactory {
     return null;
   }
 
-  private HttpMethod getHttpMethod(MappingAnnotation mapping, JavaAnnotation annotation) {
-    HttpMethod httpMethod;
-    if (mapping.method == null) {
-      AnnotationValue annotationValue = annotation.getProperty(mapping.methodAttr);
-      httpMethod = HttpMethod.resolve(AnnotationUtils.getValue(annotationValue));
-      Assert.state(httpMethod != null, "HttpMethod not supported");
-    }
-    else {
-      httpMethod = mapping.method;
+  private io.swagger.v3.oas.models.parameters.RequestBody createRequestBody(
+          JavaMethod method, JavaParameter argument, int index, @Nullable Schema<?> schema) {
+    io.swagger.v3.oas.models.parameters.RequestBody requestBody = new io.swagger.v3.oas.models.parameters.RequestBody();
+    requestBody.setDescription(getComment(method, argument, index));
+    requestBody.setRequired(!AnnotationUtils.isAnnotationPresent(argument, Nullable.class));
+    requestBody.setContent(createContent(schema));
+    return requestBody;
+  }
+
+  /**
+   * Response of a handler method, described by its {@code @return} tag
+   */
+  private static ApiResponses createResponses(JavaMethod method, @Nullable Schema<?> schema) {
+    ApiResponse response = new ApiResponse();
+    DocletTag returnTag = method.getTagByName("return");
+    response.setDescription(returnTag != null && StringUtils.hasText(returnTag.getValue()) ? returnTag.getValue() : "OK");
+    if (schema != null) {
+      response.setContent(createContent(schema));
     }
-    return httpMethod;
+    return new ApiResponses().addApiResponse("200", response);
   }
 
-  private List<MappingAnnotation> getMappingAnnotations() {
-    List<MappingAnnotation> mappings = new ArrayList<>();
-    MappingAnnotation prototype = new MappingAnnotation(RequestMapping, List.of("value", "path"),
-            "produces", "consumes", "method", null, "params");
+  private static Content createContent(@Nullable Schema<?> schema) {
+    return new Content().addMediaType(APPLICATION_JSON, new MediaType().schema(schema));
+  }
 
-    mappings.add(prototype);
-    mappings.add(prototype.withAnnotation(GET.class).withMethod(HttpMethod.GET));
-    mappings.add(prototype.withAnnotation(GetMapping.class).withMethod(HttpMethod.GET));
+  /**
+   * Components referenced by a document
+   *
+   * @param references names of the components referenced by the operations
+   * @return the components, or {@code null} if none is referenced
+   */
+  @Nullable
+  private Components createComponents(Collection<String> references) {
+    Map<String, Schema> schemas = schemaResolver.getComponents(references);
+    return schemas.isEmpty() ? null : new Components().schemas(schemas);
+  }
 
-    mappings.add(prototype.withAnnotation(POST.class).withMethod(HttpMethod.POST));
-    mappings.add(prototype.withAnnotation(PostMapping.class).withMethod(HttpMethod.POST));
+  /**
+   * Comments are taken from the source model first, members without
+   * sources are looked up in the {@link CommentSource}.
+   */
+  @Nullable
+  private String getComment(JavaMethod method, JavaMethod mappedMethod) {
+    String comment = getComment(method);
+    if (comment == null && mappedMethod != method) {
+      comment = getComment(mappedMethod);
+    }
+    return comment;
+  }
 
-    mappings.add(prototype.withAnnotation(PUT.class).withMethod(HttpMethod.PUT));
-    mappings.add(prototype.withAnnotation(PutMapping.class).withMethod(HttpMethod.PUT));
+  @Nullable
+  private String getComment(JavaMethod method) {
+    String comment = method.getComment();
+    if (comment == null) {
+      comment = commentSource.getComment(MemberSignature.of(method));
+    }
+    return comment;
+  }
 
-    mappings.add(prototype.withAnnotation(PATCH.class).withMethod(HttpMethod.PATCH));
-    mappings.add(prototype.withAnnotation(PatchMapping.class).withMethod(HttpMethod.PATCH));
+  @Nullable
+  private String getComment(JavaMethod method, JavaParameter argument, int index) {
+    String comment = argument.getComment();
+    if (comment == null) {
+      comment = CommentIndexBuilder.getParamComment(method.getTagsByName("param"), argument.getName());
+      if (comment == null) {
+        comment = commentSource.getComment(MemberSignature.ofParameter(method, index));
+      }
+    }
+    return comment;
+  }
 
-    mappings.add(prototype.withAnnotation(DELETE.class).withMethod(HttpMethod.DELETE));
-    mappings.add(prototype.withAnnotation(DeleteMapping.class).withMethod(HttpMethod.DELETE));
-    return mappings;
+  /**
+   * HTTP methods of a mapping, {@code GET} if the mapping does not restrict the method
+   */
+  private List<HttpMethod> getHttpMethods(MappingAnnotation mapping, JavaAnnotation annotation, ConstantValueResolver resolver) {
+    if (mapping.method != null) {
+      return List.of(mapping.method);
+    }
+    List<String> values = AnnotationUtils.getValues(annotation.getProperty(mapping.methodAttr), resolver);
+    if (values.isEmpty()) {
+      return List.of(HttpMethod.GET);
+    }
+    ArrayList<HttpMethod> httpMethods = new ArrayList<>(values.size());
+    for (String value : values) {
+      // HttpMethod.GET, when the enum constant can not be resolved
+      HttpMethod httpMethod = HttpMethod.resolve(value.substring(value.lastIndexOf('.') + 1));
+      Assert.state(httpMethod != null, () -> "HttpMethod '" + value + "' not supported");
+      httpMethods.add(httpMethod);
+    }
+    return httpMethods;
   }
 
   private boolean isEndpoint(JavaClass javaClass) {
-    return AnnotationUtils.isAnnotationPresent(javaClass, RestController);
+    return !javaClass.isInterface() && !javaClass.isAbstract()
+            && AnnotationUtils.isAnnotationPresent(javaClass, RestController);
   }
 
   static class D {
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+import cn.taketoday.web.doc.openapi.SpillFile.Segment;
+import infra.http.HttpMethod;
+import infra.lang.Nullable;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.Paths;
+
+/**
+ * Streaming writer of an OpenAPI document whose paths are kept in a
+ * {@link PathTrie}. The paths are written template by template, spilled
+ * operations are copied from disk, so the full {@link Paths} model is
+ * never built in memory.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class OpenAPIWriter {
+
+  static final String PATHS = "paths";
+
+  static final String COMPONENTS = "components";
+
+  static final String COMPONENTS_REF = "#/components/";
+
+  static final String REF = "$ref";
+
+  private final ObjectMapper objectMapper;
+
+  private final ObjectWriter operationWriter;
+
+  @Nullable
+  private final String componentsLocation;
+
+  public OpenAPIWriter() {
+    this(OpenAPIJson.getObjectMapper());
+  }
+
+  public OpenAPIWriter(ObjectMapper objectMapper) {
+    this(objectMapper, null);
+  }
+
+  /**
+   * @param objectMapper mapper of the OpenAPI model
+   * @param componentsLocation location of the document that holds the
+   * components, relative to the written document. The components are not
+   * written, and references to them are prefixed with the location.
+   */
+  public OpenAPIWriter(ObjectMapper objectMapper, @Nullable String componentsLocation) {
+    this.objectMapper = objectMapper;
+    this.componentsLocation = componentsLocation;
+    this.operationWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Write the document
+   *
+   * @param openAPI document without paths
+   * @param pathTrie paths of the document
+   * @param file output file
+   */
+  public void write(OpenAPI openAPI, PathTrie pathTrie, File file) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory: " + parent);
+    }
+
+    ObjectNode root = objectMapper.valueToTree(openAPI);
+    root.remove(PATHS);
+    JsonNode components = root.remove(COMPONENTS);
+
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(file, JsonEncoding.UTF8)) {
+      generator.useDefaultPrettyPrinter();
+      generator.writeStartObject();
+      for (Iterator<Map.Entry<String, JsonNode>> it = root.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        generator.writeFieldName(field.getKey());
+        objectMapper.writeTree(generator, field.getValue());
+      }
+
+      generator.writeObjectFieldStart(PATHS);
+      pathTrie.traverse((template, operations, spilled) -> {
+        generator.writeObjectFieldStart(template);
+        for (HttpMethod httpMethod : HttpMethod.values()) {
+          Operation operation = operations.get(httpMethod);
+          if (operation != null) {
+            generator.writeFieldName(fieldName(httpMethod));
+            if (componentsLocation == null) {
+              operationWriter.writeValue(generator, operation);
+            }
+            else {
+              objectMapper.writeTree(generator, relocate(objectMapper.valueToTree(operation), componentsLocation));
+            }
+          }
+          else {
+            Segment segment = spilled.get(httpMethod);
+            if (segment != null) {
+              generator.writeFieldName(fieldName(httpMethod));
+              if (componentsLocation == null) {
+                generator.writeRawValue(new String(segment.read(), StandardCharsets.UTF_8));
+              }
+              else {
+                objectMapper.writeTree(generator, relocate(objectMapper.readTree(segment.read()), componentsLocation));
+              }
+            }
+          }
+        }
+        generator.writeEndObject();
+      });
+      generator.writeEndObject();
+
+      if (components != null && componentsLocation == null) {
+        generator.writeFieldName(COMPONENTS);
+        objectMapper.writeTree(generator, components);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Prefix the local references to components with the location of the
+   * document that holds them
+   */
+  static JsonNode relocate(JsonNode node, String location) {
+    if (node instanceof ObjectNode object) {
+      JsonNode ref = object.get(REF);
+      if (ref != null && ref.isTextual() && ref.asText().startsWith(COMPONENTS_REF)) {
+        object.put(REF, location + ref.asText());
+      }
+    }
+    for (JsonNode child : node) {
+      relocate(child, location);
+    }
+    return node;
+  }
+
+  static String fieldName(HttpMethod httpMethod) {
+    return httpMethod.name().toLowerCase(Locale.ROOT);
+  }
+
+}
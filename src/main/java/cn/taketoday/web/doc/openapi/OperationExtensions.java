@@ -0,0 +1,333 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
+import cn.taketoday.web.doc.gradle.util.ConstantValueResolver;
+import infra.http.HttpMethod;
+import infra.lang.Nullable;
+import infra.util.StringUtils;
+import io.swagger.v3.oas.models.Operation;
+
+/**
+ * Caching, idempotency and pagination metadata of a handler method, as
+ * {@code x-} extensions of its operation:
+ * <pre>{@code
+ * "x-idempotent": true,
+ * "x-idempotency-key": "Idempotency-Key",
+ * "x-cache": {
+ *   "cacheable": true,
+ *   "cacheNames": ["users"],
+ *   "puts": ["users"],
+ *   "evicts": ["users"],
+ *   "validators": ["ETag", "Last-Modified"],
+ *   "cacheControl": "max-age=60"
+ * },
+ * "x-pagination": {
+ *   "style": "page",
+ *   "parameters": ["page", "size"]
+ * }
+ * }</pre>
+ * Metadata is taken from the cache annotations, the {@code RequestHeader}
+ * parameters, the parameter names and types, and the source of the method
+ * body, which is only available for methods parsed from sources.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class OperationExtensions {
+
+  static final String IDEMPOTENT = "x-idempotent";
+
+  static final String IDEMPOTENCY_KEY = "x-idempotency-key";
+
+  static final String CACHE = "x-cache";
+
+  static final String PAGINATION = "x-pagination";
+
+  static final String Cacheable = "infra.cache.annotation.Cacheable";
+
+  static final String CachePut = "infra.cache.annotation.CachePut";
+
+  static final String CacheEvict = "infra.cache.annotation.CacheEvict";
+
+  static final String CacheConfig = "infra.cache.annotation.CacheConfig";
+
+  static final String RequestHeader = "infra.web.annotation.RequestHeader";
+
+  private static final Set<String> IDEMPOTENCY_HEADERS = Set.of("idempotency-key", "x-idempotency-key");
+
+  private static final Set<String> PAGE_PARAMETERS = Set.of("page", "pagenum", "pagenumber", "pageno", "pageindex", "current");
+
+  private static final Set<String> SIZE_PARAMETERS = Set.of("size", "pagesize", "limit", "per_page", "perpage");
+
+  private static final Set<String> OFFSET_PARAMETERS = Set.of("offset", "skip", "start");
+
+  private static final Set<String> CURSOR_PARAMETERS = Set.of("cursor", "after", "before", "pagetoken", "nextpagetoken", "continuationtoken");
+
+  private static final Set<String> PAGINATED_TYPES = Set.of("Pageable", "PageRequest", "Pagination");
+
+  private static final Pattern MAX_AGE = Pattern.compile(
+          "CacheControl\\s*\\.\\s*maxAge\\s*\\(\\s*(\\d+)L?\\s*(?:,\\s*(?:TimeUnit\\s*\\.\\s*)?([A-Z]+))?\\s*\\)");
+
+  private static final Pattern CACHE_CONTROL_HEADER = Pattern.compile(
+          "(?:\"Cache-Control\"|HttpHeaders\\s*\\.\\s*CACHE_CONTROL)\\s*,\\s*\"([^\"]+)\"");
+
+  private final ConstantValueResolver resolver;
+
+  OperationExtensions(ConstantValueResolver resolver) {
+    this.resolver = resolver;
+  }
+
+  /**
+   * Add the extensions of a handler method
+   *
+   * @param operation operation of the handler method
+   * @param javaClass controller class
+   * @param method handler method
+   * @param mappedMethod method that declares the mapping
+   * @param httpMethods HTTP methods of the mapping
+   */
+  void apply(Operation operation, JavaClass javaClass, JavaMethod method,
+          JavaMethod mappedMethod, List<HttpMethod> httpMethods) {
+    List<JavaAnnotation> annotations = new ArrayList<>(method.getAnnotations());
+    if (mappedMethod != method) {
+      annotations.addAll(mappedMethod.getAnnotations());
+    }
+    String source = method.getSourceCode();
+
+    String idempotencyKey = null;
+    LinkedHashSet<String> validators = new LinkedHashSet<>();
+    for (JavaParameter parameter : method.getParameters()) {
+      JavaAnnotation header = AnnotationUtils.getAnnotation(parameter, RequestHeader);
+      if (header != null) {
+        String name = headerName(header, parameter);
+        String lowerCase = name.toLowerCase(Locale.ROOT);
+        if (IDEMPOTENCY_HEADERS.contains(lowerCase)) {
+          idempotencyKey = name;
+        }
+        else if (lowerCase.equals("if-none-match") || lowerCase.equals("if-match")) {
+          validators.add("ETag");
+        }
+        else if (lowerCase.equals("if-modified-since") || lowerCase.equals("if-unmodified-since")) {
+          validators.add("Last-Modified");
+        }
+      }
+    }
+
+    boolean idempotent = true;
+    boolean safe = true;
+    for (HttpMethod httpMethod : httpMethods) {
+      idempotent &= httpMethod != HttpMethod.POST && httpMethod != HttpMethod.PATCH;
+      safe &= httpMethod == HttpMethod.GET || httpMethod == HttpMethod.HEAD;
+    }
+    operation.addExtension(IDEMPOTENT, idempotent || idempotencyKey != null);
+    if (idempotencyKey != null) {
+      operation.addExtension(IDEMPOTENCY_KEY, idempotencyKey);
+    }
+
+    LinkedHashMap<String, Object> cache = new LinkedHashMap<>();
+    JavaAnnotation cacheable = AnnotationUtils.getAnnotation(annotations, Cacheable);
+    if (StringUtils.hasText(source)) {
+      if (source.contains("checkNotModified") || source.contains(".eTag(") || source.contains("HttpHeaders.ETAG")) {
+        validators.add("ETag");
+      }
+      if (source.contains(".lastModified(") || source.contains("HttpHeaders.LAST_MODIFIED")) {
+        validators.add("Last-Modified");
+      }
+    }
+    String cacheControl = cacheControl(source);
+    if (safe && (cacheable != null || !validators.isEmpty()
+            || (cacheControl != null && !cacheControl.contains("no-store")))) {
+      cache.put("cacheable", true);
+    }
+    if (cacheable != null) {
+      cache.put("cacheNames", cacheNames(cacheable, javaClass));
+    }
+    LinkedHashSet<String> puts = new LinkedHashSet<>();
+    LinkedHashSet<String> evicts = new LinkedHashSet<>();
+    for (JavaAnnotation annotation : annotations) {
+      String type = annotation.getType().getFullyQualifiedName();
+      if (type.equals(CachePut)) {
+        puts.addAll(cacheNames(annotation, javaClass));
+      }
+      else if (type.equals(CacheEvict)) {
+        evicts.addAll(cacheNames(annotation, javaClass));
+      }
+    }
+    if (!puts.isEmpty()) {
+      cache.put("puts", puts);
+    }
+    if (!evicts.isEmpty()) {
+      cache.put("evicts", evicts);
+    }
+    if (!validators.isEmpty()) {
+      cache.put("validators", validators);
+    }
+    if (cacheControl != null) {
+      cache.put("cacheControl", cacheControl);
+    }
+    if (!cache.isEmpty()) {
+      operation.addExtension(CACHE, cache);
+    }
+
+    LinkedHashMap<String, Object> pagination = pagination(method);
+    if (pagination != null) {
+      operation.addExtension(PAGINATION, pagination);
+    }
+  }
+
+  private String headerName(JavaAnnotation header, JavaParameter parameter) {
+    for (String attribute : new String[] { "value", "name" }) {
+      String name = AnnotationUtils.getValue(header.getProperty(attribute), resolver);
+      if (StringUtils.hasText(name)) {
+        return name;
+      }
+    }
+    return parameter.getName();
+  }
+
+  private List<String> cacheNames(JavaAnnotation annotation, JavaClass javaClass) {
+    ArrayList<String> names = new ArrayList<>(AnnotationUtils.getValues(annotation.getProperty("value"), resolver));
+    names.addAll(AnnotationUtils.getValues(annotation.getProperty("cacheNames"), resolver));
+    if (names.isEmpty()) {
+      JavaAnnotation config = AnnotationUtils.getAnnotation(javaClass, CacheConfig);
+      if (config != null) {
+        names.addAll(AnnotationUtils.getValues(config.getProperty("cacheNames"), resolver));
+      }
+    }
+    return names;
+  }
+
+  /**
+   * {@code Cache-Control} of the response built in the method body
+   */
+  @Nullable
+  static String cacheControl(@Nullable String source) {
+    if (!StringUtils.hasText(source)) {
+      return null;
+    }
+    Matcher header = CACHE_CONTROL_HEADER.matcher(source);
+    if (header.find()) {
+      return header.group(1);
+    }
+    ArrayList<String> directives = new ArrayList<>();
+    Matcher maxAge = MAX_AGE.matcher(source);
+    if (maxAge.find()) {
+      long seconds = Long.parseLong(maxAge.group(1));
+      if (maxAge.group(2) != null) {
+        try {
+          seconds = TimeUnit.valueOf(maxAge.group(2)).toSeconds(seconds);
+        }
+        catch (IllegalArgumentException e) {
+          // not a TimeUnit, like Duration
+        }
+      }
+      directives.add("max-age=" + seconds);
+    }
+    if (source.contains("CacheControl.noStore()")) {
+      directives.add("no-store");
+    }
+    if (source.contains("CacheControl.noCache()")) {
+      directives.add("no-cache");
+    }
+    if (source.contains(".cachePrivate()")) {
+      directives.add("private");
+    }
+    if (source.contains(".cachePublic()")) {
+      directives.add("public");
+    }
+    if (source.contains(".mustRevalidate()")) {
+      directives.add("must-revalidate");
+    }
+    return directives.isEmpty() ? null : String.join(", ", directives);
+  }
+
+  /**
+   * Pagination style from the parameter names and types
+   */
+  @Nullable
+  static LinkedHashMap<String, Object> pagination(JavaMethod method) {
+    String page = null;
+    String size = null;
+    String offset = null;
+    String cursor = null;
+    boolean pageable = false;
+    for (JavaParameter parameter : method.getParameters()) {
+      String name = parameter.getName();
+      String lowerCase = name.toLowerCase(Locale.ROOT);
+      if (PAGINATED_TYPES.contains(parameter.getJavaClass().getSimpleName())) {
+        pageable = true;
+      }
+      else if (PAGE_PARAMETERS.contains(lowerCase)) {
+        page = name;
+      }
+      else if (SIZE_PARAMETERS.contains(lowerCase)) {
+        size = name;
+      }
+      else if (OFFSET_PARAMETERS.contains(lowerCase)) {
+        offset = name;
+      }
+      else if (CURSOR_PARAMETERS.contains(lowerCase)) {
+        cursor = name;
+      }
+    }
+
+    LinkedHashMap<String, Object> pagination = new LinkedHashMap<>();
+    List<String> parameters = new ArrayList<>();
+    if (cursor != null) {
+      pagination.put("style", "cursor");
+      parameters.add(cursor);
+    }
+    else if (offset != null) {
+      pagination.put("style", "offset");
+      parameters.add(offset);
+    }
+    else if (page != null || pageable) {
+      pagination.put("style", "page");
+      parameters.add(page == null ? "page" : page);
+      if (size == null && pageable) {
+        size = "size";
+      }
+    }
+    else {
+      return null;
+    }
+    if (size != null) {
+      parameters.add(size);
+    }
+    pagination.put("parameters", parameters);
+    return pagination;
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import infra.util.StringUtils;
+
+/**
+ * How the paths of a document are split into shards
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see ShardedOpenAPIWriter
+ * @since 1.0
+ */
+public enum ShardStrategy {
+
+  /**
+   * One shard per tag, the first tag of an operation
+   */
+  TAG {
+    @Override
+    public String getKey(Endpoint endpoint) {
+      List<String> tags = endpoint.operation().getTags();
+      return tags == null || tags.isEmpty() ? endpoint.controller().getName() : tags.get(0);
+    }
+  },
+
+  /**
+   * One shard per package of the controllers
+   */
+  PACKAGE {
+    @Override
+    public String getKey(Endpoint endpoint) {
+      String packageName = endpoint.controller().getPackageName();
+      return StringUtils.hasText(packageName) ? packageName : "default";
+    }
+  };
+
+  /**
+   * Shard of an endpoint
+   */
+  public abstract String getKey(Endpoint endpoint);
+
+  /**
+   * @param name {@code tag} or {@code package}
+   * @throws IllegalArgumentException if the strategy is unknown
+   */
+  public static ShardStrategy forName(String name) {
+    for (ShardStrategy strategy : values()) {
+      if (strategy.name().equals(name.trim().toUpperCase(Locale.ROOT))) {
+        return strategy;
+      }
+    }
+    throw new IllegalArgumentException("Unknown shard strategy '" + name + "', expected one of "
+            + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+  }
+
+}
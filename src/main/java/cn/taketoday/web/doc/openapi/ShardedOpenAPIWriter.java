@@ -0,0 +1,213 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import infra.http.HttpMethod;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+
+/**
+ * Write a document as a small root document and one shard per tag or
+ * package, so viewers and code generators load only the slice they need.
+ * <pre>
+ * openapi.json             root, every path item is a $ref to its shard
+ * components.json          components shared by the shards
+ * shards/&lt;name&gt;.json       a complete document with the paths of the shard
+ * </pre>
+ * A path item is not split: its shard is the one of its first operation.
+ * References to components in the shards point to {@code ../components.json}.
+ * The shards, the components and the root are written concurrently.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see ShardStrategy
+ * @since 1.0
+ */
+public class ShardedOpenAPIWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(ShardedOpenAPIWriter.class);
+
+  public static final String ROOT_FILE = "openapi.json";
+
+  public static final String COMPONENTS_FILE = "components.json";
+
+  public static final String SHARDS_DIR = "shards";
+
+  private final ShardStrategy strategy;
+
+  private final ObjectMapper objectMapper;
+
+  public ShardedOpenAPIWriter(ShardStrategy strategy) {
+    this(strategy, OpenAPIJson.getObjectMapper());
+  }
+
+  public ShardedOpenAPIWriter(ShardStrategy strategy, ObjectMapper objectMapper) {
+    this.strategy = strategy;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Write the documents
+   *
+   * @param openAPI document without paths
+   * @param endpoints endpoints of the document
+   * @param dir output directory
+   * @return number of operations by shard file name
+   */
+  public Map<String, Integer> write(OpenAPI openAPI, List<Endpoint> endpoints, File dir) throws IOException {
+    IdentityHashMap<Operation, String> keys = new IdentityHashMap<>();
+    PathTrie pathTrie = new PathTrie();
+    for (Endpoint endpoint : endpoints) {
+      keys.computeIfAbsent(endpoint.operation(), operation -> strategy.getKey(endpoint));
+      pathTrie.add(endpoint.path(), endpoint.httpMethod(), endpoint.operation(), endpoint.handler());
+    }
+
+    HashMap<String, String> fileNames = new HashMap<>();
+    HashSet<String> usedNames = new HashSet<>();
+    TreeMap<String, PathTrie> shards = new TreeMap<>();
+    LinkedHashMap<String, String> refs = new LinkedHashMap<>();
+    pathTrie.traverse((template, operations) -> {
+      String key = keys.get(operations.values().iterator().next());
+      String fileName = fileNames.get(key);
+      if (fileName == null) {
+        fileName = fileName(key, usedNames);
+        fileNames.put(key, fileName);
+      }
+      PathTrie shard = shards.computeIfAbsent(fileName, name -> new PathTrie());
+      for (Map.Entry<HttpMethod, Operation> entry : operations.entrySet()) {
+        shard.add(template, entry.getKey(), entry.getValue(), key);
+      }
+      refs.put(template, SHARDS_DIR + "/" + fileName + "#/paths/" + pointer(template));
+    });
+
+    Files.createDirectories(new File(dir, SHARDS_DIR).toPath());
+    Components components = openAPI.getComponents();
+    OpenAPIWriter shardWriter = new OpenAPIWriter(objectMapper, components == null ? null : "../" + COMPONENTS_FILE);
+    ArrayList<CompletableFuture<Void>> futures = new ArrayList<>(shards.size() + 2);
+    for (Map.Entry<String, PathTrie> entry : shards.entrySet()) {
+      File file = new File(dir, SHARDS_DIR + File.separator + entry.getKey());
+      futures.add(runAsync(() -> shardWriter.write(openAPI, entry.getValue(), file)));
+    }
+    if (components != null) {
+      futures.add(runAsync(() -> {
+        ObjectNode document = objectMapper.createObjectNode();
+        document.set(OpenAPIWriter.COMPONENTS, objectMapper.valueToTree(components));
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(dir, COMPONENTS_FILE), document);
+      }));
+    }
+    futures.add(runAsync(() -> writeRoot(openAPI, refs, new File(dir, ROOT_FILE))));
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      throw e;
+    }
+
+    LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>();
+    shards.forEach((name, shard) -> sizes.put(name, shard.size()));
+    log.info("{} operations written to {} shards in {}", pathTrie.size(), shards.size(), dir);
+    return sizes;
+  }
+
+  private void writeRoot(OpenAPI openAPI, Map<String, String> refs, File file) throws IOException {
+    ObjectNode root = objectMapper.valueToTree(openAPI);
+    root.remove(OpenAPIWriter.COMPONENTS);
+    ObjectNode paths = objectMapper.createObjectNode();
+    refs.forEach((template, ref) -> paths.putObject(template).put(OpenAPIWriter.REF, ref));
+    root.set(OpenAPIWriter.PATHS, paths);
+    objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+  }
+
+  /**
+   * File name of a shard, unique among the used names
+   */
+  static String fileName(String key, HashSet<String> usedNames) {
+    StringBuilder name = new StringBuilder(key.length());
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      name.append(Character.isLetterOrDigit(c) || c == '.' || c == '-' || c == '_' ? c : '_');
+    }
+    String base = name.toString();
+    String fileName = base + ".json";
+    for (int i = 2; !usedNames.add(fileName); i++) {
+      fileName = base + "-" + i + ".json";
+    }
+    return fileName;
+  }
+
+  /**
+   * JSON Pointer token of a template, in the URI fragment representation
+   */
+  static String pointer(String template) {
+    String token = template.replace("~", "~0").replace("/", "~1");
+    StringBuilder fragment = new StringBuilder(token.length() + 8);
+    for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xFF);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "-._~!$&'()*+,;=:@".indexOf(c) >= 0) {
+        fragment.append(c);
+      }
+      else {
+        fragment.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+      }
+    }
+    return fragment.toString();
+  }
+
+  private static CompletableFuture<Void> runAsync(IOAction action) {
+    return CompletableFuture.runAsync(() -> {
+      try {
+        action.run();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private interface IOAction {
+
+    void run() throws IOException;
+  }
+
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.preview;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.diff.JsonPatch;
+import infra.lang.Assert;
+import infra.lang.Nullable;
+
+/**
+ * Embedded preview of a document that changes, such as the one of the
+ * watch mode.
+ * <ul>
+ * <li>{@code GET /} the bundled preview UI</li>
+ * <li>{@code GET /openapi.json} the current document, its version in {@code X-Web-Doc-Version}</li>
+ * <li>{@code GET /events?since=<version>} Server-Sent Events, a {@code patch} event per
+ * version with the JSON Patch from the previous version, or {@code reload}
+ * when the client is too far behind</li>
+ * </ul>
+ * Everything is served from memory, a published document is kept as a
+ * tree to compute the patch of the next one. Events are queued per client
+ * and written by the thread of its exchange, so publishing never waits
+ * for a client; a client whose queue is full is dropped, it reconnects
+ * and catches up.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see JsonPatch
+ * @since 1.0
+ */
+public class PreviewServer implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(PreviewServer.class);
+
+  public static final String VERSION_HEADER = "X-Web-Doc-Version";
+
+  static final String UI_RESOURCE = "web-doc/preview/index.html";
+
+  /**
+   * patches kept to catch up clients that reconnect
+   */
+  private static final int HISTORY_SIZE = 32;
+
+  private static final long HEARTBEAT_SECONDS = 15;
+
+  /**
+   * events queued for a client before it is dropped, more than the
+   * history so a reconnecting client is caught up
+   */
+  static final int QUEUE_SIZE = HISTORY_SIZE * 2;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final HttpServer server;
+
+  private final ExecutorService executor;
+
+  private final ScheduledExecutorService heartbeat;
+
+  private final CopyOnWriteArrayList<Client> clients = new CopyOnWriteArrayList<>();
+
+  /**
+   * guarded by this server, the monitor of {@link #publish}
+   */
+  private final ArrayDeque<Patch> history = new ArrayDeque<>();
+
+  private final byte[] ui;
+
+  @Nullable
+  private volatile Revision current;
+
+  public PreviewServer(InetSocketAddress address) throws IOException {
+    try (InputStream in = PreviewServer.class.getClassLoader().getResourceAsStream(UI_RESOURCE)) {
+      Assert.state(in != null, () -> "Resource '" + UI_RESOURCE + "' not found");
+      this.ui = in.readAllBytes();
+    }
+    this.server = HttpServer.create(address, 0);
+    this.executor = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "web-doc-preview");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "web-doc-preview-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/", this::handle);
+  }
+
+  public void start() {
+    server.start();
+    heartbeat.scheduleAtFixedRate(() -> broadcast(": ping\n\n"), HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  public URI getUri() {
+    InetSocketAddress address = server.getAddress();
+    return URI.create("http://" + address.getHostString() + ":" + address.getPort() + "/");
+  }
+
+  /**
+   * Publish a new version of the document, connected clients receive the
+   * patch from the previous version. A document equal to the current one
+   * is ignored.
+   *
+   * @return the version of the document
+   */
+  public synchronized long publish(JsonNode document) throws IOException {
+    Revision previous = current;
+    if (previous == null) {
+      current = new Revision(1, document, objectMapper.writeValueAsBytes(document));
+      return 1;
+    }
+    ArrayNode operations = JsonPatch.diff(previous.document(), document);
+    if (operations.isEmpty()) {
+      return previous.version();
+    }
+    long version = previous.version() + 1;
+    current = new Revision(version, document, objectMapper.writeValueAsBytes(document));
+
+    ObjectNode data = objectMapper.createObjectNode();
+    data.put("from", previous.version());
+    data.put("to", version);
+    data.set("patch", operations);
+    Patch patch = new Patch(version, "id: " + version + "\nevent: patch\ndata: " + objectMapper.writeValueAsString(data) + "\n\n");
+    history.addLast(patch);
+    if (history.size() > HISTORY_SIZE) {
+      history.removeFirst();
+    }
+    broadcast(patch.message());
+    log.debug("Published version {}, {} operations to {} clients", version, operations.size(), clients.size());
+    return version;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    if (!"GET".equals(exchange.getRequestMethod())) {
+      send(exchange, 405, "text/plain", new byte[0]);
+      return;
+    }
+    switch (path) {
+      case "/", "/index.html" -> send(exchange, 200, "text/html; charset=utf-8", ui);
+      case "/openapi.json" -> sendDocument(exchange);
+      case "/events" -> subscribe(exchange);
+      default -> send(exchange, 404, "text/plain", new byte[0]);
+    }
+  }
+
+  private void sendDocument(HttpExchange exchange) throws IOException {
+    Revision revision = current;
+    if (revision == null) {
+      send(exchange, 503, "text/plain", "No document yet".getBytes(StandardCharsets.UTF_8));
+      return;
+    }
+    String etag = "\"" + revision.version() + "\"";
+    exchange.getResponseHeaders().set(VERSION_HEADER, String.valueOf(revision.version()));
+    exchange.getResponseHeaders().set("ETag", etag);
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+      exchange.sendResponseHeaders(304, -1);
+      exchange.close();
+      return;
+    }
+    send(exchange, 200, "application/json", revision.json());
+  }
+
+  /**
+   * Keep the exchange open as an event stream, after the patches the
+   * client missed since the version it has. The client is caught up and
+   * registered while no version is published, so it misses none and
+   * receives none twice.
+   */
+  private void subscribe(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    exchange.sendResponseHeaders(200, 0);
+    Client client = new Client(exchange);
+
+    long since = getSince(exchange);
+    synchronized(this) {
+      Revision revision = current;
+      if (since >= 0 && revision != null && since < revision.version()) {
+        List<Patch> missed = new ArrayList<>();
+        for (Patch patch : history) {
+          if (patch.version() > since) {
+            missed.add(patch);
+          }
+        }
+        if (missed.size() == revision.version() - since) {
+          for (Patch patch : missed) {
+            client.offer(patch.message());
+          }
+        }
+        else {
+          client.offer("event: reload\ndata: " + revision.version() + "\n\n");
+        }
+      }
+      clients.add(client);
+    }
+    // this thread writes the events of the client until it disconnects
+    client.run();
+  }
+
+  /**
+   * Version of the client, from the reconnection header or the query
+   */
+  private static long getSince(HttpExchange exchange) {
+    String since = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+    if (since == null) {
+      String query = exchange.getRequestURI().getQuery();
+      if (query != null && query.startsWith("since=")) {
+        since = query.substring("since=".length());
+      }
+    }
+    try {
+      return since == null ? -1 : Long.parseLong(since.trim());
+    }
+    catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void broadcast(String message) {
+    for (Client client : clients) {
+      if (!client.offer(message)) {
+        log.debug("Dropped a preview client that fell behind");
+        clients.remove(client);
+      }
+    }
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  public int getClientCount() {
+    return clients.size();
+  }
+
+  @Override
+  public void close() {
+    heartbeat.shutdownNow();
+    for (Client client : clients) {
+      client.close();
+    }
+    clients.clear();
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private record Revision(long version, JsonNode document, byte[] json) {
+
+  }
+
+  private record Patch(long version, String message) {
+
+  }
+
+  /**
+   * Event stream of a client, the events are queued and written by the
+   * thread of its exchange
+   */
+  private final class Client {
+
+    private final HttpExchange exchange;
+
+    private final ArrayBlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+    private volatile boolean closed;
+
+    /**
+     * thread writing the events, guarded by this client
+     */
+    @Nullable
+    private Thread writer;
+
+    Client(HttpExchange exchange) {
+      this.exchange = exchange;
+    }
+
+    /**
+     * Queue an event, the client is closed if its queue is full
+     *
+     * @return whether the client is still connected
+     */
+    boolean offer(String message) {
+      if (!closed && queue.offer(message)) {
+        return true;
+      }
+      close();
+      return false;
+    }
+
+    /**
+     * Write the queued events until the client is closed or disconnects
+     */
+    void run() {
+      synchronized(this) {
+        if (closed) {
+          return;
+        }
+        writer = Thread.currentThread();
+      }
+      OutputStream out = exchange.getResponseBody();
+      try {
+        while (!closed) {
+          out.write(queue.take().getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        }
+      }
+      catch (IOException | InterruptedException e) {
+        // disconnected or closed
+      }
+      finally {
+        synchronized(this) {
+          closed = true;
+          writer = null;
+        }
+        // the thread goes back to the pool of the server
+        Thread.interrupted();
+        clients.remove(this);
+        exchange.close();
+      }
+    }
+
+    /**
+     * Close the client without blocking, a writer blocked on the socket is
+     * interrupted, which closes the connection, and closes the exchange
+     */
+    void close() {
+      synchronized(this) {
+        closed = true;
+        if (writer != null) {
+          writer.interrupt();
+          return;
+        }
+      }
+      exchange.close();
+    }
+  }
+
+}
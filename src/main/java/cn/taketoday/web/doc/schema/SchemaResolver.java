@@ -0,0 +1,442 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.schema;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaType;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import cn.taketoday.web.doc.gradle.util.AnnotationUtils;
+import cn.taketoday.web.doc.jfr.SchemaResolutionEvent;
+import cn.taketoday.web.doc.schema.TypeResolver.Property;
+import infra.lang.Nullable;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.BinarySchema;
+import io.swagger.v3.oas.models.media.BooleanSchema;
+import io.swagger.v3.oas.models.media.ByteArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.DateSchema;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.media.UUIDSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+/**
+ * Resolves the schemas of types, with a concurrent cache from
+ * {@link TypeSignature} to schema shared by all operations.
+ * <p>
+ * Classes of the source model are written as components and referenced
+ * with {@code $ref}, a generic instantiation is a component of its own,
+ * named after the type and its arguments, such as {@code PageUser} for
+ * {@code Page<User>}. The reference is cached before the properties are
+ * resolved, so recursive types resolve to a reference of themselves.
+ * Wrappers such as {@code ResponseEntity<T>} and {@code Optional<T>} are
+ * resolved to the schema of {@code T}.
+ * <p>
+ * Cached schemas are shared, they must not be modified.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @see TypeResolver
+ * @since 1.0
+ */
+public class SchemaResolver {
+
+  public static final String SCHEMAS_REF = "#/components/schemas/";
+
+  private static final Map<String, Supplier<Schema<?>>> simpleTypes = createSimpleTypes();
+
+  private static final Set<String> wrapperTypes = Set.of(
+          "infra.http.ResponseEntity", "infra.http.HttpEntity", "infra.http.RequestEntity",
+          "java.util.Optional", "java.util.concurrent.Future", "java.util.concurrent.CompletableFuture",
+          "java.util.concurrent.CompletionStage", "java.util.concurrent.Callable", "java.util.function.Supplier",
+          "infra.util.concurrent.Future", "infra.web.async.DeferredResult", "infra.web.async.WebAsyncTask");
+
+  private static final Set<String> collectionTypes = Set.of(
+          "java.lang.Iterable", "java.util.Collection", "java.util.List", "java.util.ArrayList",
+          "java.util.LinkedList", "java.util.Queue", "java.util.Deque", "java.util.ArrayDeque", "java.util.stream.Stream");
+
+  private static final Set<String> setTypes = Set.of(
+          "java.util.Set", "java.util.HashSet", "java.util.LinkedHashSet",
+          "java.util.SortedSet", "java.util.NavigableSet", "java.util.TreeSet");
+
+  private static final Set<String> mapTypes = Set.of(
+          "java.util.Map", "java.util.HashMap", "java.util.LinkedHashMap", "java.util.SortedMap",
+          "java.util.NavigableMap", "java.util.TreeMap", "java.util.concurrent.ConcurrentMap",
+          "java.util.concurrent.ConcurrentHashMap", "infra.util.MultiValueMap");
+
+  private final TypeResolver typeResolver;
+
+  private final ConcurrentHashMap<TypeSignature, Schema<?>> schemas = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<String, Schema<?>> components = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<TypeSignature, String> componentNames = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<String, TypeSignature> namedSignatures = new ConcurrentHashMap<>();
+
+  public SchemaResolver() {
+    this(new TypeResolver());
+  }
+
+  public SchemaResolver(TypeResolver typeResolver) {
+    this.typeResolver = typeResolver;
+  }
+
+  public TypeResolver getTypeResolver() {
+    return typeResolver;
+  }
+
+  /**
+   * Resolve the schema of a type
+   *
+   * @param type type of the source model
+   * @param bindings type arguments by type variable name
+   * @param className class that references the type
+   * @return the schema, or {@code null} for {@code void}
+   */
+  @Nullable
+  public Schema<?> resolve(JavaType type, Map<String, TypeSignature> bindings, String className) {
+    SchemaResolutionEvent event = new SchemaResolutionEvent();
+    event.begin();
+    TypeSignature signature = typeResolver.resolve(type, bindings);
+    boolean cached = schemas.containsKey(unwrap(signature));
+    Schema<?> schema = resolve(signature);
+    if (event.shouldCommit()) {
+      event.type = signature.toString();
+      event.className = className;
+      event.cached = cached;
+      event.commit();
+    }
+    return schema;
+  }
+
+  /**
+   * Resolve the schema of a signature
+   *
+   * @return the schema, or {@code null} for {@code void}
+   */
+  @Nullable
+  public Schema<?> resolve(TypeSignature signature) {
+    signature = unwrap(signature);
+    if (isVoid(signature)) {
+      return null;
+    }
+    Schema<?> schema = schemas.get(signature);
+    if (schema == null) {
+      schema = createSchema(signature);
+      Schema<?> existing = schemas.putIfAbsent(signature, schema);
+      if (existing != null) {
+        schema = existing;
+      }
+    }
+    return schema;
+  }
+
+  private Schema<?> createSchema(TypeSignature signature) {
+    String name = signature.getName();
+    if (signature.isArray()) {
+      if (signature.getDimensions() == 1 && name.equals("byte")) {
+        return new ByteArraySchema();
+      }
+      return arrayOf(resolveOrObject(signature.getComponentType()));
+    }
+    Supplier<Schema<?>> simpleType = simpleTypes.get(name);
+    if (simpleType != null) {
+      return simpleType.get();
+    }
+    List<TypeSignature> arguments = signature.getArguments();
+    if (collectionTypes.contains(name) || setTypes.contains(name)) {
+      ArraySchema schema = arrayOf(arguments.isEmpty() ? new ObjectSchema() : resolveOrObject(arguments.get(0)));
+      if (setTypes.contains(name)) {
+        schema.setUniqueItems(true);
+      }
+      return schema;
+    }
+    if (mapTypes.contains(name)) {
+      Schema<?> values = arguments.size() < 2 ? new ObjectSchema() : resolveOrObject(arguments.get(1));
+      if (name.equals("infra.util.MultiValueMap")) {
+        values = arrayOf(values);
+      }
+      MapSchema schema = new MapSchema();
+      schema.setAdditionalProperties(values);
+      return schema;
+    }
+
+    JavaClass javaClass = typeResolver.getJavaClass(signature);
+    if (javaClass == null || wrapperTypes.contains(name) || name.startsWith("java.") || name.indexOf('.') < 0) {
+      return new ObjectSchema();
+    }
+    if (javaClass.isEnum()) {
+      StringSchema schema = new StringSchema();
+      for (JavaField constant : javaClass.getEnumConstants()) {
+        schema.addEnumItem(constant.getName());
+      }
+      return schema;
+    }
+    return createComponent(signature, javaClass);
+  }
+
+  /**
+   * Register the component of a class and return the reference to it
+   */
+  private Schema<?> createComponent(TypeSignature signature, JavaClass javaClass) {
+    String name = componentNames.computeIfAbsent(signature, this::createComponentName);
+    Schema<?> ref = new Schema<>().$ref(SCHEMAS_REF + name);
+    Schema<?> existing = schemas.putIfAbsent(signature, ref);
+    if (existing != null) {
+      // resolved concurrently
+      return existing;
+    }
+
+    ObjectSchema component = new ObjectSchema();
+    component.setDescription(javaClass.getComment());
+    if (AnnotationUtils.isAnnotationPresent(javaClass, Deprecated.class)) {
+      component.setDeprecated(true);
+    }
+    LinkedHashMap<String, Schema> properties = new LinkedHashMap<>();
+    for (Property property : typeResolver.getProperties(signature).values()) {
+      properties.put(property.name(), resolveOrObject(property.type()));
+    }
+    if (!properties.isEmpty()) {
+      component.setProperties(properties);
+    }
+    components.put(name, component);
+    return ref;
+  }
+
+  /**
+   * Component name of an instantiation, such as {@code PageUser} for
+   * {@code Page<User>}, unique among the components
+   */
+  private String createComponentName(TypeSignature signature) {
+    StringBuilder builder = new StringBuilder();
+    appendName(builder, signature);
+    String base = builder.toString();
+    String name = base;
+    for (int i = 2; namedSignatures.putIfAbsent(name, signature) != null; i++) {
+      name = base + i;
+    }
+    return name;
+  }
+
+  private static void appendName(StringBuilder builder, TypeSignature signature) {
+    builder.append(signature.getSimpleName());
+    for (TypeSignature argument : signature.getArguments()) {
+      appendName(builder, argument);
+    }
+    for (int i = 0; i < signature.getDimensions(); i++) {
+      builder.append("Array");
+    }
+  }
+
+  private static ArraySchema arrayOf(Schema<?> items) {
+    ArraySchema schema = new ArraySchema();
+    schema.setItems(items);
+    return schema;
+  }
+
+  private Schema<?> resolveOrObject(TypeSignature signature) {
+    Schema<?> schema = resolve(signature);
+    return schema == null ? new ObjectSchema() : schema;
+  }
+
+  /**
+   * Definitions of the given components and of the components they
+   * reference, sorted by name
+   *
+   * @param names names of the referenced components
+   */
+  public Map<String, Schema> getComponents(Collection<String> names) {
+    TreeMap<String, Schema> result = new TreeMap<>();
+    ArrayDeque<String> pending = new ArrayDeque<>(names);
+    while (!pending.isEmpty()) {
+      String name = pending.poll();
+      if (!result.containsKey(name)) {
+        Schema<?> component = getComponent(name);
+        if (component != null) {
+          result.put(name, component);
+          collectReferences(component, pending);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private Schema<?> getComponent(String name) {
+    Schema<?> component = components.get(name);
+    if (component == null) {
+      // evicted and not referenced again since
+      TypeSignature signature = namedSignatures.get(name);
+      if (signature != null) {
+        resolve(signature);
+        component = components.get(name);
+      }
+    }
+    return component;
+  }
+
+  /**
+   * Forget the schemas of the given types and of the instantiations
+   * that mention them, such as after their sources changed. Component
+   * names are kept, so references to them stay stable.
+   *
+   * @param typeNames raw type names
+   */
+  public void evict(Set<String> typeNames) {
+    typeResolver.evict(typeNames);
+    schemas.keySet().removeIf(signature -> signature.mentions(typeNames));
+    for (Map.Entry<TypeSignature, String> entry : componentNames.entrySet()) {
+      if (entry.getKey().mentions(typeNames)) {
+        components.remove(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Number of cached schemas
+   */
+  public int size() {
+    return schemas.size();
+  }
+
+  /**
+   * Collect the names of the components referenced by an operation
+   */
+  public static void collectReferences(Operation operation, Collection<String> names) {
+    if (operation.getParameters() != null) {
+      for (Parameter parameter : operation.getParameters()) {
+        collectReferences(parameter.getSchema(), names);
+      }
+    }
+    if (operation.getRequestBody() != null) {
+      collectReferences(operation.getRequestBody().getContent(), names);
+    }
+    if (operation.getResponses() != null) {
+      for (ApiResponse response : operation.getResponses().values()) {
+        collectReferences(response.getContent(), names);
+      }
+    }
+  }
+
+  private static void collectReferences(@Nullable Content content, Collection<String> names) {
+    if (content != null) {
+      for (MediaType mediaType : content.values()) {
+        collectReferences(mediaType.getSchema(), names);
+      }
+    }
+  }
+
+  /**
+   * Collect the names of the components referenced by a schema
+   */
+  public static void collectReferences(@Nullable Schema<?> schema, Collection<String> names) {
+    if (schema == null) {
+      return;
+    }
+    String ref = schema.get$ref();
+    if (ref != null && ref.startsWith(SCHEMAS_REF)) {
+      names.add(ref.substring(SCHEMAS_REF.length()));
+    }
+    collectReferences(schema.getItems(), names);
+    if (schema.getAdditionalProperties() instanceof Schema<?> additionalProperties) {
+      collectReferences(additionalProperties, names);
+    }
+    if (schema.getProperties() != null) {
+      for (Schema<?> property : schema.getProperties().values()) {
+        collectReferences(property, names);
+      }
+    }
+    collectReferences(schema.getAllOf(), names);
+    collectReferences(schema.getAnyOf(), names);
+    collectReferences(schema.getOneOf(), names);
+  }
+
+  private static void collectReferences(@Nullable List<Schema> schemas, Collection<String> names) {
+    if (schemas != null) {
+      for (Schema<?> schema : schemas) {
+        collectReferences(schema, names);
+      }
+    }
+  }
+
+  /**
+   * The type argument of a wrapper such as {@code ResponseEntity<T>}
+   */
+  private static TypeSignature unwrap(TypeSignature signature) {
+    while (!signature.isArray() && wrapperTypes.contains(signature.getName()) && !signature.getArguments().isEmpty()) {
+      signature = signature.getArguments().get(0);
+    }
+    return signature;
+  }
+
+  private static boolean isVoid(TypeSignature signature) {
+    return !signature.isArray() && (signature.getName().equals("void") || signature.getName().equals("java.lang.Void"));
+  }
+
+  private static Map<String, Supplier<Schema<?>>> createSimpleTypes() {
+    HashMap<String, Supplier<Schema<?>>> types = new HashMap<>();
+    for (String name : List.of("java.lang.String", "java.lang.CharSequence", "char", "java.lang.Character",
+            "java.net.URI", "java.net.URL", "java.time.LocalTime", "java.time.Duration", "java.util.Locale")) {
+      types.put(name, StringSchema::new);
+    }
+    for (String name : List.of("int", "java.lang.Integer", "short", "java.lang.Short", "byte", "java.lang.Byte")) {
+      types.put(name, IntegerSchema::new);
+    }
+    for (String name : List.of("long", "java.lang.Long", "java.math.BigInteger")) {
+      types.put(name, () -> new IntegerSchema().format("int64"));
+    }
+    types.put("float", () -> new NumberSchema().format("float"));
+    types.put("java.lang.Float", () -> new NumberSchema().format("float"));
+    types.put("double", () -> new NumberSchema().format("double"));
+    types.put("java.lang.Double", () -> new NumberSchema().format("double"));
+    types.put("java.math.BigDecimal", NumberSchema::new);
+    types.put("boolean", BooleanSchema::new);
+    types.put("java.lang.Boolean", BooleanSchema::new);
+    types.put("java.util.UUID", UUIDSchema::new);
+    types.put("java.time.LocalDate", DateSchema::new);
+    for (String name : List.of("java.util.Date", "java.time.Instant", "java.time.LocalDateTime",
+            "java.time.OffsetDateTime", "java.time.ZonedDateTime")) {
+      types.put(name, DateTimeSchema::new);
+    }
+    for (String name : List.of("infra.web.multipart.MultipartFile", "infra.core.io.Resource", "java.io.InputStream")) {
+      types.put(name, BinarySchema::new);
+    }
+    return Map.copyOf(types);
+  }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.schema;
+
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaField;
+import com.thoughtworks.qdox.model.JavaMethod;
+import com.thoughtworks.qdox.model.JavaParameterizedType;
+import com.thoughtworks.qdox.model.JavaType;
+import com.thoughtworks.qdox.model.JavaTypeVariable;
+import com.thoughtworks.qdox.model.JavaWildcardType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import infra.lang.Nullable;
+
+/**
+ * Resolves QDox types to {@link TypeSignature}s and the members of a
+ * generic instantiation.
+ * <p>
+ * Type variables are substituted when a signature is created, so
+ * {@code T} of {@code Page<T>} seen through {@code UserPage extends Page<User>}
+ * is {@code User}. The supertypes and the properties of every distinct
+ * instantiation are computed once, with the type arguments substituted
+ * through the generic superclasses, and shared by all operations that
+ * reference the instantiation. The caches are safe for concurrent use.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class TypeResolver {
+
+  private final ConcurrentHashMap<String, JavaClass> classes = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<TypeSignature, List<TypeSignature>> supertypes = new ConcurrentHashMap<>();
+
+  private final ConcurrentHashMap<TypeSignature, Map<String, Property>> properties = new ConcurrentHashMap<>();
+
+  /**
+   * Resolve a type that does not reference type variables of an enclosing declaration
+   */
+  public TypeSignature resolve(JavaType type) {
+    return resolve(type, Collections.emptyMap());
+  }
+
+  /**
+   * Resolve a type
+   *
+   * @param type type of the source model
+   * @param bindings type arguments by type variable name, unbound variables are {@code Object}
+   */
+  public TypeSignature resolve(JavaType type, Map<String, TypeSignature> bindings) {
+    if (type instanceof JavaTypeVariable<?> variable) {
+      return bindings.getOrDefault(variable.getName(), TypeSignature.OBJECT);
+    }
+    if (type instanceof JavaWildcardType) {
+      return parse(type.getGenericFullyQualifiedName(), bindings);
+    }
+    if (type instanceof JavaClass javaClass && javaClass.isArray()) {
+      JavaClass componentType = javaClass.getComponentType();
+      TypeSignature component = componentType != null && componentType != javaClass
+              ? resolve(componentType, bindings)
+              : parse(stripDimensions(type.getFullyQualifiedName()), bindings);
+      return TypeSignature.of(component.getName(), component.getArguments(), component.getDimensions() + 1);
+    }
+    if (type instanceof JavaParameterizedType parameterized) {
+      List<JavaType> actualArguments = parameterized.getActualTypeArguments();
+      if (!actualArguments.isEmpty()) {
+        ArrayList<TypeSignature> arguments = new ArrayList<>(actualArguments.size());
+        for (JavaType argument : actualArguments) {
+          arguments.add(resolve(argument, bindings));
+        }
+        return TypeSignature.of(register(type), arguments);
+      }
+    }
+    else {
+      // a type variable that the source model did not resolve
+      TypeSignature bound = bindings.get(type.getValue());
+      if (bound != null) {
+        return bound;
+      }
+    }
+    return TypeSignature.of(register(type));
+  }
+
+  /**
+   * Resolve the type of a handler method, with the type arguments of the
+   * declaring class as seen from the handler class
+   *
+   * @param type return or parameter type of the method
+   * @param handlerClass class that the method is a handler of
+   * @param method handler method, declared or inherited by the handler class
+   */
+  public TypeSignature resolve(JavaType type, JavaClass handlerClass, JavaMethod method) {
+    return resolve(type, getBindings(handlerClass, method));
+  }
+
+  /**
+   * Type arguments by type variable name of a method of a handler class,
+   * type variables of the method itself are unbound
+   */
+  public Map<String, TypeSignature> getBindings(JavaClass handlerClass, JavaMethod method) {
+    HashMap<String, TypeSignature> bindings = new HashMap<>();
+    JavaClass declaringClass = method.getDeclaringClass();
+    if (declaringClass != null && !declaringClass.getTypeParameters().isEmpty()) {
+      TypeSignature owner = asSuper(TypeSignature.of(register(handlerClass)), declaringClass.getFullyQualifiedName());
+      if (owner != null) {
+        bindings.putAll(getBindings(owner));
+      }
+    }
+    for (JavaTypeVariable<?> variable : method.getTypeParameters()) {
+      bindings.put(variable.getName(), TypeSignature.OBJECT);
+    }
+    return bindings;
+  }
+
+  /**
+   * Type arguments of an instantiation by type variable name, the
+   * variables of a raw type are bound to {@code Object}
+   */
+  public Map<String, TypeSignature> getBindings(TypeSignature signature) {
+    JavaClass javaClass = getJavaClass(signature);
+    if (javaClass == null) {
+      return Collections.emptyMap();
+    }
+    List<? extends JavaTypeVariable<?>> variables = javaClass.getTypeParameters();
+    if (variables.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    List<TypeSignature> arguments = signature.getArguments();
+    HashMap<String, TypeSignature> bindings = new HashMap<>(variables.size());
+    for (int i = 0; i < variables.size(); i++) {
+      bindings.put(variables.get(i).getName(), i < arguments.size() ? arguments.get(i) : TypeSignature.OBJECT);
+    }
+    return bindings;
+  }
+
+  /**
+   * Find the instantiation of a supertype
+   *
+   * @param signature instantiation of a subtype
+   * @param typeName raw name of the supertype
+   * @return the supertype, with the type arguments substituted, or {@code null} if not a supertype
+   */
+  @Nullable
+  public TypeSignature asSuper(TypeSignature signature, String typeName) {
+    ArrayDeque<TypeSignature> pending = new ArrayDeque<>();
+    HashSet<TypeSignature> visited = new HashSet<>();
+    pending.add(signature);
+    while (!pending.isEmpty()) {
+      TypeSignature current = pending.poll();
+      if (current.getName().equals(typeName)) {
+        return current;
+      }
+      if (visited.add(current)) {
+        pending.addAll(getSupertypes(current));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Direct supertypes of an instantiation, the superclass first
+   */
+  public List<TypeSignature> getSupertypes(TypeSignature signature) {
+    List<TypeSignature> result = supertypes.get(signature);
+    if (result == null) {
+      result = createSupertypes(signature);
+      List<TypeSignature> existing = supertypes.putIfAbsent(signature, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    return result;
+  }
+
+  private List<TypeSignature> createSupertypes(TypeSignature signature) {
+    JavaClass javaClass = signature.isArray() ? null : getJavaClass(signature);
+    if (javaClass == null) {
+      return Collections.emptyList();
+    }
+    Map<String, TypeSignature> bindings = getBindings(signature);
+    ArrayList<TypeSignature> result = new ArrayList<>();
+    JavaType superClass = javaClass.getSuperClass();
+    if (superClass != null && !isRoot(superClass.getFullyQualifiedName())) {
+      result.add(resolve(superClass, bindings));
+    }
+    for (JavaType type : javaClass.getImplements()) {
+      result.add(resolve(type, bindings));
+    }
+    return List.copyOf(result);
+  }
+
+  /**
+   * Properties of an instantiation, the inherited properties first
+   *
+   * @return properties by name, with the type arguments substituted
+   */
+  public Map<String, Property> getProperties(TypeSignature signature) {
+    Map<String, Property> result = properties.get(signature);
+    if (result == null) {
+      result = createProperties(signature);
+      Map<String, Property> existing = properties.putIfAbsent(signature, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    return result;
+  }
+
+  private Map<String, Property> createProperties(TypeSignature signature) {
+    JavaClass javaClass = signature.isArray() ? null : getJavaClass(signature);
+    if (javaClass == null || javaClass.isInterface()) {
+      return Collections.emptyMap();
+    }
+    LinkedHashMap<String, Property> result = new LinkedHashMap<>();
+    List<TypeSignature> supertypes = getSupertypes(signature);
+    JavaType superClass = javaClass.getSuperClass();
+    if (!supertypes.isEmpty() && superClass != null && !isRoot(superClass.getFullyQualifiedName())) {
+      result.putAll(getProperties(supertypes.get(0)));
+    }
+    Map<String, TypeSignature> bindings = getBindings(signature);
+    for (JavaField field : javaClass.getFields()) {
+      if (!field.isStatic() && !field.isTransient() && !field.isEnumConstant()) {
+        result.put(field.getName(), new Property(field.getName(), resolve(field.getType(), bindings), field));
+      }
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  /**
+   * Class of the raw type of a signature, as last seen in the source model
+   */
+  @Nullable
+  public JavaClass getJavaClass(TypeSignature signature) {
+    return classes.get(signature.getName());
+  }
+
+  /**
+   * Forget the cached members of the given types and of the
+   * instantiations that mention them, such as after their sources changed
+   *
+   * @param typeNames raw type names
+   */
+  public void evict(Set<String> typeNames) {
+    supertypes.keySet().removeIf(signature -> signature.mentions(typeNames));
+    properties.keySet().removeIf(signature -> signature.mentions(typeNames));
+  }
+
+  private String register(JavaType type) {
+    String name = type.getFullyQualifiedName();
+    if (type instanceof JavaClass javaClass && !javaClass.isPrimitive()) {
+      classes.put(name, javaClass);
+    }
+    return name;
+  }
+
+  /**
+   * Parse a generic type name, such as the bound of a wildcard
+   */
+  static TypeSignature parse(String genericName, Map<String, TypeSignature> bindings) {
+    String name = genericName.trim();
+    if (name.equals("?") || name.startsWith("? super ")) {
+      return TypeSignature.OBJECT;
+    }
+    if (name.startsWith("? extends ")) {
+      name = name.substring("? extends ".length()).trim();
+    }
+    int dimensions = 0;
+    while (name.endsWith("[]")) {
+      name = name.substring(0, name.length() - 2).trim();
+      dimensions++;
+    }
+    TypeSignature signature;
+    int start = name.indexOf('<');
+    if (start < 0) {
+      signature = bindings.getOrDefault(name, TypeSignature.of(name));
+    }
+    else {
+      ArrayList<TypeSignature> arguments = new ArrayList<>();
+      int depth = 0;
+      int from = start + 1;
+      for (int i = from; i < name.length() - 1; i++) {
+        char c = name.charAt(i);
+        if (c == '<') {
+          depth++;
+        }
+        else if (c == '>') {
+          depth--;
+        }
+        else if (c == ',' && depth == 0) {
+          arguments.add(parse(name.substring(from, i), bindings));
+          from = i + 1;
+        }
+      }
+      arguments.add(parse(name.substring(from, name.length() - 1), bindings));
+      signature = TypeSignature.of(name.substring(0, start).trim(), arguments);
+    }
+    if (dimensions == 0) {
+      return signature;
+    }
+    return TypeSignature.of(signature.getName(), signature.getArguments(), signature.getDimensions() + dimensions);
+  }
+
+  private static String stripDimensions(String name) {
+    int index = name.indexOf('[');
+    return index < 0 ? name : name.substring(0, index);
+  }
+
+  private static boolean isRoot(String typeName) {
+    return typeName.equals("java.lang.Object") || typeName.equals("java.lang.Enum") || typeName.equals("java.lang.Record");
+  }
+
+  /**
+   * A property of an instantiation
+   *
+   * @param name property name
+   * @param type property type, with the type arguments substituted
+   * @param field field declaring the property
+   */
+  public record Property(String name, TypeSignature type, JavaField field) {
+
+  }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.schema;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned signature of a fully resolved type, such as
+ * {@code infra.http.ResponseEntity<com.example.Page<java.util.List<com.example.User>>>}.
+ * <p>
+ * Signatures are hash-consed: a signature is built from the interned
+ * signatures of its type arguments, and there is exactly one instance of
+ * every distinct signature. Signatures are compared by identity, which
+ * makes them cheap keys of the resolution caches however deeply they are
+ * nested. Type variables never appear in a signature, they are
+ * substituted by the {@link TypeResolver}.
+ * <p>
+ * Interning is weak: a signature that is no longer referenced, such as
+ * after the resolver caches of a build are released, is removed from the
+ * intern table, so the table does not grow across builds of a
+ * long-lived daemon.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public final class TypeSignature {
+
+  private static final ConcurrentHashMap<Key, Interned> interned = new ConcurrentHashMap<>();
+
+  private static final ReferenceQueue<TypeSignature> released = new ReferenceQueue<>();
+
+  public static final TypeSignature OBJECT = of("java.lang.Object");
+
+  public static final TypeSignature VOID = of("void");
+
+  private final String name;
+
+  private final List<TypeSignature> arguments;
+
+  private final int dimensions;
+
+  private TypeSignature(String name, List<TypeSignature> arguments, int dimensions) {
+    this.name = name;
+    this.arguments = arguments;
+    this.dimensions = dimensions;
+  }
+
+  /**
+   * Raw name of the type, the component type of an array
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Simple name of the raw type, without the enclosing types
+   */
+  public String getSimpleName() {
+    return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+  }
+
+  public List<TypeSignature> getArguments() {
+    return arguments;
+  }
+
+  public int getDimensions() {
+    return dimensions;
+  }
+
+  public boolean isArray() {
+    return dimensions > 0;
+  }
+
+  /**
+   * @return the signature of the elements of an array
+   */
+  public TypeSignature getComponentType() {
+    return of(name, arguments, Math.max(0, dimensions - 1));
+  }
+
+  /**
+   * @return the signature of the raw type, without type arguments and dimensions
+   */
+  public TypeSignature getRawType() {
+    return of(name);
+  }
+
+  /**
+   * Whether the type or one of its type arguments is one of the given types
+   *
+   * @param typeNames raw type names
+   */
+  public boolean mentions(Set<String> typeNames) {
+    if (typeNames.contains(name)) {
+      return true;
+    }
+    for (TypeSignature argument : arguments) {
+      if (argument.mentions(typeNames)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(name);
+    if (!arguments.isEmpty()) {
+      builder.append('<');
+      for (int i = 0; i < arguments.size(); i++) {
+        if (i > 0) {
+          builder.append(", ");
+        }
+        builder.append(arguments.get(i));
+      }
+      builder.append('>');
+    }
+    for (int i = 0; i < dimensions; i++) {
+      builder.append("[]");
+    }
+    return builder.toString();
+  }
+
+  public static TypeSignature of(String name) {
+    return of(name, List.of(), 0);
+  }
+
+  public static TypeSignature of(String name, List<TypeSignature> arguments) {
+    return of(name, arguments, 0);
+  }
+
+  /**
+   * Get the interned signature
+   *
+   * @param name raw type name
+   * @param arguments interned signatures of the type arguments
+   * @param dimensions array dimensions
+   */
+  public static TypeSignature of(String name, List<TypeSignature> arguments, int dimensions) {
+    expungeReleased();
+    Key key = new Key(name, arguments, dimensions);
+    while (true) {
+      Interned existing = interned.get(key);
+      TypeSignature signature = existing == null ? null : existing.get();
+      if (signature != null) {
+        return signature;
+      }
+      List<TypeSignature> copy = List.copyOf(arguments);
+      signature = new TypeSignature(name, copy, dimensions);
+      Key internedKey = new Key(name, copy, dimensions);
+      Interned reference = new Interned(signature, internedKey);
+      if (existing == null
+              ? interned.putIfAbsent(internedKey, reference) == null
+              : interned.replace(internedKey, existing, reference)) {
+        return signature;
+      }
+      // interned concurrently
+    }
+  }
+
+  /**
+   * Number of interned signatures
+   */
+  static int internedCount() {
+    expungeReleased();
+    return interned.size();
+  }
+
+  private static void expungeReleased() {
+    Reference<? extends TypeSignature> reference;
+    while ((reference = released.poll()) != null) {
+      Interned entry = (Interned) reference;
+      interned.remove(entry.key, entry);
+    }
+  }
+
+  /**
+   * Structural key of a signature, the arguments are interned so their
+   * identity equality is structural equality
+   */
+  private record Key(String name, List<TypeSignature> arguments, int dimensions) {
+
+  }
+
+  /**
+   * Weak entry of the intern table, the key keeps the interned type
+   * arguments reachable as long as the entry is in the table
+   */
+  private static final class Interned extends WeakReference<TypeSignature> {
+
+    final Key key;
+
+    Interned(TypeSignature signature, Key key) {
+      super(signature, released);
+      this.key = key;
+    }
+  }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.model.impl.DefaultJavaSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.jfr.SourceParseEvent;
+import cn.taketoday.web.doc.jfr.SourcesJarLoadEvent;
+import infra.lang.Assert;
+import infra.lang.Nullable;
+
+/**
+ * Loads a {@link SourcePlan} into a {@link JavaProjectBuilder}.
+ * <p>
+ * Source files are read and decoded by a pool of workers, largest units
+ * first, source roots and sources jars are split into batches. The builder
+ * is not thread-safe, so the sources are parsed by the calling thread in
+ * the order the batches complete. Workers read at most
+ * {@value #READ_AHEAD} batches per worker ahead of the parser, so the
+ * buffered source text is bounded however many sources are planned.
+ * A parsed source keeps the URL of its file or jar entry.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class ParallelSourceLoader {
+
+  private static final Logger log = LoggerFactory.getLogger(ParallelSourceLoader.class);
+
+  /**
+   * max files of a batch
+   */
+  static final int BATCH_SIZE = 256;
+
+  /**
+   * batches per worker that are read and not yet parsed
+   */
+  static final int READ_AHEAD = 2;
+
+  private final int parallelism;
+
+  private final Charset charset;
+
+  private final GenerationMetrics metrics;
+
+  @Nullable
+  private SourceListener listener;
+
+  public ParallelSourceLoader(int parallelism, Charset charset, GenerationMetrics metrics) {
+    Assert.isTrue(parallelism > 0, "parallelism must be positive");
+    this.parallelism = parallelism;
+    this.charset = charset;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Set the listener notified of every parsed source, on the calling thread
+   */
+  public ParallelSourceLoader setListener(@Nullable SourceListener listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  /**
+   * Parse all units of the plan
+   *
+   * @param plan source plan
+   * @param projectBuilder target builder
+   * @return number of parsed sources
+   */
+  public int load(SourcePlan plan, JavaProjectBuilder projectBuilder) throws IOException {
+    List<Batch> batches = createBatches(plan);
+    if (batches.isEmpty()) {
+      return 0;
+    }
+    int workers = Math.min(parallelism, batches.size());
+    AtomicInteger threadId = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+      Thread thread = new Thread(r, "web-doc-source-reader-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      CompletionService<ReadBatch> completionService = new ExecutorCompletionService<>(executor);
+      int submitted = 0;
+      while (submitted < Math.min(workers * READ_AHEAD, batches.size())) {
+        Batch batch = batches.get(submitted++);
+        completionService.submit(() -> read(batch));
+      }
+      int parsed = 0;
+      for (int i = 0; i < batches.size(); i++) {
+        ReadBatch read = take(completionService);
+        if (submitted < batches.size()) {
+          // replace the taken batch, the workers read while this one is parsed
+          Batch batch = batches.get(submitted++);
+          completionService.submit(() -> read(batch));
+        }
+        parsed += parse(read, projectBuilder);
+      }
+      return parsed;
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Batch> createBatches(SourcePlan plan) {
+    ArrayList<Batch> batches = new ArrayList<>();
+    for (SourceUnit unit : plan.getUnits()) {
+      // a jar without sources still has a batch, it is counted as loaded
+      int from = 0;
+      do {
+        int to = Math.min(from + BATCH_SIZE, unit.fileCount());
+        batches.add(new Batch(unit, from, to));
+        from = to;
+      }
+      while (from < unit.fileCount());
+    }
+    return batches;
+  }
+
+  /**
+   * Read the sources of a batch, a unit that can not be read is skipped
+   */
+  private ReadBatch read(Batch batch) {
+    long cpu = metrics.cpuTime();
+    long allocated = metrics.allocatedBytes();
+    List<SourceText> sources;
+    try {
+      sources = readSources(batch);
+    }
+    catch (IOException e) {
+      log.warn("Unable to read sources of {} : {}", batch.unit, e.getMessage());
+      sources = List.of();
+    }
+    metrics.addWorkerUsage(metrics.cpuTime() - cpu, metrics.allocatedBytes() - allocated);
+    return new ReadBatch(batch.unit, batch.from, sources);
+  }
+
+  private List<SourceText> readSources(Batch batch) throws IOException {
+    ArrayList<SourceText> sources = new ArrayList<>(batch.to - batch.from);
+    if (batch.unit.isJar()) {
+      String jarUrl = "jar:" + batch.unit.path().toUri() + "!/";
+      try (JarFile jarFile = new JarFile(batch.unit.path().toFile())) {
+        // the batch is a range of the java sources in entry order
+        int index = 0;
+        for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements() && index < batch.to; ) {
+          JarEntry entry = entries.nextElement();
+          if (SourcesJars.isJavaSource(entry.getName()) && index++ >= batch.from) {
+            try (InputStream inputStream = jarFile.getInputStream(entry)) {
+              sources.add(new SourceText(entry.getName(), null, toURL(jarUrl + entry.getName()),
+                      new String(inputStream.readAllBytes(), charset)));
+            }
+          }
+        }
+      }
+    }
+    else {
+      for (Path file : batch.unit.files().subList(batch.from, batch.to)) {
+        sources.add(new SourceText(file.toString(), file, file.toUri().toURL(), Files.readString(file, charset)));
+      }
+    }
+    return sources;
+  }
+
+  private static URL toURL(String url) throws MalformedURLException {
+    try {
+      return URI.create(url).toURL();
+    }
+    catch (IllegalArgumentException e) {
+      throw new MalformedURLException(url + ": " + e.getMessage());
+    }
+  }
+
+  private int parse(ReadBatch batch, JavaProjectBuilder projectBuilder) {
+    SourceUnit unit = batch.unit;
+    SourcesJarLoadEvent jarEvent = new SourcesJarLoadEvent();
+    jarEvent.begin();
+    for (SourceText source : batch.sources) {
+      SourceParseEvent event = new SourceParseEvent();
+      event.begin();
+      JavaSource javaSource = projectBuilder.addSource(new StringReader(source.content));
+      if (javaSource instanceof DefaultJavaSource defaultSource) {
+        // read by a worker, so the builder did not see where it came from
+        defaultSource.setURL(source.url);
+      }
+      // null if the builder has an error handler and the source does not parse
+      if (javaSource != null && listener != null) {
+        listener.sourceLoaded(source.file, source.content, javaSource);
+      }
+      if (event.shouldCommit()) {
+        event.file = source.name;
+        event.commit();
+      }
+    }
+    int parsed = batch.sources.size();
+    if (unit.isJar()) {
+      if (batch.from == 0) {
+        metrics.increment(GenerationMetrics.SOURCES_JARS);
+      }
+      metrics.add(GenerationMetrics.JAR_FILES, parsed);
+      if (jarEvent.shouldCommit()) {
+        jarEvent.artifact = unit.path().getFileName().toString();
+        jarEvent.files = parsed;
+        jarEvent.commit();
+      }
+    }
+    else {
+      metrics.add(GenerationMetrics.FILES, parsed);
+    }
+    return parsed;
+  }
+
+  private static ReadBatch take(CompletionService<ReadBatch> completionService) throws IOException {
+    try {
+      return completionService.take().get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading sources", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      throw new IOException("Unable to read sources", e.getCause());
+    }
+  }
+
+  /**
+   * Range of the java sources of a unit
+   */
+  private record Batch(SourceUnit unit, int from, int to) {
+
+  }
+
+  private record ReadBatch(SourceUnit unit, int from, List<SourceText> sources) {
+
+  }
+
+  private record SourceText(String name, @Nullable Path file, URL url, String content) {
+
+  }
+
+  /**
+   * Listener of parsed sources, a source that does not parse is not reported
+   */
+  @FunctionalInterface
+  public interface SourceListener {
+
+    /**
+     * @param file source file, {@code null} for a sources jar entry
+     * @param content source text
+     * @param source parsed source
+     */
+    void sourceLoaded(@Nullable Path file, String content, JavaSource source);
+  }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Package and path globs that select the source files of a source root.
+ * <p>
+ * Package globs like {@code com.example.api.**} match package names,
+ * path globs like {@code **}{@code /generated/**} match paths relative
+ * to the source root. {@code *} matches within a segment, {@code **}
+ * matches any number of segments. Excludes take precedence over includes,
+ * empty includes select everything.
+ * <p>
+ * Directories that can not contain a selected file are pruned, so the
+ * walk does not descend into them.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SourceFilter {
+
+  /**
+   * Selects every java source
+   */
+  public static final SourceFilter ALL = new SourceFilter(List.of(), List.of(), List.of(), List.of());
+
+  private final List<Pattern> includePackages;
+
+  private final List<String[]> includePackagePrefixes;
+
+  private final List<Pattern> excludePackages;
+
+  private final List<Pattern> includePaths;
+
+  private final List<Pattern> excludePaths;
+
+  public SourceFilter(Collection<String> includePackages, Collection<String> excludePackages,
+          Collection<String> includePaths, Collection<String> excludePaths) {
+    this.includePackages = compile(includePackages, '.');
+    this.excludePackages = compile(excludePackages, '.');
+    this.includePaths = compile(includePaths, '/');
+    this.excludePaths = compile(excludePaths, '/');
+    this.includePackagePrefixes = new ArrayList<>();
+    for (String glob : includePackages) {
+      includePackagePrefixes.add(literalPrefix(glob));
+    }
+  }
+
+  public boolean isAll() {
+    return includePackages.isEmpty() && excludePackages.isEmpty()
+            && includePaths.isEmpty() && excludePaths.isEmpty();
+  }
+
+  /**
+   * Whether the walk can skip a directory
+   *
+   * @param relativeDir directory relative to the source root, separated by {@code /}
+   */
+  public boolean isPruned(String relativeDir) {
+    if (relativeDir.isEmpty()) {
+      return false;
+    }
+    if (matchesAny(excludePaths, relativeDir)) {
+      return true;
+    }
+    String packageName = relativeDir.replace('/', '.');
+    String probe = packageName + ".x";
+    for (Pattern pattern : excludePackages) {
+      // sub packages are excluded as well
+      if (pattern.matcher(packageName).matches() && pattern.matcher(probe).matches()) {
+        return true;
+      }
+    }
+    if (!includePackages.isEmpty()) {
+      String[] segments = packageName.split("\\.");
+      for (String[] prefix : includePackagePrefixes) {
+        if (isPrefix(prefix, segments) || isPrefix(segments, prefix)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Whether a source file is selected
+   *
+   * @param relativeFile file relative to the source root, separated by {@code /}
+   */
+  public boolean includes(String relativeFile) {
+    int slash = relativeFile.lastIndexOf('/');
+    String packageName = slash < 0 ? "" : relativeFile.substring(0, slash).replace('/', '.');
+    if (matchesAny(excludePaths, relativeFile) || matchesAny(excludePackages, packageName)) {
+      return false;
+    }
+    return (includePackages.isEmpty() || matchesAny(includePackages, packageName))
+            && (includePaths.isEmpty() || matchesAny(includePaths, relativeFile));
+  }
+
+  private static boolean matchesAny(List<Pattern> patterns, String value) {
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(value).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isPrefix(String[] prefix, String[] segments) {
+    if (prefix.length > segments.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (!prefix[i].equals(segments[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Segments of a package glob before the first wildcard
+   */
+  private static String[] literalPrefix(String glob) {
+    ArrayList<String> segments = new ArrayList<>();
+    for (String segment : glob.trim().split("\\.")) {
+      if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+        break;
+      }
+      segments.add(segment);
+    }
+    return segments.toArray(new String[0]);
+  }
+
+  private static List<Pattern> compile(Collection<String> globs, char separator) {
+    ArrayList<Pattern> patterns = new ArrayList<>(globs.size());
+    for (String glob : globs) {
+      patterns.add(toPattern(glob.trim(), separator));
+    }
+    return patterns;
+  }
+
+  /**
+   * Convert a glob to a regex, a leading {@code **}{@code /} or a trailing
+   * {@code /**} also matches no segments at all
+   */
+  public static Pattern toPattern(String glob, char separator) {
+    String sep = Pattern.quote(String.valueOf(separator));
+    String notSep = "[^" + (separator == '.' ? "." : "/") + "]";
+    StringBuilder regex = new StringBuilder();
+    int length = glob.length();
+    int i = 0;
+    while (i < length) {
+      char c = glob.charAt(i);
+      if (c == '*' && i + 1 < length && glob.charAt(i + 1) == '*') {
+        boolean leading = (i == 0 || glob.charAt(i - 1) == separator) && i + 2 < length && glob.charAt(i + 2) == separator;
+        boolean trailing = i > 0 && glob.charAt(i - 1) == separator && i + 2 == length;
+        if (leading) {
+          regex.append("(?:.*").append(sep).append(")?");
+          i += 3;
+          continue;
+        }
+        if (trailing) {
+          // replace the separator appended before
+          regex.setLength(regex.length() - sep.length());
+          regex.append("(?:").append(sep).append(".*)?");
+          i += 2;
+          continue;
+        }
+        regex.append(".*");
+        i += 2;
+      }
+      else if (c == '*') {
+        regex.append(notSep).append('*');
+        i++;
+      }
+      else if (c == '?') {
+        regex.append(notSep);
+        i++;
+      }
+      else if (c == separator) {
+        regex.append(sep);
+        i++;
+      }
+      else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+        i++;
+      }
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+}
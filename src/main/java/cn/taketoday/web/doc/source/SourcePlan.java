@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Source roots and sources jars to parse, without duplicates or nested
+ * roots, ordered by estimated cost, largest first.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ * @see SourcePlanner
+ */
+public class SourcePlan {
+
+  private final List<SourceUnit> units;
+
+  private final List<Overlap> overlaps;
+
+  private final List<Path> missing;
+
+  SourcePlan(List<SourceUnit> units, List<Overlap> overlaps, List<Path> missing) {
+    this.units = Collections.unmodifiableList(units);
+    this.overlaps = Collections.unmodifiableList(overlaps);
+    this.missing = Collections.unmodifiableList(missing);
+  }
+
+  /**
+   * Units to parse, largest first
+   */
+  public List<SourceUnit> getUnits() {
+    return units;
+  }
+
+  /**
+   * Roots and jars that were dropped because they are covered by another unit
+   */
+  public List<Overlap> getOverlaps() {
+    return overlaps;
+  }
+
+  /**
+   * Roots and jars that do not exist
+   */
+  public List<Path> getMissing() {
+    return missing;
+  }
+
+  public int getFileCount(SourceUnit.Kind kind) {
+    int count = 0;
+    for (SourceUnit unit : units) {
+      if (unit.kind() == kind) {
+        count += unit.fileCount();
+      }
+    }
+    return count;
+  }
+
+  public long getBytes() {
+    long bytes = 0;
+    for (SourceUnit unit : units) {
+      bytes += unit.bytes();
+    }
+    return bytes;
+  }
+
+  /**
+   * One line summary of the plan
+   */
+  public String getSummary() {
+    int directories = 0;
+    for (SourceUnit unit : units) {
+      if (!unit.isJar()) {
+        directories++;
+      }
+    }
+    return "Web-docs source plan: %d roots (%d files), %d jars (%d files), %d KB, %d overlaps skipped"
+            .formatted(directories, getFileCount(SourceUnit.Kind.DIRECTORY), units.size() - directories,
+                    getFileCount(SourceUnit.Kind.JAR), getBytes() >> 10, overlaps.size());
+  }
+
+  /**
+   * A root or jar that is not parsed on its own
+   *
+   * @param path canonical path of the dropped root or jar
+   * @param coveredBy unit that contains it
+   * @param nested whether it is nested in {@code coveredBy}, or the same path
+   */
+  public record Overlap(Path path, Path coveredBy, boolean nested) {
+
+    @Override
+    public String toString() {
+      return nested ? path + " is nested in " + coveredBy : path + " is added more than once";
+    }
+  }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import infra.lang.Nullable;
+
+/**
+ * Plans the source roots and sources jars to parse. Paths are canonicalized,
+ * so a directory added under different names, or a root nested in another
+ * root, is parsed only once. The cost of every unit is estimated from the
+ * number and size of its java sources.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SourcePlanner {
+
+  private final LinkedHashSet<File> roots = new LinkedHashSet<>();
+
+  private final LinkedHashSet<File> jars = new LinkedHashSet<>();
+
+  private SourceFilter filter = SourceFilter.ALL;
+
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  public SourcePlanner addRoot(File root) {
+    roots.add(root);
+    return this;
+  }
+
+  public SourcePlanner addJar(File jar) {
+    jars.add(jar);
+    return this;
+  }
+
+  /**
+   * Select the files of source roots, sources jars are not filtered
+   */
+  public SourcePlanner setFilter(SourceFilter filter) {
+    this.filter = filter;
+    return this;
+  }
+
+  /**
+   * Pool that walks the source roots
+   */
+  public SourcePlanner setPool(ForkJoinPool pool) {
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * Canonicalize, de-duplicate and estimate the roots and jars
+   */
+  public SourcePlan plan() throws IOException {
+    ArrayList<SourcePlan.Overlap> overlaps = new ArrayList<>();
+    ArrayList<Path> missing = new ArrayList<>();
+    List<Path> directories = canonicalize(roots, overlaps, missing);
+    List<Path> archives = canonicalize(jars, overlaps, missing);
+
+    // shortest first, so outer roots are kept before their nested roots
+    directories.sort(Comparator.comparingInt(Path::getNameCount));
+    ArrayList<Path> outerRoots = new ArrayList<>();
+    for (Path directory : directories) {
+      Path outer = findOuter(outerRoots, directory);
+      if (outer != null) {
+        overlaps.add(new SourcePlan.Overlap(directory, outer, true));
+      }
+      else {
+        outerRoots.add(directory);
+      }
+    }
+
+    ArrayList<SourceUnit> units = new ArrayList<>();
+    for (Path root : outerRoots) {
+      units.add(estimateDirectory(root));
+    }
+    for (Path jar : archives) {
+      units.add(estimateJar(jar));
+    }
+    units.sort(Comparator.comparingLong(SourceUnit::bytes).reversed());
+    return new SourcePlan(units, overlaps, missing);
+  }
+
+  private static List<Path> canonicalize(LinkedHashSet<File> files, List<SourcePlan.Overlap> overlaps, List<Path> missing) {
+    LinkedHashSet<Path> result = new LinkedHashSet<>();
+    for (File file : files) {
+      Path path = file.toPath().toAbsolutePath().normalize();
+      if (!Files.exists(path)) {
+        missing.add(path);
+        continue;
+      }
+      try {
+        path = path.toRealPath();
+      }
+      catch (IOException e) {
+        // keep the normalized path
+      }
+      if (!result.add(path)) {
+        overlaps.add(new SourcePlan.Overlap(path, path, false));
+      }
+    }
+    return new ArrayList<>(result);
+  }
+
+  @Nullable
+  private static Path findOuter(List<Path> outerRoots, Path directory) {
+    for (Path outer : outerRoots) {
+      if (directory.startsWith(outer)) {
+        return outer;
+      }
+    }
+    return null;
+  }
+
+  private SourceUnit estimateDirectory(Path root) throws IOException {
+    List<SourceFile> sourceFiles;
+    try {
+      sourceFiles = pool.invoke(new DirectoryWalk(root, root, filter));
+    }
+    catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    ArrayList<Path> files = new ArrayList<>(sourceFiles.size());
+    long bytes = 0;
+    for (SourceFile sourceFile : sourceFiles) {
+      files.add(sourceFile.path);
+      bytes += sourceFile.size;
+    }
+    files.sort(null);
+    return new SourceUnit(SourceUnit.Kind.DIRECTORY, root, files, files.size(), bytes);
+  }
+
+  private static SourceUnit estimateJar(Path jar) throws IOException {
+    int count = 0;
+    long bytes = 0;
+    try (JarFile jarFile = new JarFile(jar.toFile())) {
+      for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+        JarEntry entry = entries.nextElement();
+        if (SourcesJars.isJavaSource(entry.getName())) {
+          count++;
+          bytes += Math.max(entry.getSize(), entry.getCompressedSize());
+        }
+      }
+    }
+    return new SourceUnit(SourceUnit.Kind.JAR, jar, List.of(), count, bytes);
+  }
+
+  private record SourceFile(Path path, long size) {
+
+  }
+
+  /**
+   * Lists a directory, forks a walk for every sub directory
+   * that is not pruned by the filter
+   */
+  @SuppressWarnings("serial")
+  private static final class DirectoryWalk extends RecursiveTask<List<SourceFile>> {
+
+    private final Path root;
+
+    private final Path directory;
+
+    private final SourceFilter filter;
+
+    DirectoryWalk(Path root, Path directory, SourceFilter filter) {
+      this.root = root;
+      this.directory = directory;
+      this.filter = filter;
+    }
+
+    @Override
+    protected List<SourceFile> compute() {
+      ArrayList<SourceFile> files = new ArrayList<>();
+      ArrayList<DirectoryWalk> subtasks = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+        for (Path path : stream) {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          if (attributes.isDirectory()) {
+            if (!filter.isPruned(relativize(path))) {
+              DirectoryWalk subtask = new DirectoryWalk(root, path, filter);
+              subtask.fork();
+              subtasks.add(subtask);
+            }
+          }
+          else if (attributes.isRegularFile() && path.getFileName().toString().endsWith(".java")
+                  && (filter.isAll() || filter.includes(relativize(path)))) {
+            files.add(new SourceFile(path, attributes.size()));
+          }
+        }
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      for (DirectoryWalk subtask : subtasks) {
+        files.addAll(subtask.join());
+      }
+      return files;
+    }
+
+    private String relativize(Path path) {
+      String relative = root.relativize(path).toString();
+      return File.separatorChar == '/' ? relative : relative.replace(File.separatorChar, '/');
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A source root or sources jar of a {@link SourcePlan}
+ *
+ * @param kind directory or jar
+ * @param path canonical path
+ * @param files source files of a directory, empty for jars
+ * @param fileCount number of java sources
+ * @param bytes size of the java sources
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public record SourceUnit(Kind kind, Path path, List<Path> files, int fileCount, long bytes) {
+
+  public boolean isJar() {
+    return kind == Kind.JAR;
+  }
+
+  @Override
+  public String toString() {
+    return "%s %s (%d files, %d KB)".formatted(kind == Kind.JAR ? "jar" : "dir", path, fileCount, bytes >> 10);
+  }
+
+  public enum Kind {
+    DIRECTORY,
+    JAR
+  }
+
+}
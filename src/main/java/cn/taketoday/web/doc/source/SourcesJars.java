@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Sources jar utils
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public abstract class SourcesJars {
+
+  /**
+   * Whether the jar entry is a java source that contains classes
+   */
+  public static boolean isJavaSource(String entryName) {
+    return entryName.endsWith(".java")
+            && !entryName.endsWith("/package-info.java")
+            && !entryName.endsWith("/module-info.java")
+            && !entryName.equals("module-info.java");
+  }
+
+  /**
+   * Add all java sources of a sources jar
+   *
+   * @param projectBuilder JavaProjectBuilder
+   * @param jar sources jar
+   * @return number of sources added
+   */
+  public static int addSources(JavaProjectBuilder projectBuilder, File jar) throws IOException {
+    int count = 0;
+    String prefix = "jar:" + jar.toURI().toURL() + "!/";
+    try (JarFile jarFile = new JarFile(jar)) {
+      for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+        String name = entries.nextElement().getName();
+        if (isJavaSource(name)) {
+          projectBuilder.addSource(new URL(prefix + name));
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.watch;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+import com.thoughtworks.qdox.parser.ParseException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.openapi.DocumentGroup;
+import cn.taketoday.web.doc.openapi.Endpoint;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import infra.lang.Assert;
+import infra.util.FileSystemUtils;
+import io.swagger.v3.oas.models.OpenAPI;
+
+/**
+ * Keeps the documents of a source tree up to date while files change.
+ * <p>
+ * The endpoints are kept per source file. On a change, the changed files
+ * are parsed again into the same {@link JavaProjectBuilder}, replacing
+ * their types, and the endpoints are extracted again from the changed
+ * files and the files depending on them only.
+ * <p>
+ * Only the extraction is incremental, not the serialization: every
+ * update writes the whole full document again from the kept endpoints,
+ * with all its paths and referenced schemas, and a group whenever one of
+ * its endpoints changed. The cost of an update grows with the size of the
+ * document, not with the size of the change.
+ * <pre>{@code
+ * IncrementalGenerator generator = new IncrementalGenerator(projectBuilder, factory, charset, output, groups, groupDir);
+ * new ParallelSourceLoader(parallelism, charset, metrics)
+ *         .setListener(generator.getSourceListener())
+ *         .load(plan, projectBuilder);
+ * generator.initialize();
+ * ...
+ * generator.update(changedFiles);
+ * }</pre>
+ * Replaced types stay in the builder, a long session holds one
+ * superseded model per edit of a file.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class IncrementalGenerator {
+
+  private static final Logger log = LoggerFactory.getLogger(IncrementalGenerator.class);
+
+  private final JavaProjectBuilder projectBuilder;
+
+  private final OpenAPIModelFactory factory;
+
+  private final Charset charset;
+
+  private final File output;
+
+  private final List<DocumentGroup> groups;
+
+  private final File groupDir;
+
+  private final SourceDependencies dependencies = new SourceDependencies();
+
+  private final TreeMap<Path, JavaSource> sources = new TreeMap<>();
+
+  private final TreeMap<Path, List<Endpoint>> fragments = new TreeMap<>();
+
+  /**
+   * @param projectBuilder source model, loaded with {@link #getSourceListener()}
+   * @param factory model factory
+   * @param charset source encoding
+   * @param output output file of the full document
+   * @param groups document groups
+   * @param groupDir output directory of the groups
+   */
+  public IncrementalGenerator(JavaProjectBuilder projectBuilder, OpenAPIModelFactory factory,
+          Charset charset, File output, List<DocumentGroup> groups, File groupDir) {
+    Assert.notNull(projectBuilder, "JavaProjectBuilder is required");
+    Assert.notNull(factory, "OpenAPIModelFactory is required");
+    this.projectBuilder = projectBuilder;
+    this.factory = factory;
+    this.charset = charset;
+    this.output = output;
+    this.groups = List.copyOf(groups);
+    this.groupDir = groupDir;
+  }
+
+  /**
+   * Listener recording the sources of the initial load
+   */
+  public ParallelSourceLoader.SourceListener getSourceListener() {
+    return (file, content, source) -> {
+      if (file != null) {
+        file = file.toAbsolutePath().normalize();
+        sources.put(file, source);
+        dependencies.update(file, content, getDeclaredNames(source));
+      }
+    };
+  }
+
+  /**
+   * Extract the endpoints of all loaded sources and write the documents
+   */
+  public void initialize() throws IOException {
+    FileSystemUtils.deleteRecursively(groupDir.toPath());
+    for (Map.Entry<Path, JavaSource> entry : sources.entrySet()) {
+      putFragment(entry.getKey(), extract(entry.getValue()));
+    }
+    factory.writeDocuments(getEndpoints(), output, groups, groupDir);
+  }
+
+  /**
+   * Apply changed files and write the affected documents
+   *
+   * @param changed created, modified or deleted files and deleted directories
+   */
+  public Update update(Set<Path> changed) throws IOException {
+    long start = System.nanoTime();
+    HashSet<String> changedNames = new HashSet<>();
+    LinkedHashSet<Path> affected = new LinkedHashSet<>();
+    ArrayList<Endpoint> touched = new ArrayList<>();
+    for (Path path : changed) {
+      Path file = path.toAbsolutePath().normalize();
+      if (Files.isRegularFile(file)) {
+        changedNames.addAll(dependencies.getDeclaredNames(file));
+        if (parse(file, changedNames)) {
+          affected.add(file);
+        }
+      }
+      else {
+        // deleted file or directory
+        for (Path removed : List.copyOf(sources.keySet())) {
+          if (removed.startsWith(file)) {
+            changedNames.addAll(dependencies.getDeclaredNames(removed));
+            remove(removed, affected, touched);
+          }
+        }
+      }
+    }
+    affected.addAll(dependencies.getDependents(changedNames));
+
+    // schemas of the affected types and of their instantiations are resolved again
+    HashSet<String> affectedTypes = new HashSet<>();
+    for (Path file : affected) {
+      JavaSource source = sources.get(file);
+      if (source != null) {
+        for (JavaClass javaClass : source.getClasses()) {
+          addQualifiedNames(javaClass, affectedTypes);
+        }
+      }
+    }
+    factory.getSchemaResolver().evict(affectedTypes);
+
+    for (Path file : affected) {
+      List<Endpoint> previous = fragments.get(file);
+      if (previous != null) {
+        touched.addAll(previous);
+      }
+      JavaSource source = sources.get(file);
+      if (source != null) {
+        List<Endpoint> endpoints = extract(source);
+        touched.addAll(endpoints);
+        putFragment(file, endpoints);
+      }
+    }
+
+    ArrayList<DocumentGroup> affectedGroups = new ArrayList<>();
+    for (DocumentGroup group : groups) {
+      if (touched.stream().anyMatch(group::matches)) {
+        affectedGroups.add(group);
+      }
+    }
+    List<Endpoint> endpoints = getEndpoints();
+    factory.writeDocuments(endpoints, output, affectedGroups, groupDir);
+    return new Update(changed.size(), affected.size(), endpoints.size(), affectedGroups.size(), System.nanoTime() - start);
+  }
+
+  /**
+   * Parse a changed file again, a file that does not parse keeps its previous model
+   *
+   * @return whether the file was parsed
+   */
+  private boolean parse(Path file, Set<String> changedNames) throws IOException {
+    String content = Files.readString(file, charset);
+    JavaSource source;
+    try {
+      source = projectBuilder.addSource(new StringReader(content));
+    }
+    catch (ParseException e) {
+      log.warn("Unable to parse {}: {}", file, e.getMessage());
+      return false;
+    }
+    if (source == null) {
+      // reported by the error handler of the builder
+      log.warn("Unable to parse {}, keeping its previous model", file);
+      return false;
+    }
+    Set<String> declaredNames = getDeclaredNames(source);
+    changedNames.addAll(declaredNames);
+    sources.put(file, source);
+    dependencies.update(file, content, declaredNames);
+    return true;
+  }
+
+  private void remove(Path file, Set<Path> affected, List<Endpoint> touched) {
+    sources.remove(file);
+    dependencies.remove(file);
+    affected.remove(file);
+    List<Endpoint> previous = fragments.remove(file);
+    if (previous != null) {
+      touched.addAll(previous);
+    }
+  }
+
+  private List<Endpoint> extract(JavaSource source) {
+    return factory.extractEndpoints(source.getClasses(), new GenerationMetrics());
+  }
+
+  private void putFragment(Path file, List<Endpoint> endpoints) {
+    if (endpoints.isEmpty()) {
+      fragments.remove(file);
+    }
+    else {
+      fragments.put(file, endpoints);
+    }
+  }
+
+  /**
+   * Endpoints of all files, in file order
+   */
+  public List<Endpoint> getEndpoints() {
+    ArrayList<Endpoint> endpoints = new ArrayList<>();
+    for (List<Endpoint> fragment : fragments.values()) {
+      endpoints.addAll(fragment);
+    }
+    return endpoints;
+  }
+
+  /**
+   * Full document of the kept endpoints, in memory
+   */
+  public OpenAPI createOpenAPI() {
+    return factory.createOpenAPI(getEndpoints());
+  }
+
+  public int getSourceCount() {
+    return sources.size();
+  }
+
+  private static Set<String> getDeclaredNames(JavaSource source) {
+    HashSet<String> names = new HashSet<>();
+    for (JavaClass javaClass : source.getClasses()) {
+      addDeclaredNames(javaClass, names);
+    }
+    return names;
+  }
+
+  private static void addDeclaredNames(JavaClass javaClass, Set<String> names) {
+    names.add(javaClass.getName());
+    for (JavaClass nested : javaClass.getNestedClasses()) {
+      addDeclaredNames(nested, names);
+    }
+  }
+
+  private static void addQualifiedNames(JavaClass javaClass, Set<String> names) {
+    names.add(javaClass.getFullyQualifiedName());
+    for (JavaClass nested : javaClass.getNestedClasses()) {
+      addQualifiedNames(nested, names);
+    }
+  }
+
+  /**
+   * Result of an update
+   *
+   * @param changedFiles changed files reported
+   * @param affectedFiles files whose endpoints were extracted again
+   * @param endpoints endpoints of the full document
+   * @param groups groups written again
+   * @param nanos time from the change to the written documents
+   */
+  public record Update(int changedFiles, int affectedFiles, int endpoints, int groups, long nanos) {
+
+    @Override
+    public String toString() {
+      return "%d changed, %d files re-extracted, %d endpoints, %d groups written in %d ms"
+              .formatted(changedFiles, affectedFiles, endpoints, groups, nanos / 1_000_000);
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.watch;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File level dependencies of the source tree.
+ * <p>
+ * A file depends on the files declaring the type names it mentions. The
+ * names are taken from the source text rather than resolved, which is
+ * conservative: a comment mentioning a type makes a dependency, an
+ * actual reference is never missed.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+final class SourceDependencies {
+
+  private static final Pattern TYPE_NAME = Pattern.compile("\\b[A-Z][A-Za-z0-9_$]*\\b");
+
+  private final HashMap<Path, Set<String>> declarations = new HashMap<>();
+
+  private final HashMap<Path, Set<String>> references = new HashMap<>();
+
+  private final HashMap<String, Set<Path>> referencedBy = new HashMap<>();
+
+  /**
+   * Set the declared and referenced type names of a file
+   *
+   * @param file source file
+   * @param content source text
+   * @param declaredNames simple names of the declared types
+   */
+  void update(Path file, CharSequence content, Set<String> declaredNames) {
+    remove(file);
+    HashSet<String> names = new HashSet<>();
+    Matcher matcher = TYPE_NAME.matcher(content);
+    while (matcher.find()) {
+      names.add(matcher.group());
+    }
+    names.removeAll(declaredNames);
+    for (String name : names) {
+      referencedBy.computeIfAbsent(name, k -> new HashSet<>()).add(file);
+    }
+    references.put(file, names);
+    declarations.put(file, Set.copyOf(declaredNames));
+  }
+
+  void remove(Path file) {
+    declarations.remove(file);
+    Set<String> names = references.remove(file);
+    if (names != null) {
+      for (String name : names) {
+        Set<Path> files = referencedBy.get(name);
+        if (files != null) {
+          files.remove(file);
+          if (files.isEmpty()) {
+            referencedBy.remove(name);
+          }
+        }
+      }
+    }
+  }
+
+  Set<String> getDeclaredNames(Path file) {
+    return declarations.getOrDefault(file, Set.of());
+  }
+
+  /**
+   * Files depending on the given type names, transitively
+   */
+  Set<Path> getDependents(Collection<String> names) {
+    LinkedHashSet<Path> dependents = new LinkedHashSet<>();
+    HashSet<String> visited = new HashSet<>(names);
+    ArrayDeque<String> queue = new ArrayDeque<>(names);
+    while (!queue.isEmpty()) {
+      Set<Path> files = referencedBy.get(queue.poll());
+      if (files != null) {
+        for (Path file : files) {
+          if (dependents.add(file)) {
+            for (String declared : getDeclaredNames(file)) {
+              if (visited.add(declared)) {
+                queue.add(declared);
+              }
+            }
+          }
+        }
+      }
+    }
+    return dependents;
+  }
+
+  int size() {
+    return declarations.size();
+  }
+
+}
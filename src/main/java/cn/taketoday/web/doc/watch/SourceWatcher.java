@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.watch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import cn.taketoday.web.doc.source.SourceFilter;
+import cn.taketoday.web.doc.source.SourcesJars;
+import infra.lang.Assert;
+import infra.lang.Nullable;
+
+/**
+ * Watches source roots and reports changed source files in batches.
+ * <p>
+ * Events are debounced: a batch is reported once no event arrived for
+ * the debounce period, so saving several files or switching branches
+ * results in one batch. Directories pruned by the {@link SourceFilter}
+ * are not watched.
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SourceWatcher implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(SourceWatcher.class);
+
+  private final WatchService watchService;
+
+  private final SourceFilter filter;
+
+  private final long debounceMillis;
+
+  private final List<Path> roots;
+
+  private final HashMap<WatchKey, WatchedDir> keys = new HashMap<>();
+
+  /**
+   * @param roots source roots
+   * @param filter source filter, relative to the roots
+   * @param debounce quiet period closing a batch
+   */
+  public SourceWatcher(List<Path> roots, SourceFilter filter, Duration debounce) throws IOException {
+    Assert.notNull(filter, "SourceFilter is required");
+    Assert.isTrue(!debounce.isNegative(), "debounce must not be negative");
+    this.roots = List.copyOf(roots);
+    this.filter = filter;
+    this.debounceMillis = debounce.toMillis();
+    this.watchService = FileSystems.getDefault().newWatchService();
+    for (Path root : this.roots) {
+      if (Files.isDirectory(root)) {
+        register(root, root, null);
+      }
+    }
+  }
+
+  /**
+   * Report changed files until the thread is interrupted or the watcher is closed
+   *
+   * @param listener listener of changed files, called on this thread
+   */
+  public void run(ChangeListener listener) throws IOException, InterruptedException {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        LinkedHashSet<Path> changed = new LinkedHashSet<>();
+        process(key, changed);
+        while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          process(key, changed);
+        }
+        if (!changed.isEmpty()) {
+          listener.onChange(changed);
+        }
+      }
+    }
+    catch (ClosedWatchServiceException e) {
+      // closed
+    }
+  }
+
+  private void process(WatchKey key, Set<Path> changed) throws IOException {
+    WatchedDir dir = keys.get(key);
+    if (dir == null) {
+      key.cancel();
+      return;
+    }
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        log.info("Events of {} lost, rescanning", dir.path());
+        register(dir.root(), dir.path(), changed);
+        continue;
+      }
+      Path path = dir.path().resolve((Path) event.context());
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+        register(dir.root(), path, changed);
+      }
+      else if (SourcesJars.isJavaSource(relativize(dir.root(), path))) {
+        if (filter.includes(relativize(dir.root(), path))) {
+          changed.add(path);
+        }
+      }
+      else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+        // a deleted directory
+        changed.add(path);
+      }
+    }
+    if (!key.reset()) {
+      keys.remove(key);
+    }
+  }
+
+  /**
+   * Watch a directory tree
+   *
+   * @param changed collects the source files of the tree, {@code null} on startup
+   */
+  private void register(Path root, Path start, @Nullable Set<Path> changed) throws IOException {
+    Files.walkFileTree(start, new SimpleFileVisitor<>() {
+
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        if (filter.isPruned(relativize(root, dir))) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        keys.put(key, new WatchedDir(root, dir));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        if (changed != null) {
+          String relative = relativize(root, file);
+          if (SourcesJars.isJavaSource(relative) && filter.includes(relative)) {
+            changed.add(file);
+          }
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private static String relativize(Path root, Path path) {
+    return root.relativize(path).toString().replace('\\', '/');
+  }
+
+  public int getWatchedDirectories() {
+    return keys.size();
+  }
+
+  public List<Path> getRoots() {
+    return roots;
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  /**
+   * Listener of changed source files
+   */
+  @FunctionalInterface
+  public interface ChangeListener {
+
+    /**
+     * @param files created, modified or deleted source files and deleted directories
+     */
+    void onChange(Set<Path> files) throws IOException;
+  }
+
+  private record WatchedDir(Path root, Path path) {
+
+  }
+
+}
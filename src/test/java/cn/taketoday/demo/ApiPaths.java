@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.demo;
+
+/**
+ * Shared API paths
+ */
+public final class ApiPaths {
+
+  public static final String API = "/api";
+
+  public static final String USERS = API + "/users";
+
+  public static final class Orders {
+
+    public static final String BASE = (ApiPaths.API + "/orders");
+
+    public static final String ITEMS = BASE + "/{id}" + "/items";
+  }
+
+}
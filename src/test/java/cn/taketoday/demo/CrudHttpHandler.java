@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.demo;
+
+import infra.web.annotation.DELETE;
+import infra.web.annotation.GET;
+import infra.web.annotation.PathVariable;
+
+/**
+ * Generic base handler
+ *
+ * @param <T> entity type
+ */
+public abstract class CrudHttpHandler<T> {
+
+  /**
+   * Get entity by id
+   *
+   * @param id entity id
+   */
+  @GET("/{id}")
+  public abstract T getById(@PathVariable long id);
+
+  /**
+   * Delete entity by id
+   *
+   * @param id entity id
+   */
+  @DELETE("/{id}")
+  public void deleteById(@PathVariable long id) {
+    //
+  }
+
+}
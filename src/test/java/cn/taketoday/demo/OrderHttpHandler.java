@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.demo;
+
+import infra.web.annotation.GET;
+import infra.web.annotation.RequestMapping;
+import infra.web.annotation.RestController;
+
+import static cn.taketoday.demo.ApiPaths.API;
+
+/**
+ * Order APIs
+ */
+@RestController
+@RequestMapping(API + "/orders")
+public class OrderHttpHandler {
+
+  /**
+   * Get order items
+   *
+   * @param id order id
+   */
+  @GET(ApiPaths.Orders.ITEMS)
+  public String getItems(long id) {
+    return "items";
+  }
+
+}
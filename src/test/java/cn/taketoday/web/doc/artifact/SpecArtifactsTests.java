@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.artifact;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class SpecArtifactsTests {
+
+  @Test
+  void contentAddressedVariants(@TempDir Path dir) throws IOException {
+    Path document = Files.writeString(dir.resolve("openapi.json"), "{\"openapi\":\"3.0.1\"}".repeat(100));
+    Path resources = dir.resolve("resources");
+
+    SpecArtifacts artifacts = new SpecArtifacts(resources);
+    String hash = artifacts.add("openapi.json", document);
+    artifacts.add("groups/orders.json", document);
+    artifacts.writeIndex();
+
+    Path location = resources.resolve(SpecArtifacts.LOCATION);
+    Path file = location.resolve("openapi." + hash + ".json");
+    assertThat(file).hasSameTextualContentAs(document);
+    assertThat(location.resolve("groups/orders." + hash + ".json")).exists();
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(location.resolve("openapi." + hash + ".json.gz")))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(Files.readString(document));
+    }
+
+    Properties index = new Properties();
+    try (InputStream in = Files.newInputStream(resources.resolve(SpecArtifacts.INDEX))) {
+      index.load(in);
+    }
+    assertThat(index).containsEntry("openapi.json", hash).containsEntry("groups/orders.json", hash);
+
+    // same content, same names and bytes
+    SpecArtifacts again = new SpecArtifacts(dir.resolve("again"));
+    assertThat(again.add("openapi.json", document)).isEqualTo(hash);
+    assertThat(dir.resolve("again").resolve(SpecArtifacts.LOCATION).resolve("openapi." + hash + ".json.gz"))
+            .hasSameBinaryContentAs(location.resolve("openapi." + hash + ".json.gz"));
+  }
+
+  @Test
+  void fileName() {
+    assertThat(SpecArtifacts.fileName("openapi.json", "abc")).isEqualTo("openapi.abc.json");
+    assertThat(SpecArtifacts.fileName("groups/orders.json", "abc")).isEqualTo("groups/orders.abc.json");
+    assertThat(SpecArtifacts.fileName("groups.v1/orders", "abc")).isEqualTo("groups.v1/orders.abc");
+  }
+
+  @Test
+  void byteRange() {
+    assertThat(ByteRange.parse("bytes=0-99", 1000)).isEqualTo(new ByteRange(0, 99));
+    assertThat(ByteRange.parse("bytes=100-", 1000)).isEqualTo(new ByteRange(100, 999));
+    assertThat(ByteRange.parse("bytes=-10", 1000)).isEqualTo(new ByteRange(990, 999));
+    assertThat(ByteRange.parse("bytes=990-5000", 1000)).isEqualTo(new ByteRange(990, 999));
+    assertThat(ByteRange.parse("bytes=1000-", 1000)).isSameAs(ByteRange.UNSATISFIABLE);
+    assertThat(ByteRange.UNSATISFIABLE.contentRange(1000)).isEqualTo("bytes */1000");
+    assertThat(new ByteRange(0, 99).contentRange(1000)).isEqualTo("bytes 0-99/1000");
+
+    // ignored, the full representation is sent
+    assertThat(ByteRange.parse(null, 1000)).isNull();
+    assertThat(ByteRange.parse("bytes=5-1", 1000)).isNull();
+    assertThat(ByteRange.parse("bytes=0-1,5-6", 1000)).isNull();
+    assertThat(ByteRange.parse("items=0-1", 1000)).isNull();
+  }
+
+  @Test
+  void conditionalHeaders() {
+    assertThat(SpecArtifactHandler.acceptsGzip("gzip, deflate, br")).isTrue();
+    assertThat(SpecArtifactHandler.acceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+    assertThat(SpecArtifactHandler.acceptsGzip("gzip;q=0")).isFalse();
+    assertThat(SpecArtifactHandler.acceptsGzip("*;q=1, gzip;q=0")).isFalse();
+    assertThat(SpecArtifactHandler.acceptsGzip("*")).isTrue();
+    assertThat(SpecArtifactHandler.acceptsGzip(null)).isFalse();
+
+    assertThat(SpecArtifactHandler.matches("\"abc\"", "\"abc\"")).isTrue();
+    assertThat(SpecArtifactHandler.matches("\"xyz\", W/\"abc\"", "\"abc\"")).isTrue();
+    assertThat(SpecArtifactHandler.matches("*", "\"abc\"")).isTrue();
+    assertThat(SpecArtifactHandler.matches("\"abc-gzip\"", "\"abc\"")).isFalse();
+    assertThat(SpecArtifactHandler.matches(null, "\"abc\"")).isFalse();
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import cn.taketoday.web.doc.fixture.SyntheticCodebase;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class WebDocCliTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void batch() throws Exception {
+    GeneratedCodebase first = SyntheticCodebase.ofEndpoints(20).setSourcesJars(1).generate(tempDir.resolve("first"));
+    GeneratedCodebase second = SyntheticCodebase.ofEndpoints(30).setSeed(2).generate(tempDir.resolve("second"));
+    String jar = tempDir.relativize(first.sourcesJars().get(0)).toString().replace('\\', '/');
+
+    Files.writeString(tempDir.resolve("projects.json"), """
+            {
+              "output": "out",
+              "parallelism": 2,
+              "cacheDir": "cache",
+              "projects": [
+                { "name": "first", "sourceRoots": ["first/src/main/java"], "sourcesJars": ["%1$s"], "commentIndex": true },
+                { "name": "second", "sourceRoots": ["second/src/main/java"], "sourcesJars": ["%1$s"], "commentIndex": true },
+                { "name": "missing", "sourceRoots": ["missing/src/main/java"], "sourcesJars": ["missing.jar"] }
+              ]
+            }
+            """.formatted(jar));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int status = WebDocCli.run(new String[] { "--manifest", tempDir.resolve("projects.json").toString() },
+            new PrintStream(out), new PrintStream(new ByteArrayOutputStream()));
+
+    assertThat(status).isEqualTo(1);
+    assertThat(out.toString()).contains("missing", "FAILED");
+    assertThat(tempDir.resolve("out/first/openapi.json")).isNotEmptyFile();
+    assertThat(tempDir.resolve("out/second/metrics.json")).isNotEmptyFile();
+
+    JsonNode report = new ObjectMapper().readTree(tempDir.resolve("out/report.json").toFile());
+    assertThat(report.at("/total/projects").asInt()).isEqualTo(3);
+    assertThat(report.at("/total/failures").asInt()).isEqualTo(1);
+    assertThat(report.at("/total/endpoints").asLong()).isEqualTo(first.endpoints() + second.endpoints());
+    assertThat(report.at("/total/sourcesJarCacheHits").asLong()).isEqualTo(1);
+    assertThat(report.at("/projects/0/name").asText()).isEqualTo("first");
+  }
+
+  @Test
+  void invalidProjectNames() throws Exception {
+    for (String projects : new String[] {
+            "{ \"name\": \"../x\" }",
+            "{ \"name\": \"a/b\" }",
+            "{ \"name\": \"same\" }, { \"name\": \"same\" }" }) {
+      Path manifest = Files.writeString(tempDir.resolve("projects.json"),
+              "{ \"output\": \"out\", \"projects\": [" + projects + "] }");
+      ByteArrayOutputStream err = new ByteArrayOutputStream();
+      int status = WebDocCli.run(new String[] { "--manifest", manifest.toString() },
+              new PrintStream(new ByteArrayOutputStream()), new PrintStream(err));
+
+      assertThat(status).isEqualTo(1);
+      assertThat(err.toString()).containsAnyOf("invalid project name", "duplicate project name");
+    }
+    assertThat(tempDir.resolve("out")).doesNotExist();
+    assertThat(tempDir.resolve("x")).doesNotExist();
+  }
+
+  @Test
+  void usage() {
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    assertThat(WebDocCli.run(new String[0], System.out, new PrintStream(err))).isEqualTo(2);
+    assertThat(err.toString()).contains("Usage");
+  }
+
+}
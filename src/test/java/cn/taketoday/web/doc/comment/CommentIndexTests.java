@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.comment;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaMethod;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import infra.lang.Constant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class CommentIndexTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void writeAndQuery() throws Exception {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    projectBuilder.addSourceTree(new File("src/test/java/cn/taketoday/demo"));
+
+    Path file = tempDir.resolve("demo.idx");
+    new CommentIndexBuilder()
+            .add(projectBuilder.getClasses())
+            .writeTo(file);
+
+    JavaClass handler = projectBuilder.getClassByName("cn.taketoday.demo.UserHttpHandler");
+    JavaMethod update = handler.getMethodsByName("update").get(0);
+
+    try (CommentIndex index = CommentIndex.open(file)) {
+      assertThat(index.getComment(MemberSignature.of(handler))).isEqualTo("User APIs");
+      assertThat(index.getComment(MemberSignature.of(update))).isEqualTo("Update user info");
+      assertThat(index.getComment(MemberSignature.ofParameter(update, 0))).isEqualTo("user id");
+      assertThat(index.getComment(MemberSignature.ofParameter(update, 1))).isEqualTo("user request body");
+      assertThat(index.getComment("cn.taketoday.demo.User.name")).isEqualTo("user name");
+      assertThat(index.getComment("cn.taketoday.demo.Missing")).isNull();
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class JsonPatchTests {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void minimalOperations() throws Exception {
+    JsonNode source = objectMapper.readTree("""
+            {"paths":{"/a/{id}":{"get":{"summary":"A"}},"/b":{}},"tags":["x","y"]}""");
+    JsonNode target = objectMapper.readTree("""
+            {"paths":{"/a/{id}":{"get":{"summary":"A2"}},"/c~":{}},"tags":["x","z"]}""");
+
+    ArrayNode patch = JsonPatch.diff(source, target);
+    assertThat(patch).hasSize(4);
+    assertThat(patch.toString())
+            .contains("{\"op\":\"replace\",\"path\":\"/paths/~1a~1{id}/get/summary\",\"value\":\"A2\"}")
+            .contains("{\"op\":\"remove\",\"path\":\"/paths/~1b\"}")
+            .contains("{\"op\":\"add\",\"path\":\"/paths/~1c~0\",\"value\":{}}")
+            .contains("{\"op\":\"replace\",\"path\":\"/tags/1\",\"value\":\"z\"}");
+
+    assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+    assertThat(source).isEqualTo(objectMapper.readTree("""
+            {"paths":{"/a/{id}":{"get":{"summary":"A"}},"/b":{}},"tags":["x","y"]}"""));
+  }
+
+  @Test
+  void equalDocuments() throws Exception {
+    JsonNode document = objectMapper.readTree("{\"a\":[1,{\"b\":null}]}");
+    assertThat(JsonPatch.diff(document, document.deepCopy())).isEmpty();
+  }
+
+  @Test
+  void resizedArrayIsReplaced() throws Exception {
+    JsonNode source = objectMapper.readTree("{\"a\":[1,2]}");
+    JsonNode target = objectMapper.readTree("{\"a\":[1,2,3]}");
+    ArrayNode patch = JsonPatch.diff(source, target);
+    assertThat(patch.toString()).isEqualTo("[{\"op\":\"replace\",\"path\":\"/a\",\"value\":[1,2,3]}]");
+    assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+  }
+
+  @Test
+  void changedNodeTypeIsReplaced() throws Exception {
+    JsonNode source = objectMapper.readTree("{\"a\":{\"b\":1},\"c\":{},\"d\":[]}");
+    JsonNode target = objectMapper.readTree("{\"a\":1,\"c\":[],\"d\":[]}");
+    ArrayNode patch = JsonPatch.diff(source, target);
+    assertThat(patch.toString()).isEqualTo(
+            "[{\"op\":\"replace\",\"path\":\"/a\",\"value\":1},{\"op\":\"replace\",\"path\":\"/c\",\"value\":[]}]");
+    assertThat(JsonPatch.apply(source, patch)).isEqualTo(target);
+  }
+
+}
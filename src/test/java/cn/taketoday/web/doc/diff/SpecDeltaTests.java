@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.diff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import cn.taketoday.web.doc.diff.ApiChange.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class SpecDeltaTests {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void breakingChanges(@TempDir Path dir) throws Exception {
+    JsonNode previous = objectMapper.readTree("""
+            {"paths":{
+              "/users":{"get":{"parameters":[{"name":"page","in":"query","schema":{"type":"integer"}}],
+                               "responses":{"200":{},"404":{}}},
+                        "delete":{}},
+              "/legacy":{"get":{}}},
+             "components":{"schemas":{"User":{"properties":{"name":{"type":"string"},"age":{"type":"integer"},
+                                              "role":{"type":"string","enum":["ADMIN","USER"]}}}}}}""");
+    JsonNode current = objectMapper.readTree("""
+            {"paths":{
+              "/users":{"get":{"parameters":[{"name":"page","in":"query","required":true,"schema":{"type":"string"}}],
+                               "responses":{"200":{}}},
+                        "post":{}},
+              "/orders":{"get":{}}},
+             "components":{"schemas":{"User":{"properties":{"name":{"type":"string"},"email":{"type":"string"},
+                                              "role":{"type":"string","enum":["USER"]}}}}}}""");
+
+    SpecDelta delta = SpecDelta.of(previous, current);
+    assertThat(delta.changes()).extracting(ApiChange::type).containsExactly(
+            Type.PARAMETER_REQUIRED, Type.PARAMETER_TYPE_CHANGED, Type.RESPONSE_REMOVED,
+            Type.OPERATION_REMOVED, Type.OPERATION_ADDED, Type.PATH_REMOVED, Type.PATH_ADDED,
+            Type.PROPERTY_REMOVED, Type.ENUM_VALUE_REMOVED, Type.PROPERTY_ADDED);
+    assertThat(delta.getBreakingCount()).isEqualTo(7);
+    assertThat(JsonPatch.apply(previous, delta.patch())).isEqualTo(current);
+
+    delta.write(objectMapper, dir.resolve("patch.json").toFile(), dir.resolve("changes.json").toFile());
+    JsonNode summary = objectMapper.readTree(dir.resolve("changes.json").toFile());
+    assertThat(summary.get("breaking").asInt()).isEqualTo(7);
+    assertThat(summary.get("changes").get(3).get("pointer").asText()).isEqualTo("/paths/~1users/delete");
+    assertThat(objectMapper.readTree(dir.resolve("patch.json").toFile())).isEqualTo(delta.patch());
+  }
+
+  @Test
+  void sameDocument() throws Exception {
+    JsonNode document = objectMapper.readTree("{\"paths\":{\"/a\":{\"get\":{}}}}");
+    SpecDelta delta = SpecDelta.of(document, document.deepCopy());
+    assertThat(delta.isEmpty()).isTrue();
+    assertThat(delta.changes()).isEmpty();
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.extension;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class DocumentGroupSpecTests {
+
+  @Test
+  void groupName() {
+    assertThat(new DocumentGroupSpec("public-api_v1.2").getName()).isEqualTo("public-api_v1.2");
+
+    for (String name : new String[] { "../x", "a/b", "a\\b", "..", ".", "", " " }) {
+      assertThatIllegalArgumentException().isThrownBy(() -> new DocumentGroupSpec(name))
+              .withMessageContaining("invalid document group name");
+    }
+  }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.gradle.util;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaAnnotation;
+import com.thoughtworks.qdox.model.JavaClass;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringReader;
+
+import infra.lang.Constant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class ConstantValueResolverTests {
+
+  private final JavaProjectBuilder projectBuilder = createJavaProjectBuilder();
+
+  private JavaProjectBuilder createJavaProjectBuilder() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    projectBuilder.addSourceTree(new File("src/test/java/cn/taketoday/demo"));
+    return projectBuilder;
+  }
+
+  @Test
+  void fieldInitializers() {
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    JavaClass apiPaths = projectBuilder.getClassByName("cn.taketoday.demo.ApiPaths");
+    JavaClass orders = apiPaths.getNestedClassByName("Orders");
+
+    assertThat(resolver.resolve(apiPaths.getFieldByName("API"))).isEqualTo("/api");
+    assertThat(resolver.resolve(apiPaths.getFieldByName("USERS"))).isEqualTo("/api/users");
+    assertThat(resolver.resolve(orders.getFieldByName("BASE"))).isEqualTo("/api/orders");
+    assertThat(resolver.resolve(orders.getFieldByName("ITEMS"))).isEqualTo("/api/orders/{id}/items");
+  }
+
+  @Test
+  void annotationValues() {
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    JavaClass handler = projectBuilder.getClassByName("cn.taketoday.demo.OrderHttpHandler");
+
+    JavaAnnotation requestMapping = handler.getAnnotations().get(1);
+    assertThat(AnnotationUtils.getValue(requestMapping.getProperty("value"), resolver)).isEqualTo("/api/orders");
+
+    JavaAnnotation get = handler.getMethodsByName("getItems").get(0).getAnnotations().get(0);
+    assertThat(AnnotationUtils.getValue(get.getProperty("value"), resolver)).isEqualTo("/api/orders/{id}/items");
+  }
+
+  @Test
+  void nestedClassAndStaticImportConstants() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example.api;
+
+            public final class Paths {
+
+              public static final String API = "/api";
+
+              public static final class Users {
+
+                public static final String BASE = API + "/users";
+
+                public static final String BY_ID = BASE + "/{id}";
+              }
+            }
+            """));
+    projectBuilder.addSource(new StringReader("""
+            package com.example.web;
+
+            import com.example.api.Paths;
+            import infra.web.annotation.GET;
+            import infra.web.annotation.RequestMapping;
+
+            import static com.example.api.Paths.Users.BY_ID;
+
+            @RequestMapping(Paths.Users.BASE)
+            class UserHttpHandler {
+
+              @GET(BY_ID + "/roles")
+              String roles(long id) {
+                return null;
+              }
+            }
+            """));
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    JavaClass handler = projectBuilder.getClassByName("com.example.web.UserHttpHandler");
+
+    JavaAnnotation requestMapping = handler.getAnnotations().get(0);
+    assertThat(AnnotationUtils.getValue(requestMapping.getProperty("value"), resolver)).isEqualTo("/api/users");
+
+    JavaAnnotation get = handler.getMethodsByName("roles").get(0).getAnnotations().get(0);
+    assertThat(AnnotationUtils.getValue(get.getProperty("value"), resolver)).isEqualTo("/api/users/{id}/roles");
+  }
+
+  @Test
+  void numericOperandsAreAddedUntilTheFirstString() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example.api;
+
+            import infra.web.annotation.GET;
+
+            class Versions {
+
+              static final int VERSION = 1 + 1;
+
+              static final long TIMEOUT = VERSION + 1_000L;
+
+              static final String SUM = 1 + 2 + "a";
+
+              static final String CONCAT = "a" + 1 + 2;
+
+              static final String PAREN = "a" + (1 + 2);
+
+              static final String API = "/api/v" + VERSION;
+
+              @GET(VERSION + 1 + "/items")
+              String items() {
+                return null;
+              }
+            }
+            """));
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    JavaClass versions = projectBuilder.getClassByName("com.example.api.Versions");
+
+    assertThat(resolver.resolve(versions.getFieldByName("VERSION"))).isEqualTo("2");
+    assertThat(resolver.resolve(versions.getFieldByName("TIMEOUT"))).isEqualTo("1002");
+    assertThat(resolver.resolve(versions.getFieldByName("SUM"))).isEqualTo("3a");
+    assertThat(resolver.resolve(versions.getFieldByName("CONCAT"))).isEqualTo("a12");
+    assertThat(resolver.resolve(versions.getFieldByName("PAREN"))).isEqualTo("a3");
+    assertThat(resolver.resolve(versions.getFieldByName("API"))).isEqualTo("/api/v2");
+
+    JavaAnnotation get = versions.getMethodsByName("items").get(0).getAnnotations().get(0);
+    assertThat(resolver.resolve(get.getProperty("value"))).isEqualTo("3/items");
+  }
+
+  @Test
+  void charLiterals() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example.api;
+
+            import infra.web.annotation.GET;
+
+            class Chars {
+
+              static final char SEPARATOR = '/';
+
+              static final String ITEMS = "items" + SEPARATOR + '{' + "id" + '}';
+
+              static final String QUOTE = "a" + '\\'';
+
+              static final int NEXT = 'a' + 1;
+
+              @GET("/orders" + SEPARATOR + 'x')
+              String orders() {
+                return null;
+              }
+            }
+            """));
+    ConstantValueResolver resolver = new ConstantValueResolver();
+    JavaClass chars = projectBuilder.getClassByName("com.example.api.Chars");
+
+    assertThat(resolver.resolve(chars.getFieldByName("SEPARATOR"))).isEqualTo("/");
+    assertThat(resolver.resolve(chars.getFieldByName("ITEMS"))).isEqualTo("items/{id}");
+    assertThat(resolver.resolve(chars.getFieldByName("QUOTE"))).isEqualTo("a'");
+    assertThat(resolver.resolve(chars.getFieldByName("NEXT"))).isEqualTo("98");
+
+    JavaAnnotation get = chars.getMethodsByName("orders").get(0).getAnnotations().get(0);
+    assertThat(resolver.resolve(get.getProperty("value"))).isEqualTo("/orders/x");
+  }
+
+  @Test
+  void removeQuotes() {
+    assertThat(AnnotationUtils.removeQuotes(null)).isEmpty();
+    assertThat(AnnotationUtils.removeQuotes("/api")).isEqualTo("/api");
+    assertThat(AnnotationUtils.removeQuotes("\"/api\"")).isEqualTo("/api");
+    assertThat(AnnotationUtils.removeQuotes("'a'\"b\"")).isEqualTo("ab");
+    assertThat(AnnotationUtils.removeDoubleQuotes("'a'\"b\"")).isEqualTo("'a'b");
+  }
+
+}
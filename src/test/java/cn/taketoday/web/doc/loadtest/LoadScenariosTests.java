@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import cn.taketoday.web.doc.loadtest.LoadTestReport.EndpointResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class LoadScenariosTests {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final JsonNode document = read("""
+          {"openapi":"3.0.1","paths":{
+            "/api/users/{id}":{
+              "get":{"parameters":[{"name":"id"},{"name":"fields","in":"query","schema":{"type":"array","items":{"enum":["name","age"]}}}],
+                     "responses":{"200":{"content":{"application/json":{"schema":{"$ref":"#/components/schemas/User"}}}}}},
+              "delete":{"responses":{"204":{}}}},
+            "/api/users":{
+              "post":{"requestBody":{"content":{"application/json":{"schema":{"$ref":"#/components/schemas/User"}}}}},
+              "get":{"parameters":[{"name":"page","schema":{"type":"integer","minimum":0}}]}}},
+           "components":{"schemas":{"User":{"type":"object","properties":{
+             "id":{"type":"integer"},"created":{"type":"string","format":"date-time"},
+             "friends":{"type":"array","items":{"$ref":"#/components/schemas/User"}}}}}}}""");
+
+  @Test
+  void requestTemplates(@TempDir Path dir) throws Exception {
+    List<RequestTemplate> templates = LoadScenarios.create(document);
+
+    assertThat(templates).extracting(RequestTemplate::operation).containsExactly(
+            "GET /api/users/{id}", "DELETE /api/users/{id}", "POST /api/users", "GET /api/users");
+    assertThat(templates).extracting(RequestTemplate::resolvePath).containsExactly(
+            "/api/users/1?fields=name", "/api/users/1", "/api/users", "/api/users?page=0");
+    // recursive reference ends with null
+    assertThat(templates.get(2).body()).isEqualTo("{\"id\":1,\"created\":\"2024-01-01T00:00:00Z\",\"friends\":[null]}");
+    assertThat(templates.get(2).contentType()).isEqualTo("application/json");
+
+    File file = dir.resolve("scenarios.json").toFile();
+    LoadScenarios.write(objectMapper, templates, file);
+    assertThat(LoadScenarios.read(objectMapper, file)).isEqualTo(templates);
+  }
+
+  @Test
+  void standInServerBaseline() throws Exception {
+    try (StandInServer server = new StandInServer(new InetSocketAddress("localhost", 0), document)) {
+      server.start();
+      LoadTestReport report = new LoadTestRunner(server.getUri(), Duration.ofMillis(200), 2)
+              .run(LoadScenarios.create(document));
+
+      assertThat(report.endpoints()).hasSize(4).allSatisfy(result -> {
+        assertThat(result.requests()).isPositive();
+        assertThat(result.errors()).isZero();
+        assertThat(result.p50()).isLessThanOrEqualTo(result.p99());
+        assertThat(result.p99()).isLessThanOrEqualTo(result.max());
+      });
+      assertThat(report.toString()).contains("GET /api/users/{id}");
+    }
+  }
+
+  @Test
+  void histogramPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 10_000; i++) {
+      histogram.record(i);
+    }
+    assertThat(histogram.getCount()).isEqualTo(10_000);
+    assertThat(histogram.getValueAt(50)).isBetween(5000L, 5200L);
+    assertThat(histogram.getValueAt(99)).isBetween(9900L, 10_000L);
+    assertThat(histogram.getValueAt(100)).isEqualTo(10_000);
+    assertThat(LatencyHistogram.index(63)).isEqualTo(63);
+    assertThat(LatencyHistogram.upperBound(LatencyHistogram.index(1000))).isGreaterThanOrEqualTo(1000);
+  }
+
+  private JsonNode read(String json) {
+    try {
+      return objectMapper.readTree(json);
+    }
+    catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+
+import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase;
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+import infra.lang.Constant;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generation against synthetic codebases,
+ * the 50k endpoints codebase runs with {@code -Dwebdoc.scale.large=true}
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class OpenAPIModelFactoryScaleTests {
+
+  @TempDir
+  Path tempDir;
+
+  @ParameterizedTest
+  @ValueSource(ints = { 10, 1000 })
+  void allEndpointsDocumented(int endpoints) throws Exception {
+    generateAndVerify(endpoints);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "webdoc.scale.large", matches = "true")
+  void largeCodebase() throws Exception {
+    generateAndVerify(50_000);
+  }
+
+  private void generateAndVerify(int endpoints) throws Exception {
+    GeneratedCodebase codebase = SyntheticCodebase.ofEndpoints(endpoints)
+            .setInheritanceDepth(1)
+            .setGenericDepth(2)
+            .generate(tempDir);
+
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    projectBuilder.addSourceTree(codebase.sourceRoot().toFile());
+
+    OpenAPI openAPI = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), projectBuilder);
+
+    int operations = 0;
+    for (PathItem pathItem : openAPI.getPaths().values()) {
+      operations += pathItem.readOperations().size();
+    }
+    assertThat(codebase.endpoints()).isEqualTo(endpoints);
+    assertThat(operations).isEqualTo(codebase.endpoints());
+    assertThat(openAPI.getPaths()).containsKeys("/api/module0/c0/e0/{id}", "/api/module0/c0/base0/{id}");
+  }
+
+}
@@ -20,14 +20,34 @@ package cn.taketoday.web.doc.openapi;
 import com.thoughtworks.qdox.JavaProjectBuilder;
 import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.MemoryBudget;
+import cn.taketoday.web.doc.jfr.EndpointExtractionEvent;
 import infra.lang.Constant;
 import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.oas.models.media.Schema;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -55,4 +75,365 @@ class OpenAPIModelFactoryTests {
     assertThat(openAPI.getSpecVersion()).isSameAs(SpecVersion.V30);
   }
 
+  @Test
+  void inheritedMappings() {
+    OpenAPI openAPI = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), createJavaProjectBuilder());
+    Paths paths = openAPI.getPaths();
+
+    assertThat(paths).containsKeys("/api/accounts/{id}", "/api/accounts/health");
+    assertThat(paths.get("/api/accounts/health").getGet().getDescription()).isEqualTo("Health check");
+    assertThat(paths).doesNotContainKeys("/{id}", "/health");
+  }
+
+  @Test
+  void mergeOperations() {
+    OpenAPI openAPI = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), createJavaProjectBuilder());
+    PathItem pathItem = openAPI.getPaths().get("/api/users/{id}");
+
+    assertThat(pathItem.getGet()).isNotNull();
+    assertThat(pathItem.getPut()).isNotNull();
+    assertThat(pathItem.getPatch()).isNotNull();
+    assertThat(pathItem.getDelete()).isNotNull();
+    assertThat(openAPI.getPaths().get("/api/users").getPost()).isNotNull();
+  }
+
+  @Test
+  void writeOpenAPISpilled(@TempDir Path tempDir) throws Exception {
+    OpenAPIModelFactory factory = new OpenAPIModelFactory();
+    File inMemory = tempDir.resolve("in-memory.json").toFile();
+    File spilled = tempDir.resolve("spilled.json").toFile();
+
+    factory.writeOpenAPI(new DocConfig(), createJavaProjectBuilder(), inMemory, new GenerationMetrics());
+    // exceeded as soon as the retained heap is measured after a collection
+    GenerationMetrics metrics = new GenerationMetrics(new MemoryBudget(1));
+    System.gc();
+    factory.writeOpenAPI(new DocConfig(), createJavaProjectBuilder(), spilled, metrics);
+
+    ObjectMapper objectMapper = OpenAPIJson.getObjectMapper();
+    JsonNode expected = objectMapper.readTree(inMemory);
+    assertThat(expected.get("paths").has("/api/users/{id}")).isTrue();
+    assertThat(objectMapper.readTree(spilled)).isEqualTo(expected);
+    assertThat(metrics.getPhases()).extracting(GenerationMetrics.Phase::name).containsExactly("extract", "write");
+    assertThat(metrics.getMemoryBudget().getPhases()).hasSize(2);
+    assertThat(metrics.getCount(GenerationMetrics.ENDPOINTS)).isPositive();
+    assertThat(metrics.getCount(GenerationMetrics.CONTROLLERS)).isPositive();
+    assertThat(metrics.getCount(GenerationMetrics.SPILLED)).isPositive();
+  }
+
+  @Test
+  void documentGroups(@TempDir Path tempDir) throws Exception {
+    File output = tempDir.resolve("openapi.json").toFile();
+    List<DocumentGroup> groups = List.of(
+            new DocumentGroup("users", List.of(), List.of(), List.of(), List.of("/api/users")),
+            new DocumentGroup("accounts", List.of("cn.taketoday.**"), List.of("AccountHttpHandler"), List.of(), List.of()),
+            new DocumentGroup("none", List.of(), List.of(), List.of("com.example.Internal"), List.of()));
+
+    GenerationMetrics metrics = new GenerationMetrics();
+    new OpenAPIModelFactory().writeOpenAPI(new DocConfig(), createJavaProjectBuilder(), output, groups, tempDir.toFile(), metrics);
+
+    ObjectMapper objectMapper = OpenAPIJson.getObjectMapper();
+    JsonNode all = objectMapper.readTree(output).get("paths");
+    JsonNode users = objectMapper.readTree(tempDir.resolve("users.json").toFile()).get("paths");
+    JsonNode accounts = objectMapper.readTree(tempDir.resolve("accounts.json").toFile()).get("paths");
+
+    assertThat(all.has("/api/users/{id}")).isTrue();
+    assertThat(all.has("/api/accounts/{id}")).isTrue();
+    assertThat(users.fieldNames()).toIterable().allMatch(path -> path.startsWith("/api/users")).isNotEmpty();
+    assertThat(accounts.fieldNames()).toIterable().allMatch(path -> path.startsWith("/api/accounts")).isNotEmpty();
+    assertThat(accounts.get("/api/accounts/{id}").get("get").get("tags").get(0).asText()).isEqualTo("AccountHttpHandler");
+    assertThat(objectMapper.readTree(tempDir.resolve("none.json").toFile()).get("paths")).isEmpty();
+    assertThat(metrics.getPhases()).extracting(GenerationMetrics.Phase::name).containsExactly("extract", "write");
+  }
+
+  @Test
+  void shards(@TempDir Path tempDir) throws Exception {
+    OpenAPIModelFactory factory = new OpenAPIModelFactory();
+    List<Endpoint> endpoints = factory.extractEndpoints(createJavaProjectBuilder(), new GenerationMetrics());
+    Map<String, Integer> shards = factory.writeShards(endpoints, ShardStrategy.TAG, tempDir.toFile());
+
+    assertThat(shards).containsKeys("UserHttpHandler.json", "AccountHttpHandler.json");
+    ObjectMapper objectMapper = OpenAPIJson.getObjectMapper();
+    JsonNode root = objectMapper.readTree(tempDir.resolve(ShardedOpenAPIWriter.ROOT_FILE).toFile());
+    assertThat(root.get("paths").get("/api/users/{id}").get("$ref").asText())
+            .isEqualTo("shards/UserHttpHandler.json#/paths/~1api~1users~1%7Bid%7D");
+
+    JsonNode shard = objectMapper.readTree(tempDir.resolve("shards/UserHttpHandler.json").toFile());
+    assertThat(shard.get("openapi")).isNotNull();
+    assertThat(shard.get("paths").at("/~1api~1users~1{id}/get").isObject()).isTrue();
+    assertThat(shard.get("paths").fieldNames()).toIterable().allMatch(path -> path.startsWith("/api/users"));
+
+    assertThat(shards.values().stream().mapToInt(Integer::intValue).sum())
+            .isEqualTo(new OpenAPIModelFactory().createOpenAPI(new DocConfig(), createJavaProjectBuilder())
+                    .getPaths().values().stream().mapToInt(item -> item.readOperations().size()).sum());
+  }
+
+  @Test
+  void operationExtensions() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example;
+
+            import infra.cache.annotation.CacheConfig;
+            import infra.cache.annotation.CacheEvict;
+            import infra.cache.annotation.CachePut;
+            import infra.cache.annotation.Cacheable;
+            import infra.http.CacheControl;
+            import infra.http.ResponseEntity;
+            import infra.web.annotation.GET;
+            import infra.web.annotation.PATCH;
+            import infra.web.annotation.POST;
+            import infra.web.annotation.PUT;
+            import infra.web.annotation.RequestBody;
+            import infra.web.annotation.RequestHeader;
+            import infra.web.annotation.RequestMapping;
+            import infra.web.annotation.RestController;
+            import java.util.concurrent.TimeUnit;
+
+            @RestController
+            @CacheConfig(cacheNames = "products")
+            @RequestMapping("/products")
+            class ProductController {
+
+              @GET("/{id}")
+              ResponseEntity<Product> get(long id) {
+                return ResponseEntity.ok().eTag("v1").cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES)).body(null);
+              }
+
+              @GET
+              @Cacheable
+              List<Product> list(int page, int pageSize) {
+                return null;
+              }
+
+              @GET("/search")
+              List<Product> search(String cursor, int limit) {
+                return null;
+              }
+
+              @POST
+              void create(@RequestHeader("Idempotency-Key") String key, @RequestBody Product product) {
+              }
+
+              @PATCH("/{id}")
+              @CacheEvict
+              void rename(long id, String name) {
+              }
+
+              @PUT("/{id}")
+              @CachePut
+              Product update(long id, @RequestHeader("X-Request-Id") String requestId, @RequestBody Product product) {
+                return product;
+              }
+            }
+            """));
+    Paths paths = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), projectBuilder).getPaths();
+
+    Map<String, Object> get = paths.get("/products/{id}").getGet().getExtensions();
+    assertThat(get).containsEntry(OperationExtensions.IDEMPOTENT, true);
+    assertThat(get.get(OperationExtensions.CACHE)).isEqualTo(Map.of(
+            "cacheable", true, "validators", Set.of("ETag"), "cacheControl", "max-age=60"));
+
+    Map<String, Object> list = paths.get("/products").getGet().getExtensions();
+    assertThat(list.get(OperationExtensions.CACHE)).isEqualTo(Map.of("cacheable", true, "cacheNames", List.of("products")));
+    assertThat(list.get(OperationExtensions.PAGINATION)).isEqualTo(Map.of("style", "page", "parameters", List.of("page", "pageSize")));
+    assertThat(paths.get("/products/search").getGet().getExtensions().get(OperationExtensions.PAGINATION))
+            .isEqualTo(Map.of("style", "cursor", "parameters", List.of("cursor", "limit")));
+
+    Map<String, Object> create = paths.get("/products").getPost().getExtensions();
+    assertThat(create).containsEntry(OperationExtensions.IDEMPOTENT, true)
+            .containsEntry(OperationExtensions.IDEMPOTENCY_KEY, "Idempotency-Key")
+            .doesNotContainKey(OperationExtensions.CACHE);
+
+    Map<String, Object> rename = paths.get("/products/{id}").getPatch().getExtensions();
+    assertThat(rename).containsEntry(OperationExtensions.IDEMPOTENT, false);
+    assertThat(rename.get(OperationExtensions.CACHE)).isEqualTo(Map.of("evicts", Set.of("products")));
+
+    Map<String, Object> update = paths.get("/products/{id}").getPut().getExtensions();
+    assertThat(update).containsEntry(OperationExtensions.IDEMPOTENT, true)
+            .doesNotContainKey(OperationExtensions.IDEMPOTENCY_KEY);
+    assertThat(update.get(OperationExtensions.CACHE)).isEqualTo(Map.of("puts", Set.of("products")));
+  }
+
+  @Test
+  void genericSchemas() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example;
+
+            import infra.http.ResponseEntity;
+            import infra.web.annotation.GET;
+            import infra.web.annotation.POST;
+            import infra.web.annotation.RequestBody;
+            import infra.web.annotation.RestController;
+            import java.util.List;
+
+            @RestController
+            class UserController extends CrudController<User> {
+
+              @GET("/users/pages")
+              ResponseEntity<Page<List<User>>> pages(int page) {
+                return null;
+              }
+
+              @GET("/users/first")
+              ResponseEntity<Page<List<User>>> first() {
+                return null;
+              }
+
+              @POST("/users")
+              void create(@RequestBody User user) {
+              }
+            }
+
+            abstract class CrudController<T> {
+
+              @GET("/entities/{id}")
+              T get(long id) {
+                return null;
+              }
+            }
+
+            class Slice<E> {
+              E content;
+              boolean last;
+            }
+
+            class Page<T> extends Slice<T> {
+              long total;
+            }
+
+            class User {
+              static int count;
+              String name;
+              User manager;
+            }
+            """));
+    OpenAPIModelFactory factory = new OpenAPIModelFactory();
+    OpenAPI openAPI = factory.createOpenAPI(new DocConfig(), projectBuilder);
+    Paths paths = openAPI.getPaths();
+
+    Schema<?> pages = responseSchema(paths.get("/users/pages").getGet());
+    assertThat(pages.get$ref()).isEqualTo("#/components/schemas/PageListUser");
+    // resolved once, shared by the operations
+    assertThat(responseSchema(paths.get("/users/first").getGet())).isSameAs(pages);
+    assertThat(paths.get("/users/pages").getGet().getParameters().get(0).getSchema().getType()).isEqualTo("integer");
+
+    // substituted through the generic superclasses
+    Map<String, Schema> schemas = openAPI.getComponents().getSchemas();
+    assertThat(schemas).containsOnlyKeys("PageListUser", "User");
+    Map<String, Schema> page = schemas.get("PageListUser").getProperties();
+    assertThat(page).containsOnlyKeys("content", "last", "total");
+    assertThat(page.get("content").getItems().get$ref()).isEqualTo("#/components/schemas/User");
+    assertThat(page.get("total").getFormat()).isEqualTo("int64");
+    assertThat(schemas.get("User").getProperties()).containsOnlyKeys("name", "manager");
+    assertThat(((Schema<?>) schemas.get("User").getProperties().get("manager")).get$ref()).isEqualTo("#/components/schemas/User");
+    assertThat(responseSchema(paths.get("/entities/{id}").getGet()).get$ref()).isEqualTo("#/components/schemas/User");
+
+    Operation create = paths.get("/users").getPost();
+    assertThat(create.getParameters()).isNull();
+    assertThat(create.getRequestBody().getContent().get(OpenAPIModelFactory.APPLICATION_JSON).getSchema().get$ref())
+            .isEqualTo("#/components/schemas/User");
+    assertThat(create.getResponses().get("200").getContent()).isNull();
+  }
+
+  @Test
+  void genericOverrideInheritsMapping() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.addSource(new StringReader("""
+            package com.example;
+
+            import infra.web.annotation.POST;
+            import infra.web.annotation.PUT;
+            import infra.web.annotation.RequestBody;
+            import infra.web.annotation.RequestMapping;
+            import infra.web.annotation.RestController;
+
+            @RestController
+            @RequestMapping("/users")
+            class UserController extends CrudController<User, Long> {
+
+              /**
+               * Create a user
+               */
+              @Override
+              void create(User user) {
+              }
+
+              void create(String name) {
+              }
+            }
+
+            @RestController
+            @RequestMapping("/admins")
+            class AdminController extends UserController {
+
+              /**
+               * Update an admin
+               */
+              @Override
+              void update(Long id, User user) {
+              }
+            }
+
+            abstract class CrudController<T, ID> extends BaseController<T> {
+
+              @PUT("/{id}")
+              void update(ID id, @RequestBody T entity) {
+              }
+            }
+
+            abstract class BaseController<E> {
+
+              /**
+               * Create an entity
+               */
+              @POST
+              void create(@RequestBody E entity) {
+              }
+            }
+
+            class User {
+              String name;
+            }
+            """));
+    Paths paths = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), projectBuilder).getPaths();
+
+    assertThat(paths.get("/users").readOperations()).hasSize(1);
+    assertThat(paths.get("/users").getPost().getDescription()).isEqualTo("Create a user");
+    assertThat(paths.get("/users/{id}").getPut()).isNotNull();
+    assertThat(paths.get("/admins").getPost().getDescription()).isEqualTo("Create a user");
+    assertThat(paths.get("/admins/{id}").readOperations()).hasSize(1);
+    assertThat(paths.get("/admins/{id}").getPut().getDescription()).isEqualTo("Update an admin");
+  }
+
+  private static Schema<?> responseSchema(Operation operation) {
+    return operation.getResponses().get("200").getContent().get(OpenAPIModelFactory.APPLICATION_JSON).getSchema();
+  }
+
+  @Test
+  void endpointExtractionEvents(@TempDir Path tempDir) throws Exception {
+    Path file = tempDir.resolve("extraction.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(EndpointExtractionEvent.class);
+      recording.start();
+      new OpenAPIModelFactory().createOpenAPI(new DocConfig(), createJavaProjectBuilder());
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    assertThat(events).extracting(event -> event.getString("className"))
+            .contains("cn.taketoday.demo.AccountHttpHandler");
+    assertThat(events).allSatisfy(event -> assertThat(event.getInt("operations")).isNotNegative());
+  }
+
+  @Test
+  void concatPath() {
+    assertThat(OpenAPIModelFactory.concatPath(null, null)).isEqualTo("/");
+    assertThat(OpenAPIModelFactory.concatPath("/", "/")).isEqualTo("/");
+    assertThat(OpenAPIModelFactory.concatPath("/api/", "/users")).isEqualTo("/api/users");
+    assertThat(OpenAPIModelFactory.concatPath("api", "users/")).isEqualTo("/api/users");
+    assertThat(OpenAPIModelFactory.concatPath("/api", null)).isEqualTo("/api");
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.openapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cn.taketoday.web.doc.openapi.PathTrie.PathConflict;
+import infra.http.HttpMethod;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class PathTrieTests {
+
+  @Test
+  void mergeHttpMethods() {
+    PathTrie trie = new PathTrie();
+    Operation get = new Operation();
+    Operation put = new Operation();
+    assertThat(trie.add("/users/{id}", HttpMethod.GET, get, "get")).isTrue();
+    assertThat(trie.add("/users/{id}", HttpMethod.PUT, put, "put")).isTrue();
+
+    Paths paths = trie.toPaths();
+    assertThat(paths).hasSize(1);
+    assertThat(paths.get("/users/{id}").getGet()).isSameAs(get);
+    assertThat(paths.get("/users/{id}").getPut()).isSameAs(put);
+    assertThat(trie.size()).isEqualTo(2);
+    assertThat(trie.getConflicts()).isEmpty();
+  }
+
+  @Test
+  void conflicts() {
+    PathTrie trie = new PathTrie();
+    trie.add("/users/{id}", HttpMethod.GET, new Operation(), "a");
+    assertThat(trie.add("/users/{id}", HttpMethod.GET, new Operation(), "b")).isFalse();
+    trie.add("/users/{name}", HttpMethod.DELETE, new Operation(), "c");
+
+    List<PathConflict> conflicts = trie.getConflicts();
+    assertThat(conflicts).hasSize(2);
+    assertThat(conflicts.get(0).type()).isEqualTo(PathConflict.Type.DUPLICATE);
+    assertThat(conflicts.get(0).existing()).isEqualTo("a");
+    assertThat(conflicts.get(1).type()).isEqualTo(PathConflict.Type.AMBIGUOUS);
+    assertThat(trie.toPaths()).containsOnlyKeys("/users/{id}");
+  }
+
+  @Test
+  void spillOnlyNewOperations() throws Exception {
+    PathTrie trie = new PathTrie();
+    Operation shared = new Operation().operationId("shared");
+    trie.add("/users/{id}", HttpMethod.GET, shared, "a");
+    trie.add("/members/{id}", HttpMethod.GET, shared, "a");
+    try (SpillFile spillFile = new SpillFile()) {
+      assertThat(trie.spill(spillFile)).isEqualTo(1);
+      assertThat(trie.spill(spillFile)).isZero();
+
+      trie.add("/users/{id}", HttpMethod.DELETE, new Operation().operationId("delete"), "b");
+      assertThat(trie.spill(spillFile)).isEqualTo(1);
+
+      ArrayList<String> operationIds = new ArrayList<>();
+      trie.traverse((template, operations) -> operations.values().forEach(operation -> operationIds.add(operation.getOperationId())));
+      assertThat(operationIds).containsExactlyInAnyOrder("shared", "shared", "delete");
+    }
+  }
+
+  @Test
+  void traverseOrder() {
+    PathTrie trie = new PathTrie();
+    trie.add("/users/{id}", HttpMethod.GET, new Operation(), "a");
+    trie.add("/users/me", HttpMethod.GET, new Operation(), "b");
+    trie.add("/", HttpMethod.GET, new Operation(), "c");
+    trie.add("/users", HttpMethod.GET, new Operation(), "d");
+    trie.add("/accounts/{id}.json", HttpMethod.GET, new Operation(), "e");
+
+    ArrayList<String> templates = new ArrayList<>();
+    trie.traverse((template, operations) -> templates.add(template));
+    assertThat(templates).containsExactly("/", "/accounts/{id}.json", "/users", "/users/me", "/users/{id}");
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.preview;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+@Timeout(30)
+class PreviewServerTests {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  private PreviewServer server;
+
+  @BeforeEach
+  void start() throws Exception {
+    server = new PreviewServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    server.start();
+  }
+
+  @AfterEach
+  void close() {
+    server.close();
+  }
+
+  @Test
+  void publish() throws Exception {
+    assertThat(server.publish(document("v1"))).isEqualTo(1);
+    assertThat(server.publish(document("v1"))).isEqualTo(1);
+
+    try (BufferedReader events = subscribe("")) {
+      awaitClients(1);
+      assertThat(server.publish(document("v2"))).isEqualTo(2);
+
+      List<String> event = readEvent(events);
+      assertThat(event).startsWith("id: 2", "event: patch");
+      JsonNode data = objectMapper.readTree(event.get(2).substring("data: ".length()));
+      assertThat(data.get("from").asLong()).isEqualTo(1);
+      assertThat(data.get("to").asLong()).isEqualTo(2);
+      assertThat(data.get("patch").toString()).contains("/info/version", "v2");
+    }
+
+    HttpResponse<String> response = httpClient.send(request("openapi.json").build(), HttpResponse.BodyHandlers.ofString());
+    assertThat(response.headers().firstValue(PreviewServer.VERSION_HEADER)).hasValue("2");
+    assertThat(objectMapper.readTree(response.body())).isEqualTo(document("v2"));
+  }
+
+  @Test
+  void reconnectSince() throws Exception {
+    server.publish(document("v1"));
+    server.publish(document("v2"));
+    server.publish(document("v3"));
+
+    try (BufferedReader events = subscribe("?since=1")) {
+      assertThat(readEvent(events)).startsWith("id: 2", "event: patch");
+      assertThat(readEvent(events)).startsWith("id: 3", "event: patch");
+
+      awaitClients(1);
+      server.publish(document("v4"));
+      assertThat(readEvent(events)).startsWith("id: 4", "event: patch");
+    }
+  }
+
+  @Test
+  void reload() throws Exception {
+    server.publish(document("v1"));
+    server.publish(document("v2"));
+
+    // version 1 has no patch
+    try (BufferedReader events = subscribe("?since=0")) {
+      assertThat(readEvent(events)).containsExactly("event: reload", "data: 2");
+
+      awaitClients(1);
+      server.publish(document("v3"));
+      assertThat(readEvent(events)).startsWith("id: 3", "event: patch");
+    }
+  }
+
+  @Test
+  void stalledClientIsDropped() throws Exception {
+    server.publish(document("v1"));
+
+    // subscribes but never reads, so its socket and then its queue fill up
+    try (Socket stalled = new Socket(server.getUri().getHost(), server.getUri().getPort())) {
+      OutputStream out = stalled.getOutputStream();
+      out.write("GET /events HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+      out.flush();
+      awaitClients(1);
+
+      String description = "x".repeat(256 * 1024);
+      for (int i = 0; server.getClientCount() > 0; i++) {
+        JsonNode document = document("v" + (i + 2));
+        ((ObjectNode) document.get("info")).put("description", description + i);
+        server.publish(document);
+      }
+      assertThat(server.getClientCount()).isZero();
+    }
+
+    try (BufferedReader events = subscribe("")) {
+      awaitClients(1);
+      server.publish(document("latest"));
+      assertThat(readEvent(events)).startsWith("event: patch");
+    }
+  }
+
+  private JsonNode document(String version) {
+    return objectMapper.createObjectNode()
+            .put("openapi", "3.0.1")
+            .set("info", objectMapper.createObjectNode().put("title", "demo").put("version", version));
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(server.getUri().resolve(path));
+  }
+
+  private BufferedReader subscribe(String query) throws Exception {
+    InputStream body = httpClient.send(request("events" + query).build(), HttpResponse.BodyHandlers.ofInputStream()).body();
+    return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+  }
+
+  private void awaitClients(int count) throws InterruptedException {
+    while (server.getClientCount() < count) {
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Lines of the next event, skipping comments
+   */
+  private static List<String> readEvent(BufferedReader events) throws Exception {
+    ArrayList<String> lines = new ArrayList<>();
+    String line;
+    while ((line = events.readLine()) != null) {
+      if (line.isEmpty()) {
+        if (!lines.isEmpty()) {
+          return lines;
+        }
+      }
+      else if (!line.startsWith(":")) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.route;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class RouteTableTests {
+
+  @Test
+  void mappedTable(@TempDir Path dir) throws Exception {
+    RouteTableWriter writer = new RouteTableWriter();
+    assertThat(writer.add("GET", "/users/{id}", "UserController#get")).isTrue();
+    assertThat(writer.add("GET", "/users/me", "UserController#me")).isTrue();
+    assertThat(writer.add("DELETE", "/users/{id}", "UserController#delete")).isTrue();
+    assertThat(writer.add("GET", "/users", "UserController#list")).isTrue();
+    assertThat(writer.add("GET", "/", "IndexController#index")).isTrue();
+    assertThat(writer.add("GET", "/users", "Other#list")).isFalse();
+
+    Path file = dir.resolve("routes.bin");
+    writer.write(file);
+    RouteTable routes = RouteTable.open(file);
+
+    assertThat(routes.size()).isEqualTo(5);
+    // sorted by method then path
+    assertThat(routes.getMethod(0)).isEqualTo("DELETE");
+    assertThat(routes.getPath(1)).isEqualTo("/");
+
+    int route = routes.find("GET", "/users/{id}");
+    assertThat(routes.getHandler(route)).isEqualTo("UserController#get");
+    assertThat(routes.getSegmentCount(route)).isEqualTo(2);
+    assertThat(routes.getSegment(route, 0)).isEqualTo("users");
+    assertThat(routes.isVariableSegment(route, 0)).isFalse();
+    assertThat(routes.isVariableSegment(route, 1)).isTrue();
+    assertThat(routes.find("GET", "/users/{name}")).isEqualTo(-1);
+    assertThat(routes.find("PUT", "/users/{id}")).isEqualTo(-1);
+
+    assertThat(routes.getHandler(routes.match("GET", "/users/42"))).isEqualTo("UserController#get");
+    assertThat(routes.getHandler(routes.match("GET", "/users/me"))).isEqualTo("UserController#me");
+    assertThat(routes.getHandler(routes.match("GET", "/users/"))).isEqualTo("UserController#list");
+    assertThat(routes.getHandler(routes.match("GET", "/"))).isEqualTo("IndexController#index");
+    assertThat(routes.getHandler(routes.match("DELETE", "/users/me"))).isEqualTo("UserController#delete");
+    assertThat(routes.match("GET", "/users/42/orders")).isEqualTo(-1);
+    assertThat(routes.match("POST", "/users")).isEqualTo(-1);
+  }
+
+  @Test
+  void matchIndexedRoutes() {
+    RouteTableWriter writer = new RouteTableWriter();
+    for (int i = 0; i < 100; i++) {
+      writer.add("GET", "/resource" + i + "/{id}", "Resource" + i + "#get");
+      writer.add("GET", "/resource" + i + "/{id}/items", "Resource" + i + "#items");
+    }
+    writer.add("GET", "/{tenant}/users", "TenantController#users");
+    writer.add("GET", "/{tenant}/{id}", "TenantController#get");
+    writer.add("GET", "/{page}", "PageController#get");
+    writer.add("POST", "/resource1/{id}", "Resource1#update");
+    RouteTable routes = RouteTable.wrap(ByteBuffer.wrap(writer.toByteArray()));
+
+    assertThat(routes.getHandler(routes.match("GET", "/resource7/42"))).isEqualTo("Resource7#get");
+    assertThat(routes.getHandler(routes.match("GET", "/resource99/42/items"))).isEqualTo("Resource99#items");
+    assertThat(routes.getHandler(routes.match("POST", "/resource1/42"))).isEqualTo("Resource1#update");
+    // a literal first segment is more specific than a variable one
+    assertThat(routes.getHandler(routes.match("GET", "/resource7/users"))).isEqualTo("Resource7#get");
+    assertThat(routes.getHandler(routes.match("GET", "/acme/users"))).isEqualTo("TenantController#users");
+    assertThat(routes.getHandler(routes.match("GET", "/acme/42"))).isEqualTo("TenantController#get");
+    assertThat(routes.getHandler(routes.match("GET", "/resource7"))).isEqualTo("PageController#get");
+    assertThat(routes.match("GET", "/")).isEqualTo(-1);
+    assertThat(routes.match("GET", "/acme/42/items/1")).isEqualTo(-1);
+    assertThat(routes.match("PUT", "/resource1/42")).isEqualTo(-1);
+  }
+
+  @Test
+  void invalidTable() {
+    assertThatIllegalArgumentException().isThrownBy(() -> RouteTable.wrap(ByteBuffer.allocate(64)));
+
+    byte[] table = new RouteTableWriter().toByteArray();
+    table[5] = 9;
+    assertThatIllegalArgumentException().isThrownBy(() -> RouteTable.wrap(ByteBuffer.wrap(table)))
+            .withMessageContaining("version 9");
+    assertThat(RouteTable.wrap(ByteBuffer.wrap(new RouteTableWriter().toByteArray())).size()).isZero();
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.runtime;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import cn.taketoday.demo.AccountHttpHandler;
+import cn.taketoday.demo.OrderHttpHandler;
+import cn.taketoday.demo.UserHttpHandler;
+import cn.taketoday.web.doc.DocConfig;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import infra.http.HttpMethod;
+import infra.lang.Constant;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class RuntimeOpenAPITests {
+
+  private static List<HandlerRegistration> register(Class<?>... handlerTypes) {
+    ArrayList<HandlerRegistration> registrations = new ArrayList<>();
+    for (Class<?> handlerType : handlerTypes) {
+      for (Method method : handlerType.getMethods()) {
+        if (!method.isBridge() && method.getDeclaringClass() != Object.class) {
+          registrations.add(HandlerRegistration.of(handlerType, method));
+        }
+      }
+    }
+    return registrations;
+  }
+
+  private static Map<String, List<PathItem.HttpMethod>> operations(OpenAPI openAPI) {
+    TreeMap<String, List<PathItem.HttpMethod>> operations = new TreeMap<>();
+    openAPI.getPaths().forEach((path, item) -> operations.put(path, List.copyOf(item.readOperationsMap().keySet())));
+    return operations;
+  }
+
+  @Test
+  void sameOperationsAsSourceModel() {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setEncoding(Constant.DEFAULT_ENCODING);
+    projectBuilder.addSourceTree(new File("src/test/java/cn/taketoday/demo"));
+    OpenAPI source = new OpenAPIModelFactory().createOpenAPI(new DocConfig(), projectBuilder);
+
+    OpenAPI runtime = new RuntimeOpenAPIFactory().createOpenAPI(
+            register(AccountHttpHandler.class, OrderHttpHandler.class, UserHttpHandler.class));
+
+    assertThat(operations(runtime)).isEqualTo(operations(source));
+    assertThat(runtime.getPaths().get("/api/accounts/{id}").getGet().getTags()).containsExactly("AccountHttpHandler");
+    // parameters without @Nullable are required
+    assertThat(runtime.getPaths().get("/api/users/{id}").getGet().getParameters().get(0).getRequired()).isTrue();
+    assertThat(source.getPaths().get("/api/users/{id}").getGet().getParameters().get(0).getRequired()).isTrue();
+  }
+
+  @Test
+  void registeredMappingTakesPrecedence() throws Exception {
+    Method method = UserHttpHandler.class.getMethod("getById", long.class);
+    OpenAPI openAPI = new RuntimeOpenAPIFactory().createOpenAPI(List.of(
+            new HandlerRegistration(UserHttpHandler.class, method, List.of("/internal/users/{id}"), List.of(HttpMethod.HEAD))));
+
+    assertThat(openAPI.getPaths()).containsOnlyKeys("/internal/users/{id}");
+    assertThat(openAPI.getPaths().get("/internal/users/{id}").getHead()).isNotNull();
+  }
+
+  @Test
+  void rebuiltOnlyWhenRegistrationsChange() {
+    ArrayList<HandlerRegistration> registrations = new ArrayList<>(register(UserHttpHandler.class));
+    RuntimeOpenAPI runtimeOpenAPI = new RuntimeOpenAPI(() -> List.copyOf(registrations));
+
+    RuntimeOpenAPI.Snapshot first = runtimeOpenAPI.getSnapshot();
+    assertThat(runtimeOpenAPI.getSnapshot()).isSameAs(first);
+    assertThat(runtimeOpenAPI.getOpenAPI()).isSameAs(first.openAPI());
+
+    registrations.addAll(register(OrderHttpHandler.class));
+    RuntimeOpenAPI.Snapshot second = runtimeOpenAPI.getSnapshot();
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.version()).isEqualTo(first.version() + 1);
+    assertThat(second.openAPI().getPaths()).hasSizeGreaterThan(first.openAPI().getPaths().size());
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.schema;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class TypeSignatureTests {
+
+  @Test
+  void interned() {
+    TypeSignature user = TypeSignature.of("com.example.User");
+    TypeSignature page = TypeSignature.of("com.example.Page", List.of(TypeSignature.of("java.util.List", List.of(user))));
+    int count = TypeSignature.internedCount();
+    TypeSignature same = TypeSignature.of("com.example.Page",
+            List.of(TypeSignature.of("java.util.List", List.of(TypeSignature.of("com.example.User")))));
+
+    assertThat(same).isSameAs(page);
+    // nothing new interned, released signatures may have been removed since
+    assertThat(TypeSignature.internedCount()).isLessThanOrEqualTo(count);
+    assertThat(TypeSignature.of("com.example.Page", List.of(user))).isNotSameAs(page);
+    assertThat(TypeSignature.of("com.example.User", List.of(), 1).getComponentType()).isSameAs(user);
+    assertThat(page.getRawType()).isSameAs(TypeSignature.of("com.example.Page"));
+    assertThat(page).hasToString("com.example.Page<java.util.List<com.example.User>>");
+    assertThat(page.getSimpleName()).isEqualTo("Page");
+  }
+
+  @Test
+  void releasedSignaturesAreRemoved() throws Exception {
+    TypeSignature.of("com.example.Released", List.of(TypeSignature.of("com.example.Argument")));
+    int count = TypeSignature.internedCount();
+    for (int i = 0; i < 20 && TypeSignature.internedCount() >= count; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(TypeSignature.internedCount()).isLessThan(count);
+  }
+
+  @Test
+  void mentions() {
+    TypeSignature page = TypeSignature.of("com.example.Page", List.of(TypeSignature.of("com.example.User")));
+    assertThat(page.mentions(Set.of("com.example.User"))).isTrue();
+    assertThat(page.mentions(Set.of("com.example.Page"))).isTrue();
+    assertThat(page.mentions(Set.of("com.example.Order"))).isFalse();
+  }
+
+  @Test
+  void parse() {
+    TypeSignature user = TypeSignature.of("com.example.User");
+    Map<String, TypeSignature> bindings = Map.of("T", user);
+
+    assertThat(TypeResolver.parse("? extends java.util.Map<java.lang.String, T[]>", bindings))
+            .isSameAs(TypeSignature.of("java.util.Map", List.of(TypeSignature.of("java.lang.String"), TypeSignature.of("com.example.User", List.of(), 1))));
+    assertThat(TypeResolver.parse("? super T", bindings)).isSameAs(TypeSignature.OBJECT);
+    assertThat(TypeResolver.parse("?", bindings)).isSameAs(TypeSignature.OBJECT);
+    assertThat(TypeResolver.parse("T", bindings)).isSameAs(user);
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.source;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class SourcePlannerTests {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void duplicateAndNestedRoots() throws Exception {
+    Path small = write("small/src/a/A.java", "package a; class A {}");
+    Path large = write("large/src/b/B.java", "package b; class B { int x; int y; int z; }").getParent().getParent();
+    write("large/src/b/generated/C.java", "package b.generated; class C {}");
+
+    SourcePlan plan = new SourcePlanner()
+            .addRoot(small.getParent().getParent().toFile())
+            .addRoot(tempDir.resolve("small/src/../src").toFile())
+            .addRoot(large.toFile())
+            .addRoot(large.resolve("b/generated").toFile())
+            .addRoot(tempDir.resolve("missing").toFile())
+            .plan();
+
+    assertThat(plan.getUnits()).extracting(SourceUnit::path)
+            .containsExactly(large.toRealPath(), tempDir.resolve("small/src").toRealPath());
+    assertThat(plan.getUnits().get(0).fileCount()).isEqualTo(2);
+    assertThat(plan.getOverlaps()).extracting(SourcePlan.Overlap::nested).containsExactlyInAnyOrder(false, true);
+    assertThat(plan.getMissing()).hasSize(1);
+    assertThat(plan.getFileCount(SourceUnit.Kind.DIRECTORY)).isEqualTo(3);
+  }
+
+  @Test
+  void filteredWalk() throws Exception {
+    write("src/com/example/api/A.java", "package com.example.api; class A {}");
+    write("src/com/example/api/generated/G.java", "package com.example.api.generated; class G {}");
+    write("src/com/example/internal/I.java", "package com.example.internal; class I {}");
+    write("src/com/example/internal/impl/J.java", "package com.example.internal.impl; class J {}");
+    write("src/org/other/O.java", "package org.other; class O {}");
+
+    SourceFilter filter = new SourceFilter(List.of("com.example.**"),
+            List.of("com.example.internal.**"), List.of(), List.of("**/generated/**"));
+    SourcePlan plan = new SourcePlanner().addRoot(tempDir.resolve("src").toFile()).setFilter(filter).plan();
+
+    assertThat(plan.getUnits().get(0).files()).extracting(path -> path.getFileName().toString())
+            .containsExactly("A.java");
+    assertThat(filter.isPruned("org")).isTrue();
+    assertThat(filter.isPruned("com/example/internal")).isTrue();
+    assertThat(filter.isPruned("com/example")).isFalse();
+    assertThat(filter.isPruned("com/example/api/generated")).isTrue();
+  }
+
+  @Test
+  void loadPlan() throws Exception {
+    for (int i = 0; i < ParallelSourceLoader.BATCH_SIZE + 10; i++) {
+      write("src/p/C" + i + ".java", "package p; public class C" + i + " {}");
+    }
+    SourcePlan plan = new SourcePlanner().addRoot(tempDir.resolve("src").toFile()).plan();
+
+    GenerationMetrics metrics = new GenerationMetrics();
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    int parsed = new ParallelSourceLoader(4, StandardCharsets.UTF_8, metrics).load(plan, projectBuilder);
+
+    assertThat(parsed).isEqualTo(ParallelSourceLoader.BATCH_SIZE + 10);
+    assertThat(projectBuilder.getClasses()).hasSize(parsed);
+    assertThat(metrics.getCount(GenerationMetrics.FILES)).isEqualTo(parsed);
+    assertThat(projectBuilder.getClassByName("p.C0").getSource().getURL())
+            .isEqualTo(tempDir.toRealPath().resolve("src/p/C0.java").toUri().toURL());
+  }
+
+  @Test
+  void loadSourcesJar() throws Exception {
+    Path jar = tempDir.resolve("lib-sources.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      for (int i = 0; i < ParallelSourceLoader.BATCH_SIZE * 2 + 10; i++) {
+        out.putNextEntry(new JarEntry("q/D" + i + ".java"));
+        out.write(("package q; public class D" + i + " {}").getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+      }
+    }
+    SourcePlan plan = new SourcePlanner().addJar(jar.toFile()).plan();
+
+    GenerationMetrics metrics = new GenerationMetrics();
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    int parsed = new ParallelSourceLoader(2, StandardCharsets.UTF_8, metrics).load(plan, projectBuilder);
+
+    assertThat(parsed).isEqualTo(ParallelSourceLoader.BATCH_SIZE * 2 + 10);
+    assertThat(projectBuilder.getClasses()).hasSize(parsed);
+    assertThat(metrics.getCount(GenerationMetrics.SOURCES_JARS)).isEqualTo(1);
+    assertThat(metrics.getCount(GenerationMetrics.JAR_FILES)).isEqualTo(parsed);
+    assertThat(projectBuilder.getClassByName("q.D300").getSource().getURL())
+            .hasToString("jar:" + jar.toRealPath().toUri() + "!/q/D300.java");
+  }
+
+  private Path write(String path, String content) throws Exception {
+    Path file = tempDir.resolve(path);
+    Files.createDirectories(file.getParent());
+    return Files.writeString(file, content);
+  }
+
+}
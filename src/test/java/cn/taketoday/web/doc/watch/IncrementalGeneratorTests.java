@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.watch;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.parser.ParseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import cn.taketoday.web.doc.GenerationMetrics;
+import cn.taketoday.web.doc.openapi.DocumentGroup;
+import cn.taketoday.web.doc.openapi.OpenAPIJson;
+import cn.taketoday.web.doc.openapi.OpenAPIModelFactory;
+import cn.taketoday.web.doc.source.ParallelSourceLoader;
+import cn.taketoday.web.doc.source.SourcePlanner;
+import cn.taketoday.web.doc.watch.IncrementalGenerator.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+class IncrementalGeneratorTests {
+
+  @TempDir
+  Path tempDir;
+
+  private final ArrayList<ParseException> parseErrors = new ArrayList<>();
+
+  @Test
+  void dependentsAreExtractedAgain() throws Exception {
+    Path demo = copyDemo();
+    File output = tempDir.resolve("openapi.json").toFile();
+    File groupDir = tempDir.resolve("groups").toFile();
+    List<DocumentGroup> groups = List.of(
+            new DocumentGroup("users", List.of(), List.of(), List.of(), List.of("/api/users")),
+            new DocumentGroup("accounts", List.of(), List.of(), List.of(), List.of("/api/accounts")));
+    IncrementalGenerator generator = createGenerator(output, groups, groupDir);
+
+    assertThat(paths(output)).contains("/api/accounts/{id}", "/api/users/{id}");
+
+    // a base class change reaches the controllers extending it
+    Path base = demo.resolve("CrudHttpHandler.java");
+    Files.writeString(base, Files.readString(base).replace("@DELETE(\"/{id}\")", "@DELETE(\"/{id}/remove\")"));
+    Update update = generator.update(Set.of(base));
+
+    assertThat(paths(output)).contains("/api/accounts/{id}/remove", "/api/users/{id}");
+    assertThat(paths(new File(groupDir, "accounts.json"))).contains("/api/accounts/{id}/remove");
+    assertThat(update.affectedFiles()).isGreaterThanOrEqualTo(2).isLessThan(generator.getSourceCount());
+    assertThat(update.groups()).isEqualTo(1);
+  }
+
+  @Test
+  void deletedFileIsRemoved() throws Exception {
+    Path demo = copyDemo();
+    File output = tempDir.resolve("openapi.json").toFile();
+    File groupDir = tempDir.resolve("groups").toFile();
+    List<DocumentGroup> groups = List.of(new DocumentGroup("users", List.of(), List.of(), List.of(), List.of("/api/users")));
+    IncrementalGenerator generator = createGenerator(output, groups, groupDir);
+    int sources = generator.getSourceCount();
+
+    Path handler = demo.resolve("UserHttpHandler.java");
+    Files.delete(handler);
+    Update update = generator.update(Set.of(handler));
+
+    assertThat(paths(output)).contains("/api/accounts/{id}").noneMatch(path -> path.startsWith("/api/users"));
+    assertThat(paths(new File(groupDir, "users.json"))).isEmpty();
+    assertThat(update.groups()).isEqualTo(1);
+    assertThat(generator.getSourceCount()).isEqualTo(sources - 1);
+  }
+
+  @Test
+  void changedModelIsResolvedAgain() throws Exception {
+    Path demo = copyDemo();
+    File output = tempDir.resolve("openapi.json").toFile();
+    IncrementalGenerator generator = createGenerator(output, List.of(), tempDir.resolve("groups").toFile());
+    assertThat(properties(output, "User")).containsExactlyInAnyOrder("id", "name", "username");
+
+    // the cached schema of the model is evicted, the handler using it is extracted again
+    Path model = demo.resolve("User.java");
+    String content = Files.readString(model);
+    Files.writeString(model, content.substring(0, content.lastIndexOf('}'))
+            + "  private String email;\n  public String getEmail() { return email; }\n}\n");
+    Update update = generator.update(Set.of(model));
+
+    assertThat(properties(output, "User")).containsExactlyInAnyOrder("id", "name", "username", "email");
+    assertThat(update.affectedFiles()).isGreaterThanOrEqualTo(2);
+  }
+
+  @Test
+  void brokenFileKeepsItsModel() throws Exception {
+    Path demo = copyDemo();
+    Path broken = Files.writeString(demo.resolve("Broken.java"), "package cn.taketoday.demo; class Broken {");
+    File output = tempDir.resolve("openapi.json").toFile();
+    IncrementalGenerator generator = createGenerator(output, List.of(), tempDir.resolve("groups").toFile());
+    int sources = generator.getSourceCount();
+
+    // a file that does not parse at startup is not loaded
+    assertThat(parseErrors).hasSize(1);
+    assertThat(paths(output)).contains("/api/users/{id}");
+
+    // a half-typed file keeps its previous model
+    Path handler = demo.resolve("UserHttpHandler.java");
+    String content = Files.readString(handler);
+    Files.writeString(handler, content.substring(0, content.lastIndexOf('}')) + "  @GET(\"/{id}/half\") public void half(\n");
+    Update update = generator.update(Set.of(handler));
+    assertThat(parseErrors).hasSize(2);
+    assertThat(update.affectedFiles()).isZero();
+    assertThat(paths(output)).contains("/api/users/{id}").doesNotContain("/api/users/{id}/half");
+
+    // fixed files are parsed again
+    Files.writeString(handler, content.replace("@GET(\"/{id}\")", "@GET(\"/{id}/detail\")"));
+    Files.writeString(broken, "package cn.taketoday.demo; class Broken { }");
+    generator.update(Set.of(handler, broken));
+    assertThat(paths(output)).contains("/api/users/{id}/detail");
+    assertThat(generator.getSourceCount()).isEqualTo(sources + 1);
+  }
+
+  /**
+   * Copy the demo sources to the source root of the temp dir
+   *
+   * @return directory of the demo package
+   */
+  private Path copyDemo() throws Exception {
+    Path demo = Files.createDirectories(tempDir.resolve("src/cn/taketoday/demo"));
+    try (Stream<Path> files = Files.list(Path.of("src/test/java/cn/taketoday/demo"))) {
+      for (Path file : files.toList()) {
+        Files.copy(file, demo.resolve(file.getFileName()));
+      }
+    }
+    return demo;
+  }
+
+  /**
+   * Load the source root of the temp dir and write the documents, with
+   * an error handler like the watch task
+   */
+  private IncrementalGenerator createGenerator(File output, List<DocumentGroup> groups, File groupDir) throws Exception {
+    JavaProjectBuilder projectBuilder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+    projectBuilder.setErrorHandler(parseErrors::add);
+    IncrementalGenerator generator = new IncrementalGenerator(projectBuilder,
+            new OpenAPIModelFactory(), StandardCharsets.UTF_8, output, groups, groupDir);
+    new ParallelSourceLoader(2, StandardCharsets.UTF_8, new GenerationMetrics())
+            .setListener(generator.getSourceListener())
+            .load(new SourcePlanner().addRoot(tempDir.resolve("src").toFile()).plan(), projectBuilder);
+    generator.initialize();
+    return generator;
+  }
+
+  private static List<String> properties(File document, String schema) throws Exception {
+    ArrayList<String> result = new ArrayList<>();
+    JsonNode properties = OpenAPIJson.getObjectMapper().readTree(document).path("components")
+            .path("schemas").path(schema).path("properties");
+    properties.fieldNames().forEachRemaining(result::add);
+    return result;
+  }
+
+  private static List<String> paths(File document) throws Exception {
+    ArrayList<String> result = new ArrayList<>();
+    JsonNode paths = OpenAPIJson.getObjectMapper().readTree(document).get("paths");
+    if (paths != null) {
+      paths.fieldNames().forEachRemaining(result::add);
+    }
+    return result;
+  }
+
+}
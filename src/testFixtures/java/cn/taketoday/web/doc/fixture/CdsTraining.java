@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.fixture;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import cn.taketoday.web.doc.fixture.SyntheticCodebase.GeneratedCodebase;
+
+/**
+ * Training workload of the CLI class data sharing archive: a small
+ * project with sources jars and the batch manifest of it. The manifest
+ * generates the project twice, with and without the comment index, so
+ * both sources jar paths are loaded while the archive is recorded.
+ * <pre>{@code
+ * java cn.taketoday.web.doc.fixture.CdsTraining build/web-doc-cli/training
+ * }</pre>
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public final class CdsTraining {
+
+  public static final String MANIFEST = "projects.json";
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: CdsTraining <dir>");
+    }
+    generate(Path.of(args[0]));
+  }
+
+  /**
+   * Generate the training project and manifest
+   *
+   * @param dir target directory
+   * @return the manifest
+   */
+  public static Path generate(Path dir) throws IOException {
+    GeneratedCodebase codebase = SyntheticCodebase.ofEndpoints(40)
+            .setInheritanceDepth(1)
+            .setGenericDepth(2)
+            .setSourcesJars(2)
+            .generate(dir.resolve("project"));
+
+    String sourceRoot = relative(dir, codebase.sourceRoot());
+    String jars = codebase.sourcesJars().stream()
+            .map(jar -> relative(dir, jar))
+            .collect(Collectors.joining("\", \"", "[\"", "\"]"));
+
+    String manifest = """
+            {
+              "output": "out",
+              "cacheDir": "cache",
+              "projects": [
+                { "name": "parsed", "sourceRoots": ["%1$s"], "sourcesJars": %2$s, "commentIndex": false },
+                { "name": "indexed", "sourceRoots": ["%1$s"], "sourcesJars": %2$s, "commentIndex": true }
+              ]
+            }
+            """.formatted(sourceRoot, jars);
+    return Files.writeString(dir.resolve(MANIFEST), manifest);
+  }
+
+  private static String relative(Path dir, Path path) {
+    return dir.relativize(path).toString().replace('\\', '/');
+  }
+
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see [https://www.gnu.org/licenses/]
+ */
+
+package cn.taketoday.web.doc.fixture;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of synthetic projects for scale tests and benchmarks.
+ * <p>
+ * A generated project has controllers spread over modules of 100
+ * controllers, DTOs, generic wrapper types nested up to the configured
+ * depth, a chain of generic base controllers that every controller
+ * inherits mappings from, path constants shared through an
+ * {@code ApiPaths} class (half of the controllers use a static import),
+ * and optionally fake sources jars of library DTOs.
+ * <p>
+ * The same settings always produce byte-identical sources.
+ * <pre>{@code
+ * GeneratedCodebase codebase = SyntheticCodebase.ofEndpoints(1000)
+ *     .setGenericDepth(2)
+ *     .generate(dir);
+ * }</pre>
+ *
+ * @author <a href="https://github.com/TAKETODAY">Harry Yang</a>
+ * @since 1.0
+ */
+public class SyntheticCodebase {
+
+  public static final String BASE_PACKAGE = "com.example.app";
+
+  static final String[] HTTP_METHODS = { "GET", "POST", "PUT", "PATCH", "DELETE" };
+
+  static final int CONTROLLERS_PER_MODULE = 100;
+
+  private int controllers = 2;
+
+  private int endpointsPerController = 5;
+
+  private int dtos = 10;
+
+  private int genericDepth = 1;
+
+  private int inheritanceDepth = 0;
+
+  /**
+   * endpoints the controllers are fitted to, {@code 0} when the controllers are set
+   */
+  private int targetEndpoints;
+
+  private int sourcesJars = 0;
+
+  private int classesPerJar = 50;
+
+  private long seed = 20240127L;
+
+  private boolean annotationStubs;
+
+  /**
+   * Create a generator with default settings
+   */
+  public static SyntheticCodebase builder() {
+    return new SyntheticCodebase();
+  }
+
+  /**
+   * Create a generator for the given number of endpoints, with five
+   * endpoints per controller and one DTO per two controllers. The
+   * endpoints inherited from the base controllers are part of the count,
+   * the number of controllers follows the inheritance depth and the last
+   * controller declares the remaining endpoints. Only a count below the
+   * inherited endpoints of a single controller is exceeded.
+   */
+  public static SyntheticCodebase ofEndpoints(int endpoints) {
+    SyntheticCodebase codebase = builder()
+            .setEndpointsPerController(Math.min(5, endpoints))
+            .setDtos(Math.max(1, endpoints / 10));
+    codebase.targetEndpoints = endpoints;
+    return codebase;
+  }
+
+  public SyntheticCodebase setControllers(int controllers) {
+    this.controllers = controllers;
+    this.targetEndpoints = 0;
+    return this;
+  }
+
+  /**
+   * Returns the number of controllers of the generated project
+   */
+  public int getControllers() {
+    if (targetEndpoints > 0) {
+      return Math.max(1, targetEndpoints / (endpointsPerController + inheritanceDepth));
+    }
+    return controllers;
+  }
+
+  public SyntheticCodebase setEndpointsPerController(int endpointsPerController) {
+    this.endpointsPerController = endpointsPerController;
+    return this;
+  }
+
+  public SyntheticCodebase setDtos(int dtos) {
+    this.dtos = Math.max(1, dtos);
+    return this;
+  }
+
+  /**
+   * Nesting depth of generic response types,
+   * {@code 0} for {@code Dto1}, {@code 2} for {@code Result<Page<Dto1>>}
+   */
+  public SyntheticCodebase setGenericDepth(int genericDepth) {
+    this.genericDepth = genericDepth;
+    return this;
+  }
+
+  /**
+   * Number of generic base controllers every controller inherits from,
+   * each base controller declares one mapping
+   */
+  public SyntheticCodebase setInheritanceDepth(int inheritanceDepth) {
+    this.inheritanceDepth = inheritanceDepth;
+    return this;
+  }
+
+  public SyntheticCodebase setSourcesJars(int sourcesJars) {
+    this.sourcesJars = sourcesJars;
+    return this;
+  }
+
+  public SyntheticCodebase setClassesPerJar(int classesPerJar) {
+    this.classesPerJar = classesPerJar;
+    return this;
+  }
+
+  public SyntheticCodebase setSeed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Also generate sources of the mapping annotations, so the project
+   * compiles without today-web on the classpath
+   */
+  public SyntheticCodebase setAnnotationStubs(boolean annotationStubs) {
+    this.annotationStubs = annotationStubs;
+    return this;
+  }
+
+  /**
+   * Returns the number of endpoints of the generated project
+   */
+  public int getEndpoints() {
+    int controllers = getControllers();
+    return controllers * inheritanceDepth
+            + (controllers - 1) * endpointsPerController + getDeclaredEndpoints(controllers - 1);
+  }
+
+  /**
+   * Endpoints a controller declares itself, the last controller of a
+   * target count also declares the rest of the count
+   */
+  private int getDeclaredEndpoints(int controller) {
+    int controllers = getControllers();
+    if (targetEndpoints > 0 && controller == controllers - 1) {
+      int rest = targetEndpoints - controllers * (endpointsPerController + inheritanceDepth);
+      return Math.max(0, endpointsPerController + rest);
+    }
+    return endpointsPerController;
+  }
+
+  /**
+   * Generate the project
+   *
+   * @param dir target directory, sources go to {@code dir/src/main/java}
+   * and jars to {@code dir/libs}
+   */
+  public GeneratedCodebase generate(Path dir) throws IOException {
+    Random random = new Random(seed);
+    Path sourceRoot = Files.createDirectories(dir.resolve("src/main/java"));
+    Path basePackage = Files.createDirectories(sourceRoot.resolve(BASE_PACKAGE.replace('.', '/')));
+
+    if (annotationStubs) {
+      writeAnnotationStubs(Files.createDirectories(sourceRoot.resolve("infra/web/annotation")));
+    }
+    writeApiPaths(basePackage);
+    writeSupport(Files.createDirectories(basePackage.resolve("support")));
+    Path model = Files.createDirectories(basePackage.resolve("model"));
+    for (int i = 0; i < dtos; i++) {
+      writeDto(model, i, random);
+    }
+    int controllers = getControllers();
+    for (int i = 0; i < controllers; i++) {
+      Path module = Files.createDirectories(basePackage.resolve("module" + module(i)));
+      writeController(module, i, random);
+    }
+
+    ArrayList<Path> jars = new ArrayList<>();
+    if (sourcesJars > 0) {
+      Path libs = Files.createDirectories(dir.resolve("libs"));
+      for (int i = 0; i < sourcesJars; i++) {
+        jars.add(writeSourcesJar(libs, i));
+      }
+    }
+    return new GeneratedCodebase(sourceRoot, jars, controllers, getEndpoints());
+  }
+
+  private static int module(int controller) {
+    return controller / CONTROLLERS_PER_MODULE;
+  }
+
+  private void writeApiPaths(Path dir) throws IOException {
+    StringBuilder source = new StringBuilder()
+            .append("package ").append(BASE_PACKAGE).append(";\n\n")
+            .append("/**\n * Shared API paths\n */\n")
+            .append("public final class ApiPaths {\n\n")
+            .append("  public static final String API = \"/api\";\n");
+    int modules = module(getControllers() - 1) + 1;
+    for (int m = 0; m < modules; m++) {
+      source.append("\n  public static final class Module").append(m).append(" {\n\n")
+              .append("    public static final String BASE = API + \"/module").append(m).append("\";\n")
+              .append("  }\n");
+    }
+    source.append("}\n");
+    write(dir.resolve("ApiPaths.java"), source);
+  }
+
+  private static void writeAnnotationStubs(Path dir) throws IOException {
+    for (String name : new String[] { "GET", "POST", "PUT", "PATCH", "DELETE", "RequestMapping" }) {
+      write(dir.resolve(name + ".java"), """
+              package infra.web.annotation;
+
+              import java.lang.annotation.*;
+
+              @Retention(RetentionPolicy.RUNTIME)
+              @Target({ ElementType.TYPE, ElementType.METHOD })
+              public @interface %s {
+
+                String[] value() default {};
+
+                String[] path() default {};
+              }
+              """.formatted(name));
+    }
+    write(dir.resolve("RestController.java"), """
+            package infra.web.annotation;
+
+            import java.lang.annotation.*;
+
+            @Retention(RetentionPolicy.RUNTIME)
+            @Target(ElementType.TYPE)
+            public @interface RestController {
+            }
+            """);
+    for (String name : new String[] { "PathVariable", "RequestBody" }) {
+      write(dir.resolve(name + ".java"), """
+              package infra.web.annotation;
+
+              import java.lang.annotation.*;
+
+              @Retention(RetentionPolicy.RUNTIME)
+              @Target(ElementType.PARAMETER)
+              public @interface %s {
+
+                String value() default "";
+              }
+              """.formatted(name));
+    }
+  }
+
+  private void writeSupport(Path dir) throws IOException {
+    write(dir.resolve("Result.java"), """
+            package %s.support;
+
+            /**
+             * Response wrapper
+             *
+             * @param <T> data type
+             */
+            public class Result<T> {
+
+              /** response code */
+              private int code;
+
+              /** response data */
+              private T data;
+
+              public int getCode() { return code; }
+
+              public T getData() { return data; }
+            }
+            """.formatted(BASE_PACKAGE));
+
+    write(dir.resolve("Page.java"), """
+            package %s.support;
+
+            import java.util.List;
+
+            /**
+             * Page of items
+             *
+             * @param <T> item type
+             */
+            public class Page<T> {
+
+              /** page items */
+              private List<T> items;
+
+              /** total items */
+              private long total;
+
+              public List<T> getItems() { return items; }
+
+              public long getTotal() { return total; }
+            }
+            """.formatted(BASE_PACKAGE));
+
+    for (int level = 0; level < inheritanceDepth; level++) {
+      String superClass = level == 0 ? "" : " extends BaseHttpHandler" + (level - 1) + "<T>";
+      write(dir.resolve("BaseHttpHandler" + level + ".java"), """
+              package %1$s.support;
+
+              import infra.web.annotation.GET;
+              import infra.web.annotation.PathVariable;
+
+              /**
+               * Base handler level %2$d
+               *
+               * @param <T> entity type
+               */
+              public abstract class BaseHttpHandler%2$d<T>%3$s {
+
+                /**
+                 * Inherited endpoint of level %2$d
+                 *
+                 * @param id entity id
+                 */
+                @GET("/base%2$d/{id}")
+                public T base%2$d(@PathVariable long id) {
+                  return null;
+                }
+              }
+              """.formatted(BASE_PACKAGE, level, superClass));
+    }
+  }
+
+  private void writeDto(Path dir, int index, Random random) throws IOException {
+    StringBuilder source = new StringBuilder()
+            .append("package ").append(BASE_PACKAGE).append(".model;\n\n")
+            .append("import java.util.List;\n\n")
+            .append("/**\n * DTO ").append(index).append("\n */\n")
+            .append("public class Dto").append(index).append(" {\n\n")
+            .append("  /** identifier */\n  private long id;\n\n")
+            .append("  /** display name */\n  private String name;\n");
+    if (dtos > 1) {
+      int child = random.nextInt(dtos);
+      source.append("\n  /** child of dto ").append(index).append(" */\n")
+              .append("  private Dto").append(child).append(" child;\n")
+              .append("\n  /** items of dto ").append(index).append(" */\n")
+              .append("  private List<Dto").append(random.nextInt(dtos)).append("> items;\n");
+    }
+    source.append("\n  public long getId() {\n    return id;\n  }\n")
+            .append("\n  public String getName() {\n    return name;\n  }\n")
+            .append("}\n");
+    write(dir.resolve("Dto" + index + ".java"), source);
+  }
+
+  private void writeController(Path dir, int index, Random random) throws IOException {
+    int module = module(index);
+    boolean staticImport = index % 2 == 1;
+    int entity = random.nextInt(dtos);
+
+    StringBuilder source = new StringBuilder()
+            .append("package ").append(BASE_PACKAGE).append(".module").append(module).append(";\n\n")
+            .append("import ").append(BASE_PACKAGE).append(".ApiPaths;\n")
+            .append("import ").append(BASE_PACKAGE).append(".model.*;\n")
+            .append("import ").append(BASE_PACKAGE).append(".support.*;\n")
+            .append("import infra.web.annotation.DELETE;\n")
+            .append("import infra.web.annotation.GET;\n")
+            .append("import infra.web.annotation.PATCH;\n")
+            .append("import infra.web.annotation.POST;\n")
+            .append("import infra.web.annotation.PUT;\n")
+            .append("import infra.web.annotation.PathVariable;\n")
+            .append("import infra.web.annotation.RequestBody;\n")
+            .append("import infra.web.annotation.RequestMapping;\n")
+            .append("import infra.web.annotation.RestController;\n");
+    if (staticImport) {
+      source.append("\nimport static ").append(BASE_PACKAGE).append(".ApiPaths.API;\n");
+    }
+    source.append("\n/**\n * Controller ").append(index).append("\n */\n")
+            .append("@RestController\n");
+    if (staticImport) {
+      source.append("@RequestMapping(API + \"/module").append(module).append("/c").append(index).append("\")\n");
+    }
+    else {
+      source.append("@RequestMapping(ApiPaths.Module").append(module).append(".BASE + \"/c").append(index).append("\")\n");
+    }
+    source.append("public class Controller").append(index).append("HttpHandler");
+    if (inheritanceDepth > 0) {
+      source.append(" extends BaseHttpHandler").append(inheritanceDepth - 1).append("<Dto").append(entity).append('>');
+    }
+    source.append(" {\n");
+
+    int endpoints = getDeclaredEndpoints(index);
+    for (int e = 0; e < endpoints; e++) {
+      String httpMethod = HTTP_METHODS[e % HTTP_METHODS.length];
+      boolean body = httpMethod.equals("POST") || httpMethod.equals("PUT") || httpMethod.equals("PATCH");
+      String returnType = genericType(random.nextInt(dtos), random);
+
+      source.append("\n  /**\n   * Endpoint ").append(e).append(" of controller ").append(index).append("\n   *\n")
+              .append("   * @param id resource id\n");
+      if (body) {
+        source.append("   * @param body request body\n");
+      }
+      source.append("   */\n")
+              .append("  @").append(httpMethod).append("(\"/e").append(e).append("/{id}\")\n")
+              .append("  public ").append(returnType).append(" e").append(e).append("(@PathVariable long id");
+      if (body) {
+        source.append(", @RequestBody Dto").append(random.nextInt(dtos)).append(" body");
+      }
+      source.append(") {\n    return null;\n  }\n");
+    }
+    source.append("}\n");
+    write(dir.resolve("Controller" + index + "HttpHandler.java"), source);
+  }
+
+  private String genericType(int dto, Random random) {
+    String type = "Dto" + dto;
+    for (int i = 0; i < genericDepth; i++) {
+      type = (random.nextBoolean() ? "Result<" : "Page<") + type + '>';
+    }
+    return type;
+  }
+
+  private Path writeSourcesJar(Path dir, int index) throws IOException {
+    Path jar = dir.resolve("library" + index + "-1.0-sources.jar");
+    String packageName = "com.example.lib" + index;
+    try (OutputStream out = Files.newOutputStream(jar);
+            JarOutputStream jarOut = new JarOutputStream(out)) {
+      for (int i = 0; i < classesPerJar; i++) {
+        String source = """
+                package %1$s;
+
+                /**
+                 * Library DTO %2$d of library %3$d
+                 */
+                public class LibDto%2$d {
+
+                  /** library field */
+                  private String value;
+
+                  /**
+                   * Get value
+                   *
+                   * @return value
+                   */
+                  public String getValue() { return value; }
+                }
+                """.formatted(packageName, i, index);
+        JarEntry entry = new JarEntry(packageName.replace('.', '/') + "/LibDto" + i + ".java");
+        // deterministic jar content
+        entry.setLastModifiedTime(FileTime.fromMillis(0));
+        jarOut.putNextEntry(entry);
+        jarOut.write(source.getBytes(StandardCharsets.UTF_8));
+        jarOut.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  private static void write(Path file, CharSequence source) throws IOException {
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Delete a generated directory
+   */
+  public static void delete(Path dir) {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(dir)) {
+      List<Path> paths = files.sorted(Comparator.reverseOrder()).toList();
+      for (Path file : paths) {
+        Files.delete(file);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * A generated project
+   *
+   * @param sourceRoot source root
+   * @param sourcesJars fake sources jars
+   * @param controllers number of controllers
+   * @param endpoints number of endpoints
+   */
+  public record GeneratedCodebase(Path sourceRoot, List<Path> sourcesJars, int controllers, int endpoints) {
+
+  }
+
+}